@@ -0,0 +1,117 @@
+package com.maccimo.hugeenum.generator;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Exact sizes of class generated for given element list, compared with JVM limits.
+ *
+ * Built by {@link IEnumGenerator#plan()} without generating the class. Members added by features are not counted.
+ */
+public class CapacityPlan {
+
+    /**
+     * Maximum value of {@code constant_pool_count}, that is number of constant pool entries plus one.
+     */
+    public static final int MAX_CONSTANT_POOL_COUNT = 65_535;
+
+    /**
+     * Maximum code length of a method.
+     */
+    public static final int MAX_CODE_SIZE = 65_535;
+
+    private final int elementCount;
+    private final int constantPoolCount;
+    private final Map<String, Integer> codeSizes;
+    private final long classSize;
+    private final int firstOverflowIndex;
+    private final String overflowLimit;
+
+    CapacityPlan(int elementCount, int constantPoolCount, Map<String, Integer> codeSizes, long classSize, int firstOverflowIndex, String overflowLimit) {
+        this.elementCount = elementCount;
+        this.constantPoolCount = constantPoolCount;
+        this.codeSizes = codeSizes;
+        this.classSize = classSize;
+        this.firstOverflowIndex = firstOverflowIndex;
+        this.overflowLimit = overflowLimit;
+    }
+
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * @return Value of {@code constant_pool_count}: number of entries plus one
+     */
+    public int getConstantPoolCount() {
+        return constantPoolCount;
+    }
+
+    /**
+     * @return Constant pool entries left, negative on overflow
+     */
+    public int getConstantPoolHeadroom() {
+        return MAX_CONSTANT_POOL_COUNT - constantPoolCount;
+    }
+
+    /**
+     * @return Code length of every method, keyed by name followed by descriptor
+     */
+    public Map<String, Integer> getCodeSizes() {
+        return Collections.unmodifiableMap(codeSizes);
+    }
+
+    /**
+     * @return Name followed by descriptor of method with the longest code
+     */
+    public String getLargestMethod() {
+        String result = null;
+
+        for (Map.Entry<String, Integer> entry : codeSizes.entrySet()) {
+            if (result == null || entry.getValue() > codeSizes.get(result)) {
+                result = entry.getKey();
+            }
+        }
+
+        return result;
+    }
+
+    public int getLargestCodeSize() {
+        String largestMethod = getLargestMethod();
+
+        return (largestMethod == null) ? 0 : codeSizes.get(largestMethod);
+    }
+
+    /**
+     * @return Code bytes left in method with the longest code, negative on overflow
+     */
+    public int getCodeSizeHeadroom() {
+        return MAX_CODE_SIZE - getLargestCodeSize();
+    }
+
+    /**
+     * @return Size of class file in bytes
+     */
+    public long getClassSize() {
+        return classSize;
+    }
+
+    public boolean fits() {
+        return firstOverflowIndex < 0;
+    }
+
+    /**
+     * @return Index of the first element which does not fit or {@code -1} if all elements fit
+     */
+    public int getFirstOverflowIndex() {
+        return firstOverflowIndex;
+    }
+
+    /**
+     * @return Description of limit exceeded by the first element which does not fit or {@code null} if all elements fit
+     */
+    public String getOverflowLimit() {
+        return overflowLimit;
+    }
+
+}
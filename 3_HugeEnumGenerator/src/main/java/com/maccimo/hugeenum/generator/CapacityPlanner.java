@@ -0,0 +1,133 @@
+package com.maccimo.hugeenum.generator;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running sizes of class being planned by {@link IEnumGenerator#plan()}.
+ *
+ * Generator builds a probe class from the first {@link #PROBE_ELEMENT_COUNT} elements, so sizes of members
+ * not depending on element count are read from real bytecode. Then generator adds constants and code of every
+ * remaining element the same way its bytecode generation does, and checks limits after each element.
+ * Constants added with {@link #addConstant(String)} are deduplicated by content, same as ASM does.
+ */
+class CapacityPlanner {
+
+    /**
+     * Number of elements in probe class. Constants and code of these elements are read from probe class as is.
+     */
+    static final int PROBE_ELEMENT_COUNT = 512;
+
+    private final Set<String> constants;
+    private final Map<String, Integer> codeSizes;
+    private int constantPoolCount;
+    private long classSize;
+
+    private int firstOverflowIndex = -1;
+    private String overflowLimit;
+    private String overflowMethod;
+
+    CapacityPlanner(byte[] probeClassBytes) {
+        ClassFileLayout probe = ClassFileLayout.read(probeClassBytes);
+
+        this.constants = new HashSet<>(probe.getConstants());
+        this.codeSizes = new LinkedHashMap<>(probe.getCodeSizes());
+        this.constantPoolCount = probe.getConstantPoolCount();
+        this.classSize = probe.getClassSize();
+    }
+
+    boolean hasConstant(String key) {
+        return constants.contains(key);
+    }
+
+    /**
+     * Add constant unless it is already in the pool.
+     */
+    void addConstant(String key) {
+        if (constants.add(key)) {
+            constantPoolCount++;
+            classSize += ClassFileLayout.constantSize(key);
+        }
+    }
+
+    /**
+     * Add constant even if the same constant is already in the pool.
+     */
+    void addDuplicateConstant(String key) {
+        constants.add(key);
+        constantPoolCount++;
+        classSize += ClassFileLayout.constantSize(key);
+    }
+
+    /**
+     * Add constants never looked up by content.
+     */
+    void addConstants(int count, long size) {
+        constantPoolCount += count;
+        classSize += size;
+    }
+
+    void removeConstant(String key) {
+        if (constants.remove(key)) {
+            constantPoolCount--;
+            classSize -= ClassFileLayout.constantSize(key);
+        }
+    }
+
+    void addClassBytes(long size) {
+        classSize += size;
+    }
+
+    /**
+     * @param method Method name followed by descriptor
+     */
+    void addCode(String method, int size) {
+        int codeSize = codeSizes.merge(method, size, Integer::sum);
+        classSize += size;
+
+        if (codeSize > CapacityPlan.MAX_CODE_SIZE && overflowMethod == null) {
+            overflowMethod = method;
+        }
+    }
+
+    /**
+     * Add method with {@code Code} attribute having no exception table and no attributes.
+     */
+    void addMethod(String method, int codeSize) {
+        codeSizes.put(method, 0);
+        classSize += ClassFileLayout.METHOD_INFO_SIZE;
+        addCode(method, codeSize);
+    }
+
+    /**
+     * Check limits after element is added.
+     *
+     * @param extraConstantCount Constants depending on element count not added yet
+     * @param method Method with code depending on element count not added yet or {@code null}
+     * @param extraCodeSize Size of such code
+     */
+    void check(int elementIndex, int extraConstantCount, String method, int extraCodeSize) {
+        if (firstOverflowIndex >= 0) {
+            return;
+        }
+
+        if (constantPoolCount + extraConstantCount > CapacityPlan.MAX_CONSTANT_POOL_COUNT) {
+            overflowLimit = "constant pool count";
+        } else if (overflowMethod != null) {
+            overflowLimit = "code size of " + overflowMethod;
+        } else if (method != null && codeSizes.get(method) + extraCodeSize > CapacityPlan.MAX_CODE_SIZE) {
+            overflowLimit = "code size of " + method;
+        } else {
+            return;
+        }
+
+        firstOverflowIndex = elementIndex;
+    }
+
+    CapacityPlan toPlan(int elementCount) {
+        return new CapacityPlan(elementCount, constantPoolCount, new LinkedHashMap<>(codeSizes), classSize, firstOverflowIndex, overflowLimit);
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumCategories;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Categories declared by item list sections.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code static final int CATEGORY_<NAME>} - index of every category</li>
+ *     <li>{@code boolean isIn(int)} - membership test</li>
+ *     <li>{@code int category()} - category index of element or {@code -1}</li>
+ *     <li>{@code static Set<E> categoryElements(int)} - immutable set of category elements</li>
+ *     <li>{@code static HugeEnumCategories categories()} - all categories</li>
+ * </ul>
+ * Category ranges or bitsets are precomputed and stored in the constant pool
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumCategories}).
+ * Not available via {@code -f}: categories are defined by item list.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class CategoriesEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String CLASS_NAME_CATEGORIES = "com/maccimo/hugeenum/runtime/HugeEnumCategories";
+
+    private static final String MEMBER_NAME_CATEGORY_PREFIX = "CATEGORY_";
+    private static final String MEMBER_NAME_CATEGORIES_FIELD = "$CATEGORIES";
+    private static final String MEMBER_NAME_INIT_CATEGORIES = "$initCategories";
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_IS_IN = "isIn";
+    private static final String MEMBER_NAME_CATEGORY = "category";
+    private static final String MEMBER_NAME_CATEGORY_ELEMENTS = "categoryElements";
+    private static final String MEMBER_NAME_CATEGORIES = "categories";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_CONTAINS = "contains";
+    private static final String MEMBER_NAME_CATEGORY_OF = "categoryOf";
+    private static final String MEMBER_NAME_GET_SET = "getSet";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+
+    private static final String DESCRIPTOR_CATEGORIES = "L" + CLASS_NAME_CATEGORIES + ";";
+    private static final String DESCRIPTOR_INT = "I";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+    private static final String DESCRIPTOR_NOARG_CATEGORIES = "()" + DESCRIPTOR_CATEGORIES;
+    private static final String DESCRIPTOR_INT_BOOLEAN = "(I)Z";
+    private static final String DESCRIPTOR_INT_INT = "(I)I";
+    private static final String DESCRIPTOR_INT_INT_BOOLEAN = "(II)Z";
+    private static final String DESCRIPTOR_INT_SET = "(I)Ljava/util/Set;";
+    private static final String DESCRIPTOR_STRING_STRING_OBJECT_ARRAY_CATEGORIES =
+        "(Ljava/lang/String;Ljava/lang/String;[Ljava/lang/Object;)" + DESCRIPTOR_CATEGORIES;
+
+    private final ItemListFile itemList;
+
+    /**
+     * @param itemList Item list with category sections
+     */
+    public CategoriesEnumFeature(ItemListFile itemList) {
+        this.itemList = itemList;
+    }
+
+    /**
+     * @return Name of constant holding category index
+     */
+    public static String getCategoryConstantName(String categoryName) {
+        return MEMBER_NAME_CATEGORY_PREFIX + categoryName.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public String getId() {
+        return "Categories";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Categories declared by item list sections";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+        List<String> categoryNames = itemList.getCategoryNames();
+
+        Set<String> memberNames = new HashSet<>(elementNames);
+        for (String categoryName : categoryNames) {
+            if (!memberNames.add(getCategoryConstantName(categoryName))) {
+                throw new IllegalArgumentException("Duplicate member name: " + getCategoryConstantName(categoryName));
+            }
+        }
+
+        int[] categoryOf = new int[elementNames.size()];
+        for (int i = 0; i < categoryOf.length; i++) {
+            categoryOf[i] = itemList.getCategory(elementNames.get(i));
+        }
+
+        generateFields(classWriter, categoryNames);
+        generateStaticInitializer(classWriter, enumClassInfo, HugeEnumCategories.encodeNames(categoryNames), HugeEnumCategories.encode(categoryNames, categoryOf));
+        generateIsIn(classWriter, enumClassInfo);
+        generateCategory(classWriter, enumClassInfo);
+        generateCategoryElements(classWriter, enumClassInfo);
+        generateCategories(classWriter, enumClassInfo);
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_CATEGORIES;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateFields(ClassWriter classWriter, List<String> categoryNames) {
+        for (int category = 0; category < categoryNames.size(); category++) {
+            classWriter
+                .visitField(
+                    ACC_PUBLIC | ACC_STATIC | ACC_FINAL,
+                    getCategoryConstantName(categoryNames.get(category)),
+                    DESCRIPTOR_INT,
+                    null,
+                    category
+                )
+                .visitEnd();
+        }
+
+        // Not final: field is initialized outside of <clinit>
+        classWriter
+            .visitField(
+                ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                MEMBER_NAME_CATEGORIES_FIELD,
+                DESCRIPTOR_CATEGORIES,
+                null,
+                null
+            )
+            .visitEnd();
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, String names, String table) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_CATEGORIES,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(names));
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(table));
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_CATEGORIES, MEMBER_NAME_DECODE, DESCRIPTOR_STRING_STRING_OBJECT_ARRAY_CATEGORIES, false);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CATEGORIES_FIELD, DESCRIPTOR_CATEGORIES);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(1 + PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateIsIn(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_IS_IN,
+            DESCRIPTOR_INT_BOOLEAN,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CATEGORIES_FIELD, DESCRIPTOR_CATEGORIES);
+        methodVisitor.visitVarInsn(ILOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_CATEGORIES, MEMBER_NAME_CONTAINS, DESCRIPTOR_INT_INT_BOOLEAN, false);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(3, 2);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateCategory(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_CATEGORY,
+            DESCRIPTOR_NOARG_INT,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CATEGORIES_FIELD, DESCRIPTOR_CATEGORIES);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_CATEGORIES, MEMBER_NAME_CATEGORY_OF, DESCRIPTOR_INT_INT, false);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateCategoryElements(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_CATEGORY_ELEMENTS,
+            DESCRIPTOR_INT_SET,
+            "(I)Ljava/util/Set<" + enumClassInfo.getBinaryEnumClassName() + ">;",
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CATEGORIES_FIELD, DESCRIPTOR_CATEGORIES);
+        methodVisitor.visitVarInsn(ILOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_CATEGORIES, MEMBER_NAME_GET_SET, DESCRIPTOR_INT_SET, false);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateCategories(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_CATEGORIES,
+            DESCRIPTOR_NOARG_CATEGORIES,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CATEGORIES_FIELD, DESCRIPTOR_CATEGORIES);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(1, 0);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
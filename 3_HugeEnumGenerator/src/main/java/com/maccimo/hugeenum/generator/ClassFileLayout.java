@@ -0,0 +1,291 @@
+package com.maccimo.hugeenum.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sizes of class file parts relevant to JVM limits: constant pool entries and method code lengths.
+ *
+ * Constant pool entries are identified by symbolic keys built from their resolved content, so keys of
+ * constants not yet in the pool may be built with {@code *Key} methods and looked up.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+class ClassFileLayout {
+
+    private static final int CONSTANT_Utf8 = 1;
+    private static final int CONSTANT_Integer = 3;
+    private static final int CONSTANT_Float = 4;
+    private static final int CONSTANT_Long = 5;
+    private static final int CONSTANT_Double = 6;
+    private static final int CONSTANT_Class = 7;
+    private static final int CONSTANT_String = 8;
+    private static final int CONSTANT_Fieldref = 9;
+    private static final int CONSTANT_Methodref = 10;
+    private static final int CONSTANT_InterfaceMethodref = 11;
+    private static final int CONSTANT_NameAndType = 12;
+    private static final int CONSTANT_MethodHandle = 15;
+    private static final int CONSTANT_MethodType = 16;
+    private static final int CONSTANT_Dynamic = 17;
+    private static final int CONSTANT_InvokeDynamic = 18;
+    private static final int CONSTANT_Module = 19;
+    private static final int CONSTANT_Package = 20;
+
+    private static final String ATTRIBUTE_NAME_CODE = "Code";
+
+    /**
+     * Size of {@code field_info} without attributes.
+     */
+    static final int FIELD_INFO_SIZE = 8;
+
+    /**
+     * Size of {@code method_info} with {@code Code} attribute having no exception table and no attributes, excluding code.
+     */
+    static final int METHOD_INFO_SIZE = 8 + 18;
+
+    private final int constantPoolCount;
+    private final Set<String> constants;
+    private final Map<String, Integer> codeSizes;
+    private final int classSize;
+
+    private ClassFileLayout(int constantPoolCount, Set<String> constants, Map<String, Integer> codeSizes, int classSize) {
+        this.constantPoolCount = constantPoolCount;
+        this.constants = constants;
+        this.codeSizes = codeSizes;
+        this.classSize = classSize;
+    }
+
+    static ClassFileLayout read(byte[] classBytes) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(classBytes));
+
+            // Magic and version
+            input.readInt();
+            input.readInt();
+
+            int constantPoolCount = input.readUnsignedShort();
+            int[] tags = new int[constantPoolCount];
+            Object[] values = new Object[constantPoolCount];
+
+            for (int index = 1; index < constantPoolCount; index++) {
+                int tag = input.readUnsignedByte();
+                tags[index] = tag;
+
+                switch (tag) {
+                    case CONSTANT_Utf8:
+                        values[index] = input.readUTF();
+                        break;
+                    case CONSTANT_Integer:
+                        values[index] = input.readInt();
+                        break;
+                    case CONSTANT_Float:
+                        values[index] = input.readFloat();
+                        break;
+                    case CONSTANT_Long:
+                        values[index] = input.readLong();
+                        index++;
+                        break;
+                    case CONSTANT_Double:
+                        values[index] = input.readDouble();
+                        index++;
+                        break;
+                    case CONSTANT_Class:
+                    case CONSTANT_String:
+                    case CONSTANT_MethodType:
+                    case CONSTANT_Module:
+                    case CONSTANT_Package:
+                        values[index] = new int[] {input.readUnsignedShort()};
+                        break;
+                    case CONSTANT_MethodHandle:
+                        values[index] = new int[] {input.readUnsignedByte(), input.readUnsignedShort()};
+                        break;
+                    case CONSTANT_Fieldref:
+                    case CONSTANT_Methodref:
+                    case CONSTANT_InterfaceMethodref:
+                    case CONSTANT_NameAndType:
+                    case CONSTANT_Dynamic:
+                    case CONSTANT_InvokeDynamic:
+                        values[index] = new int[] {input.readUnsignedShort(), input.readUnsignedShort()};
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at index " + index);
+                }
+            }
+
+            Set<String> constants = new HashSet<>();
+            for (int index = 1; index < constantPoolCount; index++) {
+                if (tags[index] != 0) {
+                    constants.add(key(tags, values, index));
+                }
+            }
+
+            // Access flags, this and super class
+            input.skipBytes(6);
+            input.skipBytes(2 * input.readUnsignedShort());
+
+            int fieldCount = input.readUnsignedShort();
+            for (int i = 0; i < fieldCount; i++) {
+                input.skipBytes(6);
+                skipAttributes(input);
+            }
+
+            Map<String, Integer> codeSizes = new LinkedHashMap<>();
+
+            int methodCount = input.readUnsignedShort();
+            for (int i = 0; i < methodCount; i++) {
+                input.skipBytes(2);
+                String name = (String) values[input.readUnsignedShort()];
+                String descriptor = (String) values[input.readUnsignedShort()];
+
+                int attributeCount = input.readUnsignedShort();
+                for (int j = 0; j < attributeCount; j++) {
+                    String attributeName = (String) values[input.readUnsignedShort()];
+                    int attributeLength = input.readInt();
+
+                    if (ATTRIBUTE_NAME_CODE.equals(attributeName)) {
+                        // max_stack, max_locals
+                        input.skipBytes(4);
+                        int codeLength = input.readInt();
+                        codeSizes.put(name + descriptor, codeLength);
+                        input.skipBytes(attributeLength - 8);
+                    } else {
+                        input.skipBytes(attributeLength);
+                    }
+                }
+            }
+
+            return new ClassFileLayout(constantPoolCount, constants, codeSizes, classBytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void skipAttributes(DataInputStream input) throws IOException {
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            input.skipBytes(2);
+            input.skipBytes(input.readInt());
+        }
+    }
+
+    private static String key(int[] tags, Object[] values, int index) {
+        Object value = values[index];
+
+        switch (tags[index]) {
+            case CONSTANT_Utf8:
+                return utf8Key((String) value);
+            case CONSTANT_Integer:
+                return integerKey((Integer) value);
+            case CONSTANT_Class:
+                return classKey((String) values[((int[]) value)[0]]);
+            case CONSTANT_String:
+                return stringKey((String) values[((int[]) value)[0]]);
+            case CONSTANT_NameAndType:
+                return nameAndTypeKey((String) values[((int[]) value)[0]], (String) values[((int[]) value)[1]]);
+            case CONSTANT_Fieldref:
+            case CONSTANT_Methodref:
+            case CONSTANT_InterfaceMethodref:
+                return tags[index] + " " + resolve(tags, values, ((int[]) value)[0]) + " " + resolve(tags, values, ((int[]) value)[1]);
+            default:
+                // Index is part of key: constants of other kinds are never looked up by content
+                return tags[index] + " #" + index;
+        }
+    }
+
+    private static String resolve(int[] tags, Object[] values, int index) {
+        Object value = values[index];
+
+        switch (tags[index]) {
+            case CONSTANT_Class:
+                return (String) values[((int[]) value)[0]];
+            case CONSTANT_NameAndType:
+                return values[((int[]) value)[0]] + " " + values[((int[]) value)[1]];
+            default:
+                throw new IllegalArgumentException("Unexpected constant pool tag " + tags[index] + " at index " + index);
+        }
+    }
+
+    //<editor-fold desc="Constant keys">
+
+    static String utf8Key(String value) {
+        return CONSTANT_Utf8 + " " + value;
+    }
+
+    static String integerKey(int value) {
+        return CONSTANT_Integer + " " + value;
+    }
+
+    static String classKey(String internalName) {
+        return CONSTANT_Class + " " + internalName;
+    }
+
+    static String stringKey(String value) {
+        return CONSTANT_String + " " + value;
+    }
+
+    static String nameAndTypeKey(String name, String descriptor) {
+        return CONSTANT_NameAndType + " " + name + " " + descriptor;
+    }
+
+    static String fieldrefKey(String owner, String name, String descriptor) {
+        return CONSTANT_Fieldref + " " + owner + " " + name + " " + descriptor;
+    }
+
+    static String methodrefKey(String owner, String name, String descriptor) {
+        return CONSTANT_Methodref + " " + owner + " " + name + " " + descriptor;
+    }
+
+    /**
+     * @return Size of constant pool entry with given key
+     */
+    static int constantSize(String key) {
+        int tag = Integer.parseInt(key.substring(0, key.indexOf(' ')));
+
+        switch (tag) {
+            case CONSTANT_Utf8:
+                return 3 + PackedStrings.getModifiedUtf8Size(key.substring(key.indexOf(' ') + 1));
+            case CONSTANT_Class:
+            case CONSTANT_String:
+            case CONSTANT_MethodType:
+                return 3;
+            case CONSTANT_MethodHandle:
+                return 4;
+            case CONSTANT_Long:
+            case CONSTANT_Double:
+                return 9;
+            default:
+                return 5;
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * @return Value of {@code constant_pool_count}: number of entries plus one
+     */
+    int getConstantPoolCount() {
+        return constantPoolCount;
+    }
+
+    Set<String> getConstants() {
+        return Collections.unmodifiableSet(constants);
+    }
+
+    /**
+     * @return Code length of every method with code, keyed by name followed by descriptor
+     */
+    Map<String, Integer> getCodeSizes() {
+        return Collections.unmodifiableMap(codeSizes);
+    }
+
+    int getClassSize() {
+        return classSize;
+    }
+
+}
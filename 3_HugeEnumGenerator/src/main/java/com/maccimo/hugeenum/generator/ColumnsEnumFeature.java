@@ -0,0 +1,313 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumCodeTable;
+import com.maccimo.hugeenum.runtime.HugeEnumColumns;
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata.ColumnType;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Embed per-element attributes declared in item list.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>one no-arg method per column named after the column, returning {@code int}, {@code long},
+ *     {@code double} or {@code String} value of the element</li>
+ *     <li>{@code static E from<Column>(int)} for {@code CODE} column - element with given code,
+ *     {@code IllegalArgumentException} if there is none</li>
+ * </ul>
+ * Every column is an ordinal-indexed array decoded once in static initializer from the constant pool
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumColumns}), so accessor is a single array load.
+ * Lookup table by code is precomputed as well (see {@code com.maccimo.hugeenum.runtime.HugeEnumCodeTable}).
+ * {@code PARENT} and {@code ALIASES} columns get no accessor, they are served by {@link HierarchyEnumFeature}
+ * and {@link LookupEnumFeature}.
+ * Not available via {@code -f}: columns are defined by item list.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class ColumnsEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String CLASS_NAME_COLUMNS = "com/maccimo/hugeenum/runtime/HugeEnumColumns";
+    private static final String CLASS_NAME_CODE_TABLE = "com/maccimo/hugeenum/runtime/HugeEnumCodeTable";
+
+    private static final String MEMBER_NAME_COLUMN_PREFIX = "$COLUMN_";
+    private static final String MEMBER_NAME_INIT_COLUMNS = "$initColumns";
+    private static final String MEMBER_NAME_DECODE_INTS = "decodeInts";
+    private static final String MEMBER_NAME_DECODE_LONGS = "decodeLongs";
+    private static final String MEMBER_NAME_DECODE_DOUBLES = "decodeDoubles";
+    private static final String MEMBER_NAME_DECODE_STRINGS = "decodeStrings";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_CODE_TABLE = "$CODE_TABLE";
+    private static final String MEMBER_NAME_FROM_PREFIX = "from";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_GET = "get";
+
+    private static final String DESCRIPTOR_CODE_TABLE = "L" + CLASS_NAME_CODE_TABLE + ";";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+    private static final String DESCRIPTOR_INT_OBJECT = "(I)Ljava/lang/Object;";
+    private static final String DESCRIPTOR_STRING_OBJECT_ARRAY_CODE_TABLE = "(Ljava/lang/String;[Ljava/lang/Object;)" + DESCRIPTOR_CODE_TABLE;
+
+    private final MetadataFile columns;
+
+    /**
+     * @param columns Item list with columns
+     */
+    public ColumnsEnumFeature(MetadataFile columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public String getId() {
+        return "Columns";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Embed per-element attributes declared in item list";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        generateFields(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo);
+
+        for (int column = 0; column < columns.getColumnNames().size(); column++) {
+            if (!columns.isSpecialColumn(column)) {
+                generateAccessor(classWriter, enumClassInfo, column);
+            }
+        }
+
+        if (columns.getCodeColumn() >= 0) {
+            generateFromCode(classWriter, enumClassInfo);
+        }
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_COLUMNS;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateFields(ClassWriter classWriter) {
+        for (int column = 0; column < columns.getColumnNames().size(); column++) {
+            if (columns.isSpecialColumn(column)) {
+                continue;
+            }
+
+            // Not final: fields are initialized outside of <clinit>
+            classWriter
+                .visitField(
+                    ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                    getFieldName(column),
+                    "[" + getValueDescriptor(column),
+                    null,
+                    null
+                )
+                .visitEnd();
+        }
+
+        if (columns.getCodeColumn() >= 0) {
+            // Not final: field is initialized outside of <clinit>
+            classWriter
+                .visitField(
+                    ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                    MEMBER_NAME_CODE_TABLE,
+                    DESCRIPTOR_CODE_TABLE,
+                    null,
+                    null
+                )
+                .visitEnd();
+        }
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_COLUMNS,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        for (int column = 0; column < columns.getColumnNames().size(); column++) {
+            if (columns.isSpecialColumn(column)) {
+                continue;
+            }
+
+            String arrayDescriptor = "[" + getValueDescriptor(column);
+
+            switch (columns.getColumnTypes().get(column)) {
+                case INT: {
+                    int[] values = new int[elementNames.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        Object value = columns.getValue(elementNames.get(i), column);
+                        values[i] = (value == null) ? 0 : (Integer) value;
+                    }
+
+                    PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(HugeEnumColumns.encodeInts(values)));
+                    methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_COLUMNS, MEMBER_NAME_DECODE_INTS, "(Ljava/lang/String;)" + arrayDescriptor, false);
+                    break;
+                }
+                case LONG: {
+                    long[] values = new long[elementNames.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        Object value = columns.getValue(elementNames.get(i), column);
+                        values[i] = (value == null) ? 0 : (Long) value;
+                    }
+
+                    PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(HugeEnumColumns.encodeLongs(values)));
+                    methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_COLUMNS, MEMBER_NAME_DECODE_LONGS, "(Ljava/lang/String;)" + arrayDescriptor, false);
+                    break;
+                }
+                case DOUBLE: {
+                    double[] values = new double[elementNames.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        Object value = columns.getValue(elementNames.get(i), column);
+                        values[i] = (value == null) ? 0 : (Double) value;
+                    }
+
+                    PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(HugeEnumColumns.encodeDoubles(values)));
+                    methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_COLUMNS, MEMBER_NAME_DECODE_DOUBLES, "(Ljava/lang/String;)" + arrayDescriptor, false);
+                    break;
+                }
+                default: {
+                    String[] values = new String[elementNames.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = (String) columns.getValue(elementNames.get(i), column);
+                    }
+
+                    PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(HugeEnumColumns.encodeStringLengths(values)));
+                    PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(HugeEnumColumns.encodeStringChars(values)));
+                    methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_COLUMNS, MEMBER_NAME_DECODE_STRINGS, "(Ljava/lang/String;Ljava/lang/String;)" + arrayDescriptor, false);
+                    break;
+                }
+            }
+
+            methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), getFieldName(column), arrayDescriptor);
+        }
+
+        int codeColumn = columns.getCodeColumn();
+        if (codeColumn >= 0) {
+            // Elements retained by ordinal lock may have no code
+            List<Integer> codes = new ArrayList<>();
+            List<Integer> ordinals = new ArrayList<>();
+            for (int i = 0; i < elementNames.size(); i++) {
+                Object code = columns.getValue(elementNames.get(i), codeColumn);
+
+                if (code != null) {
+                    codes.add((Integer) code);
+                    ordinals.add(i);
+                }
+            }
+
+            String table = HugeEnumCodeTable.encode(
+                codes.stream().mapToInt(Integer::intValue).toArray(),
+                ordinals.stream().mapToInt(Integer::intValue).toArray()
+            );
+
+            PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(table));
+            methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+            methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_CODE_TABLE, MEMBER_NAME_DECODE, DESCRIPTOR_STRING_OBJECT_ARRAY_CODE_TABLE, false);
+            methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CODE_TABLE, DESCRIPTOR_CODE_TABLE);
+        }
+
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(1 + PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateAccessor(ClassWriter classWriter, EnumClassInfo enumClassInfo, int column) {
+        String valueDescriptor = getValueDescriptor(column);
+        int loadOpcode;
+        int returnOpcode;
+
+        switch (columns.getColumnTypes().get(column)) {
+            case INT:
+                loadOpcode = IALOAD;
+                returnOpcode = IRETURN;
+                break;
+            case LONG:
+                loadOpcode = LALOAD;
+                returnOpcode = LRETURN;
+                break;
+            case DOUBLE:
+                loadOpcode = DALOAD;
+                returnOpcode = DRETURN;
+                break;
+            default:
+                loadOpcode = AALOAD;
+                returnOpcode = ARETURN;
+                break;
+        }
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            columns.getColumnNames().get(column),
+            "()" + valueDescriptor,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), getFieldName(column), "[" + valueDescriptor);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitInsn(loadOpcode);
+        methodVisitor.visitInsn(returnOpcode);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateFromCode(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        String columnName = columns.getColumnNames().get(columns.getCodeColumn());
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_FROM_PREFIX + Character.toUpperCase(columnName.charAt(0)) + columnName.substring(1),
+            "(I)" + enumClassInfo.getBinaryEnumClassName(),
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_CODE_TABLE, DESCRIPTOR_CODE_TABLE);
+        methodVisitor.visitVarInsn(ILOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_CODE_TABLE, MEMBER_NAME_GET, DESCRIPTOR_INT_OBJECT, false);
+        methodVisitor.visitTypeInsn(CHECKCAST, enumClassInfo.getEnumClassName());
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+    private String getFieldName(int column) {
+        return MEMBER_NAME_COLUMN_PREFIX + columns.getColumnNames().get(column);
+    }
+
+    private String getValueDescriptor(int column) {
+        switch (columns.getColumnTypes().get(column)) {
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case DOUBLE:
+                return "D";
+            default:
+                return "Ljava/lang/String;";
+        }
+    }
+
+}
@@ -8,8 +8,11 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import static com.maccimo.hugeenum.generator.ClassFileLayout.*;
 import static org.objectweb.asm.Opcodes.*;
 
 @SuppressWarnings("SpellCheckingInspection")
@@ -34,6 +37,14 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
     private static final String DESCRIPTOR_CLASS_STRING_ENUM = "(Ljava/lang/Class;Ljava/lang/String;)Ljava/lang/Enum;";
     private static final String DESCRIPTOR_METHODHANDLES_LOOKUP_STRING_CLASS_INT_VOID = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)V";
 
+    private static final String METHOD_KEY_CLINIT = MEMBER_NAME_CLINIT + DESCRIPTOR_NOARG_VOID;
+
+    // LDC_W and PUTSTATIC per element in <clinit>
+    private static final int STATIC_INITIALIZER_CODE_SIZE_PER_ITEM = 6;
+
+    // Bootstrap method of element and its argument of createValues bootstrap method
+    private static final int BOOTSTRAP_METHODS_SIZE_PER_ITEM = 6 + 2;
+
     private final String enumClassName;
     private final String binaryEnumClassName;
     private final String binaryEnumArrayClassName;
@@ -43,9 +54,27 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
     private final String descriptorMethodhandlesLookupStringClassEnumArrayEnumArray;
 
     private final List<String> elementNames;
+    private final List<IEnumFeature> features;
+    private final NamePattern namePattern;
 
 
     public ConDyHugeEnumGenerator(String enumClassName, List<String> elementNames) {
+        this(enumClassName, elementNames, Collections.emptyList());
+    }
+
+    public ConDyHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features) {
+        this(enumClassName, elementNames, features, null);
+    }
+
+    /**
+     * @param namePattern Pattern followed by element names or {@code null}
+     * @throws IllegalArgumentException Element names do not follow pattern
+     */
+    public ConDyHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features, NamePattern namePattern) {
+        if (namePattern != null && !namePattern.matches(elementNames)) {
+            throw new IllegalArgumentException("Element names do not follow name pattern");
+        }
+
         this.enumClassName = enumClassName;
 
         this.binaryEnumClassName = "L" + enumClassName + ";";
@@ -57,6 +86,8 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
             "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;" + binaryEnumArrayClassName + ")" + binaryEnumArrayClassName;
 
         this.elementNames = elementNames;
+        this.features = features;
+        this.namePattern = namePattern;
     }
 
     public byte[] generate() {
@@ -77,7 +108,7 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
             enumClassName,
             null,
             CLASS_NAME_JAVA_LANG_ENUM,
-            null
+            FeatureSupport.getInterfaceNames(features)
         );
 
         generateCommonMembers(classWriter);
@@ -89,11 +120,64 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
         generateCreateValues(classWriter);
         generateInnerClassAttribute(classWriter);
 
+        FeatureSupport.generateFeatures(classWriter, features, new EnumClassInfo(enumClassName, elementNames));
+
         classWriter.visitEnd();
 
         return classWriter.toByteArray();
     }
 
+    @Override
+    public CapacityPlan plan() {
+        int elementCount = elementNames.size();
+        int probeCount = Math.min(elementCount, CapacityPlanner.PROBE_ELEMENT_COUNT);
+
+        CapacityPlanner planner = new CapacityPlanner(
+            new ConDyHugeEnumGenerator(enumClassName, elementNames.subList(0, probeCount), Collections.emptyList(), namePattern).generate()
+        );
+
+        if (probeCount == elementCount) {
+            return planner.toPlan(elementCount);
+        }
+
+        // Utf8 constants written by ConDyBootstrapClassGenerator besides element names
+        Set<String> bootstrapUtf8Keys = Set.of(
+            utf8Key(enumClassName),
+            utf8Key(CLASS_NAME_JAVA_LANG_ENUM),
+            utf8Key("BootstrapMethods"),
+            utf8Key(binaryEnumClassName),
+            utf8Key(MEMBER_NAME_INIT),
+            utf8Key(DESCRIPTOR_METHODHANDLES_LOOKUP_STRING_CLASS_INT_VOID)
+        );
+
+        for (int i = probeCount; i < elementCount; i++) {
+            String elementName = elementNames.get(i);
+
+            // Bootstrap class writes Dynamic, NameAndType, Utf8 and Integer per element with no deduplication.
+            // ASM reuses them for equal constants, so constant added by ASM to probe class is gone then.
+            planner.addConstants(2, 5 + 5);
+
+            String nameKey = utf8Key(elementName);
+            if (bootstrapUtf8Keys.contains(nameKey) || !planner.hasConstant(nameKey)) {
+                planner.addDuplicateConstant(nameKey);
+            }
+
+            String ordinalKey = integerKey(i);
+            if (!planner.hasConstant(ordinalKey)) {
+                planner.addDuplicateConstant(ordinalKey);
+            }
+
+            planner.addConstant(fieldrefKey(enumClassName, elementName, binaryEnumClassName));
+
+            planner.addClassBytes(FIELD_INFO_SIZE + BOOTSTRAP_METHODS_SIZE_PER_ITEM);
+            planner.addCode(METHOD_KEY_CLINIT, STATIC_INITIALIZER_CODE_SIZE_PER_ITEM);
+
+            planner.check(i, 0, null, 0);
+        }
+
+        return planner.toPlan(elementCount);
+    }
+
     //<editor-fold desc="Bytecode generation">
 
     @SuppressWarnings("SameParameterValue")
@@ -158,6 +242,11 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
     }
 
     private void generateValueOf(ClassWriter classWriter) {
+        if (namePattern != null) {
+            namePattern.generateValueOf(classWriter, enumClassName);
+            return;
+        }
+
         MethodVisitor methodVisitor = classWriter.visitMethod(
             ACC_PUBLIC | ACC_STATIC,
             MEMBER_NAME_VALUEOF,
@@ -252,6 +341,8 @@ public class ConDyHugeEnumGenerator implements IEnumGenerator {
 
         methodVisitor.visitFieldInsn(PUTSTATIC, enumClassName, MEMBER_NAME_VALUES_ARRAY, binaryEnumArrayClassName);
 
+        FeatureSupport.generateInitializerCalls(methodVisitor, features, enumClassName);
+
         methodVisitor.visitInsn(RETURN);
         methodVisitor.visitMaxs(1, 0);
         methodVisitor.visitEnd();
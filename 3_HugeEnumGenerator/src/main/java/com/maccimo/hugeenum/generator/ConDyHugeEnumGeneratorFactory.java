@@ -29,4 +29,14 @@ public class ConDyHugeEnumGeneratorFactory implements IEnumGeneratorFactory {
         return new ConDyHugeEnumGenerator(name, elementNames);
     }
 
+    @Override
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features) {
+        return new ConDyHugeEnumGenerator(name, elementNames, features);
+    }
+
+    @Override
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features, NamePattern namePattern) {
+        return new ConDyHugeEnumGenerator(name, elementNames, features, namePattern);
+    }
+
 }
@@ -0,0 +1,54 @@
+package com.maccimo.hugeenum.generator;
+
+import java.util.List;
+
+/**
+ * Names and descriptors of the enum class being generated.
+ */
+public class EnumClassInfo {
+
+    private final String enumClassName;
+    private final String binaryEnumClassName;
+    private final String binaryEnumArrayClassName;
+
+    private final List<String> elementNames;
+
+    /**
+     * @param enumClassName Internal class name. May contain package name
+     * @param elementNames List of enumeration element names
+     */
+    public EnumClassInfo(String enumClassName, List<String> elementNames) {
+        this.enumClassName = enumClassName;
+
+        this.binaryEnumClassName = "L" + enumClassName + ";";
+        this.binaryEnumArrayClassName = "[" + binaryEnumClassName;
+
+        this.elementNames = elementNames;
+    }
+
+    /**
+     * @return Internal class name, e.g. {@code com/habr/maccimo/HugeEnum}
+     */
+    public String getEnumClassName() {
+        return enumClassName;
+    }
+
+    /**
+     * @return Class descriptor, e.g. {@code Lcom/habr/maccimo/HugeEnum;}
+     */
+    public String getBinaryEnumClassName() {
+        return binaryEnumClassName;
+    }
+
+    /**
+     * @return Array class descriptor, e.g. {@code [Lcom/habr/maccimo/HugeEnum;}
+     */
+    public String getBinaryEnumArrayClassName() {
+        return binaryEnumArrayClassName;
+    }
+
+    public List<String> getElementNames() {
+        return elementNames;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.maccimo.hugeenum.generator;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class EnumFeatureRegistry {
+
+    public static final EnumFeatureRegistry INSTANCE = new EnumFeatureRegistry();
+
+    private final Map<String, IEnumFeature> features = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private EnumFeatureRegistry() {
+        addFeature(new StreamEnumFeature());
+        addFeature(new NameRankEnumFeature());
+        addFeature(new FingerprintEnumFeature());
+        addFeature(new Utf8NameEnumFeature());
+        addFeature(new StableHashEnumFeature());
+        addFeature(new LookupEnumFeature());
+    }
+
+    private void addFeature(IEnumFeature feature) {
+        features.put(feature.getId(), feature);
+    }
+
+    public Collection<IEnumFeature> getFeatures() {
+        return features.values();
+    }
+
+    public IEnumFeature getById(String id) {
+        return features.get(id);
+    }
+
+}
@@ -14,6 +14,7 @@ public class EnumGeneratorRegistry {
         addFactory(new ExtractMethodHugeEnumGeneratorFactory());
         addFactory(new ConDyHugeEnumGeneratorFactory());
         addFactory(new UnsafeHugeEnumGeneratorFactory());
+        addFactory(new UnsafeHugeEnumGeneratorFactory(true));
     }
 
     private void addFactory(IEnumGeneratorFactory generatorFactory) {
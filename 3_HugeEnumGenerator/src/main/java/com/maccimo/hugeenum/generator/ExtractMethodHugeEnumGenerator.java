@@ -6,8 +6,10 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
 import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
 
+import static com.maccimo.hugeenum.generator.ClassFileLayout.*;
 import static org.objectweb.asm.Opcodes.*;
 
 
@@ -27,13 +29,23 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
     private static final String MEMBER_NAME_NEXT_VALUE = "nextValue";
 
     private static final String DESCRIPTOR_INT = "I";
+    private static final String DESCRIPTOR_STRING_ARRAY = "[Ljava/lang/String;";
     private static final String DESCRIPTOR_NOARG_VOID = "()V";
     private static final String DESCRIPTOR_NOARG_OBJECT = "()Ljava/lang/Object;";
     private static final String DESCRIPTOR_STRING_INT_VOID = "(Ljava/lang/String;I)V";
     private static final String DESCRIPTOR_CLASS_STRING_ENUM = "(Ljava/lang/Class;Ljava/lang/String;)Ljava/lang/Enum;";
 
+    private static final String METHOD_KEY_CLINIT = MEMBER_NAME_CLINIT + DESCRIPTOR_NOARG_VOID;
+
+    // INVOKESTATIC and PUTSTATIC per element in <clinit>
+    private static final int STATIC_INITIALIZER_CODE_SIZE_PER_ITEM = 6;
+    private static final int CREATE_VALUES_PART_CODE_SIZE_PER_ITEM = 17;
+
     private static final int MAX_ITEMS_PER_CREATE_VALUES_PART = 3_854;
 
+    // Loading names following pattern takes up to 17 bytes of code, same as one element
+    private static final int MAX_ITEMS_PER_CREATE_VALUES_PART_WITH_NAME_PATTERN = MAX_ITEMS_PER_CREATE_VALUES_PART - 1;
+
     private final String enumClassName;
     private final String binaryEnumClassName;
     private final String binaryEnumArrayClassName;
@@ -41,11 +53,30 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
     private final String descriptorNoargEnum;
     private final String descriptorNoargEnumArray;
     private final String descriptorEnumArrayIntEnumArray;
+    private final String descriptorEnumArrayIntStringArrayEnumArray;
     private final String descriptorStringEnum;
 
     private final List<String> elementNames;
+    private final List<IEnumFeature> features;
+    private final NamePattern namePattern;
 
     public ExtractMethodHugeEnumGenerator(String enumClassName, List<String> elementNames) {
+        this(enumClassName, elementNames, Collections.emptyList());
+    }
+
+    public ExtractMethodHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features) {
+        this(enumClassName, elementNames, features, null);
+    }
+
+    /**
+     * @param namePattern Pattern followed by element names or {@code null}
+     * @throws IllegalArgumentException Element names do not follow pattern
+     */
+    public ExtractMethodHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features, NamePattern namePattern) {
+        if (namePattern != null && !namePattern.matches(elementNames)) {
+            throw new IllegalArgumentException("Element names do not follow name pattern");
+        }
+
         this.enumClassName = enumClassName;
 
         this.binaryEnumClassName = "L" + enumClassName + ";";
@@ -54,9 +85,13 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
         this.descriptorNoargEnum = "()" + binaryEnumClassName;
         this.descriptorNoargEnumArray = "()" + binaryEnumArrayClassName;
         this.descriptorEnumArrayIntEnumArray = "(" + binaryEnumArrayClassName + DESCRIPTOR_INT + ")" + binaryEnumArrayClassName;
+        this.descriptorEnumArrayIntStringArrayEnumArray =
+            "(" + binaryEnumArrayClassName + DESCRIPTOR_INT + DESCRIPTOR_STRING_ARRAY + ")" + binaryEnumArrayClassName;
         this.descriptorStringEnum = "(Ljava/lang/String;)" + binaryEnumClassName;
 
         this.elementNames = elementNames;
+        this.features = features;
+        this.namePattern = namePattern;
     }
 
     public byte[] generate() {
@@ -69,7 +104,7 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
             enumClassName,
             null,
             CLASS_NAME_JAVA_LANG_ENUM,
-            null
+            FeatureSupport.getInterfaceNames(features)
         );
 
         generateCommonMembers(classWriter);
@@ -81,11 +116,80 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
         generateCreateValuesChain(classWriter, elementNames);
         generateNextValue(classWriter);
 
+        FeatureSupport.generateFeatures(classWriter, features, new EnumClassInfo(enumClassName, elementNames));
+
         classWriter.visitEnd();
 
         return classWriter.toByteArray();
     }
 
+    @Override
+    public CapacityPlan plan() {
+        int elementCount = elementNames.size();
+        int probeCount = Math.min(elementCount, CapacityPlanner.PROBE_ELEMENT_COUNT);
+
+        CapacityPlanner planner = new CapacityPlanner(
+            new ExtractMethodHugeEnumGenerator(enumClassName, elementNames.subList(0, probeCount), Collections.emptyList(), namePattern).generate()
+        );
+
+        if (probeCount == elementCount) {
+            return planner.toPlan(elementCount);
+        }
+
+        // Element count loaded by LDC in the first createValues part is replaced by count of the whole list
+        if (!isNamePatternConstant(probeCount)) {
+            planner.removeConstant(integerKey(probeCount));
+        }
+
+        int maxItemsPerPart = (namePattern != null) ? MAX_ITEMS_PER_CREATE_VALUES_PART_WITH_NAME_PATTERN : MAX_ITEMS_PER_CREATE_VALUES_PART;
+        String chainPartDescriptor = (namePattern != null) ? descriptorEnumArrayIntStringArrayEnumArray : descriptorEnumArrayIntEnumArray;
+
+        // Probe class elements always fit the first part
+        String lastPartKey = MEMBER_NAME_CREATE_VALUES + descriptorNoargEnumArray;
+
+        for (int i = probeCount; i < elementCount; i++) {
+            String elementName = elementNames.get(i);
+
+            planner.addConstant(utf8Key(elementName));
+            planner.addConstant(nameAndTypeKey(elementName, binaryEnumClassName));
+            planner.addConstant(fieldrefKey(enumClassName, elementName, binaryEnumClassName));
+            if (namePattern == null) {
+                planner.addConstant(stringKey(elementName));
+            }
+
+            planner.addClassBytes(FIELD_INFO_SIZE);
+            planner.addCode(METHOD_KEY_CLINIT, STATIC_INITIALIZER_CODE_SIZE_PER_ITEM);
+
+            if (i % maxItemsPerPart == 0) {
+                String partName = MEMBER_NAME_CREATE_VALUES + (i / maxItemsPerPart - 1);
+
+                // Previous part calls the new one instead of returning: ILOAD, ALOAD with pattern, INVOKESTATIC
+                planner.addCode(lastPartKey, (namePattern != null) ? 5 : 4);
+
+                planner.addConstant(utf8Key(partName));
+                planner.addConstant(utf8Key(chainPartDescriptor));
+                planner.addConstant(nameAndTypeKey(partName, chainPartDescriptor));
+                planner.addConstant(methodrefKey(enumClassName, partName, chainPartDescriptor));
+
+                // ALOAD, ARETURN
+                lastPartKey = partName + chainPartDescriptor;
+                planner.addMethod(lastPartKey, 2);
+            }
+
+            planner.addCode(lastPartKey, CREATE_VALUES_PART_CODE_SIZE_PER_ITEM);
+
+            planner.check(i, planner.hasConstant(integerKey(i + 1)) ? 0 : 1, null, 0);
+        }
+
+        planner.addConstant(integerKey(elementCount));
+
+        return planner.toPlan(elementCount);
+    }
+
+    private boolean isNamePatternConstant(int value) {
+        return namePattern != null && (value == namePattern.getWidth() || value == namePattern.getFirst());
+    }
+
     //<editor-fold desc="Bytecode generation">
 
     private void generateCommonMembers(ClassWriter classWriter) {
@@ -143,6 +247,11 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
     }
 
     private void generateValueOf(ClassWriter classWriter) {
+        if (namePattern != null) {
+            namePattern.generateValueOf(classWriter, enumClassName);
+            return;
+        }
+
         MethodVisitor methodVisitor = classWriter.visitMethod(
             ACC_PUBLIC | ACC_STATIC,
             MEMBER_NAME_VALUEOF,
@@ -212,6 +321,8 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
             );
         }
 
+        FeatureSupport.generateInitializerCalls(methodVisitor, features, enumClassName);
+
         methodVisitor.visitInsn(RETURN);
         methodVisitor.visitMaxs(1, 0);
         methodVisitor.visitEnd();
@@ -230,9 +341,11 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
         String nextChainPartName = MEMBER_NAME_CREATE_VALUES;
         String chainPartDescriptor = descriptorNoargEnumArray;
 
+        int maxItemsPerPart = (namePattern != null) ? MAX_ITEMS_PER_CREATE_VALUES_PART_WITH_NAME_PATTERN : MAX_ITEMS_PER_CREATE_VALUES_PART;
+
         while (elementsLeft > 0) {
-            isLast = (elementsLeft <= MAX_ITEMS_PER_CREATE_VALUES_PART);
-            int elementsInPart = isLast ? elementsLeft : MAX_ITEMS_PER_CREATE_VALUES_PART;
+            isLast = (elementsLeft <= maxItemsPerPart);
+            int elementsInPart = isLast ? elementsLeft : maxItemsPerPart;
 
             MethodVisitor methodVisitor = classWriter.visitMethod(
                 ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
@@ -250,6 +363,11 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
                 methodVisitor.visitVarInsn(ASTORE, 0);
                 methodVisitor.visitInsn(ICONST_0);
                 methodVisitor.visitVarInsn(ISTORE, 1);
+
+                if (namePattern != null) {
+                    namePattern.generateLoadNames(methodVisitor, elementNames.size());
+                    methodVisitor.visitVarInsn(ASTORE, 2);
+                }
             }
 
             for (int i = 0; i < elementsInPart; i++) {
@@ -257,7 +375,16 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
                 methodVisitor.visitVarInsn(ILOAD, 1);
                 methodVisitor.visitTypeInsn(NEW, enumClassName);
                 methodVisitor.visitInsn(DUP);
-                methodVisitor.visitLdcInsn(namesIterator.next());
+
+                // Names following pattern are rebuilt once and passed along the chain, same code size as LDC_W
+                if (namePattern != null) {
+                    methodVisitor.visitVarInsn(ALOAD, 2);
+                    methodVisitor.visitVarInsn(ILOAD, 1);
+                    methodVisitor.visitInsn(AALOAD);
+                } else {
+                    methodVisitor.visitLdcInsn(namesIterator.next());
+                }
+
                 methodVisitor.visitVarInsn(ILOAD, 1);
                 methodVisitor.visitMethodInsn(
                     INVOKESPECIAL,
@@ -270,7 +397,7 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
                 methodVisitor.visitIincInsn(1, 1);
             }
 
-            chainPartDescriptor = descriptorEnumArrayIntEnumArray;
+            chainPartDescriptor = (namePattern != null) ? descriptorEnumArrayIntStringArrayEnumArray : descriptorEnumArrayIntEnumArray;
             nextChainPartName = MEMBER_NAME_CREATE_VALUES + partNumber;
             partNumber++;
 
@@ -281,6 +408,9 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
             } else {
                 methodVisitor.visitVarInsn(ALOAD, 0);
                 methodVisitor.visitVarInsn(ILOAD, 1);
+                if (namePattern != null) {
+                    methodVisitor.visitVarInsn(ALOAD, 2);
+                }
                 methodVisitor.visitMethodInsn(
                     INVOKESTATIC,
                     enumClassName,
@@ -291,7 +421,7 @@ public class ExtractMethodHugeEnumGenerator implements IEnumGenerator {
                 methodVisitor.visitInsn(ARETURN);
             }
 
-            methodVisitor.visitMaxs(6, 2);
+            methodVisitor.visitMaxs(6, (namePattern != null) ? 3 : 2);
             methodVisitor.visitEnd();
 
             elementsLeft -= elementsInPart;
@@ -29,4 +29,14 @@ public class ExtractMethodHugeEnumGeneratorFactory implements IEnumGeneratorFact
         return new ExtractMethodHugeEnumGenerator(name, elementNames);
     }
 
+    @Override
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features) {
+        return new ExtractMethodHugeEnumGenerator(name, elementNames, features);
+    }
+
+    @Override
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features, NamePattern namePattern) {
+        return new ExtractMethodHugeEnumGenerator(name, elementNames, features, namePattern);
+    }
+
 }
@@ -0,0 +1,51 @@
+package com.maccimo.hugeenum.generator;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Feature handling shared by enum generators: class header interfaces, feature members
+ * and calls of feature static initializers.
+ */
+class FeatureSupport {
+
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+
+    private FeatureSupport() {
+    }
+
+    /**
+     * @return Internal names of interfaces required by features, without duplicates
+     */
+    static String[] getInterfaceNames(List<IEnumFeature> features) {
+        return features
+            .stream()
+            .flatMap(feature -> feature.getInterfaceNames().stream())
+            .distinct()
+            .toArray(String[]::new);
+    }
+
+    static void generateFeatures(ClassWriter classWriter, List<IEnumFeature> features, EnumClassInfo enumClassInfo) {
+        for (IEnumFeature feature : features) {
+            feature.generate(classWriter, enumClassInfo);
+        }
+    }
+
+    /**
+     * Generate calls of feature static initializers in the order of features.
+     */
+    static void generateInitializerCalls(MethodVisitor methodVisitor, List<IEnumFeature> features, String enumClassName) {
+        for (IEnumFeature feature : features) {
+            String initializerName = feature.getStaticInitializerName();
+
+            if (initializerName != null) {
+                methodVisitor.visitMethodInsn(INVOKESTATIC, enumClassName, initializerName, DESCRIPTOR_NOARG_VOID, false);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumFingerprint;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Embed {@code static long fingerprint()} returning fingerprint of ordered element names.
+ *
+ * @see HugeEnumFingerprint
+ */
+public class FingerprintEnumFeature implements IEnumFeature {
+
+    private static final String MEMBER_NAME_FINGERPRINT = "fingerprint";
+
+    private static final String DESCRIPTOR_NOARG_LONG = "()J";
+
+    @Override
+    public String getId() {
+        return "Fingerprint";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Embed fingerprint of ordered element names: fingerprint()";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_FINGERPRINT,
+            DESCRIPTOR_NOARG_LONG,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitLdcInsn(HugeEnumFingerprint.compute(enumClassInfo.getElementNames()));
+        methodVisitor.visitInsn(LRETURN);
+        methodVisitor.visitMaxs(2, 0);
+        methodVisitor.visitEnd();
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return null;
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumHierarchy;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Tree of elements declared by {@code PARENT} column of item list.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code E parent()} - parent element or {@code null} for root</li>
+ *     <li>{@code int depth()} - {@code 0} for root</li>
+ *     <li>{@code boolean isDescendantOf(E)} - proper descendant test</li>
+ *     <li>{@code List<E> descendants()} - immutable list of proper descendants in preorder</li>
+ *     <li>{@code static HugeEnumHierarchy hierarchy()} - the whole tree</li>
+ * </ul>
+ * Euler tour entry/exit numbers are precomputed and stored in the constant pool
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumHierarchy}), so descendant test is two integer compares.
+ * Not available via {@code -f}: hierarchy is defined by item list.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class HierarchyEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String CLASS_NAME_HIERARCHY = "com/maccimo/hugeenum/runtime/HugeEnumHierarchy";
+
+    private static final String MEMBER_NAME_HIERARCHY_FIELD = "$HIERARCHY";
+    private static final String MEMBER_NAME_INIT_HIERARCHY = "$initHierarchy";
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_PARENT = "parent";
+    private static final String MEMBER_NAME_DEPTH = "depth";
+    private static final String MEMBER_NAME_IS_DESCENDANT_OF = "isDescendantOf";
+    private static final String MEMBER_NAME_DESCENDANTS = "descendants";
+    private static final String MEMBER_NAME_HIERARCHY = "hierarchy";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_GET_PARENT = "getParent";
+    private static final String MEMBER_NAME_DEPTH_OF = "depthOf";
+    private static final String MEMBER_NAME_IS_DESCENDANT = "isDescendant";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+
+    private static final String DESCRIPTOR_HIERARCHY = "L" + CLASS_NAME_HIERARCHY + ";";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+    private static final String DESCRIPTOR_NOARG_HIERARCHY = "()" + DESCRIPTOR_HIERARCHY;
+    private static final String DESCRIPTOR_NOARG_LIST = "()Ljava/util/List;";
+    private static final String DESCRIPTOR_INT_INT = "(I)I";
+    private static final String DESCRIPTOR_INT_OBJECT = "(I)Ljava/lang/Object;";
+    private static final String DESCRIPTOR_INT_LIST = "(I)Ljava/util/List;";
+    private static final String DESCRIPTOR_INT_INT_BOOLEAN = "(II)Z";
+    private static final String DESCRIPTOR_STRING_OBJECT_ARRAY_HIERARCHY = "(Ljava/lang/String;[Ljava/lang/Object;)" + DESCRIPTOR_HIERARCHY;
+
+    private final MetadataFile columns;
+
+    /**
+     * @param columns Item list with {@code PARENT} column
+     */
+    public HierarchyEnumFeature(MetadataFile columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public String getId() {
+        return "Hierarchy";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Tree of elements declared by item list";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < elementNames.size(); i++) {
+            ordinals.put(elementNames.get(i), i);
+        }
+
+        // Elements retained by ordinal lock and children of such elements become roots
+        int[] parentOf = new int[elementNames.size()];
+        for (int i = 0; i < parentOf.length; i++) {
+            String parent = columns.getParent(elementNames.get(i));
+            parentOf[i] = (parent == null) ? -1 : ordinals.getOrDefault(parent, -1);
+        }
+
+        generateField(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo, HugeEnumHierarchy.encode(parentOf));
+        generateParent(classWriter, enumClassInfo);
+        generateDepth(classWriter, enumClassInfo);
+        generateIsDescendantOf(classWriter, enumClassInfo);
+        generateDescendants(classWriter, enumClassInfo);
+        generateHierarchy(classWriter, enumClassInfo);
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_HIERARCHY;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateField(ClassWriter classWriter) {
+        // Not final: field is initialized outside of <clinit>
+        classWriter
+            .visitField(
+                ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                MEMBER_NAME_HIERARCHY_FIELD,
+                DESCRIPTOR_HIERARCHY,
+                null,
+                null
+            )
+            .visitEnd();
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, String table) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_HIERARCHY,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(table));
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_HIERARCHY, MEMBER_NAME_DECODE, DESCRIPTOR_STRING_OBJECT_ARRAY_HIERARCHY, false);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_HIERARCHY_FIELD, DESCRIPTOR_HIERARCHY);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(1 + PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateParent(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_PARENT,
+            "()" + enumClassInfo.getBinaryEnumClassName(),
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_HIERARCHY_FIELD, DESCRIPTOR_HIERARCHY);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_HIERARCHY, MEMBER_NAME_GET_PARENT, DESCRIPTOR_INT_OBJECT, false);
+        methodVisitor.visitTypeInsn(CHECKCAST, enumClassInfo.getEnumClassName());
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateDepth(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_DEPTH,
+            DESCRIPTOR_NOARG_INT,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_HIERARCHY_FIELD, DESCRIPTOR_HIERARCHY);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_HIERARCHY, MEMBER_NAME_DEPTH_OF, DESCRIPTOR_INT_INT, false);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateIsDescendantOf(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_IS_DESCENDANT_OF,
+            "(" + enumClassInfo.getBinaryEnumClassName() + ")Z",
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_HIERARCHY_FIELD, DESCRIPTOR_HIERARCHY);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_HIERARCHY, MEMBER_NAME_IS_DESCENDANT, DESCRIPTOR_INT_INT_BOOLEAN, false);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(3, 2);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateDescendants(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_DESCENDANTS,
+            DESCRIPTOR_NOARG_LIST,
+            "()Ljava/util/List<" + enumClassInfo.getBinaryEnumClassName() + ">;",
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_HIERARCHY_FIELD, DESCRIPTOR_HIERARCHY);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_HIERARCHY, MEMBER_NAME_DESCENDANTS, DESCRIPTOR_INT_LIST, false);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateHierarchy(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_HIERARCHY,
+            DESCRIPTOR_NOARG_HIERARCHY,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_HIERARCHY_FIELD, DESCRIPTOR_HIERARCHY);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(1, 0);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,72 @@
+package com.maccimo.hugeenum.generator;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional addition to generated enum, independent of generation algorithm.
+ */
+public interface IEnumFeature {
+
+    public String getId();
+
+    public String getDescription();
+
+    /**
+     * Generate feature members.
+     * Synthetic static field {@code $VALUES} holding all enum elements is available to generated code.
+     */
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo);
+
+    /**
+     * Feature may generate private static no-arg method to be called at the end of enum static initializer,
+     * when {@code $VALUES} and all element fields are already initialized.
+     *
+     * @return Initializer method name or {@code null} if feature needs no initialization
+     */
+    public String getStaticInitializerName();
+
+    /**
+     * Feature may make the enum implement interfaces, generating their methods in {@link #generate}.
+     *
+     * @return Internal names of interfaces to be implemented by generated enum
+     */
+    public default List<String> getInterfaceNames() {
+        return List.of();
+    }
+
+    /**
+     * Feature members are generated into scratch class, so the result is exactly what {@link #generate} produces.
+     *
+     * @return Name followed by parameter descriptor of every method generated by the feature, e.g. {@code isIn(I)}
+     */
+    public default List<String> getMethodSignatures(EnumClassInfo enumClassInfo) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V11, Opcodes.ACC_PUBLIC, enumClassInfo.getEnumClassName(), null, "java/lang/Object", null);
+        generate(classWriter, enumClassInfo);
+        classWriter.visitEnd();
+
+        List<String> result = new ArrayList<>();
+
+        new ClassReader(classWriter.toByteArray()).accept(
+            new ClassVisitor(Opcodes.ASM7) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    result.add(name + descriptor.substring(0, descriptor.indexOf(')') + 1));
+
+                    return null;
+                }
+            },
+            ClassReader.SKIP_CODE
+        );
+
+        return result;
+    }
+
+}
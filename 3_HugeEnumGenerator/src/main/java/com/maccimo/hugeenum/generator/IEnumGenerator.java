@@ -4,4 +4,10 @@ public interface IEnumGenerator {
 
     public byte[] generate();
 
+    /**
+     * Compute sizes of generated class and the first element exceeding JVM limits, without generating the class.
+     * Members added by features are not counted.
+     */
+    public CapacityPlan plan();
+
 }
@@ -10,8 +10,18 @@ public interface IEnumGeneratorFactory {
 
     public int getDefaultElementCount();
 
+    /**
+     * @return Maximum count of autogenerated element names, see {@link IEnumGenerator#plan()} for exact limits of given names
+     */
     public int getMaximumElementCount();
 
     public IEnumGenerator create(String name, List<String> elementNames);
 
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features);
+
+    /**
+     * @param namePattern Pattern followed by element names or {@code null}, see {@link NamePattern}
+     */
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features, NamePattern namePattern);
+
 }
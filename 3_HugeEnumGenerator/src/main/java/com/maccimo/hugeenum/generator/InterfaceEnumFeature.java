@@ -0,0 +1,224 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumDispatch;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Implement interface with constant-specific behavior and no per-constant subclasses.
+ *
+ * Every abstract interface method not already implemented by {@code java.lang.Enum} is generated as
+ * <pre>
+ *   return invokedynamic method(this, arguments...);   // bootstrap HugeEnumDispatch.bootstrap
+ * </pre>
+ * dispatching to static methods of handler classes declared per element or per category in item list
+ * (see {@link ItemListFile}). Handler table is decoded once in static initializer into {@code $DISPATCH} field,
+ * call sites are linked on the first call to a constant target which selects handler by ordinal
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumDispatch}). The enum stays a single class.
+ * Not available via {@code -f}: interface is given by the {@code -t} option.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class InterfaceEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_DISPATCH = "com/maccimo/hugeenum/runtime/HugeEnumDispatch";
+    private static final String CLASS_NAME_METHOD_HANDLES = "java/lang/invoke/MethodHandles";
+
+    private static final String MEMBER_NAME_DISPATCH = "$DISPATCH";
+    private static final String MEMBER_NAME_INIT_DISPATCH = "$initDispatch";
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_LOOKUP = "lookup";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_BOOTSTRAP = "bootstrap";
+
+    private static final String DESCRIPTOR_DISPATCH = "L" + CLASS_NAME_DISPATCH + ";";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_LOOKUP = "()Ljava/lang/invoke/MethodHandles$Lookup;";
+    private static final String DESCRIPTOR_DECODE =
+        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/Class;Ljava/lang/String;Ljava/lang/String;[Ljava/lang/Object;)" + DESCRIPTOR_DISPATCH;
+    private static final String DESCRIPTOR_BOOTSTRAP =
+        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/String;)Ljava/lang/invoke/CallSite;";
+
+    private static final Handle BOOTSTRAP_HANDLE = new Handle(H_INVOKESTATIC, CLASS_NAME_DISPATCH, MEMBER_NAME_BOOTSTRAP, DESCRIPTOR_BOOTSTRAP, false);
+
+    private final Class<?> interfaceClass;
+    private final ItemListFile itemList;
+    private final List<Method> methods;
+
+    /**
+     * @param interfaceClass Interface to implement
+     * @param itemList Item list declaring handlers or {@code null} if no element has handler
+     * @throws IllegalArgumentException Not an interface or interface method clashes with final method of enum
+     */
+    public InterfaceEnumFeature(Class<?> interfaceClass, ItemListFile itemList) {
+        if (!interfaceClass.isInterface()) {
+            throw new IllegalArgumentException("Not an interface: " + interfaceClass.getName());
+        }
+
+        this.interfaceClass = interfaceClass;
+        this.itemList = itemList;
+        this.methods = getImplementedMethods(interfaceClass);
+    }
+
+    private static List<Method> getImplementedMethods(Class<?> interfaceClass) {
+        // The same method may be inherited from several superinterfaces
+        Map<String, Method> result = new LinkedHashMap<>();
+
+        for (Method method : interfaceClass.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers())) {
+                continue;
+            }
+
+            try {
+                Method enumMethod = Enum.class.getMethod(method.getName(), method.getParameterTypes());
+
+                if (enumMethod.getReturnType() != method.getReturnType()) {
+                    throw new IllegalArgumentException("Interface method clashes with enum method: " + method);
+                }
+
+                continue;
+            } catch (NoSuchMethodException e) {
+                // Not implemented by enum
+            }
+
+            result.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+        }
+
+        return List.copyOf(result.values());
+    }
+
+    @Override
+    public String getId() {
+        return "Interface";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Implement interface with constant-specific behavior dispatched through invokedynamic call sites";
+    }
+
+    @Override
+    public List<String> getInterfaceNames() {
+        return List.of(Type.getInternalName(interfaceClass));
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        List<String> handlerNames = new ArrayList<>();
+        int[] handlerOf = new int[elementNames.size()];
+        for (int i = 0; i < handlerOf.length; i++) {
+            String handler = (itemList == null) ? null : itemList.getHandler(elementNames.get(i));
+
+            if (handler == null) {
+                handlerOf[i] = -1;
+            } else {
+                if (!handlerNames.contains(handler)) {
+                    handlerNames.add(handler);
+                }
+
+                handlerOf[i] = handlerNames.indexOf(handler);
+            }
+        }
+
+        generateField(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo, HugeEnumDispatch.encodeNames(handlerNames), HugeEnumDispatch.encode(handlerOf));
+
+        for (Method method : methods) {
+            generateMethod(classWriter, method);
+        }
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_DISPATCH;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateField(ClassWriter classWriter) {
+        // Not final: field is initialized outside of <clinit>. Read once by call site bootstrap
+        classWriter
+            .visitField(
+                ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                MEMBER_NAME_DISPATCH,
+                DESCRIPTOR_DISPATCH,
+                null,
+                null
+            )
+            .visitEnd();
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, String names, String table) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_DISPATCH,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_METHOD_HANDLES, MEMBER_NAME_LOOKUP, DESCRIPTOR_NOARG_LOOKUP, false);
+        methodVisitor.visitLdcInsn(Type.getType(interfaceClass));
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(names));
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(table));
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_DISPATCH, MEMBER_NAME_DECODE, DESCRIPTOR_DECODE, false);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_DISPATCH, DESCRIPTOR_DISPATCH);
+
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(3 + PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateMethod(ClassWriter classWriter, Method method) {
+        Type methodType = Type.getType(method);
+        Type[] argumentTypes = methodType.getArgumentTypes();
+
+        Type[] callSiteArgumentTypes = new Type[argumentTypes.length + 1];
+        callSiteArgumentTypes[0] = Type.getType(interfaceClass);
+        System.arraycopy(argumentTypes, 0, callSiteArgumentTypes, 1, argumentTypes.length);
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            method.getName(),
+            methodType.getDescriptor(),
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitVarInsn(ALOAD, 0);
+
+        int slot = 1;
+        for (Type argumentType : argumentTypes) {
+            methodVisitor.visitVarInsn(argumentType.getOpcode(ILOAD), slot);
+            slot += argumentType.getSize();
+        }
+
+        methodVisitor.visitInvokeDynamicInsn(
+            method.getName(),
+            Type.getMethodDescriptor(methodType.getReturnType(), callSiteArgumentTypes),
+            BOOTSTRAP_HANDLE,
+            MEMBER_NAME_DISPATCH
+        );
+        methodVisitor.visitInsn(methodType.getReturnType().getOpcode(IRETURN));
+        methodVisitor.visitMaxs(Math.max(slot, methodType.getReturnType().getSize()), slot);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
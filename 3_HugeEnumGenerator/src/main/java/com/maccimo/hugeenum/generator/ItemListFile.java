@@ -0,0 +1,249 @@
+package com.maccimo.hugeenum.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Item list of enumeration.
+ *
+ * UTF-8 text file, either one element name per line or element names with columns in metadata file
+ * format (see {@link MetadataFile}). Lines starting with {@code #} are comments.
+ * Line {@code [name]} starts category section: following elements belong to category {@code name}.
+ * Elements are grouped by category, so every category occupies contiguous ordinal range.
+ * Elements listed before the first section come first and belong to no category.
+ * <p>
+ * Item list with {@code PARENT} column is laid out in preorder instead, so descendants of every element
+ * occupy contiguous ordinal range; roots and children keep their relative order. Categories then may be
+ * non-contiguous.
+ * <p>
+ * Line {@code @handler <class>} declares handler class of interface methods (see {@link InterfaceEnumFeature})
+ * for elements of current category section, or for all elements if it precedes the first section.
+ * {@code HANDLER} column declares handler of single element and takes precedence.
+ */
+public class ItemListFile {
+
+    private static final String COMMENT_PREFIX = "#";
+    private static final String SECTION_PREFIX = "[";
+    private static final String SECTION_SUFFIX = "]";
+    private static final String HANDLER_DIRECTIVE = "@handler";
+
+    private final List<String> elementNames;
+    private final MetadataFile columns;
+    private final List<String> categoryNames;
+    private final Map<String, Integer> categories;
+    // Key -1 holds default handler
+    private final Map<Integer, String> handlers;
+
+    private ItemListFile(List<String> elementNames, MetadataFile columns, List<String> categoryNames, Map<String, Integer> categories, Map<Integer, String> handlers) {
+        this.elementNames = Collections.unmodifiableList(elementNames);
+        this.columns = columns;
+        this.categoryNames = Collections.unmodifiableList(categoryNames);
+        this.categories = categories;
+        this.handlers = handlers;
+    }
+
+    public static ItemListFile read(Path path) throws IOException {
+        return parse(Files.readAllLines(path, StandardCharsets.UTF_8), path.toString());
+    }
+
+    /**
+     * @param source File name for error messages
+     * @throws IOException Malformed content
+     */
+    public static ItemListFile parse(List<String> lines, String source) throws IOException {
+        List<String> categoryNames = new ArrayList<>();
+
+        // Section lines are blanked to keep line numbers of the rest
+        List<String> itemLines = new ArrayList<>(lines.size());
+        int[] lineCategories = new int[lines.size()];
+        int category = -1;
+        Map<Integer, String> handlers = new HashMap<>();
+
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            String line = lines.get(lineIndex).trim();
+
+            if (line.startsWith(SECTION_PREFIX) && line.endsWith(SECTION_SUFFIX)) {
+                String categoryName = line.substring(SECTION_PREFIX.length(), line.length() - SECTION_SUFFIX.length()).trim();
+
+                if (!Main.isValidJavaIdentifier(categoryName)) {
+                    throw new IOException(source + ":" + (lineIndex + 1) + ": invalid category name: " + categoryName);
+                }
+
+                category = categoryNames.indexOf(categoryName);
+                if (category < 0) {
+                    category = categoryNames.size();
+                    categoryNames.add(categoryName);
+                }
+
+                line = "";
+            } else if (line.startsWith(HANDLER_DIRECTIVE + " ")) {
+                String handler = line.substring(HANDLER_DIRECTIVE.length()).trim();
+
+                if (!MetadataFile.isValidClassName(handler)) {
+                    throw new IOException(source + ":" + (lineIndex + 1) + ": invalid handler class name: " + handler);
+                }
+                if (handlers.put(category, handler) != null) {
+                    throw new IOException(source + ":" + (lineIndex + 1) + ": handler is already declared");
+                }
+
+                line = "";
+            }
+
+            itemLines.add(line);
+            lineCategories[lineIndex] = category;
+        }
+
+        MetadataFile columns = MetadataFile.hasColumns(itemLines) ? MetadataFile.parse(itemLines, source) : null;
+
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i <= categoryNames.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+
+        Map<String, Integer> categories = new HashMap<>();
+        Set<String> listedNames = new HashSet<>();
+        boolean columnsDeclared = false;
+
+        for (int lineIndex = 0; lineIndex < itemLines.size(); lineIndex++) {
+            String line = itemLines.get(lineIndex);
+
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+
+            String elementName;
+            if (columns == null) {
+                elementName = line;
+            } else if (!columnsDeclared) {
+                columnsDeclared = true;
+                continue;
+            } else {
+                elementName = MetadataFile.parseElementName(line, source + ":" + (lineIndex + 1));
+            }
+
+            if (!listedNames.add(elementName)) {
+                throw new IOException(source + ":" + (lineIndex + 1) + ": element " + elementName + " is listed twice");
+            }
+
+            if (lineCategories[lineIndex] >= 0) {
+                categories.put(elementName, lineCategories[lineIndex]);
+            }
+
+            groups.get(lineCategories[lineIndex] + 1).add(elementName);
+        }
+
+        List<String> elementNames = new ArrayList<>();
+        for (List<String> group : groups) {
+            elementNames.addAll(group);
+        }
+
+        if (columns != null && columns.getParentColumn() >= 0) {
+            elementNames = toPreorder(elementNames, columns, source);
+        }
+
+        return new ItemListFile(elementNames, columns, categoryNames, categories, handlers);
+    }
+
+    /**
+     * @throws IOException Parent references form a cycle
+     */
+    private static List<String> toPreorder(List<String> elementNames, MetadataFile columns, String source) throws IOException {
+        Map<String, List<String>> children = new HashMap<>();
+        List<String> roots = new ArrayList<>();
+
+        for (String elementName : elementNames) {
+            String parent = columns.getParent(elementName);
+
+            if (parent == null) {
+                roots.add(elementName);
+            } else {
+                children.computeIfAbsent(parent, key -> new ArrayList<>()).add(elementName);
+            }
+        }
+
+        List<String> result = new ArrayList<>(elementNames.size());
+        Deque<String> stack = new ArrayDeque<>();
+
+        for (String root : roots) {
+            stack.push(root);
+
+            while (!stack.isEmpty()) {
+                String elementName = stack.pop();
+                result.add(elementName);
+
+                List<String> elementChildren = children.getOrDefault(elementName, List.of());
+                for (int i = elementChildren.size() - 1; i >= 0; i--) {
+                    stack.push(elementChildren.get(i));
+                }
+            }
+        }
+
+        if (result.size() != elementNames.size()) {
+            List<String> cycle = new ArrayList<>(elementNames);
+            cycle.removeAll(Set.copyOf(result));
+            throw new IOException(source + ": parent references form a cycle: " + String.join(", ", cycle));
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Element names grouped by category or in preorder
+     */
+    public List<String> getElementNames() {
+        return elementNames;
+    }
+
+    /**
+     * @return Columns declared by item list or {@code null}
+     */
+    public MetadataFile getColumns() {
+        return columns;
+    }
+
+    public List<String> getCategoryNames() {
+        return categoryNames;
+    }
+
+    /**
+     * @return Category index of element or {@code -1}
+     */
+    public int getCategory(String elementName) {
+        return categories.getOrDefault(elementName, -1);
+    }
+
+    /**
+     * @return {@code true} if item list declares any handler
+     */
+    public boolean hasHandlers() {
+        return !handlers.isEmpty() || (columns != null && columns.getHandlerColumn() >= 0);
+    }
+
+    /**
+     * @return Handler class name of element declared by column, category section or default; {@code null} if none
+     */
+    public String getHandler(String elementName) {
+        String handler = (columns == null) ? null : columns.getHandler(elementName);
+
+        if (handler == null) {
+            handler = handlers.get(getCategory(elementName));
+        }
+        if (handler == null) {
+            handler = handlers.get(-1);
+        }
+
+        return handler;
+    }
+
+}
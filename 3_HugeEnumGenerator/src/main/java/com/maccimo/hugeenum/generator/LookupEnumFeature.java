@@ -0,0 +1,149 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumLookup;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Allocation-free lookup by name, alias or name ignoring case.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code static E lookup(CharSequence)} - element with given name</li>
+ *     <li>{@code static E lookupIgnoreCase(CharSequence)} - element with given name ignoring case</li>
+ *     <li>{@code static E lookupWithAliases(CharSequence)} - element with given name or alias</li>
+ * </ul>
+ * Methods return {@code null} for unknown name instead of throwing like {@code valueOf(String)}.
+ * Names, aliases and case-folded names share one perfect hash table precomputed and stored in the constant pool
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumLookup}).
+ * Aliases are declared by {@code ALIASES} column of item list.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class LookupEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_LOOKUP = "com/maccimo/hugeenum/runtime/HugeEnumLookup";
+
+    private static final String MEMBER_NAME_LOOKUP_FIELD = "$LOOKUP";
+    private static final String MEMBER_NAME_INIT_LOOKUP = "$initLookup";
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_LOOKUP = "lookup";
+    private static final String MEMBER_NAME_LOOKUP_IGNORE_CASE = "lookupIgnoreCase";
+    private static final String MEMBER_NAME_LOOKUP_WITH_ALIASES = "lookupWithAliases";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_GET = "get";
+    private static final String MEMBER_NAME_GET_IGNORE_CASE = "getIgnoreCase";
+    private static final String MEMBER_NAME_GET_WITH_ALIASES = "getWithAliases";
+
+    private static final String DESCRIPTOR_LOOKUP = "L" + CLASS_NAME_LOOKUP + ";";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_CHAR_SEQUENCE_OBJECT = "(Ljava/lang/CharSequence;)Ljava/lang/Object;";
+    private static final String DESCRIPTOR_STRING_OBJECT_ARRAY_LOOKUP = "(Ljava/lang/String;[Ljava/lang/Object;)" + DESCRIPTOR_LOOKUP;
+
+    private final MetadataFile columns;
+
+    /**
+     * Lookup without aliases.
+     */
+    public LookupEnumFeature() {
+        this(null);
+    }
+
+    /**
+     * @param columns Item list with {@code ALIASES} column or {@code null}
+     */
+    public LookupEnumFeature(MetadataFile columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public String getId() {
+        return "Lookup";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Allocation-free name lookup: lookup(), lookupIgnoreCase() and lookupWithAliases()";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        List<List<String>> aliases = new ArrayList<>(elementNames.size());
+        for (String elementName : elementNames) {
+            aliases.add((columns == null) ? List.of() : columns.getAliases(elementName));
+        }
+
+        generateField(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo, HugeEnumLookup.encode(elementNames, aliases));
+        generateLookup(classWriter, enumClassInfo, MEMBER_NAME_LOOKUP, MEMBER_NAME_GET);
+        generateLookup(classWriter, enumClassInfo, MEMBER_NAME_LOOKUP_IGNORE_CASE, MEMBER_NAME_GET_IGNORE_CASE);
+        generateLookup(classWriter, enumClassInfo, MEMBER_NAME_LOOKUP_WITH_ALIASES, MEMBER_NAME_GET_WITH_ALIASES);
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_LOOKUP;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateField(ClassWriter classWriter) {
+        // Not final: field is initialized outside of <clinit>
+        classWriter
+            .visitField(
+                ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                MEMBER_NAME_LOOKUP_FIELD,
+                DESCRIPTOR_LOOKUP,
+                null,
+                null
+            )
+            .visitEnd();
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, String table) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_LOOKUP,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(table));
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_LOOKUP, MEMBER_NAME_DECODE, DESCRIPTOR_STRING_OBJECT_ARRAY_LOOKUP, false);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_LOOKUP_FIELD, DESCRIPTOR_LOOKUP);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(1 + PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateLookup(ClassWriter classWriter, EnumClassInfo enumClassInfo, String methodName, String lookupMethodName) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            methodName,
+            "(Ljava/lang/CharSequence;)" + enumClassInfo.getBinaryEnumClassName(),
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_LOOKUP_FIELD, DESCRIPTOR_LOOKUP);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_LOOKUP, lookupMethodName, DESCRIPTOR_CHAR_SEQUENCE_OBJECT, false);
+        methodVisitor.visitTypeInsn(CHECKCAST, enumClassInfo.getEnumClassName());
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
@@ -1,15 +1,27 @@
 package com.maccimo.hugeenum.generator;
 
+import com.maccimo.hugeenum.runtime.HugeEnumFingerprint;
+import com.maccimo.hugeenum.runtime.HugeEnumJarIndex;
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata;
+import com.maccimo.hugeenum.runtime.HugeEnumNameIndex;
+import com.maccimo.hugeenum.runtime.HugeEnumRemap;
 import org.kohsuke.args4j.Argument;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
+import org.objectweb.asm.Type;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -20,8 +32,10 @@ public class Main {
 
     private static final String FILE_SUFFIX_CLASS = ".class";
     private static final String MEMBER_NAME_FORMAT = "VALUE_%05d";
+    private static final String BATCH_COMMENT_PREFIX = "#";
+    private static final char BATCH_QUOTE = '"';
 
-    @Argument(metaVar = "<enum name>", required = true)
+    @Argument(metaVar = "<enum name>")
     private String enumName;
 
     @Option(name = "-d", metaVar = "<directory>")
@@ -36,6 +50,36 @@ public class Main {
     @Option(name = "-a", metaVar = "<algorithm>")
     private String algorithmName;
 
+    @Option(name = "-f", metaVar = "<feature>")
+    private List<String> featureNames = new ArrayList<>();
+
+    @Option(name = "-i")
+    private boolean writeNameIndex;
+
+    @Option(name = "-n")
+    private boolean elideNamePattern;
+
+    @Option(name = "-l", metaVar = "<lock file>")
+    private String lockFilePath;
+
+    @Option(name = "-p")
+    private boolean pruneLockedNames;
+
+    @Option(name = "-m", metaVar = "<metadata file>")
+    private String metadataFilePath;
+
+    @Option(name = "-b", forbids = { "-e", "-c" }, metaVar = "<batch file>")
+    private String batchFilePath;
+
+    @Option(name = "-j")
+    private boolean writeJarIndex;
+
+    @Option(name = "-t", metaVar = "<interface>")
+    private String interfaceName;
+
+    @Option(name = "--dry-run")
+    private boolean dryRun;
+
     @Option(name = "-h", aliases = { "-?" }, help = true)
     private boolean showHelp;
 
@@ -57,103 +101,489 @@ public class Main {
                 showHelp();
                 System.exit(0);
             } else {
-                assert (enumName != null) : "Enum name not initialized";
+                List<Main> jobs;
+                if (batchFilePath != null) {
+                    jobs = readBatch();
+                } else if (enumName != null) {
+                    jobs = List.of(this);
+                } else {
+                    throw new CmdLineException(parser, "Enum name or batch file is required", null);
+                }
 
-                String[] enumNameParts = enumName.split("\\.");
+                HugeEnumJarIndex.Builder jarIndex = HugeEnumJarIndex.builder();
 
-                if ((enumNameParts.length < 1) || !Stream.of(enumNameParts).allMatch(Main::isValidJavaIdentifier)) {
-                    error("Invalid enum name: " + enumName);
+                Path jarIndexPath = getOutputDirectory().resolve(HugeEnumJarIndex.RESOURCE_NAME);
+                if (writeJarIndex && Files.exists(jarIndexPath)) {
+                    jarIndex.addAll(HugeEnumJarIndex.read(Files.readAllBytes(jarIndexPath), null));
                 }
 
-                String enumClassFileName = enumNameParts[enumNameParts.length - 1] + FILE_SUFFIX_CLASS;
-                String binaryEnumClassName = String.join("/", enumNameParts);
+                for (Main job : jobs) {
+                    job.generate(jarIndex);
+                }
 
-                Path outputFilePath = Paths.get(enumClassFileName);
-                if (outputPath != null) {
-                    Path outputDirectoryPath = Paths.get(outputPath);
+                if (writeJarIndex && !dryRun) {
+                    System.out.printf("Writing file %s%n", jarIndexPath);
 
-                    if (Files.exists(outputDirectoryPath)) {
-                        outputFilePath = Paths.get(outputPath, enumClassFileName);
-                    } else {
-                        error("Invalid output directory path: " + outputPath);
+                    Files.createDirectories(jarIndexPath.getParent());
+                    Files.write(jarIndexPath, jarIndex.toByteArray());
+                }
+            }
+        } catch (CmdLineException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println();
+
+            showHelp();
+            System.exit(-1);
+        }
+    }
+
+    private List<Main> readBatch() throws IOException, CmdLineException {
+        Path path = Paths.get(batchFilePath);
+
+        if (!Files.exists(path)) {
+            error(String.format("Batch file '%s' not found!", path));
+        }
+
+        List<Main> result = new ArrayList<>();
+
+        for (String line : Files.readAllLines(path)) {
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith(BATCH_COMMENT_PREFIX)) {
+                continue;
+            }
+
+            Main job = new Main();
+            job.outputPath = outputPath;
+            job.algorithmName = algorithmName;
+            job.featureNames = new ArrayList<>(featureNames);
+            job.writeNameIndex = writeNameIndex;
+            job.elideNamePattern = elideNamePattern;
+            job.pruneLockedNames = pruneLockedNames;
+            job.dryRun = dryRun;
+
+            CmdLineParser parser = new CmdLineParser(job);
+            try {
+                parser.parseArgument(splitBatchLine(line));
+            } catch (IllegalArgumentException e) {
+                throw new CmdLineException(parser, e.getMessage() + ": " + line, e);
+            }
+
+            if (job.enumName == null || job.batchFilePath != null) {
+                throw new CmdLineException(parser, "Invalid batch line: " + line, null);
+            }
+
+            if (job.writeJarIndex) {
+                throw new CmdLineException(parser, "Option -j is not allowed in batch line, give it on the command line: " + line, null);
+            }
+
+            result.add(job);
+        }
+
+        return result;
+    }
+
+    private void generate(HugeEnumJarIndex.Builder jarIndex) throws IOException {
+        String[] enumNameParts = enumName.split("\\.");
+
+        if ((enumNameParts.length < 1) || !Stream.of(enumNameParts).allMatch(Main::isValidJavaIdentifier)) {
+            error("Invalid enum name: " + enumName);
+        }
+
+        String enumClassFileName = enumNameParts[enumNameParts.length - 1] + FILE_SUFFIX_CLASS;
+        String binaryEnumClassName = String.join("/", enumNameParts);
+
+        Path outputFilePath = Paths.get(enumClassFileName);
+        if (outputPath != null) {
+            Path outputDirectoryPath = Paths.get(outputPath);
+
+            if (Files.exists(outputDirectoryPath)) {
+                outputFilePath = Paths.get(outputPath, enumClassFileName);
+            } else {
+                error("Invalid output directory path: " + outputPath);
+            }
+        }
+
+        if (algorithmName == null) {
+            algorithmName = DEFAULT_ALGORITHM_NAME;
+        }
+
+        IEnumGeneratorFactory enumGeneratorFactory = EnumGeneratorRegistry.INSTANCE.getById(algorithmName);
+
+        if (enumGeneratorFactory == null) {
+            error("Unknown algorithm: " + algorithmName);
+        } else {
+            List<String> elementNames;
+            ItemListFile itemList = null;
+            MetadataFile itemColumns = null;
+            if (itemListPath != null) {
+
+                Path path = Paths.get(itemListPath);
+
+                if (!Files.exists(path)) {
+                    error(String.format("Item list file '%s' not found!", path));
+                }
+
+                itemList = ItemListFile.read(path);
+                itemColumns = itemList.getColumns();
+                elementNames = itemList.getElementNames();
+
+                List<String> invalidItems = elementNames
+                    .stream()
+                    .filter(item -> !isValidJavaIdentifier(item))
+                    .collect(Collectors.toList());
+
+                if (!invalidItems.isEmpty()) {
+                    System.err.println("Invalid element names encountered:");
+                    for (String invalidItem : invalidItems) {
+                        System.err.println("\t" + invalidItem);
                     }
+                    System.exit(-1);
+                }
+            } else {
+                if (fieldCount == null) {
+                    fieldCount = enumGeneratorFactory.getDefaultElementCount();
                 }
 
-                if (algorithmName == null) {
-                    algorithmName = DEFAULT_ALGORITHM_NAME;
+                elementNames = generateElementNames(fieldCount);
+            }
+
+            OrdinalLockFile lock = null;
+            OrdinalLockFile.Merge lockMerge = null;
+            if (lockFilePath != null) {
+                lock = OrdinalLockFile.read(Paths.get(lockFilePath));
+                lockMerge = lock.merge(elementNames, pruneLockedNames);
+
+                for (String missingName : lockMerge.getMissingNames()) {
+                    warning(String.format(
+                        pruneLockedNames
+                            ? "Warning: locked element %s is absent from item list and is removed, ordinals are changed"
+                            : "Warning: locked element %s is absent from item list and is retained to keep ordinals",
+                        missingName
+                    ));
                 }
 
-                IEnumGeneratorFactory enumGeneratorFactory = EnumGeneratorRegistry.INSTANCE.getById(algorithmName);
+                elementNames = lockMerge.getElementNames();
+            }
 
-                if (enumGeneratorFactory == null) {
-                    error("Unknown algorithm: " + algorithmName);
-                } else {
-                    List<String> elementNames;
-                    if (itemListPath != null) {
+            NamePattern namePattern = null;
+            if (elideNamePattern) {
+                namePattern = NamePattern.detect(elementNames);
 
-                        Path path = Paths.get(itemListPath);
+                if (namePattern == null) {
+                    warning("Warning: element names do not follow prefix and zero-padded counter pattern, the -n option is ignored");
+                }
+            }
 
-                        if (!Files.exists(path)) {
-                            error(String.format("Item list file '%s' not found!", path));
-                        }
+            List<IEnumFeature> features = new ArrayList<>();
+            for (String featureName : featureNames) {
+                IEnumFeature feature = EnumFeatureRegistry.INSTANCE.getById(featureName);
 
-                        elementNames = Files
-                            .lines(path)
-                            .map(String::trim)
-                            .filter(s -> !s.isEmpty())
-                            .collect(Collectors.toList());
-
-                        List<String> invalidItems = elementNames
-                            .stream()
-                            .filter(item -> !isValidJavaIdentifier(item))
-                            .collect(Collectors.toList());
-
-                        if (!invalidItems.isEmpty()) {
-                            System.err.println("Invalid element names encountered:");
-                            for (String invalidItem : invalidItems) {
-                                System.err.println("\t" + invalidItem);
-                            }
-                            System.exit(-1);
-                        }
-                    } else {
-                        if (fieldCount == null) {
-                            fieldCount = enumGeneratorFactory.getDefaultElementCount();
+                if (feature == null) {
+                    error("Unknown feature: " + featureName);
+                } else if (!features.contains(feature)) {
+                    features.add(feature);
+                }
+            }
+
+            if (itemColumns != null) {
+                features.add(new ColumnsEnumFeature(itemColumns));
+            }
+
+            if (itemList != null && !itemList.getCategoryNames().isEmpty()) {
+                features.add(new CategoriesEnumFeature(itemList));
+            }
+
+            if (itemColumns != null && itemColumns.getParentColumn() >= 0) {
+                features.add(new HierarchyEnumFeature(itemColumns));
+            }
+
+            if (interfaceName != null) {
+                Class<?> interfaceClass = null;
+
+                try {
+                    interfaceClass = Class.forName(interfaceName, false, Main.class.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    error(String.format("Interface %s not found on generator class path", interfaceName));
+                }
+
+                if (!interfaceClass.isInterface()) {
+                    error(String.format("%s is not an interface", interfaceName));
+                }
+
+                features.add(new InterfaceEnumFeature(interfaceClass, itemList));
+            } else if (itemList != null && itemList.hasHandlers()) {
+                warning("Warning: handlers declared in item list are ignored, no interface is given by the -t option");
+            }
+
+            if (itemColumns != null && itemColumns.getAliasesColumn() >= 0) {
+                features.removeIf(feature -> feature instanceof LookupEnumFeature);
+                features.add(new LookupEnumFeature(itemColumns));
+            }
+
+            MetadataFile metadata = null;
+            if (metadataFilePath != null) {
+                Path path = Paths.get(metadataFilePath);
+
+                if (!Files.exists(path)) {
+                    error(String.format("Metadata file '%s' not found!", path));
+                }
+
+                metadata = MetadataFile.read(path);
+
+                if (metadata.getCodeColumn() >= 0) {
+                    error(String.format("%s column is supported in item list only", MetadataFile.CODE_TYPE_NAME));
+                }
+
+                if (metadata.getParentColumn() >= 0) {
+                    error(String.format("%s column is supported in item list only", MetadataFile.PARENT_TYPE_NAME));
+                }
+
+                if (metadata.getAliasesColumn() >= 0) {
+                    error(String.format("%s column is supported in item list only", MetadataFile.ALIASES_TYPE_NAME));
+                }
+
+                if (metadata.getHandlerColumn() >= 0) {
+                    error(String.format("%s column is supported in item list only", MetadataFile.HANDLER_TYPE_NAME));
+                }
+
+                for (String unknownName : metadata.getUnknownNames(elementNames)) {
+                    warning(String.format("Warning: metadata of unknown element %s is ignored", unknownName));
+                }
+
+                if (itemColumns != null) {
+                    for (String columnName : metadata.getColumnNames()) {
+                        if (itemColumns.getColumnNames().contains(columnName)) {
+                            error(String.format("Column %s is defined both in item list and metadata file", columnName));
                         }
+                    }
+                }
+
+                features.add(new MetadataEnumFeature(metadata.getColumnNames(), metadata.getColumnTypes()));
+            }
+
+            try {
+                checkMethodClashes(features, new EnumClassInfo(binaryEnumClassName, elementNames));
+            } catch (IllegalArgumentException e) {
+                error(e.getMessage());
+            }
+
+            System.out.printf("Generating enum %s...%n", enumName);
+            System.out.printf("Algorithm used: %s%n", algorithmName);
+            if (!features.isEmpty()) {
+                System.out.printf(
+                    "Features used: %s%n",
+                    features.stream().map(IEnumFeature::getId).collect(Collectors.joining(", "))
+                );
+            }
+            System.out.printf("Element count: %d%n", elementNames.size());
+            if (namePattern != null) {
+                System.out.printf(
+                    "Name pattern: %s followed by %d-digit counter starting at %d%n",
+                    namePattern.getPrefix(), namePattern.getWidth(), namePattern.getFirst()
+                );
+            }
+
+            IEnumGenerator enumGenerator = enumGeneratorFactory.create(binaryEnumClassName, elementNames, features, namePattern);
 
-                        elementNames = generateElementNames(fieldCount);
+            CapacityPlan plan = enumGenerator.plan();
+
+            if (dryRun) {
+                printPlan(plan, elementNames, !features.isEmpty());
+
+                System.out.println("Dry run, no files written.");
+                return;
+            }
+
+            // Plan leaves out members added by features, so with features only overflow is certain
+            if (!plan.fits() && features.isEmpty()) {
+                warning(String.format(
+                    "Warning: element %s (index %d) and following exceed %s limit of selected algorithm (%s)",
+                    elementNames.get(plan.getFirstOverflowIndex()), plan.getFirstOverflowIndex(), plan.getOverflowLimit(), algorithmName
+                ));
+            } else if (!plan.fits()) {
+                warning(String.format(
+                    "Warning: enumeration exceeds %s limit of selected algorithm (%s) even without members added by features",
+                    plan.getOverflowLimit(), algorithmName
+                ));
+            }
+
+            System.out.printf("Writing file %s%n", outputFilePath);
+
+            byte[] classBytes = enumGenerator.generate();
+
+            Files.write(outputFilePath, classBytes);
+
+            if (writeNameIndex) {
+                Path indexFilePath = outputFilePath.resolveSibling(
+                    enumNameParts[enumNameParts.length - 1] + HugeEnumNameIndex.FILE_SUFFIX
+                );
+
+                System.out.printf("Writing file %s%n", indexFilePath);
+
+                HugeEnumNameIndex.write(indexFilePath, elementNames);
+            }
+
+            if (metadata != null) {
+                Path metadataResourcePath = outputFilePath.resolveSibling(
+                    enumNameParts[enumNameParts.length - 1] + HugeEnumMetadata.FILE_SUFFIX
+                );
+
+                System.out.printf("Writing file %s%n", metadataResourcePath);
+
+                Files.write(metadataResourcePath, metadata.toByteArray(elementNames));
+            }
+
+            if (lockMerge != null) {
+                System.out.printf("Writing file %s%n", lockFilePath);
+
+                OrdinalLockFile.write(Paths.get(lockFilePath), elementNames);
+
+                if (!lock.isEmpty()) {
+                    Path remapFilePath = outputFilePath.resolveSibling(
+                        enumNameParts[enumNameParts.length - 1] + HugeEnumRemap.FILE_SUFFIX
+                    );
+
+                    System.out.printf("Writing file %s%n", remapFilePath);
+
+                    Files.write(
+                        remapFilePath,
+                        HugeEnumRemap.toByteArray(
+                            HugeEnumFingerprint.compute(lock.getElementNames()),
+                            HugeEnumFingerprint.compute(elementNames),
+                            elementNames.size(),
+                            lockMerge.getRemap()
+                        )
+                    );
+                }
+            }
+
+            jarIndex.add(enumName, enumGeneratorFactory.getId(), elementNames);
+
+            System.out.println("Done.");
+        }
+    }
+
+    /**
+     * Split batch line into arguments separated by whitespace. Double-quoted part of argument may contain
+     * whitespace, doubled quote inside it stands for the quote itself.
+     *
+     * @throws IllegalArgumentException Quoted part is not terminated
+     */
+    static List<String> splitBatchLine(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder argument = new StringBuilder();
+        boolean inArgument = false;
+        int position = 0;
+
+        while (position < line.length()) {
+            char c = line.charAt(position++);
+
+            if (c == BATCH_QUOTE) {
+                inArgument = true;
+
+                while (true) {
+                    if (position >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted argument");
                     }
 
-                    if (elementNames.size() > enumGeneratorFactory.getMaximumElementCount()) {
-                        warning(String.format(
-                            "Enum elements count (%d) exceeds maximum (%d), supported by selected algorithm (%s)",
-                            elementNames.size(), enumGeneratorFactory.getMaximumElementCount(), algorithmName
-                        ));
+                    c = line.charAt(position++);
+                    if (c != BATCH_QUOTE) {
+                        argument.append(c);
+                    } else if (position < line.length() && line.charAt(position) == BATCH_QUOTE) {
+                        argument.append(BATCH_QUOTE);
+                        position++;
+                    } else {
+                        break;
                     }
+                }
+            } else if (Character.isWhitespace(c)) {
+                if (inArgument) {
+                    result.add(argument.toString());
+                    argument.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                argument.append(c);
+                inArgument = true;
+            }
+        }
 
-                    System.out.printf("Generating enum %s...%n", enumName);
-                    System.out.printf("Algorithm used: %s%n", algorithmName);
-                    System.out.printf("Element count: %d%n", elementNames.size());
+        if (inArgument) {
+            result.add(argument.toString());
+        }
 
-                    IEnumGenerator enumGenerator = enumGeneratorFactory.create(binaryEnumClassName, elementNames);
+        return result;
+    }
 
-                    System.out.printf("Writing file %s%n", outputFilePath);
+    private static void printPlan(CapacityPlan plan, List<String> elementNames, boolean hasFeatures) {
+        System.out.printf(
+            "Constant pool count: %d of %d, headroom %d%n",
+            plan.getConstantPoolCount(), CapacityPlan.MAX_CONSTANT_POOL_COUNT, plan.getConstantPoolHeadroom()
+        );
+        System.out.printf(
+            "Largest method: %s, code size %d of %d, headroom %d%n",
+            plan.getLargestMethod(), plan.getLargestCodeSize(), CapacityPlan.MAX_CODE_SIZE, plan.getCodeSizeHeadroom()
+        );
+        System.out.printf("Class size: %d bytes%n", plan.getClassSize());
+
+        if (hasFeatures) {
+            // Features only add members: overflow is certain, fit is not
+            System.out.println("Members added by features are not counted.");
+
+            if (!plan.fits()) {
+                System.out.printf("Exceeds %s even without members added by features%n", plan.getOverflowLimit());
+            }
+        } else if (plan.fits()) {
+            System.out.println("All elements fit.");
+        } else {
+            System.out.printf(
+                "First overflowing element: %s (index %d), exceeds %s%n",
+                elementNames.get(plan.getFirstOverflowIndex()), plan.getFirstOverflowIndex(), plan.getOverflowLimit()
+            );
+        }
+    }
 
-                    byte[] classBytes = enumGenerator.generate();
+    /**
+     * Reject features generating methods with the same name and parameters as method of another feature
+     * or method every enum has, e.g. column accessor named after method of other feature.
+     *
+     * @throws IllegalArgumentException Methods clash
+     */
+    static void checkMethodClashes(List<IEnumFeature> features, EnumClassInfo enumClassInfo) {
+        Map<String, String> owners = new HashMap<>();
+
+        // Static values() and valueOf(String) are generated for every enum
+        owners.put("values()", "enum");
+        owners.put("valueOf(Ljava/lang/String;)", "enum");
+
+        for (Class<?> superclass : List.of(Enum.class, Object.class)) {
+            for (Method method : superclass.getDeclaredMethods()) {
+                if (!Modifier.isPrivate(method.getModifiers())) {
+                    String descriptor = Type.getMethodDescriptor(method);
+                    owners.putIfAbsent(method.getName() + descriptor.substring(0, descriptor.indexOf(')') + 1), superclass.getName());
+                }
+            }
+        }
 
-                    Files.write(outputFilePath, classBytes);
+        for (IEnumFeature feature : features) {
+            for (String methodSignature : feature.getMethodSignatures(enumClassInfo)) {
+                String owner = owners.putIfAbsent(methodSignature, feature.getId() + " feature");
 
-                    System.out.println("Done.");
+                if (owner != null) {
+                    throw new IllegalArgumentException(String.format(
+                        "Method %s generated by %s feature clashes with method of %s",
+                        methodSignature, feature.getId(), owner
+                    ));
                 }
             }
-        } catch (CmdLineException e) {
-            System.out.println("Error: " + e.getMessage());
-            System.out.println();
-
-            showHelp();
-            System.exit(-1);
         }
     }
 
+    private Path getOutputDirectory() {
+        return (outputPath != null) ? Paths.get(outputPath) : Paths.get("");
+    }
+
     private static void error(String message) {
         System.err.print("Error: ");
         System.err.println(message);
@@ -164,7 +594,7 @@ public class Main {
         System.out.println(message);
     }
 
-    private static boolean isValidJavaIdentifier(String identifier) {
+    static boolean isValidJavaIdentifier(String identifier) {
         return
             !identifier.isEmpty() &&
             Character.isJavaIdentifierStart(identifier.codePointAt(0)) &&
@@ -194,6 +624,7 @@ public class Main {
         System.out.println();
         System.out.println("Usage:");
         System.out.println("    java -jar HugeEnumGen.jar [ <options> ] <enum name>");
+        System.out.println("    java -jar HugeEnumGen.jar [ <options> ] -b <batch file>");
         System.out.println();
         System.out.println("    <enum name>");
         System.out.println("        An enumeration class name.");
@@ -208,6 +639,23 @@ public class Main {
         System.out.println("    -e <item list file>");
         System.out.println("        Path to UTF8-encoded text file with list of enumeration item names.");
         System.out.println("        Item names will be autogenerated if absent.");
+        System.out.println("        May declare columns of per-element attributes embedded into the enum, in the same");
+        System.out.println("        format as the metadata file (see the -m option). Every column gets accessor method.");
+        System.out.println("        Column of type " + MetadataFile.CODE_TYPE_NAME + " holds unique integer code of every element, e.g. '@columns code:CODE'.");
+        System.out.println("        Static method from<Column>(int), e.g. fromCode(int), returning element by code is generated.");
+        System.out.println("        Line [<category>] starts section of elements belonging to the category. Elements are");
+        System.out.println("        grouped by category, every category gets constant CATEGORY_<CATEGORY> and contiguous");
+        System.out.println("        range of ordinals unless the -l option keeps previous ordinals. Methods isIn(int),");
+        System.out.println("        category() and categoryElements(int) are generated. Lines starting with # are comments.");
+        System.out.println("        Column of type " + MetadataFile.PARENT_TYPE_NAME + " holds name of parent element, empty for root, e.g.");
+        System.out.println("        '@columns up:PARENT'. Elements are laid out in preorder, so descendants of every element");
+        System.out.println("        occupy contiguous range of ordinals unless the -l option keeps previous ordinals.");
+        System.out.println("        Methods parent(), depth(), isDescendantOf(E) and descendants() are generated.");
+        System.out.println("        Column of type " + MetadataFile.ALIASES_TYPE_NAME + " holds space-separated alternative names of element, e.g.");
+        System.out.println("        '@columns aliases:ALIASES'. Implies the Lookup feature, lookupWithAliases(CharSequence) accepts them.");
+        System.out.println("        Line @handler <class> declares handler class of interface methods (see the -t option) for");
+        System.out.println("        elements of current category section, or for all elements before the first section.");
+        System.out.println("        Column of type " + MetadataFile.HANDLER_TYPE_NAME + " declares handler class of single element.");
         System.out.println("        Mutually exclusive with the -c option.");
         System.out.println();
         System.out.println("    -c <count>");
@@ -224,20 +672,101 @@ public class Main {
         System.out.println();
         System.out.println("        Default algorithm: " + DEFAULT_ALGORITHM_NAME);
         System.out.println();
+        System.out.println("    -f <feature>");
+        System.out.println("        Optional feature of generated enumeration. May be specified multiple times.");
+        System.out.println("        Supported features:");
+
+        printSupportedFeatures();
+
+        System.out.println();
+        System.out.println("    -i");
+        System.out.println("        Also write name to ordinal index file <enum simple name>" + HugeEnumNameIndex.FILE_SUFFIX + " next to the class file.");
+        System.out.println("        The index is a memory-mapped minimal perfect hash readable without loading the enum class.");
+        System.out.println();
+        System.out.println("    -n");
+        System.out.println("        Elide element names made of common prefix and zero-padded counter, e.g. names generated");
+        System.out.println("        by the -c option. Names are rebuilt arithmetically by static initializer instead of being");
+        System.out.println("        stored in the class file, valueOf(String) parses counter into ordinal without hashing.");
+        System.out.println("        Ignored with warning if names do not follow the pattern.");
+        System.out.println();
+        System.out.println("    -l <lock file>");
+        System.out.println("        Ordinal lock file. Elements listed in the lock keep their ordinals, new elements are");
+        System.out.println("        appended and the lock is updated. Locked elements absent from item list are retained.");
+        System.out.println("        If the lock existed, table translating previous ordinals to new ones is written");
+        System.out.println("        to <enum simple name>" + HugeEnumRemap.FILE_SUFFIX + " next to the class file.");
+        System.out.println();
+        System.out.println("    -p");
+        System.out.println("        Remove locked elements absent from item list. Ordinals of following elements change.");
+        System.out.println("        Takes effect together with the -l option.");
+        System.out.println();
+        System.out.println("    -m <metadata file>");
+        System.out.println("        UTF8-encoded file with per-element attributes. The first line declares columns, e.g.");
+        System.out.println("        '" + MetadataFile.COLUMNS_DIRECTIVE + " description:STRING, weight:DOUBLE'. Column types: INT, LONG, DOUBLE, STRING.");
+        System.out.println("        Every following line holds element name and comma-separated values.");
+        System.out.println("        Attributes are written to <enum simple name>" + HugeEnumMetadata.FILE_SUFFIX + " next to the class file");
+        System.out.println("        and read by generated accessor methods named after the columns. Accessors fail if");
+        System.out.println("        column names or types of the file differ from the ones the class was generated with.");
+        System.out.println();
+        System.out.println("    -b <batch file>");
+        System.out.println("        Generate several enumerations. Every non-empty line of the batch file, except");
+        System.out.println("        lines starting with #, holds options and enum name of one enumeration.");
+        System.out.println("        Arguments are separated by whitespace, argument containing whitespace must be enclosed");
+        System.out.println("        in double quotes, e.g. -e \"my items.txt\". Quote inside quotes is written twice.");
+        System.out.println("        Options -d, -a, -f, -i, -n, -p and --dry-run given on the command line are defaults for");
+        System.out.println("        every line. Features given by -f on a line are added to the default ones. Output directory");
+        System.out.println("        given by -d on a line applies to that enumeration only: the index written by the -j option");
+        System.out.println("        always goes under the command line output directory. Option -j is not allowed on a line.");
+        System.out.println("        Mutually exclusive with the -e and -c options.");
+        System.out.println();
+        System.out.println("    -j");
+        System.out.println("        Write index of generated enumerations to " + HugeEnumJarIndex.RESOURCE_NAME);
+        System.out.println("        under the output directory. Existing index is updated.");
+        System.out.println("        The index lists algorithm, element count and fingerprint of every enumeration");
+        System.out.println("        and tells which enumerations may contain a given element name.");
+        System.out.println();
+        System.out.println("    -t <interface>");
+        System.out.println("        Fully qualified name of interface to be implemented by the enumeration. The interface");
+        System.out.println("        must be on the generator class path. Every interface method calls static method with");
+        System.out.println("        the same name and the interface as extra first parameter of the element handler class");
+        System.out.println("        declared in item list (see the -e option) through invokedynamic call site. Up to 4 distinct");
+        System.out.println("        handlers of a method are inlined by JIT, more go through ordinal-indexed method handle table.");
+        System.out.println("        No per-element subclasses are generated. Elements without handler throw");
+        System.out.println("        UnsupportedOperationException.");
+        System.out.println();
+        System.out.println("    --dry-run");
+        System.out.println("        Write no files. Report constant pool count, largest method code size and class size of");
+        System.out.println("        the enumeration with headroom left to JVM limits, and the first element exceeding them.");
+        System.out.println("        Members added by features are not counted, so with features selected only certain");
+        System.out.println("        overflow is reported.");
+        System.out.println();
         System.out.println("    -h / -?");
         System.out.println("        Show this help page.");
         System.out.println();
         System.out.println("Example:");
         System.out.println();
         System.out.println("    java -jar HugeEnumGen.jar -d ./bin -c 2020 com.habr.maccimo.HugeEnum2020");
+        System.out.println("    java -jar HugeEnumGen.jar -d ./bin -j -b enums.txt");
+        System.out.println("    java -cp HugeEnumGen.jar:./api com.maccimo.hugeenum.generator.Main -d ./bin -e shapes.txt -t com.acme.Shape com.acme.Shapes");
         System.out.println();
     }
 
     private static void printSupportedAlgorithms() {
-        Map<String, String> idAndDescription = EnumGeneratorRegistry.INSTANCE.getFactories()
-            .stream()
-            .collect(Collectors.toMap(IEnumGeneratorFactory::getId, IEnumGeneratorFactory::getDescription));
+        printIdAndDescription(
+            EnumGeneratorRegistry.INSTANCE.getFactories()
+                .stream()
+                .collect(Collectors.toMap(IEnumGeneratorFactory::getId, IEnumGeneratorFactory::getDescription, (a, b) -> a, TreeMap::new))
+        );
+    }
+
+    private static void printSupportedFeatures() {
+        printIdAndDescription(
+            EnumFeatureRegistry.INSTANCE.getFeatures()
+                .stream()
+                .collect(Collectors.toMap(IEnumFeature::getId, IEnumFeature::getDescription, (a, b) -> a, TreeMap::new))
+        );
+    }
 
+    private static void printIdAndDescription(Map<String, String> idAndDescription) {
         int maxLen = idAndDescription
             .keySet()
             .stream()
@@ -0,0 +1,163 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata;
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata.ColumnType;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Accessors of per-element attributes kept in metadata resource next to the class file.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code static HugeEnumMetadata metadata()} - attribute table, mapped on first use</li>
+ *     <li>{@code static String metadataColumns()} - names and types of columns accessors expect,
+ *     checked against the resource once</li>
+ *     <li>one no-arg method per column named after the column, returning {@code int}, {@code long},
+ *     {@code double} or {@code String} value of the element</li>
+ * </ul>
+ * Class holds no attribute values, accessors read them by ordinal
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumMetadata}).
+ * Not available via {@code -f}: columns are defined by metadata file.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class MetadataEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String CLASS_NAME_METADATA = "com/maccimo/hugeenum/runtime/HugeEnumMetadata";
+
+    private static final String MEMBER_NAME_METADATA = "metadata";
+    private static final String MEMBER_NAME_METADATA_COLUMNS = "metadataColumns";
+    private static final String MEMBER_NAME_OF = "of";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+
+    private static final String DESCRIPTOR_METADATA = "L" + CLASS_NAME_METADATA + ";";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+    private static final String DESCRIPTOR_NOARG_METADATA = "()" + DESCRIPTOR_METADATA;
+    private static final String DESCRIPTOR_NOARG_STRING = "()Ljava/lang/String;";
+    private static final String DESCRIPTOR_CLASS_METADATA = "(Ljava/lang/Class;)" + DESCRIPTOR_METADATA;
+
+    private final List<String> columnNames;
+    private final List<ColumnType> columnTypes;
+
+    public MetadataEnumFeature(List<String> columnNames, List<ColumnType> columnTypes) {
+        this.columnNames = List.copyOf(columnNames);
+        this.columnTypes = List.copyOf(columnTypes);
+    }
+
+    @Override
+    public String getId() {
+        return "Metadata";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Accessors of per-element attributes stored in metadata resource";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        generateMetadata(classWriter, enumClassInfo);
+        generateMetadataColumns(classWriter);
+
+        for (int column = 0; column < columnNames.size(); column++) {
+            generateAccessor(classWriter, enumClassInfo, column);
+        }
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return null;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateMetadata(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_METADATA,
+            DESCRIPTOR_NOARG_METADATA,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitLdcInsn(Type.getType(enumClassInfo.getBinaryEnumClassName()));
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_METADATA, MEMBER_NAME_OF, DESCRIPTOR_CLASS_METADATA, false);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(1, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateMetadataColumns(ClassWriter classWriter) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_METADATA_COLUMNS,
+            DESCRIPTOR_NOARG_STRING,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitLdcInsn(HugeEnumMetadata.columnSchema(columnNames, columnTypes));
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(1, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateAccessor(ClassWriter classWriter, EnumClassInfo enumClassInfo, int column) {
+        String getterName;
+        String valueDescriptor;
+        int returnOpcode;
+
+        switch (columnTypes.get(column)) {
+            case INT:
+                getterName = "getInt";
+                valueDescriptor = "I";
+                returnOpcode = IRETURN;
+                break;
+            case LONG:
+                getterName = "getLong";
+                valueDescriptor = "J";
+                returnOpcode = LRETURN;
+                break;
+            case DOUBLE:
+                getterName = "getDouble";
+                valueDescriptor = "D";
+                returnOpcode = DRETURN;
+                break;
+            default:
+                getterName = "getString";
+                valueDescriptor = "Ljava/lang/String;";
+                returnOpcode = ARETURN;
+                break;
+        }
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            columnNames.get(column),
+            "()" + valueDescriptor,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitLdcInsn(Type.getType(enumClassInfo.getBinaryEnumClassName()));
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_METADATA, MEMBER_NAME_OF, DESCRIPTOR_CLASS_METADATA, false);
+        methodVisitor.visitLdcInsn(column);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_METADATA, getterName, "(II)" + valueDescriptor, false);
+        methodVisitor.visitInsn(returnOpcode);
+        methodVisitor.visitMaxs(3, 1);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
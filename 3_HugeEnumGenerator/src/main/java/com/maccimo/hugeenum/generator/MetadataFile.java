@@ -0,0 +1,510 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata;
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata.ColumnType;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Per-element attributes in CSV-like text form.
+ *
+ * UTF-8 text file; lines starting with {@code #} are comments. The first meaningful line declares columns:
+ * <pre>
+ *   @columns description:STRING, weight:DOUBLE, population:LONG
+ * </pre>
+ * Every following line holds element name and one value per column separated by commas.
+ * Values are trimmed; value containing commas or quotes is enclosed in double quotes with quotes doubled.
+ * Empty unquoted value or missing trailing values mean {@code 0} or {@code null}.
+ * The same format serves as item list with columns embedded into generated enum.
+ * <p>
+ * Column of type {@code CODE} holds unique external integer code of every element. It is an {@code INT}
+ * column for storage purposes; item list with such column gets lookup by code in generated enum.
+ * <p>
+ * Column of type {@code PARENT} holds name of parent element, empty for root. It is a {@code STRING}
+ * column for storage purposes; item list with such column makes generated enum hierarchical.
+ * <p>
+ * Column of type {@code ALIASES} holds alternative names of element separated by spaces. It is a {@code STRING}
+ * column for storage purposes; item list with such column gets lookup by alias in generated enum.
+ * <p>
+ * Column of type {@code HANDLER} holds fully qualified name of class implementing interface methods
+ * for the element, see {@link InterfaceEnumFeature}. It is a {@code STRING} column for storage purposes.
+ */
+public class MetadataFile {
+
+    public static final String COLUMNS_DIRECTIVE = "@columns";
+    public static final String CODE_TYPE_NAME = "CODE";
+    public static final String PARENT_TYPE_NAME = "PARENT";
+    public static final String ALIASES_TYPE_NAME = "ALIASES";
+    public static final String HANDLER_TYPE_NAME = "HANDLER";
+
+    private static final String COMMENT_PREFIX = "#";
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char TYPE_SEPARATOR = ':';
+
+    private final List<String> columnNames;
+    private final List<ColumnType> columnTypes;
+    private final int codeColumn;
+    private final int parentColumn;
+    private final int aliasesColumn;
+    private final int handlerColumn;
+    private final Map<String, Object[]> rows;
+
+    private MetadataFile(List<String> columnNames, List<ColumnType> columnTypes, int codeColumn, int parentColumn, int aliasesColumn, int handlerColumn, Map<String, Object[]> rows) {
+        this.columnNames = Collections.unmodifiableList(columnNames);
+        this.columnTypes = Collections.unmodifiableList(columnTypes);
+        this.codeColumn = codeColumn;
+        this.parentColumn = parentColumn;
+        this.aliasesColumn = aliasesColumn;
+        this.handlerColumn = handlerColumn;
+        this.rows = rows;
+    }
+
+    public static MetadataFile read(Path path) throws IOException {
+        return parse(Files.readAllLines(path, StandardCharsets.UTF_8), path.toString());
+    }
+
+    /**
+     * @param source File name for error messages
+     * @throws IOException Malformed content
+     */
+    public static MetadataFile parse(List<String> lines, String source) throws IOException {
+        List<String> columnNames = null;
+        List<ColumnType> columnTypes = null;
+        int[] specialColumns = {-1, -1, -1, -1};
+        Map<String, Object[]> rows = new LinkedHashMap<>();
+        Map<String, String> parentLocations = new LinkedHashMap<>();
+        Set<Integer> codes = new HashSet<>();
+        Map<String, String> aliasOwners = new HashMap<>();
+
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            String line = lines.get(lineIndex).trim();
+            String location = source + ":" + (lineIndex + 1);
+
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+
+            if (columnNames == null) {
+                if (!line.startsWith(COLUMNS_DIRECTIVE)) {
+                    throw new IOException(location + ": " + COLUMNS_DIRECTIVE + " declaration expected");
+                }
+
+                columnNames = new ArrayList<>();
+                columnTypes = new ArrayList<>();
+                parseColumns(line.substring(COLUMNS_DIRECTIVE.length()), columnNames, columnTypes, specialColumns, location);
+                continue;
+            }
+
+            List<String> fields = splitFields(line, location);
+            if (fields.size() > columnNames.size() + 1) {
+                throw new IOException(location + ": too many values");
+            }
+
+            String elementName = fields.get(0);
+            if (elementName == null) {
+                throw new IOException(location + ": element name expected");
+            }
+
+            Object[] values = new Object[columnNames.size()];
+            for (int i = 1; i < fields.size(); i++) {
+                values[i - 1] = parseValue(fields.get(i), columnTypes.get(i - 1), location);
+            }
+
+            int codeColumn = specialColumns[0];
+            if (codeColumn >= 0) {
+                if (values[codeColumn] == null) {
+                    throw new IOException(location + ": code of element " + elementName + " is missing");
+                }
+                if (!codes.add((Integer) values[codeColumn])) {
+                    throw new IOException(location + ": duplicate code " + values[codeColumn]);
+                }
+            }
+
+            if (rows.put(elementName, values) != null) {
+                throw new IOException(location + ": duplicate element " + elementName);
+            }
+
+            if (specialColumns[1] >= 0 && values[specialColumns[1]] != null) {
+                parentLocations.put(elementName, location);
+            }
+
+            if (specialColumns[3] >= 0 && values[specialColumns[3]] != null && !isValidClassName((String) values[specialColumns[3]])) {
+                throw new IOException(location + ": invalid handler class name: " + values[specialColumns[3]]);
+            }
+
+            if (specialColumns[2] >= 0) {
+                for (String alias : splitAliases((String) values[specialColumns[2]])) {
+                    if (aliasOwners.putIfAbsent(alias, elementName) != null) {
+                        throw new IOException(location + ": duplicate alias " + alias);
+                    }
+                }
+            }
+        }
+
+        if (columnNames == null) {
+            throw new IOException(source + ": " + COLUMNS_DIRECTIVE + " declaration is missing");
+        }
+
+        for (Map.Entry<String, String> entry : parentLocations.entrySet()) {
+            String parent = (String) rows.get(entry.getKey())[specialColumns[1]];
+
+            if (!rows.containsKey(parent)) {
+                throw new IOException(entry.getValue() + ": unknown parent " + parent);
+            }
+        }
+
+        for (String alias : aliasOwners.keySet()) {
+            if (rows.containsKey(alias)) {
+                throw new IOException(source + ": alias " + alias + " of " + aliasOwners.get(alias) + " is an element name");
+            }
+        }
+
+        return new MetadataFile(columnNames, columnTypes, specialColumns[0], specialColumns[1], specialColumns[2], specialColumns[3], rows);
+    }
+
+    /**
+     * @return {@code true} if lines start with columns declaration, i.e. are not a plain item list
+     */
+    public static boolean hasColumns(List<String> lines) {
+        for (String line : lines) {
+            line = line.trim();
+
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                return line.startsWith(COLUMNS_DIRECTIVE);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return Names of described elements in file order
+     */
+    public List<String> getElementNames() {
+        return List.copyOf(rows.keySet());
+    }
+
+    /**
+     * @return Column value: {@code Integer}, {@code Long}, {@code Double}, {@code String} or {@code null} if absent
+     */
+    public Object getValue(String elementName, int column) {
+        Object[] values = rows.get(elementName);
+        return (values == null) ? null : values[column];
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public List<ColumnType> getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * @return Index of {@code CODE} column or {@code -1}
+     */
+    public int getCodeColumn() {
+        return codeColumn;
+    }
+
+    /**
+     * @return Index of {@code PARENT} column or {@code -1}
+     */
+    public int getParentColumn() {
+        return parentColumn;
+    }
+
+    /**
+     * @return Parent name of element or {@code null} for root or if there is no {@code PARENT} column
+     */
+    public String getParent(String elementName) {
+        return (parentColumn < 0) ? null : (String) getValue(elementName, parentColumn);
+    }
+
+    /**
+     * @return Index of {@code ALIASES} column or {@code -1}
+     */
+    public int getAliasesColumn() {
+        return aliasesColumn;
+    }
+
+    /**
+     * @return Aliases of element, empty if there are none or if there is no {@code ALIASES} column
+     */
+    public List<String> getAliases(String elementName) {
+        return (aliasesColumn < 0) ? List.of() : splitAliases((String) getValue(elementName, aliasesColumn));
+    }
+
+    /**
+     * @return Index of {@code HANDLER} column or {@code -1}
+     */
+    public int getHandlerColumn() {
+        return handlerColumn;
+    }
+
+    /**
+     * @return Handler class name of element or {@code null} if absent or if there is no {@code HANDLER} column
+     */
+    public String getHandler(String elementName) {
+        return (handlerColumn < 0) ? null : (String) getValue(elementName, handlerColumn);
+    }
+
+    /**
+     * @return {@code true} if column is served by dedicated feature rather than accessor method
+     */
+    public boolean isSpecialColumn(int column) {
+        return column == parentColumn || column == aliasesColumn || column == handlerColumn;
+    }
+
+    /**
+     * @return Names of described elements absent from the enum
+     */
+    public List<String> getUnknownNames(List<String> elementNames) {
+        List<String> result = new ArrayList<>(rows.keySet());
+        result.removeAll(Set.copyOf(elementNames));
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * @return Content of metadata resource for enum with given elements
+     */
+    public byte[] toByteArray(List<String> elementNames) {
+        HugeEnumMetadata.Builder builder = HugeEnumMetadata.builder(elementNames);
+
+        for (int column = 0; column < columnNames.size(); column++) {
+            builder.addColumn(columnNames.get(column), columnTypes.get(column));
+        }
+
+        for (int ordinal = 0; ordinal < elementNames.size(); ordinal++) {
+            Object[] values = rows.get(elementNames.get(ordinal));
+
+            if (values == null) {
+                continue;
+            }
+
+            for (int column = 0; column < values.length; column++) {
+                Object value = values[column];
+
+                if (value == null) {
+                    continue;
+                }
+
+                switch (columnTypes.get(column)) {
+                    case INT:
+                        builder.setInt(column, ordinal, (Integer) value);
+                        break;
+                    case LONG:
+                        builder.setLong(column, ordinal, (Long) value);
+                        break;
+                    case DOUBLE:
+                        builder.setDouble(column, ordinal, (Double) value);
+                        break;
+                    default:
+                        builder.setString(column, ordinal, (String) value);
+                        break;
+                }
+            }
+        }
+
+        return builder.toByteArray();
+    }
+
+    /**
+     * @param specialColumns Receives indexes of {@code CODE}, {@code PARENT}, {@code ALIASES} and {@code HANDLER} columns
+     */
+    private static void parseColumns(String declaration, List<String> columnNames, List<ColumnType> columnTypes, int[] specialColumns, String location) throws IOException {
+        for (String column : declaration.split(String.valueOf(SEPARATOR))) {
+            column = column.trim();
+
+            int typeSeparator = column.indexOf(TYPE_SEPARATOR);
+            if (typeSeparator < 0) {
+                throw new IOException(location + ": column type is missing: " + column);
+            }
+
+            String name = column.substring(0, typeSeparator).trim();
+            String typeName = column.substring(typeSeparator + 1).trim();
+
+            if (!isValidColumnName(name)) {
+                throw new IOException(location + ": invalid column name: " + name);
+            }
+            if (columnNames.contains(name)) {
+                throw new IOException(location + ": duplicate column: " + name);
+            }
+
+            ColumnType type;
+            if (typeName.equalsIgnoreCase(CODE_TYPE_NAME)) {
+                if (specialColumns[0] >= 0) {
+                    throw new IOException(location + ": only one " + CODE_TYPE_NAME + " column is allowed");
+                }
+
+                specialColumns[0] = columnNames.size();
+                type = ColumnType.INT;
+            } else if (typeName.equalsIgnoreCase(PARENT_TYPE_NAME)) {
+                if (specialColumns[1] >= 0) {
+                    throw new IOException(location + ": only one " + PARENT_TYPE_NAME + " column is allowed");
+                }
+
+                specialColumns[1] = columnNames.size();
+                type = ColumnType.STRING;
+            } else if (typeName.equalsIgnoreCase(ALIASES_TYPE_NAME)) {
+                if (specialColumns[2] >= 0) {
+                    throw new IOException(location + ": only one " + ALIASES_TYPE_NAME + " column is allowed");
+                }
+
+                specialColumns[2] = columnNames.size();
+                type = ColumnType.STRING;
+            } else if (typeName.equalsIgnoreCase(HANDLER_TYPE_NAME)) {
+                if (specialColumns[3] >= 0) {
+                    throw new IOException(location + ": only one " + HANDLER_TYPE_NAME + " column is allowed");
+                }
+
+                specialColumns[3] = columnNames.size();
+                type = ColumnType.STRING;
+            } else {
+                try {
+                    type = ColumnType.valueOf(typeName.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(location + ": unknown column type: " + typeName);
+                }
+            }
+
+            columnNames.add(name);
+            columnTypes.add(type);
+        }
+    }
+
+    /**
+     * @return Element name of CSV line
+     */
+    static String parseElementName(String line, String location) throws IOException {
+        String elementName = splitFields(line, location).get(0);
+
+        if (elementName == null) {
+            throw new IOException(location + ": element name expected");
+        }
+
+        return elementName;
+    }
+
+    private static List<String> splitAliases(String value) {
+        return (value == null || value.isBlank()) ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+
+    /**
+     * @return {@code true} if name is a fully qualified Java class name
+     */
+    static boolean isValidClassName(String name) {
+        return Stream.of(name.split("\\.", -1)).allMatch(Main::isValidJavaIdentifier);
+    }
+
+    /**
+     * Keywords are rejected: accessor named after them could not be called from Java source.
+     */
+    private static boolean isValidColumnName(String name) {
+        return Main.isValidJavaIdentifier(name) && !SourceVersion.isKeyword(name);
+    }
+
+    /**
+     * @return Trimmed fields; {@code null} for empty unquoted field
+     */
+    private static List<String> splitFields(String line, String location) throws IOException {
+        List<String> result = new ArrayList<>();
+        int position = 0;
+
+        while (true) {
+            while (position < line.length() && line.charAt(position) == ' ') {
+                position++;
+            }
+
+            String field;
+            if (position < line.length() && line.charAt(position) == QUOTE) {
+                StringBuilder value = new StringBuilder();
+                position++;
+
+                while (true) {
+                    if (position >= line.length()) {
+                        throw new IOException(location + ": unterminated quoted value");
+                    }
+
+                    char c = line.charAt(position++);
+                    if (c == QUOTE) {
+                        if (position < line.length() && line.charAt(position) == QUOTE) {
+                            value.append(QUOTE);
+                            position++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(c);
+                    }
+                }
+
+                while (position < line.length() && line.charAt(position) == ' ') {
+                    position++;
+                }
+                if (position < line.length() && line.charAt(position) != SEPARATOR) {
+                    throw new IOException(location + ": separator expected after quoted value");
+                }
+
+                field = value.toString();
+            } else {
+                int end = line.indexOf(SEPARATOR, position);
+                if (end < 0) {
+                    end = line.length();
+                }
+
+                field = line.substring(position, end).trim();
+                if (field.isEmpty()) {
+                    field = null;
+                }
+                position = end;
+            }
+
+            result.add(field);
+
+            if (position >= line.length()) {
+                return result;
+            }
+
+            position++;
+        }
+    }
+
+    private static Object parseValue(String value, ColumnType type, String location) throws IOException {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            switch (type) {
+                case INT:
+                    return Integer.parseInt(value);
+                case LONG:
+                    return Long.parseLong(value);
+                case DOUBLE:
+                    return Double.parseDouble(value);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException(location + ": invalid " + type + " value: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumNamePattern;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Element names made of common prefix and zero-padded counter, like names generated by the {@code -c} option.
+ *
+ * Generators told about the pattern do not store names in the class file: names are rebuilt arithmetically
+ * and generated {@code valueOf(String)} parses counter into ordinal
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumNamePattern}).
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class NamePattern {
+
+    private static final String CLASS_NAME_NAME_PATTERN = "com/maccimo/hugeenum/runtime/HugeEnumNamePattern";
+
+    private static final String MEMBER_NAME_VALUEOF = "valueOf";
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_NAMES = "names";
+
+    private static final String DESCRIPTOR_STRING_INT_INT_INT_STRING_ARRAY = "(Ljava/lang/String;III)[Ljava/lang/String;";
+    private static final String DESCRIPTOR_VALUEOF =
+        "(Ljava/lang/Class;[Ljava/lang/Object;Ljava/lang/String;Ljava/lang/String;II)Ljava/lang/Enum;";
+
+    /**
+     * Maximum stack depth required by {@link #generateLoadNames(MethodVisitor, int)}.
+     */
+    public static final int MAX_STACK = 4;
+
+    private final String prefix;
+    private final int width;
+    private final int first;
+
+    /**
+     * @param prefix Common prefix of element names
+     * @param width Counter width, counter is padded with leading zeros
+     * @param first Counter of the first element
+     * @throws IllegalArgumentException Invalid width or negative first counter
+     */
+    public NamePattern(String prefix, int width, int first) {
+        if (width < 1 || width > HugeEnumNamePattern.MAX_WIDTH) {
+            throw new IllegalArgumentException("Counter width must be in range 1.." + HugeEnumNamePattern.MAX_WIDTH + ": " + width);
+        }
+
+        if (first < 0) {
+            throw new IllegalArgumentException("First counter must not be negative: " + first);
+        }
+
+        this.prefix = prefix;
+        this.width = width;
+        this.first = first;
+    }
+
+    /**
+     * Detect pattern from the first element name: trailing digits are counter, the rest is prefix.
+     *
+     * @return Pattern followed by all element names or {@code null}
+     */
+    public static NamePattern detect(List<String> elementNames) {
+        if (elementNames.isEmpty()) {
+            return null;
+        }
+
+        String firstName = elementNames.get(0);
+
+        int prefixLength = firstName.length();
+        while (prefixLength > 0 && isDigit(firstName.charAt(prefixLength - 1))) {
+            prefixLength--;
+        }
+
+        // Leading digits of too long counter are treated as part of prefix
+        int width = Math.min(firstName.length() - prefixLength, HugeEnumNamePattern.MAX_WIDTH);
+        if (width == 0) {
+            return null;
+        }
+
+        prefixLength = firstName.length() - width;
+
+        NamePattern result = new NamePattern(
+            firstName.substring(0, prefixLength),
+            width,
+            Integer.parseInt(firstName.substring(prefixLength))
+        );
+
+        return result.matches(elementNames) ? result : null;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * @return {@code true} if element with ordinal {@code n} is named by counter {@code first + n}
+     */
+    public boolean matches(List<String> elementNames) {
+        for (int ordinal = 0; ordinal < elementNames.size(); ordinal++) {
+            if (HugeEnumNamePattern.ordinalOf(elementNames.get(ordinal), prefix, width, first, elementNames.size()) != ordinal) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    /**
+     * Generate code pushing {@code String[]} of element names onto the stack.
+     */
+    public void generateLoadNames(MethodVisitor methodVisitor, int count) {
+        methodVisitor.visitLdcInsn(prefix);
+        methodVisitor.visitLdcInsn(width);
+        methodVisitor.visitLdcInsn(first);
+        methodVisitor.visitLdcInsn(count);
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_NAME_PATTERN, MEMBER_NAME_NAMES, DESCRIPTOR_STRING_INT_INT_INT_STRING_ARRAY, false);
+    }
+
+    /**
+     * Generate {@code valueOf(String)} parsing counter into ordinal.
+     */
+    public void generateValueOf(ClassWriter classWriter, String enumClassName) {
+        String binaryEnumClassName = "L" + enumClassName + ";";
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_VALUEOF,
+            "(Ljava/lang/String;)" + binaryEnumClassName,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitLdcInsn(Type.getType(binaryEnumClassName));
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassName, MEMBER_NAME_VALUES_ARRAY, "[" + binaryEnumClassName);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitLdcInsn(prefix);
+        methodVisitor.visitLdcInsn(width);
+        methodVisitor.visitLdcInsn(first);
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_NAME_PATTERN, MEMBER_NAME_VALUEOF, DESCRIPTOR_VALUEOF, false);
+        methodVisitor.visitTypeInsn(CHECKCAST, enumClassName);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(6, 1);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
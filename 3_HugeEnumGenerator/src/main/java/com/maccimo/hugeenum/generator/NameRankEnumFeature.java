@@ -0,0 +1,160 @@
+package com.maccimo.hugeenum.generator;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Embed precomputed name order of enum elements.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code int nameRank()} - position of element in elements sorted by name</li>
+ *     <li>{@code static E byNameRank(int rank)} - element at given position of name order</li>
+ * </ul>
+ * Comparing elements by name becomes single {@code int} comparison and elements with common name prefix
+ * form a contiguous rank range (see {@code com.maccimo.hugeenum.runtime.HugeEnumNameOrder}).
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class NameRankEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_NAME_RANKS = "$NAME_RANKS";
+    private static final String MEMBER_NAME_RANKED_ORDINALS = "$RANKED_ORDINALS";
+    private static final String MEMBER_NAME_INIT_NAME_RANKS = "$initNameRanks";
+    private static final String MEMBER_NAME_NAME_RANK = "nameRank";
+    private static final String MEMBER_NAME_BY_NAME_RANK = "byNameRank";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+
+    private static final String DESCRIPTOR_CHAR_ARRAY = "[C";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+
+    @Override
+    public String getId() {
+        return "NameRank";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Embed ordinal to name rank tables: nameRank() and byNameRank(int)";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        char[] rankedOrdinals = new char[elementNames.size()];
+        char[] nameRanks = new char[elementNames.size()];
+
+        int[] sortedOrdinals = IntStream
+            .range(0, elementNames.size())
+            .boxed()
+            .sorted(Comparator.comparing(elementNames::get))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        for (int rank = 0; rank < sortedOrdinals.length; rank++) {
+            rankedOrdinals[rank] = (char) sortedOrdinals[rank];
+            nameRanks[sortedOrdinals[rank]] = (char) rank;
+        }
+
+        generateFields(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo, nameRanks, rankedOrdinals);
+        generateNameRank(classWriter, enumClassInfo);
+        generateByNameRank(classWriter, enumClassInfo);
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_NAME_RANKS;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateFields(ClassWriter classWriter) {
+        // Not final: fields are initialized outside of <clinit>
+        for (String fieldName : new String[] { MEMBER_NAME_NAME_RANKS, MEMBER_NAME_RANKED_ORDINALS }) {
+            classWriter
+                .visitField(
+                    ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                    fieldName,
+                    DESCRIPTOR_CHAR_ARRAY,
+                    null,
+                    null
+                )
+                .visitEnd();
+        }
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, char[] nameRanks, char[] rankedOrdinals) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_NAME_RANKS,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+
+        PackedStrings.generateLoadCharTable(methodVisitor, nameRanks);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_NAME_RANKS, DESCRIPTOR_CHAR_ARRAY);
+
+        PackedStrings.generateLoadCharTable(methodVisitor, rankedOrdinals);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_RANKED_ORDINALS, DESCRIPTOR_CHAR_ARRAY);
+
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateNameRank(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_NAME_RANK,
+            DESCRIPTOR_NOARG_INT,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_NAME_RANKS, DESCRIPTOR_CHAR_ARRAY);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitInsn(CALOAD);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateByNameRank(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_BY_NAME_RANK,
+            "(I)" + enumClassInfo.getBinaryEnumClassName(),
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_RANKED_ORDINALS, DESCRIPTOR_CHAR_ARRAY);
+        methodVisitor.visitVarInsn(ILOAD, 0);
+        methodVisitor.visitInsn(CALOAD);
+        methodVisitor.visitInsn(AALOAD);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(3, 1);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
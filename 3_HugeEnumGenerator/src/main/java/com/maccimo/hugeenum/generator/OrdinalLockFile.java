@@ -0,0 +1,165 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumConstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lock file of assigned element ordinals.
+ *
+ * UTF-8 text file, one element name per line in ordinal order; lines starting with {@code #} are comments.
+ * Merging item list with the lock keeps ordinals of locked elements and appends new elements,
+ * so ordinals stored elsewhere stay valid after regeneration.
+ */
+public class OrdinalLockFile {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final String HEADER =
+        "# Ordinal lock file of generated enumeration. Do not edit manually.\n" +
+        "# Every line is an element name, line order is ordinal order.\n";
+
+    private final List<String> elementNames;
+
+    private OrdinalLockFile(List<String> elementNames) {
+        this.elementNames = elementNames;
+    }
+
+    /**
+     * @return Lock read from file or empty lock if file does not exist
+     */
+    public static OrdinalLockFile read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new OrdinalLockFile(Collections.emptyList());
+        }
+
+        List<String> elementNames = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            line = line.trim();
+
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                elementNames.add(line);
+            }
+        }
+
+        if (new LinkedHashSet<>(elementNames).size() != elementNames.size()) {
+            throw new IOException("Duplicate element names in lock file " + path);
+        }
+
+        return new OrdinalLockFile(Collections.unmodifiableList(elementNames));
+    }
+
+    public static void write(Path path, List<String> elementNames) throws IOException {
+        StringBuilder content = new StringBuilder(HEADER);
+        for (String elementName : elementNames) {
+            content.append(elementName).append('\n');
+        }
+
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isEmpty() {
+        return elementNames.isEmpty();
+    }
+
+    public List<String> getElementNames() {
+        return elementNames;
+    }
+
+    /**
+     * Assign ordinals to items.
+     *
+     * @param itemNames Element names in item list order
+     * @param prune Drop locked elements absent from item list instead of retaining them.
+     *              Ordinals of following elements change then
+     */
+    public Merge merge(List<String> itemNames, boolean prune) {
+        Set<String> items = new LinkedHashSet<>(itemNames);
+
+        List<String> result = new ArrayList<>(Math.max(items.size(), elementNames.size()));
+        List<String> missing = new ArrayList<>();
+
+        for (String lockedName : elementNames) {
+            if (items.remove(lockedName)) {
+                result.add(lockedName);
+            } else {
+                missing.add(lockedName);
+
+                if (!prune) {
+                    result.add(lockedName);
+                }
+            }
+        }
+
+        List<String> added = new ArrayList<>(items);
+        result.addAll(added);
+
+        Map<String, Integer> newOrdinals = new HashMap<>();
+        for (int i = 0; i < result.size(); i++) {
+            newOrdinals.put(result.get(i), i);
+        }
+
+        char[] remap = new char[elementNames.size()];
+        for (int i = 0; i < remap.length; i++) {
+            Integer newOrdinal = newOrdinals.get(elementNames.get(i));
+            remap[i] = (newOrdinal == null) ? HugeEnumConstants.NULL_ORDINAL : (char) (int) newOrdinal;
+        }
+
+        return new Merge(result, added, missing, remap);
+    }
+
+    public static class Merge {
+
+        private final List<String> elementNames;
+        private final List<String> addedNames;
+        private final List<String> missingNames;
+        private final char[] remap;
+
+        private Merge(List<String> elementNames, List<String> addedNames, List<String> missingNames, char[] remap) {
+            this.elementNames = Collections.unmodifiableList(elementNames);
+            this.addedNames = Collections.unmodifiableList(addedNames);
+            this.missingNames = Collections.unmodifiableList(missingNames);
+            this.remap = remap;
+        }
+
+        /**
+         * @return Element names in ordinal order
+         */
+        public List<String> getElementNames() {
+            return elementNames;
+        }
+
+        /**
+         * @return Names absent from lock, appended to the end
+         */
+        public List<String> getAddedNames() {
+            return addedNames;
+        }
+
+        /**
+         * @return Locked names absent from item list, either retained or pruned
+         */
+        public List<String> getMissingNames() {
+            return missingNames;
+        }
+
+        /**
+         * @return New ordinal of every locked element, {@link HugeEnumConstants#NULL_ORDINAL} for pruned ones
+         */
+        public char[] getRemap() {
+            return remap.clone();
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.maccimo.hugeenum.generator;
+
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Storage of arbitrary long strings in the constant pool.
+ *
+ * Single {@code CONSTANT_Utf8} entry may not exceed 65 535 bytes in modified UTF-8 encoding,
+ * so long strings are split into parts and joined back by generated code.
+ * Any {@code char} sequence survives the round trip, including {@code '\0'} and unpaired surrogates,
+ * so strings are also used to store {@code char} tables.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class PackedStrings {
+
+    private static final String CLASS_NAME_JAVA_LANG_STRING_BUILDER = "java/lang/StringBuilder";
+    private static final String CLASS_NAME_STRING = "java/lang/String";
+
+    private static final String MEMBER_NAME_INIT = "<init>";
+    private static final String MEMBER_NAME_APPEND = "append";
+    private static final String MEMBER_NAME_TO_STRING = "toString";
+    private static final String MEMBER_NAME_TO_CHAR_ARRAY = "toCharArray";
+
+    private static final String DESCRIPTOR_INT_VOID = "(I)V";
+    private static final String DESCRIPTOR_STRING_STRING_BUILDER = "(Ljava/lang/String;)Ljava/lang/StringBuilder;";
+    private static final String DESCRIPTOR_NOARG_STRING = "()Ljava/lang/String;";
+    private static final String DESCRIPTOR_NOARG_CHAR_ARRAY = "()[C";
+
+    // Maximum Utf8 constant pool entry size in bytes.
+    public static final int MAX_STRING_SIZE = 65_535;
+
+    /**
+     * Maximum stack depth required by generated code.
+     */
+    public static final int MAX_STACK = 3;
+
+    private PackedStrings() {
+    }
+
+    /**
+     * @return Size of character in modified UTF-8 encoding used by class file format
+     */
+    public static int getModifiedUtf8Size(char ch) {
+        if (ch != 0 && ch < 0x80) {
+            return 1;
+        } else if (ch < 0x800) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    public static int getModifiedUtf8Size(CharSequence value) {
+        int result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            result += getModifiedUtf8Size(value.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Split string into parts, each fitting into single constant pool entry.
+     */
+    public static List<String> pack(String value) {
+        List<String> result = new ArrayList<>();
+
+        int partStart = 0;
+        int partSize = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            int charSize = getModifiedUtf8Size(value.charAt(i));
+
+            if (partSize + charSize > MAX_STRING_SIZE) {
+                result.add(value.substring(partStart, i));
+                partStart = i;
+                partSize = 0;
+            }
+
+            partSize += charSize;
+        }
+
+        if (partStart < value.length() || result.isEmpty()) {
+            result.add(value.substring(partStart));
+        }
+
+        return result;
+    }
+
+    /**
+     * Running size of {@link #pack(String)} result for string growing at the end.
+     */
+    static final class PackedSize {
+
+        private int partCount = 1;
+        private int partSize;
+        private long size;
+
+        void append(CharSequence value) {
+            for (int i = 0; i < value.length(); i++) {
+                int charSize = getModifiedUtf8Size(value.charAt(i));
+
+                if (partSize + charSize > MAX_STRING_SIZE) {
+                    partCount++;
+                    partSize = 0;
+                }
+
+                partSize += charSize;
+                size += charSize;
+            }
+        }
+
+        int getPartCount() {
+            return partCount;
+        }
+
+        /**
+         * @return Total size of all parts in modified UTF-8 encoding
+         */
+        long getSize() {
+            return size;
+        }
+
+    }
+
+    /**
+     * Generate code pushing string joined from packed parts onto the stack.
+     */
+    public static void generateLoad(MethodVisitor methodVisitor, List<String> packedParts) {
+        if (packedParts.size() == 1) {
+            methodVisitor.visitLdcInsn(packedParts.get(0));
+            return;
+        }
+
+        int length = packedParts.stream().mapToInt(String::length).sum();
+
+        methodVisitor.visitTypeInsn(NEW, CLASS_NAME_JAVA_LANG_STRING_BUILDER);
+        methodVisitor.visitInsn(DUP);
+        methodVisitor.visitLdcInsn(length);
+        methodVisitor.visitMethodInsn(INVOKESPECIAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_INIT, DESCRIPTOR_INT_VOID, false);
+
+        for (String part : packedParts) {
+            methodVisitor.visitLdcInsn(part);
+            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_APPEND, DESCRIPTOR_STRING_STRING_BUILDER, false);
+        }
+
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_TO_STRING, DESCRIPTOR_NOARG_STRING, false);
+    }
+
+    /**
+     * Generate code pushing {@code char[]} table onto the stack.
+     */
+    public static void generateLoadCharTable(MethodVisitor methodVisitor, char[] table) {
+        generateLoad(methodVisitor, pack(new String(table)));
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_STRING, MEMBER_NAME_TO_CHAR_ARRAY, DESCRIPTOR_NOARG_CHAR_ARRAY, false);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumStableHash;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Embed stable 64-bit hash of every element.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code long stableHash()} - XXH64 of UTF-8 encoded element name, the same in every JVM</li>
+ * </ul>
+ * Hashes are computed by generator and stored in the constant pool as {@code char} table
+ * (see {@code com.maccimo.hugeenum.runtime.HugeEnumStableHash}).
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class StableHashEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String CLASS_NAME_STABLE_HASH = "com/maccimo/hugeenum/runtime/HugeEnumStableHash";
+
+    private static final String MEMBER_NAME_STABLE_HASHES = "$STABLE_HASHES";
+    private static final String MEMBER_NAME_INIT_STABLE_HASHES = "$initStableHashes";
+    private static final String MEMBER_NAME_STABLE_HASH = "stableHash";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+
+    private static final String DESCRIPTOR_LONG_ARRAY = "[J";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+    private static final String DESCRIPTOR_NOARG_LONG = "()J";
+    private static final String DESCRIPTOR_STRING_LONG_ARRAY = "(Ljava/lang/String;)[J";
+
+    @Override
+    public String getId() {
+        return "StableHash";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Embed JVM-independent 64-bit hash of element names: stableHash()";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        long[] hashes = new long[elementNames.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = HugeEnumStableHash.hash(elementNames.get(i));
+        }
+
+        generateField(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo, HugeEnumStableHash.encode(hashes));
+        generateStableHash(classWriter, enumClassInfo);
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_STABLE_HASHES;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateField(ClassWriter classWriter) {
+        // Not final: field is initialized outside of <clinit>
+        classWriter
+            .visitField(
+                ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                MEMBER_NAME_STABLE_HASHES,
+                DESCRIPTOR_LONG_ARRAY,
+                null,
+                null
+            )
+            .visitEnd();
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, char[] table) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_STABLE_HASHES,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(new String(table)));
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_STABLE_HASH, MEMBER_NAME_DECODE, DESCRIPTOR_STRING_LONG_ARRAY, false);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_STABLE_HASHES, DESCRIPTOR_LONG_ARRAY);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateStableHash(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_STABLE_HASH,
+            DESCRIPTOR_NOARG_LONG,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_STABLE_HASHES, DESCRIPTOR_LONG_ARRAY);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitInsn(LALOAD);
+        methodVisitor.visitInsn(LRETURN);
+        methodVisitor.visitMaxs(2, 1);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
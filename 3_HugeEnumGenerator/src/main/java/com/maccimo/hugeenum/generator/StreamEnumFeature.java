@@ -0,0 +1,94 @@
+package com.maccimo.hugeenum.generator;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.Spliterator;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generate {@code spliterator()} and {@code stream()} static methods working straight over {@code $VALUES}.
+ * Unlike {@code Arrays.stream(values())} no copy of elements array is made.
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class StreamEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_SPLITERATORS = "java/util/Spliterators";
+    private static final String CLASS_NAME_STREAM_SUPPORT = "java/util/stream/StreamSupport";
+
+    private static final String MEMBER_NAME_VALUES_ARRAY = "$VALUES";
+    private static final String MEMBER_NAME_SPLITERATOR = "spliterator";
+    private static final String MEMBER_NAME_STREAM = "stream";
+
+    private static final String DESCRIPTOR_NOARG_SPLITERATOR = "()Ljava/util/Spliterator;";
+    private static final String DESCRIPTOR_NOARG_STREAM = "()Ljava/util/stream/Stream;";
+    private static final String DESCRIPTOR_OBJECT_ARRAY_INT_SPLITERATOR = "([Ljava/lang/Object;I)Ljava/util/Spliterator;";
+    private static final String DESCRIPTOR_SPLITERATOR_BOOLEAN_STREAM = "(Ljava/util/Spliterator;Z)Ljava/util/stream/Stream;";
+
+    // SIZED and SUBSIZED are reported by array spliterator itself
+    private static final int SPLITERATOR_CHARACTERISTICS =
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+
+    @Override
+    public String getId() {
+        return "Stream";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Generate copy-free spliterator() and stream() over enum elements";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        generateSpliterator(classWriter, enumClassInfo);
+        generateStream(classWriter, enumClassInfo);
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return null;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateSpliterator(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_SPLITERATOR,
+            DESCRIPTOR_NOARG_SPLITERATOR,
+            "()Ljava/util/Spliterator<" + enumClassInfo.getBinaryEnumClassName() + ">;",
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_VALUES_ARRAY, enumClassInfo.getBinaryEnumArrayClassName());
+        methodVisitor.visitLdcInsn(SPLITERATOR_CHARACTERISTICS);
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_SPLITERATORS, MEMBER_NAME_SPLITERATOR, DESCRIPTOR_OBJECT_ARRAY_INT_SPLITERATOR, false);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateStream(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_STREAM,
+            DESCRIPTOR_NOARG_STREAM,
+            "()Ljava/util/stream/Stream<" + enumClassInfo.getBinaryEnumClassName() + ">;",
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitMethodInsn(INVOKESTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_SPLITERATOR, DESCRIPTOR_NOARG_SPLITERATOR, false);
+        methodVisitor.visitInsn(ICONST_0);
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_STREAM_SUPPORT, MEMBER_NAME_STREAM, DESCRIPTOR_SPLITERATOR_BOOLEAN_STREAM, false);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(2, 0);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
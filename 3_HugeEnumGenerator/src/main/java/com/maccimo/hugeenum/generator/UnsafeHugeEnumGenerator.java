@@ -6,10 +6,10 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static com.maccimo.hugeenum.generator.ClassFileLayout.*;
 
 import static org.objectweb.asm.Opcodes.*;
 
@@ -49,6 +49,9 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
     private static final String MEMBER_NAME_STATIC_FIELD_OFFSET = "staticFieldOffset";
     private static final String MEMBER_NAME_PUT_OBJECT = "putObject";
     private static final String MEMBER_NAME_GET_NAME = "getName";
+    private static final String MEMBER_NAME_DECODE_NAMES = "$decodeNames";
+    private static final String MEMBER_NAME_CHAR_AT = "charAt";
+    private static final String MEMBER_NAME_SET_LENGTH = "setLength";
 
     private static final String DESCRIPTOR_NOARG_VOID = "()V";
     private static final String DESCRIPTOR_NOARG_OBJECT = "()Ljava/lang/Object;";
@@ -67,12 +70,31 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
     private static final String DESCRIPTOR_OBJECT_OBJECT_OBJECT = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
     private static final String DESCRIPTOR_NOARG_FIELD_ARRAY = "()[Ljava/lang/reflect/Field;";
     private static final String DESCRIPTOR_INT_VOID = "(I)V";
-
-    // Maximum Utf8 constant pool entry size in bytes.
-    private static final int MAX_STRING_SIZE = 65_535;
+    private static final String DESCRIPTOR_INT_CHAR = "(I)C";
+    private static final String DESCRIPTOR_CHAR_SEQUENCE_INT_INT_STRING_BUILDER = "(Ljava/lang/CharSequence;II)Ljava/lang/StringBuilder;";
 
     private static final String FIELD_NAME_SEPARATOR = ",";
 
+    private static final String METHOD_KEY_CLINIT = MEMBER_NAME_CLINIT + DESCRIPTOR_NOARG_VOID;
+
+    // Constants used by generateConcatStrings()
+    private static final List<String> CONCAT_STRINGS_CONSTANT_KEYS = List.of(
+        utf8Key(CLASS_NAME_JAVA_LANG_STRING_BUILDER),
+        classKey(CLASS_NAME_JAVA_LANG_STRING_BUILDER),
+        utf8Key(MEMBER_NAME_INIT),
+        utf8Key(DESCRIPTOR_STRING_VOID),
+        nameAndTypeKey(MEMBER_NAME_INIT, DESCRIPTOR_STRING_VOID),
+        methodrefKey(CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_INIT, DESCRIPTOR_STRING_VOID),
+        utf8Key(MEMBER_NAME_APPEND),
+        utf8Key(DESCRIPTOR_STRING_STRING_BUILDER),
+        nameAndTypeKey(MEMBER_NAME_APPEND, DESCRIPTOR_STRING_STRING_BUILDER),
+        methodrefKey(CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_APPEND, DESCRIPTOR_STRING_STRING_BUILDER),
+        utf8Key(MEMBER_NAME_TO_STRING),
+        utf8Key(DESCRIPTOR_NOARG_STRING),
+        nameAndTypeKey(MEMBER_NAME_TO_STRING, DESCRIPTOR_NOARG_STRING),
+        methodrefKey(CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_TO_STRING, DESCRIPTOR_NOARG_STRING)
+    );
+
     private final String enumClassName;
     private final String binaryEnumClassName;
     private final String binaryEnumArrayClassName;
@@ -81,9 +103,38 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
     private final String descriptorStringEnum;
 
     private final List<String> elementNames;
+    private final List<IEnumFeature> features;
+    private final boolean frontCoded;
+    private final NamePattern namePattern;
 
 
     public UnsafeHugeEnumGenerator(String enumClassName, List<String> elementNames) {
+        this(enumClassName, elementNames, Collections.emptyList());
+    }
+
+    public UnsafeHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features) {
+        this(enumClassName, elementNames, features, false);
+    }
+
+    /**
+     * @param frontCoded Store element names front-coded: every name is written as length of prefix shared
+     *                   with previous name and the rest of the name, instead of joining full names.
+     *                   Names are decoded by generated {@code $decodeNames(String)} method.
+     */
+    public UnsafeHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features, boolean frontCoded) {
+        this(enumClassName, elementNames, features, frontCoded, null);
+    }
+
+    /**
+     * @param namePattern Pattern followed by element names or {@code null}. Names following pattern are
+     *                    not stored at all, {@code frontCoded} is ignored.
+     * @throws IllegalArgumentException Element names do not follow pattern
+     */
+    public UnsafeHugeEnumGenerator(String enumClassName, List<String> elementNames, List<IEnumFeature> features, boolean frontCoded, NamePattern namePattern) {
+        if (namePattern != null && !namePattern.matches(elementNames)) {
+            throw new IllegalArgumentException("Element names do not follow name pattern");
+        }
+
         this.enumClassName = enumClassName;
 
         this.binaryEnumClassName = "L" + enumClassName + ";";
@@ -93,6 +144,9 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
         this.descriptorStringEnum = "(Ljava/lang/String;)" + binaryEnumClassName;
 
         this.elementNames = elementNames;
+        this.features = features;
+        this.frontCoded = frontCoded;
+        this.namePattern = namePattern;
     }
 
     public byte[] generate() {
@@ -105,7 +159,7 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
             enumClassName,
             null,
             CLASS_NAME_JAVA_LANG_ENUM,
-            null
+            FeatureSupport.getInterfaceNames(features)
         );
 
         generateCommonMembers(classWriter);
@@ -116,11 +170,126 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
         generateStaticInitializer(classWriter, elementNames);
         generateCreateValuesChain(classWriter, elementNames);
 
+        if (frontCoded && namePattern == null && !elementNames.isEmpty()) {
+            generateDecodeNames(classWriter);
+        }
+
+        FeatureSupport.generateFeatures(classWriter, features, new EnumClassInfo(enumClassName, elementNames));
+
         classWriter.visitEnd();
 
         return classWriter.toByteArray();
     }
 
+    @Override
+    public CapacityPlan plan() {
+        int elementCount = elementNames.size();
+        int probeCount = Math.min(elementCount, CapacityPlanner.PROBE_ELEMENT_COUNT);
+        List<String> probeNames = elementNames.subList(0, probeCount);
+
+        CapacityPlanner planner = new CapacityPlanner(
+            new UnsafeHugeEnumGenerator(enumClassName, probeNames, Collections.emptyList(), frontCoded, namePattern).generate()
+        );
+
+        if (probeCount == elementCount) {
+            return planner.toPlan(elementCount);
+        }
+
+        // Element count is loaded by LDC when names are rebuilt from pattern or decoded by $decodeNames
+        boolean hasElementCount = (namePattern != null || frontCoded);
+        if (hasElementCount && !isNamePatternConstant(probeCount)) {
+            planner.removeConstant(integerKey(probeCount));
+        }
+
+        // Names blob of probe class is replaced by blob of the whole list
+        boolean hasNamesBlob = (namePattern == null);
+        String probeNamesBlob = frontCoded ? encodeFrontCoded(probeNames) : String.join(FIELD_NAME_SEPARATOR, probeNames);
+        List<String> probeNamesBlobParts = PackedStrings.pack(probeNamesBlob);
+        PackedStrings.PackedSize namesBlobSize = new PackedStrings.PackedSize();
+
+        if (hasNamesBlob) {
+            for (String part : probeNamesBlobParts) {
+                planner.removeConstant(utf8Key(part));
+                planner.removeConstant(stringKey(part));
+            }
+
+            planner.addCode(METHOD_KEY_CLINIT, -getLoadNamesBlobCodeSize(probeNamesBlobParts.size()));
+            namesBlobSize.append(probeNamesBlob);
+        }
+
+        for (int i = probeCount; i < elementCount; i++) {
+            String elementName = elementNames.get(i);
+
+            planner.addConstant(utf8Key(elementName));
+            planner.addClassBytes(FIELD_INFO_SIZE);
+
+            int extraConstantCount = 0;
+            int extraCodeSize = 0;
+
+            if (hasElementCount && !planner.hasConstant(integerKey(i + 1))) {
+                extraConstantCount++;
+            }
+
+            if (hasNamesBlob) {
+                if (frontCoded) {
+                    StringBuilder encodedName = new StringBuilder();
+                    appendFrontCoded(encodedName, elementNames.get(i - 1), elementName);
+                    namesBlobSize.append(encodedName);
+                } else {
+                    namesBlobSize.append(FIELD_NAME_SEPARATOR);
+                    namesBlobSize.append(elementName);
+                }
+
+                // Utf8 and String per part
+                extraConstantCount += 2 * namesBlobSize.getPartCount();
+                extraCodeSize = getLoadNamesBlobCodeSize(namesBlobSize.getPartCount());
+
+                if (namesBlobSize.getPartCount() > 1 && probeNamesBlobParts.size() == 1) {
+                    for (String key : CONCAT_STRINGS_CONSTANT_KEYS) {
+                        if (!planner.hasConstant(key)) {
+                            extraConstantCount++;
+                        }
+                    }
+                }
+            }
+
+            planner.check(i, extraConstantCount, METHOD_KEY_CLINIT, extraCodeSize);
+        }
+
+        if (hasElementCount) {
+            planner.addConstant(integerKey(elementCount));
+        }
+
+        if (hasNamesBlob) {
+            int partCount = namesBlobSize.getPartCount();
+
+            planner.addConstants(2 * partCount, namesBlobSize.getSize() + 6L * partCount);
+            planner.addCode(METHOD_KEY_CLINIT, getLoadNamesBlobCodeSize(partCount));
+
+            if (partCount > 1) {
+                CONCAT_STRINGS_CONSTANT_KEYS.forEach(planner::addConstant);
+            }
+        }
+
+        return planner.toPlan(elementCount);
+    }
+
+    private boolean isNamePatternConstant(int value) {
+        return namePattern != null && (value == namePattern.getWidth() || value == namePattern.getFirst());
+    }
+
+    /**
+     * @return Size of code generated for names blob split into given number of parts, parts are loaded by LDC_W
+     */
+    private static int getLoadNamesBlobCodeSize(int partCount) {
+        if (partCount == 1) {
+            return 3;
+        }
+
+        // NEW, DUP, LDC_W and INVOKESPECIAL, LDC_W and INVOKEVIRTUAL per other part, INVOKEVIRTUAL
+        return 3 + 1 + 3 + 3 + 6 * (partCount - 1) + 3;
+    }
+
     //<editor-fold desc="Bytecode generation">
 
     private void generateCommonMembers(ClassWriter classWriter) {
@@ -168,6 +337,11 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
     }
 
     private void generateValueOf(ClassWriter classWriter) {
+        if (namePattern != null) {
+            namePattern.generateValueOf(classWriter, enumClassName);
+            return;
+        }
+
         MethodVisitor methodVisitor = classWriter.visitMethod(
             ACC_PUBLIC | ACC_STATIC,
             MEMBER_NAME_VALUEOF,
@@ -220,6 +394,7 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
             methodVisitor.visitInsn(ICONST_0);
             methodVisitor.visitTypeInsn(ANEWARRAY, enumClassName);
             methodVisitor.visitFieldInsn(PUTSTATIC, enumClassName, MEMBER_NAME_VALUES_ARRAY, binaryEnumArrayClassName);
+            FeatureSupport.generateInitializerCalls(methodVisitor, features, enumClassName);
             methodVisitor.visitInsn(RETURN);
             methodVisitor.visitMaxs(1, 0);
         } else {
@@ -237,17 +412,26 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
             methodVisitor.visitTypeInsn(CHECKCAST, CLASS_NAME_SUN_MISC_UNSAFE);
             methodVisitor.visitVarInsn(ASTORE, 1);
 
-            List<String> packedNames = packElementNames(elementNames);
-
-            if (packedNames.size() == 1) {
-                methodVisitor.visitLdcInsn(packedNames.get(0));
+            if (namePattern != null) {
+                namePattern.generateLoadNames(methodVisitor, elementNames.size());
             } else {
-                // Length of all enum element names joined into string may exceed maximum length of one string in constant pool
-                generateConcatStrings(methodVisitor, packedNames);
+                String names = frontCoded ? encodeFrontCoded(elementNames) : String.join(FIELD_NAME_SEPARATOR, elementNames);
+                List<String> packedNames = PackedStrings.pack(names);
+
+                if (packedNames.size() == 1) {
+                    methodVisitor.visitLdcInsn(packedNames.get(0));
+                } else {
+                    // Length of all enum element names joined into string may exceed maximum length of one string in constant pool
+                    generateConcatStrings(methodVisitor, packedNames);
+                }
+
+                if (frontCoded) {
+                    methodVisitor.visitMethodInsn(INVOKESTATIC, enumClassName, MEMBER_NAME_DECODE_NAMES, DESCRIPTOR_STRING_STRING_ARRAY, false);
+                } else {
+                    methodVisitor.visitLdcInsn(FIELD_NAME_SEPARATOR);
+                    methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_STRING, MEMBER_NAME_SPLIT, DESCRIPTOR_STRING_STRING_ARRAY, false);
+                }
             }
-
-            methodVisitor.visitLdcInsn(FIELD_NAME_SEPARATOR);
-            methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_STRING, MEMBER_NAME_SPLIT, DESCRIPTOR_STRING_STRING_ARRAY, false);
             methodVisitor.visitInsn(DUP);
             methodVisitor.visitVarInsn(ASTORE, 2);
 
@@ -351,6 +535,8 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
             methodVisitor.visitVarInsn(ALOAD, 3);
             methodVisitor.visitFieldInsn(PUTSTATIC, enumClassName, MEMBER_NAME_VALUES_ARRAY, binaryEnumArrayClassName);
 
+            FeatureSupport.generateInitializerCalls(methodVisitor, features, enumClassName);
+
             methodVisitor.visitInsn(RETURN);
             methodVisitor.visitMaxs(10, 11);
         }
@@ -372,38 +558,84 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
         methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_TO_STRING, DESCRIPTOR_NOARG_STRING, false);
     }
 
-    private List<String> packElementNames(List<String> elementNames) {
-
-        List<String> result = new ArrayList<>();
+    private void generateDecodeNames(ClassWriter classWriter) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_DECODE_NAMES,
+            DESCRIPTOR_STRING_STRING_ARRAY,
+            null,
+            null
+        );
 
-        List<StringIntPair> codepointInfoList = String.join(FIELD_NAME_SEPARATOR, elementNames)
-            .codePoints()
-            .mapToObj(Character::toString)
-            .map(item -> new StringIntPair(item, item.getBytes(StandardCharsets.UTF_8).length))
-            .collect(Collectors.toList());
+        // Locals: 0 - encoded names, 1 - decoded names, 2 - reused builder, 3 - position, 4 - index, 5 - suffix length
+        methodVisitor.visitCode();
+        methodVisitor.visitLdcInsn(elementNames.size());
+        methodVisitor.visitTypeInsn(ANEWARRAY, CLASS_NAME_STRING);
+        methodVisitor.visitVarInsn(ASTORE, 1);
 
-        int currentSize = 0;
-        StringBuilder builder = new StringBuilder();
+        methodVisitor.visitTypeInsn(NEW, CLASS_NAME_JAVA_LANG_STRING_BUILDER);
+        methodVisitor.visitInsn(DUP);
+        methodVisitor.visitMethodInsn(INVOKESPECIAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_INIT, DESCRIPTOR_NOARG_VOID, false);
+        methodVisitor.visitVarInsn(ASTORE, 2);
+
+        methodVisitor.visitInsn(ICONST_0);
+        methodVisitor.visitVarInsn(ISTORE, 3);
+        methodVisitor.visitInsn(ICONST_0);
+        methodVisitor.visitVarInsn(ISTORE, 4);
+
+        Label labelDecodeLoopBegin = new Label();
+        methodVisitor.visitLabel(labelDecodeLoopBegin);
+        methodVisitor.visitFrame(Opcodes.F_FULL, 5, new Object[] {CLASS_NAME_STRING, BINARY_CLASS_NAME_STRING_ARRAY, CLASS_NAME_JAVA_LANG_STRING_BUILDER, Opcodes.INTEGER, Opcodes.INTEGER}, 0, new Object[] {});
+        methodVisitor.visitVarInsn(ILOAD, 4);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitInsn(ARRAYLENGTH);
 
-        for (StringIntPair codepointInfo : codepointInfoList) {
-            int appendSize = codepointInfo.getInteger();
+        Label labelDecodeLoopEnd = new Label();
+        methodVisitor.visitJumpInsn(IF_ICMPGE, labelDecodeLoopEnd);
 
-            if (currentSize + appendSize > MAX_STRING_SIZE) {
-                result.add(builder.toString());
-                builder = new StringBuilder();
-                currentSize = appendSize;
-            } else {
-                currentSize += appendSize;
-            }
+        // Keep prefix shared with previous name
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_STRING, MEMBER_NAME_CHAR_AT, DESCRIPTOR_INT_CHAR, false);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_SET_LENGTH, DESCRIPTOR_INT_VOID, false);
 
-            builder.append(codepointInfo.getString());
-        }
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitInsn(ICONST_1);
+        methodVisitor.visitInsn(IADD);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_STRING, MEMBER_NAME_CHAR_AT, DESCRIPTOR_INT_CHAR, false);
+        methodVisitor.visitVarInsn(ISTORE, 5);
+        methodVisitor.visitIincInsn(3, 2);
+
+        // Append suffix
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitVarInsn(ILOAD, 5);
+        methodVisitor.visitInsn(IADD);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_APPEND, DESCRIPTOR_CHAR_SEQUENCE_INT_INT_STRING_BUILDER, false);
+        methodVisitor.visitInsn(POP);
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitVarInsn(ILOAD, 5);
+        methodVisitor.visitInsn(IADD);
+        methodVisitor.visitVarInsn(ISTORE, 3);
 
-        if (builder.length() != 0) {
-            result.add(builder.toString());
-        }
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ILOAD, 4);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_STRING_BUILDER, MEMBER_NAME_TO_STRING, DESCRIPTOR_NOARG_STRING, false);
+        methodVisitor.visitInsn(AASTORE);
+        methodVisitor.visitIincInsn(4, 1);
+        methodVisitor.visitJumpInsn(GOTO, labelDecodeLoopBegin);
 
-        return result;
+        methodVisitor.visitLabel(labelDecodeLoopEnd);
+        methodVisitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(5, 6);
+        methodVisitor.visitEnd();
     }
 
     private void generateCreateValuesChain(ClassWriter classWriter, List<String> elementNames) {
@@ -412,25 +644,36 @@ public class UnsafeHugeEnumGenerator implements IEnumGenerator {
 
     }
 
-    private static class StringIntPair {
-
-        private final String string;
-        private final int integer;
+    //</editor-fold>
 
-        public StringIntPair(String string, int integer) {
-            this.string = string;
-            this.integer = integer;
-        }
+    //<editor-fold desc="Encoding">
 
+    /**
+     * Every name is encoded as {@code char} length of prefix shared with previous name,
+     * {@code char} length of the rest of the name and the rest of the name itself.
+     */
+    static String encodeFrontCoded(List<String> elementNames) {
+        StringBuilder result = new StringBuilder();
+        String previous = "";
 
-        public String getString() {
-            return string;
+        for (String elementName : elementNames) {
+            appendFrontCoded(result, previous, elementName);
+            previous = elementName;
         }
 
-        public int getInteger() {
-            return integer;
+        return result.toString();
+    }
+
+    private static void appendFrontCoded(StringBuilder result, String previous, String elementName) {
+        int prefixLength = 0;
+        int maxPrefixLength = Math.min(previous.length(), elementName.length());
+        while (prefixLength < maxPrefixLength && previous.charAt(prefixLength) == elementName.charAt(prefixLength)) {
+            prefixLength++;
         }
 
+        result.append((char) prefixLength);
+        result.append((char) (elementName.length() - prefixLength));
+        result.append(elementName, prefixLength, elementName.length());
     }
 
     //</editor-fold>
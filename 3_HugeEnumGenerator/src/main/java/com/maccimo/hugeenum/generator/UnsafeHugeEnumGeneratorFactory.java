@@ -1,17 +1,33 @@
 package com.maccimo.hugeenum.generator;
 
+import java.util.Collections;
 import java.util.List;
 
 public class UnsafeHugeEnumGeneratorFactory implements IEnumGeneratorFactory {
 
+    private final boolean frontCoded;
+
+    public UnsafeHugeEnumGeneratorFactory() {
+        this(false);
+    }
+
+    /**
+     * @param frontCoded Store element names front-coded, see {@link UnsafeHugeEnumGenerator}
+     */
+    public UnsafeHugeEnumGeneratorFactory(boolean frontCoded) {
+        this.frontCoded = frontCoded;
+    }
+
     @Override
     public String getId() {
-        return "Unsafe";
+        return frontCoded ? "UnsafeFrontCoded" : "Unsafe";
     }
 
     @Override
     public String getDescription() {
-        return "Employ sun.misc.Unsafe for enum elements initialization";
+        return frontCoded
+            ? "Same as Unsafe, element names are stored front-coded"
+            : "Employ sun.misc.Unsafe for enum elements initialization";
     }
 
     @Override
@@ -19,7 +35,8 @@ public class UnsafeHugeEnumGeneratorFactory implements IEnumGeneratorFactory {
         // Maximum for UnsafeEnumGenerator depend on element names length.
         // Number here is pre-calculated for 11-character element name assuming each character occupy
         // exactly 1 byte in UTF-8 encoding. This is true only for (0 < character code < 128)
-        return 65_410;
+        // Front-coded names of autogenerated elements take fewer constant pool entries.
+        return frontCoded ? 65_415 : 65_410;
     }
 
     @Override
@@ -31,7 +48,17 @@ public class UnsafeHugeEnumGeneratorFactory implements IEnumGeneratorFactory {
 
     @Override
     public IEnumGenerator create(String name, List<String> elementNames) {
-        return new UnsafeHugeEnumGenerator(name, elementNames);
+        return new UnsafeHugeEnumGenerator(name, elementNames, Collections.emptyList(), frontCoded);
+    }
+
+    @Override
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features) {
+        return new UnsafeHugeEnumGenerator(name, elementNames, features, frontCoded);
+    }
+
+    @Override
+    public IEnumGenerator create(String name, List<String> elementNames, List<IEnumFeature> features, NamePattern namePattern) {
+        return new UnsafeHugeEnumGenerator(name, elementNames, features, frontCoded, namePattern);
     }
 
 }
@@ -0,0 +1,166 @@
+package com.maccimo.hugeenum.generator;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Embed UTF-8 encoded element names.
+ *
+ * Generated members:
+ * <ul>
+ *     <li>{@code void writeNameTo(ByteBuffer)} - put UTF-8 encoded name to buffer</li>
+ *     <li>{@code void writeNameTo(OutputStream)} - write UTF-8 encoded name to stream</li>
+ *     <li>{@code static HugeEnumNameBytes nameBytes()} - table of all encoded names</li>
+ * </ul>
+ * Names are stored as a single string with one {@code char} per UTF-8 byte plus table of name lengths,
+ * both packed into the constant pool (see {@code com.maccimo.hugeenum.runtime.HugeEnumNameBytes}).
+ */
+@SuppressWarnings("SpellCheckingInspection")
+public class Utf8NameEnumFeature implements IEnumFeature {
+
+    private static final String CLASS_NAME_JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String CLASS_NAME_NAME_BYTES = "com/maccimo/hugeenum/runtime/HugeEnumNameBytes";
+    private static final String CLASS_NAME_JAVA_IO_IOEXCEPTION = "java/io/IOException";
+
+    private static final String MEMBER_NAME_NAME_BYTES_FIELD = "$NAME_BYTES";
+    private static final String MEMBER_NAME_INIT_NAME_BYTES = "$initNameBytes";
+    private static final String MEMBER_NAME_NAME_BYTES = "nameBytes";
+    private static final String MEMBER_NAME_WRITE_NAME_TO = "writeNameTo";
+    private static final String MEMBER_NAME_WRITE_TO = "writeTo";
+    private static final String MEMBER_NAME_DECODE = "decode";
+    private static final String MEMBER_NAME_ORDINAL = "ordinal";
+
+    private static final String DESCRIPTOR_NAME_BYTES = "L" + CLASS_NAME_NAME_BYTES + ";";
+    private static final String DESCRIPTOR_NOARG_VOID = "()V";
+    private static final String DESCRIPTOR_NOARG_INT = "()I";
+    private static final String DESCRIPTOR_NOARG_NAME_BYTES = "()" + DESCRIPTOR_NAME_BYTES;
+    private static final String DESCRIPTOR_STRING_STRING_NAME_BYTES = "(Ljava/lang/String;Ljava/lang/String;)" + DESCRIPTOR_NAME_BYTES;
+    private static final String DESCRIPTOR_BYTE_BUFFER_VOID = "(Ljava/nio/ByteBuffer;)V";
+    private static final String DESCRIPTOR_OUTPUT_STREAM_VOID = "(Ljava/io/OutputStream;)V";
+    private static final String DESCRIPTOR_INT_BYTE_BUFFER_VOID = "(ILjava/nio/ByteBuffer;)V";
+    private static final String DESCRIPTOR_INT_OUTPUT_STREAM_VOID = "(ILjava/io/OutputStream;)V";
+
+    @Override
+    public String getId() {
+        return "Utf8Name";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Embed UTF-8 encoded names: writeNameTo(ByteBuffer) and writeNameTo(OutputStream)";
+    }
+
+    @Override
+    public void generate(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        List<String> elementNames = enumClassInfo.getElementNames();
+
+        StringBuilder bytes = new StringBuilder();
+        char[] lengths = new char[elementNames.size()];
+
+        for (int i = 0; i < elementNames.size(); i++) {
+            byte[] nameBytes = elementNames.get(i).getBytes(StandardCharsets.UTF_8);
+
+            if (nameBytes.length > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("Element name is too long: " + elementNames.get(i));
+            }
+
+            lengths[i] = (char) nameBytes.length;
+            bytes.append(new String(nameBytes, StandardCharsets.ISO_8859_1));
+        }
+
+        generateField(classWriter);
+        generateStaticInitializer(classWriter, enumClassInfo, bytes.toString(), new String(lengths));
+        generateNameBytes(classWriter, enumClassInfo);
+        generateWriteNameTo(classWriter, enumClassInfo, DESCRIPTOR_BYTE_BUFFER_VOID, DESCRIPTOR_INT_BYTE_BUFFER_VOID, null);
+        generateWriteNameTo(classWriter, enumClassInfo, DESCRIPTOR_OUTPUT_STREAM_VOID, DESCRIPTOR_INT_OUTPUT_STREAM_VOID, new String[] { CLASS_NAME_JAVA_IO_IOEXCEPTION });
+    }
+
+    @Override
+    public String getStaticInitializerName() {
+        return MEMBER_NAME_INIT_NAME_BYTES;
+    }
+
+    //<editor-fold desc="Bytecode generation">
+
+    private void generateField(ClassWriter classWriter) {
+        // Not final: field is initialized outside of <clinit>
+        classWriter
+            .visitField(
+                ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                MEMBER_NAME_NAME_BYTES_FIELD,
+                DESCRIPTOR_NAME_BYTES,
+                null,
+                null
+            )
+            .visitEnd();
+    }
+
+    private void generateStaticInitializer(ClassWriter classWriter, EnumClassInfo enumClassInfo, String bytes, String lengths) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            MEMBER_NAME_INIT_NAME_BYTES,
+            DESCRIPTOR_NOARG_VOID,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(bytes));
+        PackedStrings.generateLoad(methodVisitor, PackedStrings.pack(lengths));
+        methodVisitor.visitMethodInsn(INVOKESTATIC, CLASS_NAME_NAME_BYTES, MEMBER_NAME_DECODE, DESCRIPTOR_STRING_STRING_NAME_BYTES, false);
+        methodVisitor.visitFieldInsn(PUTSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_NAME_BYTES_FIELD, DESCRIPTOR_NAME_BYTES);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(1 + PackedStrings.MAX_STACK, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateNameBytes(ClassWriter classWriter, EnumClassInfo enumClassInfo) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC | ACC_STATIC,
+            MEMBER_NAME_NAME_BYTES,
+            DESCRIPTOR_NOARG_NAME_BYTES,
+            null,
+            null
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_NAME_BYTES_FIELD, DESCRIPTOR_NAME_BYTES);
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(1, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateWriteNameTo(
+        ClassWriter classWriter,
+        EnumClassInfo enumClassInfo,
+        String descriptor,
+        String writeToDescriptor,
+        String[] exceptions
+    ) {
+        MethodVisitor methodVisitor = classWriter.visitMethod(
+            ACC_PUBLIC,
+            MEMBER_NAME_WRITE_NAME_TO,
+            descriptor,
+            null,
+            exceptions
+        );
+
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, enumClassInfo.getEnumClassName(), MEMBER_NAME_NAME_BYTES_FIELD, DESCRIPTOR_NAME_BYTES);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_JAVA_LANG_ENUM, MEMBER_NAME_ORDINAL, DESCRIPTOR_NOARG_INT, false);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, CLASS_NAME_NAME_BYTES, MEMBER_NAME_WRITE_TO, writeToDescriptor, false);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(3, 2);
+        methodVisitor.visitEnd();
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,37 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Run action for every chunk index from {@code fromChunk} inclusive to {@code toChunk} exclusive,
+ * splitting the range in halves down to single chunks.
+ */
+final class ChunkAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int fromChunk;
+    private final int toChunk;
+    private final IntConsumer action;
+
+    ChunkAction(int fromChunk, int toChunk, IntConsumer action) {
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+        this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+        if (toChunk - fromChunk == 1) {
+            action.accept(fromChunk);
+        } else {
+            int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(
+                new ChunkAction(fromChunk, middle, action),
+                new ChunkAction(middle, toChunk, action)
+            );
+        }
+    }
+
+}
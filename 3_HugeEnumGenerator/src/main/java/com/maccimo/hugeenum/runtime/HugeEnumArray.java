@@ -0,0 +1,204 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Fixed-length array of enum values packed as {@code char} ordinals.
+ *
+ * Enum may have at most 65 535 elements, so any ordinal fits in a {@code char}.
+ * Each slot costs 2 bytes instead of a 4-8 byte reference and stores involve no GC write barrier.
+ * {@code null} slots are supported and encoded as {@link HugeEnumConstants#NULL_ORDINAL}.
+ */
+public final class HugeEnumArray<E extends Enum<E>> {
+
+    private final Class<E> enumClass;
+    private final E[] constants;
+    private final char[] ordinals;
+
+    /**
+     * Create array filled with {@code null}.
+     *
+     * @param enumClass Enum class
+     * @param length Array length
+     */
+    public HugeEnumArray(Class<E> enumClass, int length) {
+        this.enumClass = enumClass;
+        this.constants = HugeEnumConstants.getShared(enumClass);
+        this.ordinals = new char[length];
+
+        Arrays.fill(ordinals, HugeEnumConstants.NULL_ORDINAL);
+    }
+
+    private HugeEnumArray(Class<E> enumClass, char[] ordinals) {
+        this.enumClass = enumClass;
+        this.constants = HugeEnumConstants.getShared(enumClass);
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * @param enumClass Enum class
+     * @param values Values to pack
+     * @return New array holding the same values
+     */
+    public static <E extends Enum<E>> HugeEnumArray<E> of(Class<E> enumClass, E[] values) {
+        HugeEnumArray<E> result = new HugeEnumArray<>(enumClass, new char[values.length]);
+        result.copyFrom(values, 0, 0, values.length);
+        return result;
+    }
+
+    /**
+     * Wrap array of ordinals without copying. Array is used as backing storage.
+     *
+     * @param enumClass Enum class
+     * @param ordinals Ordinals, {@link HugeEnumConstants#NULL_ORDINAL} for {@code null}
+     * @return Array view over given ordinals
+     */
+    public static <E extends Enum<E>> HugeEnumArray<E> wrap(Class<E> enumClass, char[] ordinals) {
+        return new HugeEnumArray<>(enumClass, Objects.requireNonNull(ordinals));
+    }
+
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    public int length() {
+        return ordinals.length;
+    }
+
+    public E get(int index) {
+        return HugeEnumConstants.fromOrdinal(constants, ordinals[index]);
+    }
+
+    public void set(int index, E value) {
+        ordinals[index] = HugeEnumConstants.toOrdinal(value);
+    }
+
+    /**
+     * @param index Slot index
+     * @return Ordinal at given slot or {@link HugeEnumConstants#NULL_ORDINAL} for {@code null}
+     */
+    public char getOrdinal(int index) {
+        return ordinals[index];
+    }
+
+    public void setOrdinal(int index, char ordinal) {
+        if (ordinal != HugeEnumConstants.NULL_ORDINAL) {
+            Objects.checkIndex(ordinal, constants.length);
+        }
+
+        ordinals[index] = ordinal;
+    }
+
+    public void fill(E value) {
+        Arrays.fill(ordinals, HugeEnumConstants.toOrdinal(value));
+    }
+
+    public void fill(int fromIndex, int toIndex, E value) {
+        Arrays.fill(ordinals, fromIndex, toIndex, HugeEnumConstants.toOrdinal(value));
+    }
+
+    /**
+     * Copy values from a plain array into this one.
+     */
+    public void copyFrom(E[] source, int sourcePosition, int destinationPosition, int length) {
+        Objects.checkFromIndexSize(sourcePosition, length, source.length);
+        Objects.checkFromIndexSize(destinationPosition, length, ordinals.length);
+
+        char[] ordinals = this.ordinals;
+        for (int i = 0; i < length; i++) {
+            ordinals[destinationPosition + i] = HugeEnumConstants.toOrdinal(source[sourcePosition + i]);
+        }
+    }
+
+    /**
+     * Copy values from this array into a plain one.
+     */
+    public void copyTo(int sourcePosition, E[] destination, int destinationPosition, int length) {
+        Objects.checkFromIndexSize(sourcePosition, length, ordinals.length);
+        Objects.checkFromIndexSize(destinationPosition, length, destination.length);
+
+        E[] constants = this.constants;
+        char[] ordinals = this.ordinals;
+        for (int i = 0; i < length; i++) {
+            destination[destinationPosition + i] = HugeEnumConstants.fromOrdinal(constants, ordinals[sourcePosition + i]);
+        }
+    }
+
+    /**
+     * Copy values between two packed arrays. Equivalent of {@link System#arraycopy}, no decoding involved.
+     */
+    public void copyTo(int sourcePosition, HugeEnumArray<E> destination, int destinationPosition, int length) {
+        checkCompatible(destination.enumClass);
+
+        System.arraycopy(ordinals, sourcePosition, destination.ordinals, destinationPosition, length);
+    }
+
+    public E[] toArray() {
+        E[] result = Arrays.copyOf(constants, ordinals.length);
+        copyTo(0, result, 0, ordinals.length);
+        return result;
+    }
+
+    /**
+     * @return Copy of ordinals
+     */
+    public char[] toOrdinalArray() {
+        return ordinals.clone();
+    }
+
+    public HugeEnumArray<E> copy() {
+        return new HugeEnumArray<>(enumClass, ordinals.clone());
+    }
+
+    public Spliterator<E> spliterator() {
+        return new OrdinalArraySpliterator<>(constants, ordinals, 0, ordinals.length, 0);
+    }
+
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    char[] ordinals() {
+        return ordinals;
+    }
+
+    private void checkCompatible(Class<?> otherEnumClass) {
+        if (otherEnumClass != enumClass) {
+            throw new ArrayStoreException(otherEnumClass.getName() + " is not " + enumClass.getName());
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof HugeEnumArray)) {
+            return false;
+        }
+
+        HugeEnumArray<?> that = (HugeEnumArray<?>) other;
+
+        return (enumClass == that.enumClass) && Arrays.equals(ordinals, that.ordinals);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * enumClass.hashCode() + Arrays.hashCode(ordinals);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+}
@@ -0,0 +1,387 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Concurrent loading cache keyed by enum elements.
+ *
+ * Values are kept in an {@link AtomicReferenceArray} indexed by ordinal, so lookup costs one array load
+ * and involves neither hashing nor per-entry nodes. Missing value is computed at most once per slot
+ * even under contention: concurrent callers wait for the loading thread.
+ *
+ * Values may be held strongly, softly or weakly. Cache may also be bounded: when loaded value count
+ * exceeds maximum size, values are evicted using the CLOCK (second chance) policy.
+ */
+public class HugeEnumCache<E extends Enum<E>, V> {
+
+    public enum Strength {
+        STRONG,
+        SOFT,
+        WEAK
+    }
+
+    /**
+     * Maximum size value for unbounded cache.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final E[] constants;
+    private final Function<? super E, ? extends V> loader;
+    private final Strength strength;
+    private final int maximumSize;
+
+    private final AtomicReferenceArray<Object> slots;
+    private final ReferenceQueue<V> referenceQueue;
+
+    // Racy reads and writes are fine: CLOCK is an approximation anyway.
+    private final byte[] referenced;
+    private final Object evictionLock = new Object();
+    private int clockHand;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Create unbounded cache holding values strongly.
+     *
+     * @param enumClass Enum class
+     * @param loader Function computing value for a key. Must not return {@code null}
+     */
+    public HugeEnumCache(Class<E> enumClass, Function<? super E, ? extends V> loader) {
+        this(enumClass, loader, Strength.STRONG, UNBOUNDED);
+    }
+
+    /**
+     * @param enumClass Enum class
+     * @param loader Function computing value for a key. Must not return {@code null}
+     * @param strength Reference strength used to hold values
+     * @param maximumSize Maximum count of loaded values or {@link #UNBOUNDED}
+     */
+    public HugeEnumCache(Class<E> enumClass, Function<? super E, ? extends V> loader, Strength strength, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+
+        this.constants = HugeEnumConstants.getShared(enumClass);
+        this.loader = Objects.requireNonNull(loader);
+        this.strength = Objects.requireNonNull(strength);
+        this.maximumSize = maximumSize;
+
+        this.slots = new AtomicReferenceArray<>(constants.length);
+        this.referenceQueue = (strength == Strength.STRONG) ? null : new ReferenceQueue<>();
+        this.referenced = (maximumSize < constants.length) ? new byte[constants.length] : null;
+    }
+
+    /**
+     * Return cached value, loading it if absent.
+     */
+    public V get(E key) {
+        int ordinal = key.ordinal();
+
+        for (;;) {
+            Object slot = slots.get(ordinal);
+
+            if (slot instanceof Loading) {
+                ((Loading) slot).await();
+                continue;
+            }
+
+            V value = unwrap(slot);
+
+            if (value != null) {
+                hitCount.increment();
+                markReferenced(ordinal);
+                return value;
+            }
+
+            Loading loading = new Loading();
+
+            if (slots.compareAndSet(ordinal, slot, loading)) {
+                missCount.increment();
+
+                if (slot != null) {
+                    // Reference was cleared by GC
+                    size.decrementAndGet();
+                    evictionCount.increment();
+                }
+
+                return load(key, ordinal, loading);
+            }
+        }
+    }
+
+    /**
+     * @return Cached value or {@code null} if absent or being loaded
+     */
+    public V getIfPresent(E key) {
+        V value = unwrap(slots.get(key.ordinal()));
+
+        if (value != null) {
+            hitCount.increment();
+            markReferenced(key.ordinal());
+        } else {
+            missCount.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Discard cached value. Value being loaded is returned to the loading caller only, waiting callers load it again.
+     */
+    public void invalidate(E key) {
+        int ordinal = key.ordinal();
+
+        for (;;) {
+            Object slot = slots.get(ordinal);
+
+            if (slot == null) {
+                return;
+            }
+
+            if (slot instanceof Loading) {
+                ((Loading) slot).invalidate();
+
+                // Otherwise loader stored value before the mark could be seen, discard it as usual
+                if (slots.get(ordinal) == slot) {
+                    return;
+                }
+
+                continue;
+            }
+
+            if (slots.compareAndSet(ordinal, slot, null)) {
+                size.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (E constant : constants) {
+            invalidate(constant);
+        }
+    }
+
+    /**
+     * @return Approximate count of loaded values
+     */
+    public int size() {
+        drainReferenceQueue();
+        return size.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        drainReferenceQueue();
+        return evictionCount.sum();
+    }
+
+    private V load(E key, int ordinal, Loading loading) {
+        V value;
+
+        try {
+            value = Objects.requireNonNull(loader.apply(key), "Cache loader returned null");
+        } catch (RuntimeException | Error e) {
+            slots.set(ordinal, null);
+            loading.complete();
+            throw e;
+        }
+
+        Object slot = wrap(value, ordinal);
+        slots.set(ordinal, slot);
+        size.incrementAndGet();
+
+        // Value is stored before the mark is checked, so concurrent invalidate either is seen here or sees the value
+        if (loading.isInvalidated() && slots.compareAndSet(ordinal, slot, null)) {
+            size.decrementAndGet();
+        } else {
+            markReferenced(ordinal);
+        }
+
+        loading.complete();
+
+        drainReferenceQueue();
+        evictIfNeeded();
+
+        return value;
+    }
+
+    private Object wrap(V value, int ordinal) {
+        switch (strength) {
+            case SOFT:
+                return new SoftSlot<>(value, referenceQueue, ordinal);
+            case WEAK:
+                return new WeakSlot<>(value, referenceQueue, ordinal);
+            default:
+                return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object slot) {
+        if (slot == null || slot instanceof Loading) {
+            return null;
+        }
+
+        if (slot instanceof Reference) {
+            return ((Reference<V>) slot).get();
+        }
+
+        return (V) slot;
+    }
+
+    private void markReferenced(int ordinal) {
+        if (referenced != null) {
+            referenced[ordinal] = 1;
+        }
+    }
+
+    private void drainReferenceQueue() {
+        if (referenceQueue == null) {
+            return;
+        }
+
+        Reference<? extends V> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            int ordinal = ((OrdinalSlot) reference).ordinal();
+
+            if (slots.compareAndSet(ordinal, reference, null)) {
+                size.decrementAndGet();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (referenced == null || size.get() <= maximumSize) {
+            return;
+        }
+
+        synchronized (evictionLock) {
+            int length = constants.length;
+
+            // Two full sweeps are enough to find a victim: the first one clears all reference bits.
+            for (int step = 0; step < 2 * length && size.get() > maximumSize; step++) {
+                int ordinal = clockHand;
+                clockHand = (ordinal + 1 == length) ? 0 : ordinal + 1;
+
+                Object slot = slots.get(ordinal);
+
+                if (slot == null || slot instanceof Loading) {
+                    continue;
+                }
+
+                if (referenced[ordinal] != 0) {
+                    referenced[ordinal] = 0;
+                    continue;
+                }
+
+                if (slots.compareAndSet(ordinal, slot, null)) {
+                    size.decrementAndGet();
+                    evictionCount.increment();
+                }
+            }
+        }
+    }
+
+    private interface OrdinalSlot {
+
+        public int ordinal();
+
+    }
+
+    private static class SoftSlot<V> extends SoftReference<V> implements OrdinalSlot {
+
+        private final int ordinal;
+
+        public SoftSlot(V value, ReferenceQueue<? super V> queue, int ordinal) {
+            super(value, queue);
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int ordinal() {
+            return ordinal;
+        }
+
+    }
+
+    private static class WeakSlot<V> extends WeakReference<V> implements OrdinalSlot {
+
+        private final int ordinal;
+
+        public WeakSlot(V value, ReferenceQueue<? super V> queue, int ordinal) {
+            super(value, queue);
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int ordinal() {
+            return ordinal;
+        }
+
+    }
+
+    private static class Loading {
+
+        private final Thread owner = Thread.currentThread();
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private volatile boolean invalidated;
+
+        public void complete() {
+            latch.countDown();
+        }
+
+        public void invalidate() {
+            invalidated = true;
+        }
+
+        public boolean isInvalidated() {
+            return invalidated;
+        }
+
+        public void await() {
+            if (owner == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load of the same key");
+            }
+
+            boolean interrupted = false;
+
+            for (;;) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,303 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Categories of enum elements.
+ *
+ * Generator lays out ordinals so elements of every category are contiguous, then membership test is
+ * a range compare. When ordinal lock prevents that, category is stored as precomputed bitset of ordinals.
+ * Both forms are embedded into the enum as {@code char} table, per-category sets are views over it,
+ * so neither membership test nor set access builds anything at runtime.
+ *
+ * Encoded table, numbers are stored most significant {@code char} first:
+ * <pre>
+ *   char   element count
+ *   range:  char 0, char first ordinal, char ordinal after last
+ *   bitset: char 1, long * ceil(element count / 64) bits of ordinals
+ * </pre>
+ * one entry per category; category names are joined with {@code '\n'}.
+ */
+public final class HugeEnumCategories {
+
+    private static final char KIND_RANGE = 0;
+    private static final char KIND_BITSET = 1;
+
+    private static final String NAME_SEPARATOR = "\n";
+
+    private static final int CHARS_PER_LONG = Long.BYTES / Character.BYTES;
+
+    private final Object[] values;
+    private final String[] names;
+
+    private final int[] starts;
+    private final int[] ends;
+    // null for range category
+    private final long[][] bits;
+
+    private final int[] sizes;
+    private final char[] categoryOf;
+    private final List<Set<Object>> sets;
+
+    private HugeEnumCategories(Object[] values, String[] names, int[] starts, int[] ends, long[][] bits) {
+        this.values = values;
+        this.names = names;
+        this.starts = starts;
+        this.ends = ends;
+        this.bits = bits;
+
+        this.sizes = new int[names.length];
+        this.categoryOf = new char[values.length];
+        Arrays.fill(categoryOf, HugeEnumConstants.NULL_ORDINAL);
+
+        Set<Object>[] sets = newSetArray(names.length);
+        for (int category = 0; category < names.length; category++) {
+            for (int ordinal = nextOrdinal(category, 0); ordinal >= 0; ordinal = nextOrdinal(category, ordinal + 1)) {
+                categoryOf[ordinal] = (char) category;
+                sizes[category]++;
+            }
+
+            sets[category] = new CategorySet(category);
+        }
+
+        this.sets = List.of(sets);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object>[] newSetArray(int length) {
+        return (Set<Object>[]) new Set<?>[length];
+    }
+
+    //<editor-fold desc="Encoding">
+
+    /**
+     * @param categoryNames Category names
+     * @param categoryOf Category index of every element in ordinal order, {@code -1} for none
+     * @return Table to be embedded into generated enum, names are encoded by {@link #encodeNames(List)}
+     */
+    public static String encode(List<String> categoryNames, int[] categoryOf) {
+        int elementCount = categoryOf.length;
+        int wordCount = (elementCount + Long.SIZE - 1) / Long.SIZE;
+
+        StringBuilder result = new StringBuilder();
+        result.append((char) elementCount);
+
+        for (int category = 0; category < categoryNames.size(); category++) {
+            int first = -1;
+            int last = -1;
+            int count = 0;
+            long[] words = new long[wordCount];
+
+            for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+                if (categoryOf[ordinal] == category) {
+                    if (first < 0) {
+                        first = ordinal;
+                    }
+                    last = ordinal;
+                    count++;
+                    words[ordinal / Long.SIZE] |= 1L << ordinal;
+                }
+            }
+
+            if (count == 0 || last - first + 1 == count) {
+                result.append(KIND_RANGE);
+                result.append((char) Math.max(first, 0));
+                result.append((char) (last + 1));
+            } else {
+                result.append(KIND_BITSET);
+                for (long word : words) {
+                    for (int j = 0; j < CHARS_PER_LONG; j++) {
+                        result.append((char) (word >>> (Character.SIZE * (CHARS_PER_LONG - 1 - j))));
+                    }
+                }
+            }
+        }
+
+        return result.toString();
+    }
+
+    public static String encodeNames(List<String> categoryNames) {
+        return String.join(NAME_SEPARATOR, categoryNames);
+    }
+
+    //</editor-fold>
+
+    /**
+     * Decode table embedded into generated enum.
+     *
+     * @param values Enum elements in ordinal order
+     */
+    public static HugeEnumCategories decode(String names, String table, Object[] values) {
+        String[] decodedNames = names.isEmpty() ? new String[0] : names.split(NAME_SEPARATOR, -1);
+
+        int elementCount = table.charAt(0);
+        if (elementCount != values.length) {
+            throw new IllegalArgumentException("Category table does not match enum elements");
+        }
+
+        int wordCount = (elementCount + Long.SIZE - 1) / Long.SIZE;
+
+        int[] starts = new int[decodedNames.length];
+        int[] ends = new int[decodedNames.length];
+        long[][] bits = new long[decodedNames.length][];
+
+        int position = 1;
+        for (int category = 0; category < decodedNames.length; category++) {
+            switch (table.charAt(position++)) {
+                case KIND_RANGE:
+                    starts[category] = table.charAt(position++);
+                    ends[category] = table.charAt(position++);
+                    break;
+                case KIND_BITSET:
+                    long[] words = new long[wordCount];
+                    for (int i = 0; i < wordCount; i++) {
+                        long word = 0;
+                        for (int j = 0; j < CHARS_PER_LONG; j++) {
+                            word = (word << Character.SIZE) | table.charAt(position++);
+                        }
+                        words[i] = word;
+                    }
+                    bits[category] = words;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid category kind: " + (int) table.charAt(position - 1));
+            }
+        }
+
+        if (position != table.length()) {
+            throw new IllegalArgumentException("Category table does not match category names");
+        }
+
+        return new HugeEnumCategories(values, decodedNames, starts, ends, bits);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int category) {
+        return names[category];
+    }
+
+    /**
+     * @return Category index or {@code -1}
+     */
+    public int indexOf(String name) {
+        return Arrays.asList(names).indexOf(name);
+    }
+
+    /**
+     * @return {@code true} if category elements occupy contiguous ordinal range
+     */
+    public boolean isContiguous(int category) {
+        return bits[category] == null;
+    }
+
+    public boolean contains(int category, int ordinal) {
+        long[] words = bits[category];
+
+        if (words == null) {
+            return ordinal >= starts[category] && ordinal < ends[category];
+        }
+
+        return (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * @return Category index of element or {@code -1}
+     */
+    public int categoryOf(int ordinal) {
+        char category = categoryOf[ordinal];
+        return (category == HugeEnumConstants.NULL_ORDINAL) ? -1 : category;
+    }
+
+    /**
+     * @return Immutable set of category elements in ordinal order
+     */
+    public Set<Object> getSet(int category) {
+        return sets.get(category);
+    }
+
+    /**
+     * @return First ordinal of category not less than {@code from} or {@code -1}
+     */
+    private int nextOrdinal(int category, int from) {
+        long[] words = bits[category];
+
+        if (words == null) {
+            int ordinal = Math.max(from, starts[category]);
+            return (ordinal < ends[category]) ? ordinal : -1;
+        }
+
+        int wordIndex = from >>> 6;
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+
+        long word = words[wordIndex] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+
+            word = words[wordIndex];
+        }
+    }
+
+    private final class CategorySet extends AbstractSet<Object> {
+
+        private final int category;
+
+        private CategorySet(int category) {
+            this.category = category;
+        }
+
+        @Override
+        public int size() {
+            return sizes[category];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return
+                values.getClass().getComponentType().isInstance(o) &&
+                HugeEnumCategories.this.contains(category, ((Enum<?>) o).ordinal());
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return new Iterator<>() {
+
+                private int next = nextOrdinal(category, 0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Object next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+
+                    Object result = values[next];
+                    next = nextOrdinal(category, next + 1);
+                    return result;
+                }
+
+            };
+        }
+
+    }
+
+}
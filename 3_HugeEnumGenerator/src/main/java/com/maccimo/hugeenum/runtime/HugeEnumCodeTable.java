@@ -0,0 +1,217 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.Arrays;
+
+/**
+ * Lookup of enum elements by external integer code.
+ *
+ * Built by generator and embedded into the enum as {@code char} table, so lookup neither boxes code
+ * nor allocates. Codes spanning a compact range are resolved by dense table indexed by
+ * {@code code - base}, sparse codes by open addressing table with Fibonacci hashing and linear probing.
+ *
+ * Encoded table, numbers are stored most significant {@code char} first:
+ * <pre>
+ *   dense:  char 0, int base, char ordinal * span
+ *   hashed: char 1, char log2(capacity), int code * capacity, char ordinal * capacity
+ * </pre>
+ * Empty slots hold {@link HugeEnumConstants#NULL_ORDINAL}.
+ */
+public final class HugeEnumCodeTable {
+
+    private static final char KIND_DENSE = 0;
+    private static final char KIND_HASHED = 1;
+
+    // Dense table is used while it is at most that many times larger than element count
+    private static final int MAX_DENSE_LOAD = 2;
+    private static final int MIN_DENSE_SPAN = 64;
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final Object[] values;
+    private final char[] ordinals;
+
+    // Dense table
+    private final int base;
+
+    // Hashed table, keys == null for dense one
+    private final int[] keys;
+    private final int shift;
+
+    private HugeEnumCodeTable(Object[] values, char[] ordinals, int base, int[] keys, int shift) {
+        this.values = values;
+        this.ordinals = ordinals;
+        this.base = base;
+        this.keys = keys;
+        this.shift = shift;
+    }
+
+    //<editor-fold desc="Encoding">
+
+    /**
+     * @param codes Unique code of every listed element
+     * @param ordinals Ordinal of every listed element
+     * @return Table to be embedded into generated enum
+     */
+    public static String encode(int[] codes, int[] ordinals) {
+        if (codes.length != ordinals.length) {
+            throw new IllegalArgumentException("Code count does not match ordinal count");
+        }
+
+        int[] sortedCodes = codes.clone();
+        Arrays.sort(sortedCodes);
+        for (int i = 1; i < sortedCodes.length; i++) {
+            if (sortedCodes[i] == sortedCodes[i - 1]) {
+                throw new IllegalArgumentException("Duplicate code: " + sortedCodes[i]);
+            }
+        }
+
+        long span = (codes.length == 0) ? 0 : (long) sortedCodes[codes.length - 1] - sortedCodes[0] + 1;
+
+        StringBuilder result = new StringBuilder();
+
+        if (span <= Math.max((long) MAX_DENSE_LOAD * codes.length, MIN_DENSE_SPAN)) {
+            int base = (codes.length == 0) ? 0 : sortedCodes[0];
+
+            char[] table = new char[(int) span];
+            Arrays.fill(table, HugeEnumConstants.NULL_ORDINAL);
+            for (int i = 0; i < codes.length; i++) {
+                table[codes[i] - base] = (char) ordinals[i];
+            }
+
+            result.append(KIND_DENSE);
+            appendInt(result, base);
+            result.append(table);
+        } else {
+            int bits = 1;
+            while ((1 << bits) < 2 * codes.length) {
+                bits++;
+            }
+
+            int[] keys = new int[1 << bits];
+            char[] table = new char[1 << bits];
+            Arrays.fill(table, HugeEnumConstants.NULL_ORDINAL);
+
+            for (int i = 0; i < codes.length; i++) {
+                int slot = slotOf(codes[i], Integer.SIZE - bits);
+
+                while (table[slot] != HugeEnumConstants.NULL_ORDINAL) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+
+                keys[slot] = codes[i];
+                table[slot] = (char) ordinals[i];
+            }
+
+            result.append(KIND_HASHED);
+            result.append((char) bits);
+            for (int key : keys) {
+                appendInt(result, key);
+            }
+            result.append(table);
+        }
+
+        return result.toString();
+    }
+
+    private static void appendInt(StringBuilder result, int value) {
+        result.append((char) (value >>> Character.SIZE));
+        result.append((char) value);
+    }
+
+    //</editor-fold>
+
+    /**
+     * Decode table embedded into generated enum.
+     *
+     * @param values Enum elements in ordinal order
+     */
+    public static HugeEnumCodeTable decode(String table, Object[] values) {
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Empty code table");
+        }
+
+        switch (table.charAt(0)) {
+            case KIND_DENSE:
+                if (table.length() < 3) {
+                    throw new IllegalArgumentException("Invalid code table length: " + table.length());
+                }
+
+                return new HugeEnumCodeTable(values, table.substring(3).toCharArray(), getInt(table, 1), null, 0);
+            case KIND_HASHED:
+                int bits = table.charAt(1);
+                int capacity = 1 << bits;
+
+                if (table.length() != 2 + 3 * capacity) {
+                    throw new IllegalArgumentException("Invalid code table length: " + table.length());
+                }
+
+                int[] keys = new int[capacity];
+                for (int i = 0; i < capacity; i++) {
+                    keys[i] = getInt(table, 2 + 2 * i);
+                }
+
+                return new HugeEnumCodeTable(values, table.substring(2 + 2 * capacity).toCharArray(), 0, keys, Integer.SIZE - bits);
+            default:
+                throw new IllegalArgumentException("Invalid code table kind: " + (int) table.charAt(0));
+        }
+    }
+
+    private static int getInt(String table, int index) {
+        return (table.charAt(index) << Character.SIZE) | table.charAt(index + 1);
+    }
+
+    /**
+     * @return Ordinal of element with given code or {@code -1}
+     */
+    public int ordinalOf(int code) {
+        char[] ordinals = this.ordinals;
+
+        if (keys == null) {
+            long index = (long) code - base;
+            return (index >= 0 && index < ordinals.length && ordinals[(int) index] != HugeEnumConstants.NULL_ORDINAL)
+                ? ordinals[(int) index]
+                : -1;
+        }
+
+        int[] keys = this.keys;
+        int mask = ordinals.length - 1;
+
+        for (int slot = slotOf(code, shift); ordinals[slot] != HugeEnumConstants.NULL_ORDINAL; slot = (slot + 1) & mask) {
+            if (keys[slot] == code) {
+                return ordinals[slot];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return Element with given code or {@code null}
+     */
+    public Object find(int code) {
+        int ordinal = ordinalOf(code);
+        return (ordinal < 0) ? null : values[ordinal];
+    }
+
+    /**
+     * @return Element with given code
+     * @throws IllegalArgumentException No element has given code
+     */
+    public Object get(int code) {
+        int ordinal = ordinalOf(code);
+
+        if (ordinal < 0) {
+            throw new IllegalArgumentException(String.format(
+                "No enum constant %s with code %d",
+                values.getClass().getComponentType().getName(), code
+            ));
+        }
+
+        return values[ordinal];
+    }
+
+    private static int slotOf(int code, int shift) {
+        return (code * GOLDEN_RATIO) >>> shift;
+    }
+
+}
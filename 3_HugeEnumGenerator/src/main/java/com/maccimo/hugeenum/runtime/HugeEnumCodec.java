@@ -0,0 +1,267 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary codec of enum values.
+ *
+ * Value is written as its ordinal: one byte for enums with less than 255 elements and two bytes otherwise.
+ * The largest value of the chosen width is reserved for {@code null}, so every enum up to
+ * {@link HugeEnumConstants#MAX_ELEMENT_COUNT} elements fits. Unlike {@link java.io.ObjectOutputStream}
+ * no names are written, so both peers must agree on element order. This is checked once per stream:
+ * writer emits a header with {@link HugeEnumFingerprint fingerprint} and element count, reader
+ * rejects header of an incompatible enum with {@link InvalidClassException}.
+ */
+public final class HugeEnumCodec<E extends Enum<E>> {
+
+    /**
+     * Header magic, "HEC" followed by format version.
+     */
+    public static final int MAGIC = 0x48454301;
+
+    /**
+     * Size of header in bytes.
+     */
+    public static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int BYTE_ELEMENT_LIMIT = 0xFF;
+
+    private final Class<E> enumClass;
+    private final E[] constants;
+    private final long fingerprint;
+    private final int valueSize;
+    private final int nullCode;
+
+    private HugeEnumCodec(Class<E> enumClass) {
+        this.enumClass = enumClass;
+        this.constants = HugeEnumConstants.getShared(enumClass);
+        this.fingerprint = HugeEnumFingerprint.of(enumClass);
+
+        if (constants.length < BYTE_ELEMENT_LIMIT) {
+            this.valueSize = Byte.BYTES;
+            this.nullCode = BYTE_ELEMENT_LIMIT;
+        } else {
+            this.valueSize = Character.BYTES;
+            this.nullCode = HugeEnumConstants.NULL_ORDINAL;
+        }
+    }
+
+    public static <E extends Enum<E>> HugeEnumCodec<E> of(Class<E> enumClass) {
+        return new HugeEnumCodec<>(enumClass);
+    }
+
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return Size of one encoded value in bytes, 1 or 2
+     */
+    public int getValueSize() {
+        return valueSize;
+    }
+
+    //<editor-fold desc="Header">
+
+    public void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(fingerprint);
+        out.writeInt(constants.length);
+    }
+
+    public void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putLong(fingerprint);
+        buffer.putInt(constants.length);
+    }
+
+    /**
+     * Read and verify header written by peer.
+     *
+     * @throws StreamCorruptedException Header magic is invalid
+     * @throws InvalidClassException Peer enum has different elements
+     */
+    public void readHeader(DataInput in) throws IOException {
+        int magic = in.readInt();
+        long peerFingerprint = in.readLong();
+        int peerCount = in.readInt();
+
+        checkHeader(magic, peerFingerprint, peerCount);
+    }
+
+    /**
+     * @see #readHeader(DataInput)
+     */
+    public void readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new StreamCorruptedException("Truncated header");
+        }
+
+        int magic = buffer.getInt();
+        long peerFingerprint = buffer.getLong();
+        int peerCount = buffer.getInt();
+
+        checkHeader(magic, peerFingerprint, peerCount);
+    }
+
+    private void checkHeader(int magic, long peerFingerprint, int peerCount) throws IOException {
+        if (magic != MAGIC) {
+            throw new StreamCorruptedException(String.format("Invalid header magic: %08X", magic));
+        }
+
+        if (peerFingerprint != fingerprint || peerCount != constants.length) {
+            throw new InvalidClassException(
+                enumClass.getName(),
+                String.format(
+                    "Incompatible peer enum: %d elements with fingerprint %016X, local: %d elements with fingerprint %016X",
+                    peerCount, peerFingerprint, constants.length, fingerprint
+                )
+            );
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Single value">
+
+    public void write(DataOutput out, E value) throws IOException {
+        if (valueSize == Byte.BYTES) {
+            out.writeByte(encode(value));
+        } else {
+            out.writeChar(encode(value));
+        }
+    }
+
+    public void write(ByteBuffer buffer, E value) {
+        if (valueSize == Byte.BYTES) {
+            buffer.put((byte) encode(value));
+        } else {
+            buffer.putChar((char) encode(value));
+        }
+    }
+
+    public E read(DataInput in) throws IOException {
+        int code = (valueSize == Byte.BYTES) ? in.readUnsignedByte() : in.readChar();
+
+        return decode(code);
+    }
+
+    public E read(ByteBuffer buffer) throws IOException {
+        int code = (valueSize == Byte.BYTES) ? Byte.toUnsignedInt(buffer.get()) : buffer.getChar();
+
+        return decode(code);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Bulk">
+
+    public void writeAll(DataOutput out, E[] values, int offset, int length) throws IOException {
+        checkRange(values.length, offset, length);
+
+        byte[] bytes = new byte[length * valueSize];
+        encodeAll(values, offset, length, bytes);
+        out.write(bytes);
+    }
+
+    public void writeAll(ByteBuffer buffer, E[] values, int offset, int length) {
+        checkRange(values.length, offset, length);
+
+        if (valueSize == Byte.BYTES) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                buffer.put((byte) encode(values[i]));
+            }
+        } else {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                buffer.putChar((char) encode(values[i]));
+            }
+        }
+    }
+
+    public void readAll(DataInput in, E[] values, int offset, int length) throws IOException {
+        checkRange(values.length, offset, length);
+
+        byte[] bytes = new byte[length * valueSize];
+        in.readFully(bytes);
+        decodeAll(bytes, values, offset, length);
+    }
+
+    public void readAll(ByteBuffer buffer, E[] values, int offset, int length) throws IOException {
+        checkRange(values.length, offset, length);
+
+        if (buffer.remaining() < length * valueSize) {
+            throw new BufferUnderflowException();
+        }
+
+        if (valueSize == Byte.BYTES) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                values[i] = decode(Byte.toUnsignedInt(buffer.get()));
+            }
+        } else {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                values[i] = decode(buffer.getChar());
+            }
+        }
+    }
+
+    private void encodeAll(E[] values, int offset, int length, byte[] bytes) {
+        if (valueSize == Byte.BYTES) {
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) encode(values[offset + i]);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                int code = encode(values[offset + i]);
+                bytes[2 * i] = (byte) (code >>> 8);
+                bytes[2 * i + 1] = (byte) code;
+            }
+        }
+    }
+
+    private void decodeAll(byte[] bytes, E[] values, int offset, int length) throws IOException {
+        if (valueSize == Byte.BYTES) {
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = decode(Byte.toUnsignedInt(bytes[i]));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = decode(((bytes[2 * i] & 0xFF) << 8) | (bytes[2 * i + 1] & 0xFF));
+            }
+        }
+    }
+
+    //</editor-fold>
+
+    private int encode(E value) {
+        return (value == null) ? nullCode : value.ordinal();
+    }
+
+    private E decode(int code) throws IOException {
+        if (code < constants.length) {
+            return constants[code];
+        } else if (code == nullCode) {
+            return null;
+        } else {
+            throw new StreamCorruptedException("Invalid ordinal of " + enumClass.getName() + ": " + code);
+        }
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Range [%d, %d) out of bounds for length %d", offset, offset + length, arrayLength
+            ));
+        }
+    }
+
+}
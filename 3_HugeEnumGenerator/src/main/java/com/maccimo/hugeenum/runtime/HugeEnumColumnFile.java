@@ -0,0 +1,515 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped file with a column of enum ordinals.
+ *
+ * File layout, all numbers big-endian:
+ * <pre>
+ *   int    magic "HECF"
+ *   int    format version
+ *   long   enum fingerprint, see {@link HugeEnumFingerprint}
+ *   long   row count
+ *   int    element count
+ *   int    column offset, i.e. header size padded to 8 bytes
+ *   u2+utf8          enum class name
+ *   (u2+utf8) * N    element names in ordinal order
+ *   u2 * rows        ordinal column, {@link HugeEnumConstants#NULL_ORDINAL} is null
+ * </pre>
+ *
+ * Column is accessed through {@link FileChannel#map} in segments of up to 1 GiB, so scans touch
+ * mapped pages directly without copying or decoding. Dictionary of element names makes the file
+ * self-describing: it can be read without the enum class, e.g. by {@link #getName(long)}.
+ */
+public final class HugeEnumColumnFile implements Closeable {
+
+    public static final int MAGIC = 0x48454346;
+    public static final int VERSION = 1;
+
+    static final int DEFAULT_SEGMENT_SHIFT = 29;
+
+    private static final int FIXED_HEADER_SIZE = 32;
+    private static final int COLUMN_ALIGNMENT = 8;
+
+    private static final int MIGRATION_CHUNK_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final boolean writable;
+
+    private final String enumClassName;
+    private final long fingerprint;
+    private final long rowCount;
+    private final String[] elementNames;
+
+    private final int segmentShift;
+    private final MappedByteBuffer[] mappedSegments;
+    private final CharBuffer[] segments;
+
+    private volatile Class<?> boundEnumClass;
+    private Enum<?>[] boundConstants;
+
+    private HugeEnumColumnFile(
+        FileChannel channel,
+        boolean writable,
+        String enumClassName,
+        long fingerprint,
+        long rowCount,
+        String[] elementNames,
+        long columnOffset,
+        int segmentShift
+    ) throws IOException {
+        this.channel = channel;
+        this.writable = writable;
+        this.enumClassName = enumClassName;
+        this.fingerprint = fingerprint;
+        this.rowCount = rowCount;
+        this.elementNames = elementNames;
+        this.segmentShift = segmentShift;
+
+        long segmentRows = 1L << segmentShift;
+        int segmentCount = (int) ((rowCount + segmentRows - 1) >>> segmentShift);
+
+        this.mappedSegments = new MappedByteBuffer[segmentCount];
+        this.segments = new CharBuffer[segmentCount];
+
+        FileChannel.MapMode mapMode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int i = 0; i < segmentCount; i++) {
+            long firstRow = (long) i << segmentShift;
+            long rows = Math.min(segmentRows, rowCount - firstRow);
+
+            mappedSegments[i] = channel.map(mapMode, columnOffset + firstRow * Character.BYTES, rows * Character.BYTES);
+            segments[i] = mappedSegments[i].asCharBuffer();
+        }
+    }
+
+    //<editor-fold desc="Creation">
+
+    /**
+     * Create new file for {@code rowCount} values of enum, all rows initially hold ordinal {@code 0}.
+     * Existing file is overwritten.
+     */
+    public static <E extends Enum<E>> HugeEnumColumnFile create(Path path, Class<E> enumClass, long rowCount) throws IOException {
+        return create(path, enumClass, rowCount, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Create file holding given values.
+     */
+    public static <E extends Enum<E>> void write(Path path, HugeEnumArray<E> values) throws IOException {
+        try (HugeEnumColumnFile file = create(path, values.getEnumClass(), values.length())) {
+            file.setOrdinals(0, values.ordinals(), 0, values.length());
+            file.force();
+        }
+    }
+
+    /**
+     * Rewrite file of previous enum version as file of the current one. Ordinals are translated by remap table,
+     * header of the new file gets fingerprint and element names of {@code enumClass}.
+     *
+     * @param target New file path, must differ from {@code source}
+     * @throws InvalidClassException Remap table does not lead from enum version of the file to {@code enumClass}
+     */
+    public static <E extends Enum<E>> void migrate(Path source, Path target, HugeEnumRemap remap, Class<E> enumClass) throws IOException {
+        try (HugeEnumColumnFile sourceFile = open(source)) {
+            if (remap.getSourceFingerprint() != sourceFile.fingerprint || remap.getSourceElementCount() != sourceFile.elementNames.length) {
+                throw new InvalidClassException(
+                    sourceFile.enumClassName,
+                    String.format(
+                        "Remap table does not apply: file %d elements with fingerprint %016X, remap table source %d elements with fingerprint %016X",
+                        sourceFile.elementNames.length, sourceFile.fingerprint, remap.getSourceElementCount(), remap.getSourceFingerprint()
+                    )
+                );
+            }
+
+            long classFingerprint = HugeEnumFingerprint.of(enumClass);
+            int classElementCount = HugeEnumConstants.getShared(enumClass).length;
+
+            if (remap.getTargetFingerprint() != classFingerprint || remap.getTargetElementCount() != classElementCount) {
+                throw new InvalidClassException(
+                    enumClass.getName(),
+                    String.format(
+                        "Remap table does not apply: class %d elements with fingerprint %016X, remap table target %d elements with fingerprint %016X",
+                        classElementCount, classFingerprint, remap.getTargetElementCount(), remap.getTargetFingerprint()
+                    )
+                );
+            }
+
+            long rowCount = sourceFile.rowCount;
+
+            try (HugeEnumColumnFile targetFile = create(target, enumClass, rowCount)) {
+                char[] chunk = new char[(int) Math.min(rowCount, MIGRATION_CHUNK_SIZE)];
+
+                for (long row = 0; row < rowCount; row += chunk.length) {
+                    int length = (int) Math.min(chunk.length, rowCount - row);
+
+                    sourceFile.getOrdinals(row, chunk, 0, length);
+                    remap.apply(chunk, 0, length);
+                    targetFile.setOrdinals(row, chunk, 0, length);
+                }
+
+                targetFile.force();
+            }
+        }
+    }
+
+    /**
+     * Open existing file read-only. Enum class is not required.
+     */
+    public static HugeEnumColumnFile open(Path path) throws IOException {
+        return open(path, false, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Open existing file for both reading and updating values.
+     */
+    public static HugeEnumColumnFile openWritable(Path path) throws IOException {
+        return open(path, true, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static <E extends Enum<E>> HugeEnumColumnFile create(Path path, Class<E> enumClass, long rowCount, int segmentShift) throws IOException {
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Negative row count: " + rowCount);
+        }
+
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+        String[] elementNames = Arrays.stream(constants).map(Enum::name).toArray(String[]::new);
+        long fingerprint = HugeEnumFingerprint.of(enumClass);
+
+        byte[] classNameBytes = enumClass.getName().getBytes(StandardCharsets.UTF_8);
+        byte[][] elementNameBytes = new byte[elementNames.length][];
+        int headerSize = FIXED_HEADER_SIZE + Short.BYTES + classNameBytes.length;
+        for (int i = 0; i < elementNames.length; i++) {
+            elementNameBytes[i] = elementNames[i].getBytes(StandardCharsets.UTF_8);
+            headerSize += Short.BYTES + elementNameBytes[i].length;
+        }
+        int columnOffset = (headerSize + COLUMN_ALIGNMENT - 1) & -COLUMN_ALIGNMENT;
+
+        ByteBuffer header = ByteBuffer.allocate(columnOffset);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(fingerprint);
+        header.putLong(rowCount);
+        header.putInt(elementNames.length);
+        header.putInt(columnOffset);
+        putString(header, classNameBytes);
+        for (byte[] bytes : elementNameBytes) {
+            putString(header, bytes);
+        }
+        header.clear();
+
+        FileChannel channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+
+            HugeEnumColumnFile file = new HugeEnumColumnFile(
+                channel, true, enumClass.getName(), fingerprint, rowCount, elementNames, columnOffset, segmentShift
+            );
+            file.boundEnumClass = enumClass;
+            file.boundConstants = constants;
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static HugeEnumColumnFile open(Path path, boolean writable, int segmentShift) throws IOException {
+        FileChannel channel = writable
+            ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            ByteBuffer fixedHeader = readFully(channel, 0, FIXED_HEADER_SIZE);
+
+            int magic = fixedHeader.getInt();
+            if (magic != MAGIC) {
+                throw new StreamCorruptedException(String.format("Invalid file magic: %08X", magic));
+            }
+
+            int version = fixedHeader.getInt();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported file version: " + version);
+            }
+
+            long fingerprint = fixedHeader.getLong();
+            long rowCount = fixedHeader.getLong();
+            int elementCount = fixedHeader.getInt();
+            int columnOffset = fixedHeader.getInt();
+
+            if (rowCount < 0 || elementCount < 0 || elementCount > HugeEnumConstants.MAX_ELEMENT_COUNT
+                || columnOffset < FIXED_HEADER_SIZE || columnOffset + rowCount * Character.BYTES > channel.size()) {
+                throw new StreamCorruptedException("Invalid file header");
+            }
+
+            ByteBuffer dictionary = readFully(channel, FIXED_HEADER_SIZE, columnOffset - FIXED_HEADER_SIZE);
+            String enumClassName = getString(dictionary);
+            String[] elementNames = new String[elementCount];
+            for (int i = 0; i < elementCount; i++) {
+                elementNames[i] = getString(dictionary);
+            }
+
+            return new HugeEnumColumnFile(
+                channel, writable, enumClassName, fingerprint, rowCount, elementNames, columnOffset, segmentShift
+            );
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    //</editor-fold>
+
+    public String getEnumClassName() {
+        return enumClassName;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getElementCount() {
+        return elementNames.length;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return Name of enum element from file dictionary
+     */
+    public String getElementName(int ordinal) {
+        return elementNames[ordinal];
+    }
+
+    //<editor-fold desc="Untyped access">
+
+    public char getOrdinal(long row) {
+        checkRow(row);
+        return segments[(int) (row >>> segmentShift)].get(segmentIndex(row));
+    }
+
+    public void setOrdinal(long row, char ordinal) {
+        checkWritable();
+        checkRow(row);
+        checkOrdinal(ordinal);
+        segments[(int) (row >>> segmentShift)].put(segmentIndex(row), ordinal);
+    }
+
+    /**
+     * @return Name of element stored at {@code row} or {@code null}
+     */
+    public String getName(long row) {
+        char ordinal = getOrdinal(row);
+
+        if (ordinal == HugeEnumConstants.NULL_ORDINAL) {
+            return null;
+        }
+
+        checkOrdinal(ordinal);
+        return elementNames[ordinal];
+    }
+
+    /**
+     * Copy ordinals starting at {@code row} to array.
+     */
+    public void getOrdinals(long row, char[] destination, int offset, int length) {
+        checkRange(row, length);
+
+        while (length > 0) {
+            CharBuffer segment = segments[(int) (row >>> segmentShift)];
+            int index = segmentIndex(row);
+            int chunk = Math.min(length, segment.limit() - index);
+
+            segment.duplicate().position(index).get(destination, offset, chunk);
+
+            row += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Copy ordinals from array to rows starting at {@code row}.
+     */
+    public void setOrdinals(long row, char[] source, int offset, int length) {
+        checkWritable();
+        checkRange(row, length);
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            checkOrdinal(source[i]);
+        }
+
+        while (length > 0) {
+            CharBuffer segment = segments[(int) (row >>> segmentShift)];
+            int index = segmentIndex(row);
+            int chunk = Math.min(length, segment.limit() - index);
+
+            segment.duplicate().position(index).put(source, offset, chunk);
+
+            row += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Ordinal column is split into segments of at most 2<sup>29</sup> rows,
+     * each is a separate view of mapped memory.
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return View of ordinal column segment, read-only if file is opened read-only
+     */
+    public CharBuffer getSegment(int index) {
+        CharBuffer segment = segments[index].duplicate();
+        return writable ? segment : segment.asReadOnlyBuffer();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Typed access">
+
+    /**
+     * @throws InvalidClassException Enum class is incompatible with file dictionary
+     */
+    public <E extends Enum<E>> E get(long row, Class<E> enumClass) throws InvalidClassException {
+        E[] constants = bind(enumClass);
+
+        return HugeEnumConstants.fromOrdinal(constants, getOrdinal(row));
+    }
+
+    /**
+     * @throws InvalidClassException Enum class is incompatible with file dictionary
+     */
+    public <E extends Enum<E>> void set(long row, E value, Class<E> enumClass) throws InvalidClassException {
+        bind(enumClass);
+
+        setOrdinal(row, HugeEnumConstants.toOrdinal(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Enum<E>> E[] bind(Class<E> enumClass) throws InvalidClassException {
+        if (boundEnumClass != enumClass) {
+            E[] constants = HugeEnumConstants.getShared(enumClass);
+            long classFingerprint = HugeEnumFingerprint.of(enumClass);
+
+            if (classFingerprint != fingerprint || constants.length != elementNames.length) {
+                throw new InvalidClassException(
+                    enumClass.getName(),
+                    String.format(
+                        "Incompatible with file enum %s: %d elements with fingerprint %016X, class: %d elements with fingerprint %016X",
+                        enumClassName, elementNames.length, fingerprint, constants.length, classFingerprint
+                    )
+                );
+            }
+
+            boundConstants = constants;
+            boundEnumClass = enumClass;
+        }
+
+        return (E[]) boundConstants;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Flush changes of mapped column to storage.
+     */
+    public void force() {
+        for (MappedByteBuffer mappedSegment : mappedSegments) {
+            mappedSegment.force();
+        }
+    }
+
+    /**
+     * Close underlying channel. Mapped memory is released when segments become unreachable.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int segmentIndex(long row) {
+        return (int) (row & ((1L << segmentShift) - 1));
+    }
+
+    private void checkRow(long row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for row count " + rowCount);
+        }
+    }
+
+    private void checkRange(long row, int length) {
+        if (row < 0 || length < 0 || row > rowCount - length) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Rows [%d, %d) out of bounds for row count %d", row, row + length, rowCount
+            ));
+        }
+    }
+
+    private void checkOrdinal(char ordinal) {
+        if (ordinal >= elementNames.length && ordinal != HugeEnumConstants.NULL_ORDINAL) {
+            throw new IllegalArgumentException("Invalid ordinal: " + (int) ordinal);
+        }
+    }
+
+    private void checkWritable() {
+        if (!writable) {
+            throw new IllegalStateException("File is opened read-only");
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name is too long: " + bytes.length + " bytes");
+        }
+
+        buffer.putChar((char) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getChar();
+        String result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new StreamCorruptedException("Truncated file header");
+            }
+        }
+
+        return buffer.flip();
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.maccimo.hugeenum.runtime;
+
+/**
+ * Encoding of per-element attribute columns embedded into generated enum.
+ *
+ * Generator stores every column as {@code char} table in the constant pool, generated static initializer
+ * decodes it once into an ordinal-indexed primitive array, so reading attribute is a single array load.
+ * Numbers are stored most significant {@code char} first: two {@code char}s per {@code int}, four per
+ * {@code long} and {@code double}. String column is a table of lengths, {@code -1} for {@code null},
+ * plus concatenated values.
+ */
+public final class HugeEnumColumns {
+
+    private static final int NULL_LENGTH = -1;
+
+    private static final int CHARS_PER_INT = Integer.BYTES / Character.BYTES;
+    private static final int CHARS_PER_LONG = Long.BYTES / Character.BYTES;
+
+    private HugeEnumColumns() {
+    }
+
+    //<editor-fold desc="Encoding">
+
+    public static String encodeInts(int[] values) {
+        char[] result = new char[values.length * CHARS_PER_INT];
+
+        for (int i = 0; i < values.length; i++) {
+            result[i * CHARS_PER_INT] = (char) (values[i] >>> Character.SIZE);
+            result[i * CHARS_PER_INT + 1] = (char) values[i];
+        }
+
+        return new String(result);
+    }
+
+    public static String encodeLongs(long[] values) {
+        char[] result = new char[values.length * CHARS_PER_LONG];
+
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < CHARS_PER_LONG; j++) {
+                result[i * CHARS_PER_LONG + j] = (char) (values[i] >>> (Character.SIZE * (CHARS_PER_LONG - 1 - j)));
+            }
+        }
+
+        return new String(result);
+    }
+
+    public static String encodeDoubles(double[] values) {
+        long[] bits = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Double.doubleToRawLongBits(values[i]);
+        }
+
+        return encodeLongs(bits);
+    }
+
+    /**
+     * @return Length table of string column
+     */
+    public static String encodeStringLengths(String[] values) {
+        int[] lengths = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            lengths[i] = (values[i] == null) ? NULL_LENGTH : values[i].length();
+        }
+
+        return encodeInts(lengths);
+    }
+
+    /**
+     * @return Concatenated values of string column
+     */
+    public static String encodeStringChars(String[] values) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            if (value != null) {
+                result.append(value);
+            }
+        }
+
+        return result.toString();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Decoding">
+
+    public static int[] decodeInts(String table) {
+        checkLength(table, CHARS_PER_INT);
+
+        int[] result = new int[table.length() / CHARS_PER_INT];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (table.charAt(i * CHARS_PER_INT) << Character.SIZE) | table.charAt(i * CHARS_PER_INT + 1);
+        }
+
+        return result;
+    }
+
+    public static long[] decodeLongs(String table) {
+        checkLength(table, CHARS_PER_LONG);
+
+        long[] result = new long[table.length() / CHARS_PER_LONG];
+        for (int i = 0; i < result.length; i++) {
+            long value = 0;
+            for (int j = 0; j < CHARS_PER_LONG; j++) {
+                value = (value << Character.SIZE) | table.charAt(i * CHARS_PER_LONG + j);
+            }
+            result[i] = value;
+        }
+
+        return result;
+    }
+
+    public static double[] decodeDoubles(String table) {
+        long[] bits = decodeLongs(table);
+
+        double[] result = new double[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            result[i] = Double.longBitsToDouble(bits[i]);
+        }
+
+        return result;
+    }
+
+    public static String[] decodeStrings(String lengths, String chars) {
+        int[] decodedLengths = decodeInts(lengths);
+
+        String[] result = new String[decodedLengths.length];
+        int offset = 0;
+
+        for (int i = 0; i < result.length; i++) {
+            int length = decodedLengths[i];
+
+            if (length != NULL_LENGTH) {
+                if (length < 0 || length > chars.length() - offset) {
+                    throw new IllegalArgumentException("String lengths do not match string chars");
+                }
+
+                result[i] = chars.substring(offset, offset + length);
+                offset += length;
+            }
+        }
+
+        if (offset != chars.length()) {
+            throw new IllegalArgumentException("String lengths do not match string chars");
+        }
+
+        return result;
+    }
+
+    private static void checkLength(String table, int charsPerValue) {
+        if (table.length() % charsPerValue != 0) {
+            throw new IllegalArgumentException("Invalid table length: " + table.length());
+        }
+    }
+
+    //</editor-fold>
+
+}
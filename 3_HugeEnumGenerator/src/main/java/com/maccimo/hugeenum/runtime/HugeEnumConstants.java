@@ -0,0 +1,70 @@
+package com.maccimo.hugeenum.runtime;
+
+/**
+ * Shared, never cloned copy of enum constants.
+ *
+ * {@code values()} and {@link Class#getEnumConstants()} clone the whole constants array on every call.
+ * For an enum with tens of thousands of elements this is a noticeable cost, so runtime support classes
+ * obtain constants here: array is cloned exactly once per enum class and then shared.
+ * Returned arrays must never be modified.
+ */
+public final class HugeEnumConstants {
+
+    /**
+     * Maximum count of enum elements. Limited by the constant pool size of the generated class.
+     */
+    public static final int MAX_ELEMENT_COUNT = 65_535;
+
+    /**
+     * Ordinal value reserved to encode {@code null} in ordinal-packed storage.
+     */
+    public static final char NULL_ORDINAL = '\uFFFF';
+
+    private static final ClassValue<Enum<?>[]> SHARED_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Enum<?>[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+
+            if (constants == null) {
+                throw new IllegalArgumentException("Not an enum class: " + type.getName());
+            }
+
+            if (constants.length > MAX_ELEMENT_COUNT) {
+                throw new IllegalArgumentException(String.format(
+                    "Enum %s has %d elements, maximum supported is %d", type.getName(), constants.length, MAX_ELEMENT_COUNT
+                ));
+            }
+
+            return (Enum<?>[]) constants;
+        }
+    };
+
+    private HugeEnumConstants() {
+    }
+
+    /**
+     * @param enumClass Enum class
+     * @return Shared array of enum constants indexed by ordinal. Must not be modified
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> E[] getShared(Class<E> enumClass) {
+        return (E[]) SHARED_CONSTANTS.get(enumClass);
+    }
+
+    /**
+     * @param enumClass Enum class
+     * @return Count of enum elements
+     */
+    public static int count(Class<? extends Enum<?>> enumClass) {
+        return SHARED_CONSTANTS.get(enumClass).length;
+    }
+
+    static char toOrdinal(Enum<?> value) {
+        return (value == null) ? NULL_ORDINAL : (char) value.ordinal();
+    }
+
+    static <E extends Enum<E>> E fromOrdinal(E[] constants, char ordinal) {
+        return (ordinal == NULL_ORDINAL) ? null : constants[ordinal];
+    }
+
+}
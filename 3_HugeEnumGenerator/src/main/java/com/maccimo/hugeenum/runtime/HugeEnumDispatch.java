@@ -0,0 +1,288 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Constant-specific behavior of enum implementing an interface, without per-constant subclasses.
+ *
+ * Every element is assigned a handler class, or none. Interface method of element is dispatched to static
+ * method of its handler class with the same name and the interface as extra first parameter:
+ * <pre>
+ *   interface Shape { double area(double scale); }
+ *   public static double area(Shape self, double scale)   // in handler class
+ * </pre>
+ * Elements sharing handler class share method handle. Calling interface method on element without
+ * handler throws {@code UnsupportedOperationException}. Handler classes are resolved with lookup of
+ * the enum class, so they may be package-private classes of the enum package. Handler classes are loaded
+ * without initialization: static initializer of handler may call interface methods of elements, as it runs
+ * only once the first call site is linked, after the dispatch is assigned.
+ *
+ * Interface methods of generated enum are {@code invokedynamic} call sites linked by {@link #bootstrap}
+ * to a constant target built by {@link #getTarget}, so JIT compiles the dispatch as a part of the caller.
+ * Up to {@value #GUARD_CHAIN_LIMIT} distinct handlers of a method are selected by a chain of guards on
+ * handler index of element, every handler is a constant and is inlined. With more handlers the call
+ * goes through method handle loaded from ordinal-indexed table, which JIT can not inline.
+ *
+ * Encoded table: {@code char} element count, then handler index of every element in ordinal order,
+ * {@link HugeEnumConstants#NULL_ORDINAL} for none; handler class names are joined with {@code '\n'}.
+ */
+public final class HugeEnumDispatch {
+
+    /**
+     * Maximum number of distinct handlers of one method selected by chain of guards.
+     */
+    public static final int GUARD_CHAIN_LIMIT = 4;
+
+    private static final String NAME_SEPARATOR = "\n";
+
+    private static final MethodHandle UNSUPPORTED;
+    private static final MethodHandle TARGET_OF;
+    private static final MethodHandle IS_TARGET;
+    private static final MethodHandle HANDLE_OF;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            UNSUPPORTED = lookup.findStatic(
+                HugeEnumDispatch.class,
+                "unsupported",
+                MethodType.methodType(Object.class, Object.class, String.class)
+            );
+            TARGET_OF = lookup.findStatic(
+                HugeEnumDispatch.class,
+                "targetOf",
+                MethodType.methodType(int.class, char[].class, Enum.class)
+            );
+            IS_TARGET = lookup.findStatic(
+                HugeEnumDispatch.class,
+                "isTarget",
+                MethodType.methodType(boolean.class, int.class, int.class)
+            );
+            HANDLE_OF = lookup.findStatic(
+                HugeEnumDispatch.class,
+                "handleOf",
+                MethodType.methodType(MethodHandle.class, MethodHandle[].class, Enum.class)
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandles.Lookup lookup;
+    private final Class<?> interfaceClass;
+    private final Class<?>[] handlerClasses;
+    private final char[] handlerOf;
+
+    private HugeEnumDispatch(MethodHandles.Lookup lookup, Class<?> interfaceClass, Class<?>[] handlerClasses, char[] handlerOf) {
+        this.lookup = lookup;
+        this.interfaceClass = interfaceClass;
+        this.handlerClasses = handlerClasses;
+        this.handlerOf = handlerOf;
+    }
+
+    //<editor-fold desc="Encoding">
+
+    /**
+     * @param handlerOf Handler index of every element in ordinal order, {@code -1} for none
+     * @return Table to be embedded into generated enum, names are encoded by {@link #encodeNames(List)}
+     */
+    public static String encode(int[] handlerOf) {
+        StringBuilder result = new StringBuilder(1 + handlerOf.length);
+        result.append((char) handlerOf.length);
+
+        for (int handler : handlerOf) {
+            result.append((handler < 0) ? HugeEnumConstants.NULL_ORDINAL : (char) handler);
+        }
+
+        return result.toString();
+    }
+
+    public static String encodeNames(List<String> handlerClassNames) {
+        return String.join(NAME_SEPARATOR, handlerClassNames);
+    }
+
+    //</editor-fold>
+
+    /**
+     * Decode table embedded into generated enum and load handler classes.
+     *
+     * @param lookup Lookup of the enum class
+     * @param values Enum elements in ordinal order
+     * @throws IllegalStateException Handler class not found
+     */
+    public static HugeEnumDispatch decode(MethodHandles.Lookup lookup, Class<?> interfaceClass, String names, String table, Object[] values) {
+        if (table.length() != 1 + values.length || table.charAt(0) != values.length) {
+            throw new IllegalArgumentException("Dispatch table does not match enum elements");
+        }
+
+        String[] decodedNames = names.isEmpty() ? new String[0] : names.split(NAME_SEPARATOR, -1);
+        Class<?>[] handlerClasses = new Class<?>[decodedNames.length];
+
+        for (int handler = 0; handler < decodedNames.length; handler++) {
+            try {
+                handlerClasses[handler] = Class.forName(decodedNames[handler], false, lookup.lookupClass().getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Handler class not found: " + decodedNames[handler], e);
+            }
+        }
+
+        return new HugeEnumDispatch(lookup, interfaceClass, handlerClasses, table.substring(1).toCharArray());
+    }
+
+    /**
+     * Bootstrap method of interface method call sites of generated enum.
+     *
+     * @param type Interface method type with the interface as the first parameter
+     * @param fieldName Name of static field of the enum holding decoded dispatch
+     * @throws IllegalStateException Dispatch is not initialized yet or handler has no matching method
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String methodName, MethodType type, String fieldName)
+        throws ReflectiveOperationException
+    {
+        HugeEnumDispatch dispatch = (HugeEnumDispatch) lookup
+            .findStaticVarHandle(lookup.lookupClass(), fieldName, HugeEnumDispatch.class)
+            .get();
+
+        if (dispatch == null) {
+            throw new IllegalStateException("Dispatch of " + lookup.lookupClass().getName() + " is not initialized");
+        }
+
+        return new ConstantCallSite(dispatch.getTarget(methodName, type.dropParameterTypes(0, 1)).asType(type));
+    }
+
+    /**
+     * @param methodName Interface method name
+     * @param descriptor Interface method descriptor
+     * @return Handles of type {@code (Interface, parameters...)} indexed by ordinal
+     * @throws IllegalStateException Handler class has no matching accessible static method
+     */
+    MethodHandle[] getHandles(String methodName, String descriptor) {
+        return getHandles(methodName, MethodType.fromMethodDescriptorString(descriptor, interfaceClass.getClassLoader()));
+    }
+
+    /**
+     * @param methodName Interface method name
+     * @param methodType Interface method type
+     * @return Handle of type {@code (Interface, parameters...)} invoking handler of element passed as the first argument
+     * @throws IllegalStateException Handler class has no matching accessible static method
+     */
+    public MethodHandle getTarget(String methodName, MethodType methodType) {
+        MethodType handleType = methodType.insertParameterTypes(0, interfaceClass);
+        MethodHandle[] handles = getHandles(methodName, methodType);
+
+        // Distinct handles in order of the first use, identity is enough as elements share handles
+        List<MethodHandle> targets = new ArrayList<>();
+        char[] targetOf = new char[handles.length];
+        for (int ordinal = 0; ordinal < handles.length && targets.size() <= GUARD_CHAIN_LIMIT; ordinal++) {
+            int target = indexOfIdentical(targets, handles[ordinal]);
+
+            if (target < 0) {
+                target = targets.size();
+                targets.add(handles[ordinal]);
+            }
+
+            targetOf[ordinal] = (char) target;
+        }
+
+        if (targets.isEmpty() || targets.size() > GUARD_CHAIN_LIMIT) {
+            MethodHandle handleOf = MethodHandles
+                .insertArguments(HANDLE_OF, 0, (Object) handles)
+                .asType(MethodType.methodType(MethodHandle.class, interfaceClass));
+
+            return MethodHandles.foldArguments(MethodHandles.exactInvoker(handleType), handleOf);
+        }
+
+        if (targets.size() == 1) {
+            return targets.get(0);
+        }
+
+        MethodHandle chain = MethodHandles.dropArguments(targets.get(targets.size() - 1), 0, int.class);
+        for (int target = targets.size() - 2; target >= 0; target--) {
+            chain = MethodHandles.guardWithTest(
+                MethodHandles.insertArguments(IS_TARGET, 1, target),
+                MethodHandles.dropArguments(targets.get(target), 0, int.class),
+                chain
+            );
+        }
+
+        MethodHandle selector = MethodHandles
+            .insertArguments(TARGET_OF, 0, (Object) targetOf)
+            .asType(MethodType.methodType(int.class, interfaceClass));
+
+        return MethodHandles.foldArguments(chain, selector);
+    }
+
+    private MethodHandle[] getHandles(String methodName, MethodType methodType) {
+        MethodType handleType = methodType.insertParameterTypes(0, interfaceClass);
+
+        MethodHandle[] handles = new MethodHandle[handlerClasses.length];
+        for (int handler = 0; handler < handlerClasses.length; handler++) {
+            try {
+                handles[handler] = lookup.findStatic(handlerClasses[handler], methodName, handleType);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(
+                    "Handler " + handlerClasses[handler].getName() + " has no accessible static method " + methodName + handleType,
+                    e
+                );
+            }
+        }
+
+        MethodHandle unsupported = MethodHandles
+            .dropArguments(
+                MethodHandles.insertArguments(UNSUPPORTED, 1, methodName),
+                1,
+                methodType.parameterList()
+            )
+            .asType(handleType);
+
+        MethodHandle[] result = new MethodHandle[handlerOf.length];
+        for (int ordinal = 0; ordinal < result.length; ordinal++) {
+            char handler = handlerOf[ordinal];
+            result[ordinal] = (handler == HugeEnumConstants.NULL_ORDINAL) ? unsupported : handles[handler];
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Handler class of element or {@code null}
+     */
+    public Class<?> getHandlerClass(int ordinal) {
+        char handler = handlerOf[ordinal];
+        return (handler == HugeEnumConstants.NULL_ORDINAL) ? null : handlerClasses[handler];
+    }
+
+    private static int indexOfIdentical(List<MethodHandle> handles, MethodHandle handle) {
+        for (int i = 0; i < handles.size(); i++) {
+            if (handles.get(i) == handle) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int targetOf(char[] targetOf, Enum<?> value) {
+        return targetOf[value.ordinal()];
+    }
+
+    private static boolean isTarget(int target, int expected) {
+        return target == expected;
+    }
+
+    private static MethodHandle handleOf(MethodHandle[] handles, Enum<?> value) {
+        return handles[value.ordinal()];
+    }
+
+    private static Object unsupported(Object self, String methodName) {
+        throw new UnsupportedOperationException(self + " has no handler of " + methodName);
+    }
+
+}
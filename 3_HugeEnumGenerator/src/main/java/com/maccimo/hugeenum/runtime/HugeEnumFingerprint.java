@@ -0,0 +1,90 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stable 64-bit fingerprint of ordered enum element names.
+ *
+ * Two enums have equal fingerprints if they have the same element names in the same order,
+ * i.e. when ordinals of both mean the same thing. Fingerprint is 64-bit FNV-1a of
+ * element count followed by length-prefixed UTF-8 names, so it does not depend on JVM or generator version.
+ *
+ * Enums generated with {@code Fingerprint} feature carry precomputed {@code static long fingerprint()}.
+ */
+public final class HugeEnumFingerprint {
+
+    private static final String MEMBER_NAME_FINGERPRINT = "fingerprint";
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private static final ClassValue<Long> FINGERPRINTS = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            try {
+                MethodHandle fingerprint = MethodHandles
+                    .publicLookup()
+                    .findStatic(type, MEMBER_NAME_FINGERPRINT, MethodType.methodType(long.class));
+
+                return (long) fingerprint.invokeExact();
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+
+                return compute(Arrays.stream(constants).map(Enum::name).toArray(String[]::new));
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to obtain fingerprint of " + type.getName(), e);
+            }
+        }
+    };
+
+    private HugeEnumFingerprint() {
+    }
+
+    /**
+     * @return Fingerprint of enum, embedded or computed from element names
+     */
+    public static long of(Class<? extends Enum<?>> enumClass) {
+        return FINGERPRINTS.get(enumClass);
+    }
+
+    public static long compute(String... elementNames) {
+        return compute(Arrays.asList(elementNames));
+    }
+
+    public static long compute(Iterable<String> elementNames) {
+        int count = 0;
+        for (String ignored : elementNames) {
+            count++;
+        }
+
+        long hash = FNV_OFFSET_BASIS;
+        hash = updateInt(hash, count);
+
+        for (String elementName : elementNames) {
+            byte[] bytes = elementName.getBytes(StandardCharsets.UTF_8);
+
+            hash = updateInt(hash, bytes.length);
+            for (byte b : bytes) {
+                hash = update(hash, b);
+            }
+        }
+
+        return hash;
+    }
+
+    private static long updateInt(long hash, int value) {
+        hash = update(hash, (byte) (value >>> 24));
+        hash = update(hash, (byte) (value >>> 16));
+        hash = update(hash, (byte) (value >>> 8));
+        return update(hash, (byte) value);
+    }
+
+    private static long update(long hash, byte value) {
+        return (hash ^ (value & 0xFF)) * FNV_PRIME;
+    }
+
+}
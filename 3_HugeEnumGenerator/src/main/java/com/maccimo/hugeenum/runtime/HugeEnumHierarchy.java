@@ -0,0 +1,232 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Tree of enum elements.
+ *
+ * Generator numbers elements in preorder (Euler tour entry) and stores exit number of every element,
+ * so descendants of element occupy entry numbers {@code (entry, exit)} and ancestor check is two compares.
+ * Generator also lays out ordinals in preorder, then entry number is the ordinal itself and descendants
+ * are a contiguous ordinal range. When ordinal lock prevents that, entry numbers differ from ordinals
+ * and descendants are still contiguous in preorder.
+ *
+ * Encoded table, one {@code char} per number:
+ * <pre>
+ *   char   element count N
+ *   char * N parent ordinal, {@link HugeEnumConstants#NULL_ORDINAL} for root
+ *   char * N entry number
+ *   char * N exit number, entry number after the last descendant
+ *   char * N depth, 0 for root
+ * </pre>
+ */
+public final class HugeEnumHierarchy {
+
+    private final Object[] values;
+
+    private final char[] parents;
+    private final char[] entries;
+    private final char[] exits;
+    private final char[] depths;
+
+    // Ordinal of element by entry number
+    private final char[] preorder;
+
+    private HugeEnumHierarchy(Object[] values, char[] parents, char[] entries, char[] exits, char[] depths) {
+        this.values = values;
+        this.parents = parents;
+        this.entries = entries;
+        this.exits = exits;
+        this.depths = depths;
+
+        this.preorder = new char[values.length];
+        for (int ordinal = 0; ordinal < values.length; ordinal++) {
+            preorder[entries[ordinal]] = (char) ordinal;
+        }
+    }
+
+    //<editor-fold desc="Encoding">
+
+    /**
+     * @param parentOf Parent ordinal of every element in ordinal order, {@code -1} for root
+     * @return Table to be embedded into generated enum. Children are numbered in ordinal order
+     * @throws IllegalArgumentException Parents form a cycle
+     */
+    public static String encode(int[] parentOf) {
+        int elementCount = parentOf.length;
+
+        List<List<Integer>> children = new ArrayList<>(elementCount);
+        List<Integer> roots = new ArrayList<>();
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            children.add(new ArrayList<>());
+        }
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            if (parentOf[ordinal] < 0) {
+                roots.add(ordinal);
+            } else {
+                children.get(parentOf[ordinal]).add(ordinal);
+            }
+        }
+
+        char[] entries = new char[elementCount];
+        char[] exits = new char[elementCount];
+        char[] depths = new char[elementCount];
+
+        // Iterative DFS: stack of (ordinal, next child index)
+        int[] stack = new int[elementCount];
+        int[] nextChild = new int[elementCount];
+        int counter = 0;
+
+        for (int root : roots) {
+            int top = 0;
+            stack[0] = root;
+            nextChild[0] = 0;
+            entries[root] = (char) counter++;
+
+            while (top >= 0) {
+                int ordinal = stack[top];
+                List<Integer> ordinalChildren = children.get(ordinal);
+
+                if (nextChild[top] < ordinalChildren.size()) {
+                    int child = ordinalChildren.get(nextChild[top]++);
+
+                    entries[child] = (char) counter++;
+                    depths[child] = (char) (top + 1);
+
+                    stack[++top] = child;
+                    nextChild[top] = 0;
+                } else {
+                    exits[ordinal] = (char) counter;
+                    top--;
+                }
+            }
+        }
+
+        if (counter != elementCount) {
+            throw new IllegalArgumentException("Parent references form a cycle");
+        }
+
+        StringBuilder result = new StringBuilder(1 + 4 * elementCount);
+        result.append((char) elementCount);
+        for (int parent : parentOf) {
+            result.append((parent < 0) ? HugeEnumConstants.NULL_ORDINAL : (char) parent);
+        }
+        result.append(entries);
+        result.append(exits);
+        result.append(depths);
+
+        return result.toString();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Decode table embedded into generated enum.
+     *
+     * @param values Enum elements in ordinal order
+     */
+    public static HugeEnumHierarchy decode(String table, Object[] values) {
+        int elementCount = table.charAt(0);
+
+        if (elementCount != values.length || table.length() != 1 + 4 * elementCount) {
+            throw new IllegalArgumentException("Hierarchy table does not match enum elements");
+        }
+
+        return new HugeEnumHierarchy(
+            values,
+            table.substring(1, 1 + elementCount).toCharArray(),
+            table.substring(1 + elementCount, 1 + 2 * elementCount).toCharArray(),
+            table.substring(1 + 2 * elementCount, 1 + 3 * elementCount).toCharArray(),
+            table.substring(1 + 3 * elementCount).toCharArray()
+        );
+    }
+
+    /**
+     * @return Parent ordinal or {@code -1} for root
+     */
+    public int parentOf(int ordinal) {
+        char parent = parents[ordinal];
+        return (parent == HugeEnumConstants.NULL_ORDINAL) ? -1 : parent;
+    }
+
+    /**
+     * @return Parent element or {@code null} for root
+     */
+    public Object getParent(int ordinal) {
+        char parent = parents[ordinal];
+        return (parent == HugeEnumConstants.NULL_ORDINAL) ? null : values[parent];
+    }
+
+    public int depthOf(int ordinal) {
+        return depths[ordinal];
+    }
+
+    public int getEntry(int ordinal) {
+        return entries[ordinal];
+    }
+
+    public int getExit(int ordinal) {
+        return exits[ordinal];
+    }
+
+    /**
+     * @return {@code true} if element is a proper descendant of ancestor
+     */
+    public boolean isDescendant(int ordinal, int ancestorOrdinal) {
+        int entry = entries[ordinal];
+        return entries[ancestorOrdinal] < entry && entry < exits[ancestorOrdinal];
+    }
+
+    /**
+     * @return {@code true} if every entry number equals ordinal, i.e. descendants are contiguous ordinal range
+     */
+    public boolean isPreorderLayout() {
+        for (int ordinal = 0; ordinal < entries.length; ordinal++) {
+            if (entries[ordinal] != ordinal) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Immutable list of proper descendants in preorder. No elements are copied
+     */
+    public List<Object> descendants(int ordinal) {
+        int from = entries[ordinal] + 1;
+        int to = exits[ordinal];
+
+        return new Descendants(from, to);
+    }
+
+    private final class Descendants extends AbstractList<Object> implements RandomAccess {
+
+        private final int from;
+        private final int to;
+
+        private Descendants(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + (to - from));
+            }
+
+            return values[preorder[from + index]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+    }
+
+}
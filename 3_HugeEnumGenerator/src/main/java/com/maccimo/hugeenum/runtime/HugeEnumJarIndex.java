@@ -0,0 +1,430 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index of generated enums shipped in a jar, stored as {@value #RESOURCE_NAME} resource.
+ *
+ * For every enum the index lists class name, generation algorithm, element count and fingerprint,
+ * so they are known without loading the class. Lookup table of {@code String.hashCode()} of every
+ * element name tells which enums may contain a name; only those candidate classes are loaded
+ * to resolve the element.
+ *
+ * Resource layout, all numbers big-endian:
+ * <pre>
+ *   int    magic "HEJI"
+ *   int    format version
+ *   int    enum count E
+ *   int    name count N
+ *   (u2+utf8 class name, u2+utf8 algorithm, int element count, long fingerprint) * E
+ *   (int name hash, u2 enum index) * N, sorted
+ * </pre>
+ */
+public final class HugeEnumJarIndex {
+
+    public static final String RESOURCE_NAME = "META-INF/hugeenum/enums.idx";
+
+    public static final int MAGIC = 0x48454A49;
+    public static final int VERSION = 1;
+
+    private static final int NAME_ROW_SIZE = Integer.BYTES + Short.BYTES;
+    private static final int MAX_ENUM_COUNT = 0xFFFF;
+
+    private final List<Entry> entries;
+
+    // Sorted name hashes and indexes of entries containing names with that hash
+    private final int[] nameHashes;
+    private final char[] nameEntries;
+
+    private HugeEnumJarIndex(List<Entry> entries, int[] nameHashes, char[] nameEntries) {
+        this.entries = entries;
+        this.nameHashes = nameHashes;
+        this.nameEntries = nameEntries;
+    }
+
+    //<editor-fold desc="Reading">
+
+    /**
+     * Read all index resources visible to class loader. Enum classes are loaded by the same class loader.
+     */
+    public static HugeEnumJarIndex load(ClassLoader classLoader) throws IOException {
+        Builder builder = builder();
+
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+        while (resources.hasMoreElements()) {
+            try (InputStream in = resources.nextElement().openStream()) {
+                builder.addAll(read(in.readAllBytes(), classLoader));
+            }
+        }
+
+        return builder.build(classLoader);
+    }
+
+    public static HugeEnumJarIndex read(byte[] content, ClassLoader classLoader) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new StreamCorruptedException("Not an enum jar index");
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported enum jar index version: " + version);
+            }
+
+            int enumCount = buffer.getInt();
+            int nameCount = buffer.getInt();
+
+            if (enumCount < 0 || enumCount > MAX_ENUM_COUNT || nameCount < 0) {
+                throw new StreamCorruptedException("Invalid enum jar index header");
+            }
+
+            List<Entry> entries = new ArrayList<>(enumCount);
+            for (int i = 0; i < enumCount; i++) {
+                String className = getString(buffer);
+                String algorithm = getString(buffer);
+                int elementCount = buffer.getInt();
+                long fingerprint = buffer.getLong();
+
+                entries.add(new Entry(className, algorithm, elementCount, fingerprint, classLoader));
+            }
+
+            if (buffer.remaining() != (long) nameCount * NAME_ROW_SIZE) {
+                throw new StreamCorruptedException("Invalid enum jar index size");
+            }
+
+            int[] nameHashes = new int[nameCount];
+            char[] nameEntries = new char[nameCount];
+            for (int i = 0; i < nameCount; i++) {
+                nameHashes[i] = buffer.getInt();
+                nameEntries[i] = buffer.getChar();
+
+                if (nameEntries[i] >= enumCount) {
+                    throw new StreamCorruptedException("Invalid enum index: " + (int) nameEntries[i]);
+                }
+            }
+
+            return new HugeEnumJarIndex(Collections.unmodifiableList(entries), nameHashes, nameEntries);
+        } catch (BufferUnderflowException e) {
+            throw new StreamCorruptedException("Truncated enum jar index");
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return Entry of enum class with given binary name, e.g. {@code com.example.Colors}, or {@code null}
+     */
+    public Entry getEntry(String className) {
+        for (Entry entry : entries) {
+            if (entry.getClassName().equals(className)) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return Enums that may contain element with given name, without loading their classes.
+     * May contain false positives with equal name hash
+     */
+    public List<Entry> findCandidates(String elementName) {
+        int hash = elementName.hashCode();
+        int index = Arrays.binarySearch(nameHashes, hash);
+
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+
+        while (index > 0 && nameHashes[index - 1] == hash) {
+            index--;
+        }
+
+        List<Entry> result = new ArrayList<>(1);
+        for (; index < nameHashes.length && nameHashes[index] == hash; index++) {
+            Entry entry = entries.get(nameEntries[index]);
+
+            if (!result.contains(entry)) {
+                result.add(entry);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Find elements with given name in all indexed enums. Only candidate enum classes are loaded.
+     */
+    public List<Enum<?>> resolve(String elementName) {
+        List<Enum<?>> result = new ArrayList<>(1);
+
+        for (Entry entry : findCandidates(elementName)) {
+            Enum<?> value = entry.valueOf(elementName);
+
+            if (value != null) {
+                result.add(value);
+            }
+        }
+
+        return result;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Writing">
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of index. Enum added later replaces earlier one with the same class name.
+     */
+    public static final class Builder {
+
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private final Map<String, int[]> nameHashes = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String className, String algorithm, List<String> elementNames) {
+            int[] hashes = elementNames.stream().mapToInt(String::hashCode).toArray();
+
+            return add(
+                new Entry(className, algorithm, elementNames.size(), HugeEnumFingerprint.compute(elementNames), null),
+                hashes
+            );
+        }
+
+        public Builder addAll(HugeEnumJarIndex index) {
+            List<List<Integer>> hashes = new ArrayList<>();
+            for (int i = 0; i < index.entries.size(); i++) {
+                hashes.add(new ArrayList<>());
+            }
+            for (int i = 0; i < index.nameHashes.length; i++) {
+                hashes.get(index.nameEntries[i]).add(index.nameHashes[i]);
+            }
+
+            for (int i = 0; i < index.entries.size(); i++) {
+                add(index.entries.get(i), hashes.get(i).stream().mapToInt(Integer::intValue).toArray());
+            }
+
+            return this;
+        }
+
+        private Builder add(Entry entry, int[] hashes) {
+            entries.remove(entry.getClassName());
+            entries.put(entry.getClassName(), entry);
+            nameHashes.put(entry.getClassName(), hashes);
+
+            if (entries.size() > MAX_ENUM_COUNT) {
+                throw new IllegalStateException("Too many enums in index: " + entries.size());
+            }
+
+            return this;
+        }
+
+        public HugeEnumJarIndex build(ClassLoader classLoader) {
+            List<Entry> result = new ArrayList<>(entries.size());
+            List<long[]> rows = new ArrayList<>();
+            int nameCount = 0;
+
+            for (Entry entry : entries.values()) {
+                result.add(new Entry(entry.className, entry.algorithm, entry.elementCount, entry.fingerprint, classLoader));
+                nameCount += nameHashes.get(entry.getClassName()).length;
+            }
+
+            long[] sortedRows = new long[nameCount];
+            int row = 0;
+            int entryIndex = 0;
+            for (String className : entries.keySet()) {
+                for (int hash : nameHashes.get(className)) {
+                    // Signed hash in high bits keeps int order of hashes, entry index breaks ties
+                    sortedRows[row++] = ((long) hash << Integer.SIZE) | entryIndex;
+                }
+                entryIndex++;
+            }
+            Arrays.sort(sortedRows);
+
+            int[] hashes = new int[nameCount];
+            char[] indexes = new char[nameCount];
+            for (int i = 0; i < nameCount; i++) {
+                hashes[i] = (int) (sortedRows[i] >> Integer.SIZE);
+                indexes[i] = (char) sortedRows[i];
+            }
+
+            return new HugeEnumJarIndex(Collections.unmodifiableList(result), hashes, indexes);
+        }
+
+        public byte[] toByteArray() {
+            HugeEnumJarIndex index = build(null);
+
+            List<byte[][]> strings = new ArrayList<>();
+            int size = 4 * Integer.BYTES + index.nameHashes.length * NAME_ROW_SIZE;
+            for (Entry entry : index.entries) {
+                byte[][] entryStrings = {
+                    entry.getClassName().getBytes(StandardCharsets.UTF_8),
+                    entry.getAlgorithm().getBytes(StandardCharsets.UTF_8)
+                };
+                strings.add(entryStrings);
+                size += 2 * Short.BYTES + entryStrings[0].length + entryStrings[1].length + Integer.BYTES + Long.BYTES;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(index.entries.size());
+            buffer.putInt(index.nameHashes.length);
+
+            for (int i = 0; i < index.entries.size(); i++) {
+                Entry entry = index.entries.get(i);
+
+                putString(buffer, strings.get(i)[0]);
+                putString(buffer, strings.get(i)[1]);
+                buffer.putInt(entry.getElementCount());
+                buffer.putLong(entry.getFingerprint());
+            }
+
+            for (int i = 0; i < index.nameHashes.length; i++) {
+                buffer.putInt(index.nameHashes[i]);
+                buffer.putChar(index.nameEntries[i]);
+            }
+
+            return buffer.array();
+        }
+
+    }
+
+    //</editor-fold>
+
+    /**
+     * Indexed enum. Class is loaded on first request only.
+     */
+    public static final class Entry {
+
+        private final String className;
+        private final String algorithm;
+        private final int elementCount;
+        private final long fingerprint;
+        private final ClassLoader classLoader;
+
+        private volatile Class<? extends Enum<?>> enumClass;
+
+        private Entry(String className, String algorithm, int elementCount, long fingerprint, ClassLoader classLoader) {
+            this.className = Objects.requireNonNull(className);
+            this.algorithm = Objects.requireNonNull(algorithm);
+            this.elementCount = elementCount;
+            this.fingerprint = fingerprint;
+            this.classLoader = classLoader;
+        }
+
+        /**
+         * @return Binary class name, e.g. {@code com.example.Colors}
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public int getElementCount() {
+            return elementCount;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Load and initialize enum class.
+         *
+         * @throws IllegalStateException Class is absent or does not match the index
+         */
+        @SuppressWarnings("unchecked")
+        public Class<? extends Enum<?>> getEnumClass() {
+            Class<? extends Enum<?>> result = enumClass;
+
+            if (result == null) {
+                try {
+                    Class<?> loaded = Class.forName(className, true, classLoader);
+
+                    if (!loaded.isEnum()) {
+                        throw new IllegalStateException("Not an enum class: " + className);
+                    }
+
+                    result = (Class<? extends Enum<?>>) loaded;
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException("Indexed enum class not found: " + className, e);
+                }
+
+                if (HugeEnumFingerprint.of(result) != fingerprint) {
+                    throw new IllegalStateException("Enum class does not match index: " + className);
+                }
+
+                enumClass = result;
+            }
+
+            return result;
+        }
+
+        /**
+         * @return Element with given name or {@code null}
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public Enum<?> valueOf(String elementName) {
+            try {
+                return Enum.valueOf((Class) getEnumClass(), elementName);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s, %d elements, fingerprint %016X]", className, algorithm, elementCount, fingerprint);
+        }
+
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String is too long: " + bytes.length + " bytes");
+        }
+
+        buffer.putChar((char) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getChar();
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        String result = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+}
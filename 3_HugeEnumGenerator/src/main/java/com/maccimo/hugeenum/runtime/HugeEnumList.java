@@ -0,0 +1,320 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * Growable list of enum values packed as {@code char} ordinals.
+ *
+ * Drop-in replacement for {@code ArrayList<E>} taking 2 bytes per element.
+ * {@code null} elements are permitted. Bulk operations between two lists of the same enum copy ordinals directly.
+ */
+public class HugeEnumList<E extends Enum<E>> extends AbstractList<E> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final Class<E> enumClass;
+    private final E[] constants;
+
+    private char[] ordinals;
+    private int size;
+
+    public HugeEnumList(Class<E> enumClass) {
+        this(enumClass, DEFAULT_CAPACITY);
+    }
+
+    public HugeEnumList(Class<E> enumClass, int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+
+        this.enumClass = enumClass;
+        this.constants = HugeEnumConstants.getShared(enumClass);
+        this.ordinals = new char[initialCapacity];
+    }
+
+    public HugeEnumList(Class<E> enumClass, Collection<? extends E> values) {
+        this(enumClass, values.size());
+        addAll(values);
+    }
+
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return HugeEnumConstants.fromOrdinal(constants, ordinals[index]);
+    }
+
+    /**
+     * @param index Element index
+     * @return Ordinal of element or {@link HugeEnumConstants#NULL_ORDINAL} for {@code null}
+     */
+    public char getOrdinal(int index) {
+        Objects.checkIndex(index, size);
+        return ordinals[index];
+    }
+
+    @Override
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size);
+        char previous = ordinals[index];
+        ordinals[index] = toOrdinal(element);
+        return HugeEnumConstants.fromOrdinal(constants, previous);
+    }
+
+    @Override
+    public boolean add(E element) {
+        char ordinal = toOrdinal(element);
+        modCount++;
+        ensureCapacity(size + 1);
+        ordinals[size++] = ordinal;
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size + 1);
+        char ordinal = toOrdinal(element);
+        modCount++;
+        ensureCapacity(size + 1);
+        System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+        ordinals[index] = ordinal;
+        size++;
+    }
+
+    @Override
+    public E remove(int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        char previous = ordinals[index];
+        System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+        size--;
+        return HugeEnumConstants.fromOrdinal(constants, previous);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        System.arraycopy(ordinals, toIndex, ordinals, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> values) {
+        if (values instanceof HugeEnumList && ((HugeEnumList<?>) values).enumClass == enumClass) {
+            HugeEnumList<?> other = (HugeEnumList<?>) values;
+            return appendOrdinals(other.ordinals, 0, other.size);
+        }
+
+        // Snapshot keeps single capacity check valid even if size of concurrent collection changes meanwhile
+        Object[] array = values.toArray();
+
+        if (array.length == 0) {
+            return false;
+        }
+
+        modCount++;
+        ensureCapacity(size + array.length);
+        for (int i = 0; i < array.length; i++) {
+            ordinals[size + i] = toOrdinal(array[i]);
+        }
+        size += array.length;
+
+        return true;
+    }
+
+    /**
+     * Append values of packed array, copying ordinals directly.
+     */
+    public boolean addAll(HugeEnumArray<E> values, int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, values.length());
+        return appendOrdinals(values.ordinals(), fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Append {@code count} copies of a value.
+     */
+    public void addCopies(E value, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Illegal count: " + count);
+        }
+
+        char ordinal = toOrdinal(value);
+        modCount++;
+        ensureCapacity(size + count);
+        Arrays.fill(ordinals, size, size + count, ordinal);
+        size += count;
+    }
+
+    /**
+     * Set elements in given range to a value.
+     */
+    public void fill(int fromIndex, int toIndex, E value) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        Arrays.fill(ordinals, fromIndex, toIndex, toOrdinal(value));
+    }
+
+    @Override
+    public int indexOf(Object value) {
+        int ordinal = ordinalOf(value);
+        if (ordinal < 0) {
+            return -1;
+        }
+
+        char[] ordinals = this.ordinals;
+        for (int i = 0; i < size; i++) {
+            if (ordinals[i] == ordinal) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object value) {
+        int ordinal = ordinalOf(value);
+        if (ordinal < 0) {
+            return -1;
+        }
+
+        char[] ordinals = this.ordinals;
+        for (int i = size - 1; i >= 0; i--) {
+            if (ordinals[i] == ordinal) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+
+        E[] constants = this.constants;
+        char[] ordinals = this.ordinals;
+        for (int i = 0; i < size; i++) {
+            result[i] = HugeEnumConstants.fromOrdinal(constants, ordinals[i]);
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] toArray(T[] array) {
+        T[] result = (array.length >= size)
+            ? array
+            : (T[]) Array.newInstance(array.getClass().getComponentType(), size);
+
+        E[] constants = this.constants;
+        char[] ordinals = this.ordinals;
+        for (int i = 0; i < size; i++) {
+            result[i] = (T) HugeEnumConstants.fromOrdinal(constants, ordinals[i]);
+        }
+
+        if (result.length > size) {
+            result[size] = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Packed array holding copy of list elements
+     */
+    public HugeEnumArray<E> toHugeEnumArray() {
+        return HugeEnumArray.wrap(enumClass, Arrays.copyOf(ordinals, size));
+    }
+
+    /**
+     * Spliterator over elements present at the moment of this call. Splits evenly by index range.
+     * Structural modifications of the list during traversal are not detected.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new OrdinalArraySpliterator<>(constants, ordinals, 0, size, 0);
+    }
+
+    public void trimToSize() {
+        if (ordinals.length > size) {
+            modCount++;
+            ordinals = Arrays.copyOf(ordinals, size);
+        }
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        // Negative capacity means overflow of size + count
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required list capacity is too large: " + Integer.toUnsignedString(minCapacity));
+        }
+
+        if (minCapacity > ordinals.length) {
+            int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, ordinals.length + (ordinals.length >> 1)));
+            if (newCapacity < 0 || newCapacity > MAX_ARRAY_SIZE) {
+                newCapacity = MAX_ARRAY_SIZE;
+            }
+
+            ordinals = Arrays.copyOf(ordinals, newCapacity);
+        }
+    }
+
+    private boolean appendOrdinals(char[] source, int fromIndex, int length) {
+        if (length == 0) {
+            return false;
+        }
+
+        modCount++;
+        ensureCapacity(size + length);
+        System.arraycopy(source, fromIndex, ordinals, size, length);
+        size += length;
+        return true;
+    }
+
+    /**
+     * Unlike {@link HugeEnumConstants#toOrdinal(Enum)}, rejects constants of other enums smuggled in by raw types.
+     */
+    private char toOrdinal(Object value) {
+        return HugeEnumConstants.toOrdinal(enumClass.cast(value));
+    }
+
+    private int ordinalOf(Object value) {
+        if (value == null) {
+            return HugeEnumConstants.NULL_ORDINAL;
+        }
+
+        if (!enumClass.isInstance(value)) {
+            return -1;
+        }
+
+        return ((Enum<?>) value).ordinal();
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Name to element lookup covering canonical names, aliases and case-folded names.
+ *
+ * All keys share one minimal perfect hash built with hash-and-displace (CHD) scheme,
+ * see {@link HugeEnumNameIndex} for the file-based equivalent. Every slot holds the key, ordinal of element
+ * with that canonical name or alias, and ordinal of element whose case-folded name is the key.
+ * Lookup hashes and compares characters of the candidate in place, so it never allocates.
+ * <p>
+ * Case folding is per {@code char}, the same as {@link String#equalsIgnoreCase(String)}. When canonical names
+ * differ only in case, case-insensitive lookup prefers exact match, then the lowest ordinal.
+ * <p>
+ * Encoded table, numbers are stored most significant {@code char} first:
+ * <pre>
+ *   int          key count K
+ *   int          bucket count B
+ *   int * B      bucket seeds
+ *   char * K     ordinal by canonical name or alias, {@link HugeEnumConstants#NULL_ORDINAL} for none
+ *   char * K     1 if key is an alias, 0 otherwise
+ *   char * K     ordinal by case-folded name, {@link HugeEnumConstants#NULL_ORDINAL} for none
+ *   int * (K+1)  key offsets
+ *   char * ...   keys
+ * </pre>
+ */
+public final class HugeEnumLookup {
+
+    private final Object[] values;
+
+    private final int keyCount;
+    private final int[] seeds;
+    private final char[] exactOrdinals;
+    private final char[] aliasFlags;
+    private final char[] foldedOrdinals;
+    private final int[] keyOffsets;
+    private final String keys;
+
+    // Some canonical names differ only in case, exact match is tried first
+    private final boolean foldCollisions;
+
+    private HugeEnumLookup(Object[] values, int[] seeds, char[] exactOrdinals, char[] aliasFlags, char[] foldedOrdinals, int[] keyOffsets, String keys) {
+        this.values = values;
+        this.keyCount = exactOrdinals.length;
+        this.seeds = seeds;
+        this.exactOrdinals = exactOrdinals;
+        this.aliasFlags = aliasFlags;
+        this.foldedOrdinals = foldedOrdinals;
+        this.keyOffsets = keyOffsets;
+        this.keys = keys;
+
+        int foldedCount = 0;
+        for (char ordinal : foldedOrdinals) {
+            if (ordinal != HugeEnumConstants.NULL_ORDINAL) {
+                foldedCount++;
+            }
+        }
+        this.foldCollisions = foldedCount != values.length;
+    }
+
+    //<editor-fold desc="Encoding">
+
+    /**
+     * @param elementNames Canonical names in ordinal order
+     * @param aliases Aliases of every element in ordinal order
+     * @return Table to be embedded into generated enum
+     * @throws IllegalArgumentException Alias duplicates another alias or name
+     */
+    public static String encode(List<String> elementNames, List<List<String>> aliases) {
+        int elementCount = elementNames.size();
+
+        if (elementCount > HugeEnumConstants.MAX_ELEMENT_COUNT) {
+            throw new IllegalArgumentException("Too many elements: " + elementCount);
+        }
+
+        // Key -> {exact ordinal, alias flag, folded ordinal}
+        Map<String, int[]> entries = new LinkedHashMap<>();
+
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            entries.computeIfAbsent(elementNames.get(ordinal), key -> newEntry())[0] = ordinal;
+        }
+
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            for (String alias : aliases.get(ordinal)) {
+                int[] entry = entries.computeIfAbsent(alias, key -> newEntry());
+
+                if (entry[0] >= 0) {
+                    throw new IllegalArgumentException("Alias " + alias + " of " + elementNames.get(ordinal) + " is already used");
+                }
+
+                entry[0] = ordinal;
+                entry[1] = 1;
+            }
+        }
+
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            int[] entry = entries.computeIfAbsent(fold(elementNames.get(ordinal)), key -> newEntry());
+
+            if (entry[2] < 0) {
+                entry[2] = ordinal;
+            }
+        }
+
+        int keyCount = entries.size();
+        List<String> keyList = new ArrayList<>(entries.keySet());
+
+        long[] hashes = new long[keyCount];
+        Set<Long> distinctHashes = new HashSet<>();
+        for (int key = 0; key < keyCount; key++) {
+            hashes[key] = hash(keyList.get(key), false);
+
+            if (!distinctHashes.add(hashes[key])) {
+                throw new IllegalArgumentException("Hash collision: " + keyList.get(key));
+            }
+        }
+
+        int[] slotKeys = new int[keyCount];
+        int[] seeds = PerfectHash.build(hashes, slotKeys);
+
+        StringBuilder result = new StringBuilder();
+        appendInt(result, keyCount);
+        appendInt(result, seeds.length);
+        for (int seed : seeds) {
+            appendInt(result, seed);
+        }
+
+        for (int field = 0; field < 3; field++) {
+            for (int slot = 0; slot < keyCount; slot++) {
+                int value = entries.get(keyList.get(slotKeys[slot]))[field];
+                result.append((value < 0) ? HugeEnumConstants.NULL_ORDINAL : (char) value);
+            }
+        }
+
+        int keyOffset = 0;
+        for (int slot = 0; slot < keyCount; slot++) {
+            appendInt(result, keyOffset);
+            keyOffset += keyList.get(slotKeys[slot]).length();
+        }
+        appendInt(result, keyOffset);
+
+        for (int slot = 0; slot < keyCount; slot++) {
+            result.append(keyList.get(slotKeys[slot]));
+        }
+
+        return result.toString();
+    }
+
+    private static int[] newEntry() {
+        return new int[] {-1, 0, -1};
+    }
+
+    private static void appendInt(StringBuilder result, int value) {
+        result.append((char) (value >>> Character.SIZE));
+        result.append((char) value);
+    }
+
+    private static String fold(String name) {
+        StringBuilder result = new StringBuilder(name.length());
+
+        for (int i = 0; i < name.length(); i++) {
+            result.append(fold(name.charAt(i)));
+        }
+
+        return result.toString();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Decode table embedded into generated enum.
+     *
+     * @param values Enum elements in ordinal order
+     */
+    public static HugeEnumLookup decode(String table, Object[] values) {
+        int keyCount = readInt(table, 0);
+        int bucketCount = readInt(table, 2);
+
+        int position = 4;
+        int[] seeds = new int[bucketCount];
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            seeds[bucket] = readInt(table, position);
+            position += 2;
+        }
+
+        char[] exactOrdinals = table.substring(position, position + keyCount).toCharArray();
+        position += keyCount;
+        char[] aliasFlags = table.substring(position, position + keyCount).toCharArray();
+        position += keyCount;
+        char[] foldedOrdinals = table.substring(position, position + keyCount).toCharArray();
+        position += keyCount;
+
+        int[] keyOffsets = new int[keyCount + 1];
+        for (int slot = 0; slot <= keyCount; slot++) {
+            keyOffsets[slot] = readInt(table, position);
+            position += 2;
+        }
+
+        String keys = table.substring(position);
+        if (keys.length() != keyOffsets[keyCount]) {
+            throw new IllegalArgumentException("Lookup table is corrupted");
+        }
+
+        return new HugeEnumLookup(values, seeds, exactOrdinals, aliasFlags, foldedOrdinals, keyOffsets, keys);
+    }
+
+    private static int readInt(String table, int position) {
+        return (table.charAt(position) << Character.SIZE) | table.charAt(position + 1);
+    }
+
+    /**
+     * @return Ordinal of element with given canonical name or {@code -1}
+     */
+    public int ordinalOf(CharSequence name) {
+        int slot = find(name, false);
+
+        if (slot < 0 || aliasFlags[slot] != 0) {
+            return -1;
+        }
+
+        return toOrdinal(exactOrdinals[slot]);
+    }
+
+    /**
+     * @return Ordinal of element with given canonical name or alias or {@code -1}
+     */
+    public int ordinalOfWithAliases(CharSequence name) {
+        int slot = find(name, false);
+        return (slot < 0) ? -1 : toOrdinal(exactOrdinals[slot]);
+    }
+
+    /**
+     * @return Ordinal of element with canonical name equal to given one ignoring case or {@code -1}
+     */
+    public int ordinalOfIgnoreCase(CharSequence name) {
+        if (foldCollisions) {
+            int ordinal = ordinalOf(name);
+
+            if (ordinal >= 0) {
+                return ordinal;
+            }
+        }
+
+        int slot = find(name, true);
+        return (slot < 0) ? -1 : toOrdinal(foldedOrdinals[slot]);
+    }
+
+    /**
+     * @return Element with given canonical name or {@code null}
+     */
+    public Object get(CharSequence name) {
+        return toValue(ordinalOf(name));
+    }
+
+    /**
+     * @return Element with given canonical name or alias or {@code null}
+     */
+    public Object getWithAliases(CharSequence name) {
+        return toValue(ordinalOfWithAliases(name));
+    }
+
+    /**
+     * @return Element with canonical name equal to given one ignoring case or {@code null}
+     */
+    public Object getIgnoreCase(CharSequence name) {
+        return toValue(ordinalOfIgnoreCase(name));
+    }
+
+    private Object toValue(int ordinal) {
+        return (ordinal < 0) ? null : values[ordinal];
+    }
+
+    private static int toOrdinal(char ordinal) {
+        return (ordinal == HugeEnumConstants.NULL_ORDINAL) ? -1 : ordinal;
+    }
+
+    /**
+     * @return Slot of key equal to name, optionally case-folded, or {@code -1}
+     */
+    private int find(CharSequence name, boolean folded) {
+        if (keyCount == 0) {
+            return -1;
+        }
+
+        long hash = hash(name, folded);
+        int slot = PerfectHash.slotOf(hash, seeds[PerfectHash.bucketOf(hash, seeds.length)], keyCount);
+
+        int keyOffset = keyOffsets[slot];
+        int length = name.length();
+
+        if (keyOffsets[slot + 1] - keyOffset != length) {
+            return -1;
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+
+            if (keys.charAt(keyOffset + i) != (folded ? fold(c) : c)) {
+                return -1;
+            }
+        }
+
+        return slot;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static long hash(CharSequence name, boolean folded) {
+        long hash = PerfectHash.FNV_OFFSET_BASIS;
+
+        for (int i = 0, length = name.length(); i < length; i++) {
+            char c = name.charAt(i);
+            hash = (hash ^ (folded ? fold(c) : c)) * PerfectHash.FNV_PRIME;
+        }
+
+        return PerfectHash.mix(hash);
+    }
+
+}
@@ -0,0 +1,545 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-element attributes stored outside of the enum class.
+ *
+ * Written by generator next to the class file as {@code <enum simple name>}{@value #FILE_SUFFIX}.
+ * Columns are read by ordinal straight from the mapped resource, so neither element instances
+ * nor the heap hold attribute values; strings are materialized only by {@link #getString}.
+ * Enums generated with metadata get one accessor per column delegating to {@link #of(Class)}.
+ * Accessors address columns by index, so {@link #of(Class)} also checks names and types of columns
+ * against {@code static String metadataColumns()} of the enum.
+ *
+ * Layout, all numbers big-endian:
+ * <pre>
+ *   int    magic "HEMD"
+ *   int    format version
+ *   long   fingerprint of enum
+ *   int    element count N
+ *   int    column count C
+ *   C *    u2 name length, UTF-8 name, u1 column type, int data offset
+ *   ...    padding, every column data is aligned to 8 bytes
+ *   INT    int * N
+ *   LONG   long * N
+ *   DOUBLE double * N
+ *   STRING (int offset, int length) * N, UTF-8 bytes; length -1 stands for {@code null}
+ * </pre>
+ * Offsets of string values are relative to the end of the column (offset, length) table.
+ */
+public final class HugeEnumMetadata {
+
+    public static final String FILE_SUFFIX = ".meta";
+
+    public static final int MAGIC = 0x48454D44;
+    public static final int VERSION = 1;
+
+    private static final int FIXED_HEADER_SIZE = 24;
+    private static final int COLUMN_ALIGNMENT = 8;
+    private static final int STRING_ENTRY_SIZE = 2 * Integer.BYTES;
+    private static final int NULL_LENGTH = -1;
+
+    public enum ColumnType {
+        INT, LONG, DOUBLE, STRING
+    }
+
+    private static final ColumnType[] COLUMN_TYPES = ColumnType.values();
+
+    private static final String MEMBER_NAME_METADATA_COLUMNS = "metadataColumns";
+
+    private static final ClassValue<HugeEnumMetadata> METADATA = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected HugeEnumMetadata computeValue(Class<?> type) {
+            try {
+                HugeEnumMetadata metadata = forClass(type);
+
+                long classFingerprint = HugeEnumFingerprint.of((Class<? extends Enum<?>>) type);
+                if (metadata.fingerprint != classFingerprint) {
+                    throw new InvalidClassException(
+                        type.getName(),
+                        String.format(
+                            "Incompatible with metadata: fingerprint %016X, class fingerprint %016X",
+                            metadata.fingerprint, classFingerprint
+                        )
+                    );
+                }
+
+                String classColumns = getClassColumns(type);
+                if (classColumns != null && !classColumns.equals(metadata.getColumnSchema())) {
+                    throw new InvalidClassException(
+                        type.getName(),
+                        String.format(
+                            "Incompatible with metadata: columns %s, class columns %s",
+                            metadata.getColumnSchema(), classColumns
+                        )
+                    );
+                }
+
+                return metadata;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read metadata of " + type.getName(), e);
+            }
+        }
+    };
+
+    private final ByteBuffer buffer;
+    private final long fingerprint;
+    private final int elementCount;
+    private final String[] columnNames;
+    private final ColumnType[] columnTypes;
+    private final int[] columnOffsets;
+
+    private HugeEnumMetadata(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt(0) != MAGIC) {
+                throw new StreamCorruptedException("Not an enum metadata file");
+            }
+
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported enum metadata version: " + version);
+            }
+
+            this.buffer = buffer;
+            this.fingerprint = buffer.getLong(8);
+            this.elementCount = buffer.getInt(16);
+
+            int columnCount = buffer.getInt(20);
+            if (elementCount < 0 || columnCount < 0) {
+                throw new StreamCorruptedException("Invalid enum metadata header");
+            }
+
+            this.columnNames = new String[columnCount];
+            this.columnTypes = new ColumnType[columnCount];
+            this.columnOffsets = new int[columnCount];
+
+            ByteBuffer header = buffer.duplicate().position(FIXED_HEADER_SIZE);
+            for (int i = 0; i < columnCount; i++) {
+                byte[] name = new byte[header.getChar()];
+                header.get(name);
+
+                int type = header.get();
+                int offset = header.getInt();
+
+                if (type < 0 || type >= COLUMN_TYPES.length) {
+                    throw new StreamCorruptedException("Invalid column type: " + type);
+                }
+                if (offset < header.position() || offset > buffer.limit() - columnSize(COLUMN_TYPES[type], elementCount)) {
+                    throw new StreamCorruptedException("Invalid column offset: " + offset);
+                }
+
+                columnNames[i] = new String(name, StandardCharsets.UTF_8);
+                columnTypes[i] = COLUMN_TYPES[type];
+                columnOffsets[i] = offset;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new StreamCorruptedException("Truncated enum metadata file");
+        }
+    }
+
+    //<editor-fold desc="Reading">
+
+    /**
+     * Metadata of enum class, mapped on first use and verified against enum fingerprint.
+     *
+     * @throws UncheckedIOException Resource is absent, corrupted or does not match the enum
+     */
+    public static HugeEnumMetadata of(Class<? extends Enum<?>> enumClass) {
+        return METADATA.get(enumClass);
+    }
+
+    /**
+     * @return Columns expected by accessors of the enum or {@code null} if the enum does not declare them
+     */
+    private static String getClassColumns(Class<?> type) {
+        try {
+            MethodHandle metadataColumns = MethodHandles
+                .publicLookup()
+                .findStatic(type, MEMBER_NAME_METADATA_COLUMNS, MethodType.methodType(String.class));
+
+            return (String) metadataColumns.invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to obtain metadata columns of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @return Column names and types in form {@code name:TYPE} separated by commas, as returned by
+     * {@code metadataColumns()} of generated enum
+     */
+    public static String columnSchema(List<String> columnNames, List<ColumnType> columnTypes) {
+        StringBuilder result = new StringBuilder();
+
+        for (int column = 0; column < columnNames.size(); column++) {
+            if (column > 0) {
+                result.append(',');
+            }
+
+            result.append(columnNames.get(column)).append(':').append(columnTypes.get(column));
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Read metadata from class path resource next to the enum class.
+     * Resource in a directory is mapped, resource in an archive is read into memory.
+     */
+    public static HugeEnumMetadata forClass(Class<?> enumClass) throws IOException {
+        String resourceName = enumClass.getSimpleName() + FILE_SUFFIX;
+        URL url = enumClass.getResource(resourceName);
+
+        if (url == null) {
+            throw new IOException("Metadata resource " + resourceName + " is not found");
+        }
+
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return open(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid metadata resource location: " + url, e);
+            }
+        }
+
+        try (InputStream in = url.openStream()) {
+            return wrap(in.readAllBytes());
+        }
+    }
+
+    /**
+     * Map metadata file read-only. Channel is closed right away, mapping stays valid.
+     */
+    public static HugeEnumMetadata open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Enum metadata file is too large");
+            }
+
+            return new HugeEnumMetadata(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Metadata over file content already in memory.
+     */
+    public static HugeEnumMetadata wrap(byte[] content) throws IOException {
+        return new HugeEnumMetadata(ByteBuffer.wrap(content).asReadOnlyBuffer());
+    }
+
+    //</editor-fold>
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    public ColumnType getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    /**
+     * @see #columnSchema(List, List)
+     */
+    public String getColumnSchema() {
+        return columnSchema(Arrays.asList(columnNames), Arrays.asList(columnTypes));
+    }
+
+    /**
+     * @return Index of column with given name or {@code -1}
+     */
+    public int getColumnIndex(String columnName) {
+        return Arrays.asList(columnNames).indexOf(columnName);
+    }
+
+    //<editor-fold desc="Column access">
+
+    public int getInt(int column, int ordinal) {
+        return buffer.getInt(position(column, ordinal, ColumnType.INT, Integer.BYTES));
+    }
+
+    public long getLong(int column, int ordinal) {
+        return buffer.getLong(position(column, ordinal, ColumnType.LONG, Long.BYTES));
+    }
+
+    public double getDouble(int column, int ordinal) {
+        return buffer.getDouble(position(column, ordinal, ColumnType.DOUBLE, Double.BYTES));
+    }
+
+    /**
+     * @return Length of UTF-8 encoded value in bytes or {@code -1} for {@code null}
+     */
+    public int getStringLength(int column, int ordinal) {
+        return buffer.getInt(position(column, ordinal, ColumnType.STRING, STRING_ENTRY_SIZE) + Integer.BYTES);
+    }
+
+    public String getString(int column, int ordinal) {
+        int position = position(column, ordinal, ColumnType.STRING, STRING_ENTRY_SIZE);
+        int length = buffer.getInt(position + Integer.BYTES);
+
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(stringBytesOffset(column) + buffer.getInt(position)).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Put UTF-8 encoded value to the buffer without intermediate objects. Nothing is put for {@code null}.
+     *
+     * @return Length of value in bytes or {@code -1} for {@code null}
+     */
+    public int writeStringTo(int column, int ordinal, ByteBuffer target) {
+        int position = position(column, ordinal, ColumnType.STRING, STRING_ENTRY_SIZE);
+        int length = buffer.getInt(position + Integer.BYTES);
+
+        if (length != NULL_LENGTH) {
+            ByteBuffer buffer = this.buffer;
+
+            for (int i = stringBytesOffset(column) + buffer.getInt(position), end = i + length; i < end; i++) {
+                target.put(buffer.get(i));
+            }
+        }
+
+        return length;
+    }
+
+    private int position(int column, int ordinal, ColumnType expectedType, int entrySize) {
+        if (columnTypes[column] != expectedType) {
+            throw new IllegalArgumentException(String.format(
+                "Column %s is of type %s, not %s", columnNames[column], columnTypes[column], expectedType
+            ));
+        }
+
+        return columnOffsets[column] + Objects.checkIndex(ordinal, elementCount) * entrySize;
+    }
+
+    private int stringBytesOffset(int column) {
+        return columnOffsets[column] + elementCount * STRING_ENTRY_SIZE;
+    }
+
+    //</editor-fold>
+
+    private static long columnSize(ColumnType type, int elementCount) {
+        switch (type) {
+            case INT:
+                return (long) elementCount * Integer.BYTES;
+            case LONG:
+            case DOUBLE:
+                return (long) elementCount * Long.BYTES;
+            default:
+                return (long) elementCount * STRING_ENTRY_SIZE;
+        }
+    }
+
+    public static Builder builder(List<String> elementNames) {
+        return new Builder(elementNames);
+    }
+
+    /**
+     * Builder of metadata file content. Unset values are {@code 0} and {@code null}.
+     */
+    public static final class Builder {
+
+        private final List<String> elementNames;
+        private final List<String> columnNames = new ArrayList<>();
+        private final List<ColumnType> columnTypes = new ArrayList<>();
+        private final List<Object> columnValues = new ArrayList<>();
+
+        private Builder(List<String> elementNames) {
+            this.elementNames = List.copyOf(elementNames);
+        }
+
+        /**
+         * @return Column index
+         */
+        public int addColumn(String columnName, ColumnType type) {
+            if (columnNames.contains(columnName)) {
+                throw new IllegalArgumentException("Duplicate column: " + columnName);
+            }
+
+            int elementCount = elementNames.size();
+
+            columnNames.add(columnName);
+            columnTypes.add(type);
+
+            switch (type) {
+                case INT:
+                    columnValues.add(new int[elementCount]);
+                    break;
+                case LONG:
+                    columnValues.add(new long[elementCount]);
+                    break;
+                case DOUBLE:
+                    columnValues.add(new double[elementCount]);
+                    break;
+                default:
+                    columnValues.add(new byte[elementCount][]);
+                    break;
+            }
+
+            return columnNames.size() - 1;
+        }
+
+        public Builder setInt(int column, int ordinal, int value) {
+            ((int[]) values(column, ColumnType.INT))[ordinal] = value;
+            return this;
+        }
+
+        public Builder setLong(int column, int ordinal, long value) {
+            ((long[]) values(column, ColumnType.LONG))[ordinal] = value;
+            return this;
+        }
+
+        public Builder setDouble(int column, int ordinal, double value) {
+            ((double[]) values(column, ColumnType.DOUBLE))[ordinal] = value;
+            return this;
+        }
+
+        public Builder setString(int column, int ordinal, String value) {
+            ((byte[][]) values(column, ColumnType.STRING))[ordinal] = (value == null) ? null : value.getBytes(StandardCharsets.UTF_8);
+            return this;
+        }
+
+        private Object values(int column, ColumnType expectedType) {
+            if (columnTypes.get(column) != expectedType) {
+                throw new IllegalArgumentException(String.format(
+                    "Column %s is of type %s, not %s", columnNames.get(column), columnTypes.get(column), expectedType
+                ));
+            }
+
+            return columnValues.get(column);
+        }
+
+        public byte[] toByteArray() {
+            int elementCount = elementNames.size();
+            int columnCount = columnNames.size();
+
+            byte[][] encodedNames = new byte[columnCount][];
+            long headerSize = FIXED_HEADER_SIZE;
+            for (int i = 0; i < columnCount; i++) {
+                encodedNames[i] = columnNames.get(i).getBytes(StandardCharsets.UTF_8);
+
+                if (encodedNames[i].length > 0xFFFF) {
+                    throw new IllegalArgumentException("Column name is too long: " + columnNames.get(i));
+                }
+
+                headerSize += Character.BYTES + encodedNames[i].length + Byte.BYTES + Integer.BYTES;
+            }
+
+            long[] offsets = new long[columnCount];
+            long size = headerSize;
+            for (int i = 0; i < columnCount; i++) {
+                size = align(size);
+                offsets[i] = size;
+                size += columnSize(columnTypes.get(i), elementCount);
+
+                if (columnTypes.get(i) == ColumnType.STRING) {
+                    for (byte[] value : (byte[][]) columnValues.get(i)) {
+                        size += (value == null) ? 0 : value.length;
+                    }
+                }
+            }
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Enum metadata is too large: " + size + " bytes");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(HugeEnumFingerprint.compute(elementNames));
+            buffer.putInt(elementCount);
+            buffer.putInt(columnCount);
+
+            for (int i = 0; i < columnCount; i++) {
+                buffer.putChar((char) encodedNames[i].length);
+                buffer.put(encodedNames[i]);
+                buffer.put((byte) columnTypes.get(i).ordinal());
+                buffer.putInt((int) offsets[i]);
+            }
+
+            for (int i = 0; i < columnCount; i++) {
+                buffer.position((int) offsets[i]);
+
+                Object values = columnValues.get(i);
+                switch (columnTypes.get(i)) {
+                    case INT:
+                        buffer.asIntBuffer().put((int[]) values);
+                        break;
+                    case LONG:
+                        buffer.asLongBuffer().put((long[]) values);
+                        break;
+                    case DOUBLE:
+                        buffer.asDoubleBuffer().put((double[]) values);
+                        break;
+                    default:
+                        byte[][] strings = (byte[][]) values;
+                        int offset = 0;
+
+                        for (byte[] value : strings) {
+                            buffer.putInt(offset);
+                            buffer.putInt((value == null) ? NULL_LENGTH : value.length);
+                            offset += (value == null) ? 0 : value.length;
+                        }
+
+                        for (byte[] value : strings) {
+                            if (value != null) {
+                                buffer.put(value);
+                            }
+                        }
+                        break;
+                }
+            }
+
+            return buffer.array();
+        }
+
+        public void write(Path path) throws IOException {
+            Files.write(path, toByteArray());
+        }
+
+        private static long align(long offset) {
+            return (offset + COLUMN_ALIGNMENT - 1) & -COLUMN_ALIGNMENT;
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pre-encoded UTF-8 names of enum elements.
+ *
+ * All names are stored in one byte array with an offset table, so writing a name to text output is
+ * a plain byte copy instead of {@code UTF-16 -> UTF-8} encoding of {@code name()} on every write.
+ *
+ * Enums generated with {@code Utf8Name} feature embed the table and expose it via
+ * {@code static nameBytes()}; for other enums it is built from element names on first use.
+ */
+public final class HugeEnumNameBytes {
+
+    private static final String MEMBER_NAME_NAME_BYTES = "nameBytes";
+
+    private static final ClassValue<HugeEnumNameBytes> NAME_BYTES = new ClassValue<>() {
+        @Override
+        protected HugeEnumNameBytes computeValue(Class<?> type) {
+            try {
+                MethodHandle nameBytes = MethodHandles
+                    .publicLookup()
+                    .findStatic(type, MEMBER_NAME_NAME_BYTES, MethodType.methodType(HugeEnumNameBytes.class));
+
+                return (HugeEnumNameBytes) nameBytes.invokeExact();
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return compute((Enum<?>[]) type.getEnumConstants());
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to obtain name bytes of " + type.getName(), e);
+            }
+        }
+    };
+
+    private final byte[] bytes;
+    private final int[] offsets;
+
+    private HugeEnumNameBytes(byte[] bytes, int[] offsets) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return Name bytes of enum, embedded or computed from element names
+     */
+    public static HugeEnumNameBytes of(Class<? extends Enum<?>> enumClass) {
+        return NAME_BYTES.get(enumClass);
+    }
+
+    /**
+     * Decode table embedded into generated enum.
+     *
+     * @param bytes UTF-8 bytes of all names, one {@code char} per byte
+     * @param lengths Length of each name in bytes, one {@code char} per name
+     */
+    public static HugeEnumNameBytes decode(String bytes, String lengths) {
+        int[] offsets = new int[lengths.length() + 1];
+        for (int i = 0; i < lengths.length(); i++) {
+            offsets[i + 1] = offsets[i] + lengths.charAt(i);
+        }
+
+        if (offsets[lengths.length()] != bytes.length()) {
+            throw new IllegalArgumentException("Name lengths do not match name bytes");
+        }
+
+        return new HugeEnumNameBytes(bytes.getBytes(StandardCharsets.ISO_8859_1), offsets);
+    }
+
+    private static HugeEnumNameBytes compute(Enum<?>[] constants) {
+        byte[][] names = new byte[constants.length][];
+        int[] offsets = new int[constants.length + 1];
+
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = constants[i].name().getBytes(StandardCharsets.UTF_8);
+            offsets[i + 1] = offsets[i] + names[i].length;
+        }
+
+        byte[] bytes = new byte[offsets[constants.length]];
+        for (int i = 0; i < constants.length; i++) {
+            System.arraycopy(names[i], 0, bytes, offsets[i], names[i].length);
+        }
+
+        return new HugeEnumNameBytes(bytes, offsets);
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return Length of UTF-8 encoded name in bytes
+     */
+    public int length(int ordinal) {
+        return offsets[ordinal + 1] - offsets[ordinal];
+    }
+
+    public int length(Enum<?> value) {
+        return length(value.ordinal());
+    }
+
+    public void writeTo(int ordinal, ByteBuffer buffer) {
+        int offset = offsets[ordinal];
+        buffer.put(bytes, offset, offsets[ordinal + 1] - offset);
+    }
+
+    public void writeTo(Enum<?> value, ByteBuffer buffer) {
+        writeTo(value.ordinal(), buffer);
+    }
+
+    public void writeTo(int ordinal, OutputStream out) throws IOException {
+        int offset = offsets[ordinal];
+        out.write(bytes, offset, offsets[ordinal + 1] - offset);
+    }
+
+    public void writeTo(Enum<?> value, OutputStream out) throws IOException {
+        writeTo(value.ordinal(), out);
+    }
+
+    /**
+     * Copy UTF-8 encoded name to array.
+     *
+     * @return Count of bytes copied
+     */
+    public int copyTo(int ordinal, byte[] destination, int offset) {
+        int length = length(ordinal);
+        System.arraycopy(bytes, offsets[ordinal], destination, offset, length);
+        return length;
+    }
+
+    /**
+     * @return Read-only view of UTF-8 encoded name
+     */
+    public ByteBuffer asByteBuffer(int ordinal) {
+        return ByteBuffer.wrap(bytes, offsets[ordinal], length(ordinal)).slice().asReadOnlyBuffer();
+    }
+
+}
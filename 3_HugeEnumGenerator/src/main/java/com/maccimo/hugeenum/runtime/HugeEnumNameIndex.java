@@ -0,0 +1,279 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Memory-mapped name to ordinal index, usable without loading the enum class.
+ *
+ * Index is a minimal perfect hash built with hash-and-displace (CHD) scheme: every name hashes to a bucket,
+ * every bucket stores a seed that maps names of the bucket to distinct slots, and every slot stores an ordinal.
+ * The candidate name is then compared with the stored UTF-8 name, so unknown names are rejected.
+ * Lookup reads mapped memory only and does not allocate.
+ *
+ * File layout, all numbers big-endian:
+ * <pre>
+ *   int    magic "HENI"
+ *   int    format version
+ *   long   enum fingerprint, see {@link HugeEnumFingerprint}
+ *   int    element count N
+ *   int    bucket count B
+ *   int    size of name bytes
+ *   int * B        bucket seeds
+ *   u2 * N         slot ordinals
+ *   (padding to 4 bytes)
+ *   int * (N + 1)  name offsets
+ *   byte * size    UTF-8 names in ordinal order
+ * </pre>
+ */
+public final class HugeEnumNameIndex implements Closeable {
+
+    public static final int MAGIC = 0x48454E49;
+    public static final int VERSION = 1;
+
+    /**
+     * Suffix of index file written next to the enum class file.
+     */
+    public static final String FILE_SUFFIX = ".nameidx";
+
+    static final int HEADER_SIZE = 28;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private final long fingerprint;
+    private final int elementCount;
+    private final int bucketCount;
+
+    private final int seedsOffset;
+    private final int slotsOffset;
+    private final int nameOffsetsOffset;
+    private final int namesOffset;
+
+    private HugeEnumNameIndex(FileChannel channel, ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new StreamCorruptedException("Not a name index file");
+        }
+
+        if (buffer.getInt(4) != VERSION) {
+            throw new StreamCorruptedException("Unsupported name index version: " + buffer.getInt(4));
+        }
+
+        this.fingerprint = buffer.getLong(8);
+        this.elementCount = buffer.getInt(16);
+        this.bucketCount = buffer.getInt(20);
+        int namesSize = buffer.getInt(24);
+
+        this.seedsOffset = HEADER_SIZE;
+        this.slotsOffset = seedsOffset + bucketCount * Integer.BYTES;
+        this.nameOffsetsOffset = align(slotsOffset + elementCount * Character.BYTES);
+        this.namesOffset = nameOffsetsOffset + (elementCount + 1) * Integer.BYTES;
+
+        if (elementCount < 0 || elementCount > HugeEnumConstants.MAX_ELEMENT_COUNT || bucketCount < 1
+            || namesSize < 0 || (long) namesOffset + namesSize != buffer.capacity()) {
+            throw new StreamCorruptedException("Invalid name index header");
+        }
+    }
+
+    //<editor-fold desc="Writing">
+
+    /**
+     * Write index of element names.
+     */
+    public static void write(Path path, List<String> elementNames) throws IOException {
+        Files.write(path, build(elementNames));
+    }
+
+    /**
+     * @return Index file content for element names in ordinal order
+     */
+    public static byte[] build(List<String> elementNames) {
+        int elementCount = elementNames.size();
+
+        if (elementCount > HugeEnumConstants.MAX_ELEMENT_COUNT) {
+            throw new IllegalArgumentException("Too many elements: " + elementCount);
+        }
+
+        byte[][] names = new byte[elementCount][];
+        long[] hashes = new long[elementCount];
+        Set<Long> distinctHashes = new HashSet<>();
+        int namesSize = 0;
+
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            names[ordinal] = elementNames.get(ordinal).getBytes(StandardCharsets.UTF_8);
+            hashes[ordinal] = hash(names[ordinal], 0, names[ordinal].length);
+            namesSize += names[ordinal].length;
+
+            if (!distinctHashes.add(hashes[ordinal])) {
+                throw new IllegalArgumentException("Duplicate element name or hash collision: " + elementNames.get(ordinal));
+            }
+        }
+
+        int[] slotKeys = new int[elementCount];
+        int[] seeds = PerfectHash.build(hashes, slotKeys);
+        int bucketCount = seeds.length;
+
+        int nameOffsetsOffset = align(HEADER_SIZE + bucketCount * Integer.BYTES + elementCount * Character.BYTES);
+        int namesOffset = nameOffsetsOffset + (elementCount + 1) * Integer.BYTES;
+
+        ByteBuffer result = ByteBuffer.allocate(namesOffset + namesSize);
+        result.putInt(MAGIC);
+        result.putInt(VERSION);
+        result.putLong(HugeEnumFingerprint.compute(elementNames));
+        result.putInt(elementCount);
+        result.putInt(bucketCount);
+        result.putInt(namesSize);
+
+        for (int seed : seeds) {
+            result.putInt(seed);
+        }
+        for (int slotKey : slotKeys) {
+            result.putChar((char) slotKey);
+        }
+
+        result.position(nameOffsetsOffset);
+        int nameOffset = 0;
+        for (byte[] name : names) {
+            result.putInt(nameOffset);
+            nameOffset += name.length;
+        }
+        result.putInt(nameOffset);
+
+        for (byte[] name : names) {
+            result.put(name);
+        }
+
+        return result.array();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Reading">
+
+    /**
+     * Map index file read-only.
+     */
+    public static HugeEnumNameIndex open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Name index file is too large");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new HugeEnumNameIndex(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Index over file content already in memory.
+     */
+    public static HugeEnumNameIndex wrap(byte[] content) throws IOException {
+        return new HugeEnumNameIndex(null, ByteBuffer.wrap(content).asReadOnlyBuffer());
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * @return Ordinal of element with UTF-8 encoded name in {@code bytes[offset, offset + length)} or {@code -1}
+     */
+    public int lookup(byte[] bytes, int offset, int length) {
+        if (elementCount == 0) {
+            return -1;
+        }
+
+        long hash = hash(bytes, offset, length);
+        int ordinal = ordinalOf(hash);
+        int nameOffset = namesOffset + buffer.getInt(nameOffsetsOffset + ordinal * Integer.BYTES);
+        int nameLength = namesOffset + buffer.getInt(nameOffsetsOffset + (ordinal + 1) * Integer.BYTES) - nameOffset;
+
+        if (nameLength != length) {
+            return -1;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(nameOffset + i) != bytes[offset + i]) {
+                return -1;
+            }
+        }
+
+        return ordinal;
+    }
+
+    /**
+     * @return Ordinal of element with given name or {@code -1}. Allocates temporary UTF-8 encoded name
+     */
+    public int lookup(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return lookup(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @return Name of element with given ordinal
+     */
+    public String getName(int ordinal) {
+        if (ordinal < 0 || ordinal >= elementCount) {
+            throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for element count " + elementCount);
+        }
+
+        int from = buffer.getInt(nameOffsetsOffset + ordinal * Integer.BYTES);
+        int to = buffer.getInt(nameOffsetsOffset + (ordinal + 1) * Integer.BYTES);
+
+        byte[] bytes = new byte[to - from];
+        buffer.duplicate().position(namesOffset + from).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private int ordinalOf(long hash) {
+        int seed = buffer.getInt(seedsOffset + PerfectHash.bucketOf(hash, bucketCount) * Integer.BYTES);
+        return buffer.getChar(slotsOffset + PerfectHash.slotOf(hash, seed, elementCount) * Character.BYTES);
+    }
+
+    //</editor-fold>
+
+    private static long hash(byte[] bytes, int offset, int length) {
+        long hash = PerfectHash.FNV_OFFSET_BASIS;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * PerfectHash.FNV_PRIME;
+        }
+
+        return PerfectHash.mix(hash);
+    }
+
+    private static int align(int offset) {
+        return (offset + Integer.BYTES - 1) & -Integer.BYTES;
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Order of enum elements by name.
+ *
+ * Enums generated with {@code NameRank} feature carry precomputed name order, exposed as
+ * {@code static E byNameRank(int)}. It is used when present, otherwise names are sorted once on first access.
+ * Name comparison turns into {@code char} comparison of ranks, and elements sharing a name prefix
+ * are found by binary search as a contiguous rank range. Order is the one of {@link String#compareTo}.
+ */
+public final class HugeEnumNameOrder<E extends Enum<E>> implements Comparator<E> {
+
+    private static final String MEMBER_NAME_BY_NAME_RANK = "byNameRank";
+
+    private static final ClassValue<HugeEnumNameOrder<?>> NAME_ORDERS = new ClassValue<>() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        protected HugeEnumNameOrder<?> computeValue(Class<?> type) {
+            return new HugeEnumNameOrder(type);
+        }
+    };
+
+    private final E[] constants;
+    private final char[] nameRanks;
+    private final char[] rankedOrdinals;
+
+    private HugeEnumNameOrder(Class<E> enumClass) {
+        this.constants = HugeEnumConstants.getShared(enumClass);
+        this.rankedOrdinals = loadRankedOrdinals(enumClass, constants);
+        this.nameRanks = new char[constants.length];
+
+        for (int rank = 0; rank < rankedOrdinals.length; rank++) {
+            nameRanks[rankedOrdinals[rank]] = (char) rank;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> HugeEnumNameOrder<E> of(Class<E> enumClass) {
+        return (HugeEnumNameOrder<E>) NAME_ORDERS.get(enumClass);
+    }
+
+    public int rankOf(E value) {
+        return nameRanks[value.ordinal()];
+    }
+
+    public E byRank(int rank) {
+        return constants[rankedOrdinals[rank]];
+    }
+
+    @Override
+    public int compare(E first, E second) {
+        return nameRanks[first.ordinal()] - nameRanks[second.ordinal()];
+    }
+
+    /**
+     * @return Rank of the first element with name starting with {@code prefix}
+     *         or rank where such element would be if there is none
+     */
+    public int prefixRangeStart(CharSequence prefix) {
+        int low = 0;
+        int high = rankedOrdinals.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(constants[rankedOrdinals[middle]].name(), prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return Rank following the last element with name starting with {@code prefix}
+     */
+    public int prefixRangeEnd(CharSequence prefix) {
+        int low = 0;
+        int high = rankedOrdinals.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(constants[rankedOrdinals[middle]].name(), prefix) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return Elements with name starting with {@code prefix} in name order. View, no copying involved
+     */
+    public List<E> withPrefix(CharSequence prefix) {
+        return rankRange(prefixRangeStart(prefix), prefixRangeEnd(prefix));
+    }
+
+    /**
+     * @return Elements with ranks in {@code [fromRank, toRank)} in name order
+     */
+    public List<E> rankRange(int fromRank, int toRank) {
+        return new RankRangeList(fromRank, toRank);
+    }
+
+    /**
+     * Compare {@code name} with {@code prefix} treating all names starting with {@code prefix} as equal to it.
+     */
+    private static int comparePrefix(String name, CharSequence prefix) {
+        int length = Math.min(name.length(), prefix.length());
+
+        for (int i = 0; i < length; i++) {
+            int difference = name.charAt(i) - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return (name.length() < prefix.length()) ? -1 : 0;
+    }
+
+    private static <E extends Enum<E>> char[] loadRankedOrdinals(Class<E> enumClass, E[] constants) {
+        char[] result = new char[constants.length];
+
+        MethodHandle byNameRank;
+        try {
+            byNameRank = MethodHandles
+                .publicLookup()
+                .findStatic(enumClass, MEMBER_NAME_BY_NAME_RANK, MethodType.methodType(enumClass, int.class))
+                .asType(MethodType.methodType(Enum.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            byNameRank = null;
+        }
+
+        if (byNameRank != null) {
+            try {
+                for (int rank = 0; rank < result.length; rank++) {
+                    result[rank] = (char) ((Enum<?>) byNameRank.invokeExact(rank)).ordinal();
+                }
+                return result;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to read name order of " + enumClass.getName(), e);
+            }
+        }
+
+        int[] sortedOrdinals = IntStream
+            .range(0, constants.length)
+            .boxed()
+            .sorted(Comparator.comparing(ordinal -> constants[ordinal].name()))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        for (int rank = 0; rank < sortedOrdinals.length; rank++) {
+            result[rank] = (char) sortedOrdinals[rank];
+        }
+
+        return result;
+    }
+
+    private class RankRangeList extends AbstractList<E> implements RandomAccess {
+
+        private final int fromRank;
+        private final int toRank;
+
+        public RankRangeList(int fromRank, int toRank) {
+            if (fromRank < 0 || fromRank > toRank || toRank > rankedOrdinals.length) {
+                throw new IndexOutOfBoundsException("Invalid rank range: " + fromRank + " .. " + toRank);
+            }
+
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+
+            return byRank(fromRank + index);
+        }
+
+        @Override
+        public int size() {
+            return toRank - fromRank;
+        }
+
+    }
+
+}
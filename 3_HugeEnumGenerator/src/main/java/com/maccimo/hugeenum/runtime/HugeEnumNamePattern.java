@@ -0,0 +1,107 @@
+package com.maccimo.hugeenum.runtime;
+
+/**
+ * Element names made of common prefix and zero-padded decimal counter, e.g. {@code VALUE_00001, VALUE_00002, ...}
+ *
+ * Such names are not stored in generated enum: static initializer rebuilds them from prefix, counter width
+ * and first counter value, {@code valueOf(String)} parses counter straight into ordinal instead of hashing name.
+ * Counter width does not exceed {@link #MAX_WIDTH} so counter always fits {@code int}.
+ */
+public final class HugeEnumNamePattern {
+
+    public static final int MAX_WIDTH = 9;
+
+    private HugeEnumNamePattern() {
+    }
+
+    /**
+     * @return Names of {@code count} elements in ordinal order
+     * @throws IllegalArgumentException Counter does not fit given width
+     */
+    public static String[] names(String prefix, int width, int first, int count) {
+        checkPattern(width, first, count);
+
+        int prefixLength = prefix.length();
+        char[] buffer = new char[prefixLength + width];
+        prefix.getChars(0, prefixLength, buffer, 0);
+
+        String[] result = new String[count];
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            int number = first + ordinal;
+
+            for (int i = buffer.length - 1; i >= prefixLength; i--) {
+                buffer[i] = (char) ('0' + number % 10);
+                number /= 10;
+            }
+
+            result[ordinal] = new String(buffer);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Ordinal of element with given name or {@code -1}
+     */
+    public static int ordinalOf(CharSequence name, String prefix, int width, int first, int count) {
+        int prefixLength = prefix.length();
+
+        if (name.length() != prefixLength + width) {
+            return -1;
+        }
+
+        for (int i = 0; i < prefixLength; i++) {
+            if (name.charAt(i) != prefix.charAt(i)) {
+                return -1;
+            }
+        }
+
+        int number = 0;
+        for (int i = prefixLength; i < prefixLength + width; i++) {
+            char ch = name.charAt(i);
+
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+
+            number = number * 10 + (ch - '0');
+        }
+
+        int ordinal = number - first;
+
+        return (ordinal >= 0 && ordinal < count) ? ordinal : -1;
+    }
+
+    /**
+     * Implementation of generated {@code valueOf(String)}.
+     *
+     * @param values Enum elements in ordinal order
+     * @throws IllegalArgumentException No element with given name, same as {@link Enum#valueOf(Class, String)}
+     * @throws NullPointerException Name is {@code null}
+     */
+    public static <E extends Enum<E>> E valueOf(Class<E> enumClass, Object[] values, String name, String prefix, int width, int first) {
+        if (name == null) {
+            throw new NullPointerException("Name is null");
+        }
+
+        int ordinal = ordinalOf(name, prefix, width, first, values.length);
+
+        if (ordinal < 0) {
+            // Same message as Enum.valueOf(), without building its name to element map
+            throw new IllegalArgumentException("No enum constant " + enumClass.getCanonicalName() + "." + name);
+        }
+
+        return enumClass.cast(values[ordinal]);
+    }
+
+    private static void checkPattern(int width, int first, int count) {
+        if (width < 1 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Counter width must be in range 1.." + MAX_WIDTH + ": " + width);
+        }
+
+        if (first < 0 || count < 0 || (count > 0 && Long.toString((long) first + count - 1).length() > width)) {
+            throw new IllegalArgumentException("Counter does not fit width " + width);
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Translation table from ordinals of previous enum version to ordinals of the current one.
+ *
+ * Written by generator next to the class file as {@code <enum simple name>}{@value #FILE_SUFFIX}
+ * when ordinal lock file is used. Stored ordinal columns are migrated in one pass with a single
+ * array load per value, without name lookups. Ordinals of removed elements map to
+ * {@link HugeEnumConstants#NULL_ORDINAL}.
+ *
+ * Layout, all numbers big-endian:
+ * <pre>
+ *   int    magic "HEOR"
+ *   int    format version
+ *   long   fingerprint of previous version
+ *   long   fingerprint of current version
+ *   int    element count of previous version N
+ *   int    element count of current version
+ *   u2 * N new ordinals
+ * </pre>
+ */
+public final class HugeEnumRemap {
+
+    public static final String FILE_SUFFIX = ".remap";
+
+    public static final int MAGIC = 0x48454F52;
+    public static final int VERSION = 1;
+
+    private final long sourceFingerprint;
+    private final long targetFingerprint;
+    private final int targetElementCount;
+    private final char[] table;
+
+    private HugeEnumRemap(long sourceFingerprint, long targetFingerprint, int targetElementCount, char[] table) {
+        this.sourceFingerprint = sourceFingerprint;
+        this.targetFingerprint = targetFingerprint;
+        this.targetElementCount = targetElementCount;
+        this.table = table;
+    }
+
+    //<editor-fold desc="Reading and writing">
+
+    /**
+     * @param table New ordinal of every element of previous version
+     */
+    public static byte[] toByteArray(long sourceFingerprint, long targetFingerprint, int targetElementCount, char[] table) {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES + table.length * Character.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(sourceFingerprint);
+        buffer.putLong(targetFingerprint);
+        buffer.putInt(table.length);
+        buffer.putInt(targetElementCount);
+        buffer.asCharBuffer().put(table);
+        return buffer.array();
+    }
+
+    public static HugeEnumRemap read(Path path) throws IOException {
+        return read(Files.readAllBytes(path));
+    }
+
+    public static HugeEnumRemap read(InputStream in) throws IOException {
+        return read(in.readAllBytes());
+    }
+
+    /**
+     * Read remap table from class path resource next to the enum class.
+     *
+     * @return Remap table or {@code null} if there is no resource
+     */
+    public static HugeEnumRemap forClass(Class<? extends Enum<?>> enumClass) throws IOException {
+        try (InputStream in = enumClass.getResourceAsStream(enumClass.getSimpleName() + FILE_SUFFIX)) {
+            return (in == null) ? null : read(in);
+        }
+    }
+
+    public static HugeEnumRemap read(byte[] content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new StreamCorruptedException("Not an ordinal remap table");
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported ordinal remap table version: " + version);
+            }
+
+            long sourceFingerprint = buffer.getLong();
+            long targetFingerprint = buffer.getLong();
+            int sourceElementCount = buffer.getInt();
+            int targetElementCount = buffer.getInt();
+
+            if (sourceElementCount < 0 || targetElementCount < 0 || buffer.remaining() != (long) sourceElementCount * Character.BYTES) {
+                throw new StreamCorruptedException("Invalid ordinal remap table size");
+            }
+
+            char[] table = new char[sourceElementCount];
+            buffer.asCharBuffer().get(table);
+
+            for (char ordinal : table) {
+                if (ordinal >= targetElementCount && ordinal != HugeEnumConstants.NULL_ORDINAL) {
+                    throw new StreamCorruptedException("Invalid target ordinal: " + (int) ordinal);
+                }
+            }
+
+            return new HugeEnumRemap(sourceFingerprint, targetFingerprint, targetElementCount, table);
+        } catch (BufferUnderflowException e) {
+            throw new StreamCorruptedException("Truncated ordinal remap table");
+        }
+    }
+
+    //</editor-fold>
+
+    public long getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public long getTargetFingerprint() {
+        return targetFingerprint;
+    }
+
+    public int getSourceElementCount() {
+        return table.length;
+    }
+
+    public int getTargetElementCount() {
+        return targetElementCount;
+    }
+
+    /**
+     * @return {@code true} if ordinals of all previous elements are unchanged
+     */
+    public boolean isIdentity() {
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != i) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return New ordinal of element, {@link HugeEnumConstants#NULL_ORDINAL} for removed element.
+     * {@link HugeEnumConstants#NULL_ORDINAL} itself is kept
+     */
+    public char map(char ordinal) {
+        return (ordinal == HugeEnumConstants.NULL_ORDINAL) ? ordinal : table[ordinal];
+    }
+
+    /**
+     * Translate ordinals in place.
+     */
+    public void apply(char[] ordinals, int offset, int length) {
+        char[] table = this.table;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char ordinal = ordinals[i];
+            ordinals[i] = (ordinal == HugeEnumConstants.NULL_ORDINAL) ? ordinal : table[ordinal];
+        }
+    }
+
+    /**
+     * Translate ordinals from position to limit of buffer in place. Buffer position is not changed.
+     * Use {@link HugeEnumColumnFile#migrate} for column files: their header holds fingerprint and element names
+     * of enum version, so it is rewritten together with ordinals.
+     */
+    public void apply(CharBuffer ordinals) {
+        char[] table = this.table;
+
+        for (int i = ordinals.position(), end = ordinals.limit(); i < end; i++) {
+            char ordinal = ordinals.get(i);
+
+            if (ordinal != HugeEnumConstants.NULL_ORDINAL) {
+                ordinals.put(i, table[ordinal]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,418 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Linear time sorting, counting and grouping of enum values by ordinal.
+ *
+ * Ordinal domain is bounded by enum element count, so counting sort outperforms comparison sort
+ * with {@code Comparator} calls. Arrays of at least {@link #PARALLEL_THRESHOLD} elements are processed
+ * in parallel by the common {@link ForkJoinPool}: each chunk is counted independently, chunk counts are
+ * turned into per-chunk write offsets and then chunks are scattered concurrently. Result is stable.
+ */
+public final class HugeEnumSort {
+
+    /**
+     * Minimum array length processed in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 22;
+
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    private HugeEnumSort() {
+    }
+
+    //<editor-fold desc="Histogram">
+
+    /**
+     * @return Count of each enum element indexed by ordinal. Array length equals element count
+     */
+    public static <E extends Enum<E>> int[] histogram(E[] values, Class<E> enumClass) {
+        return histogram(values, enumClass, isParallel(values.length));
+    }
+
+    /**
+     * @param ordinals Ordinals. Each must be less than {@code valueCount}
+     * @param valueCount Enum element count
+     * @return Count of each ordinal
+     */
+    public static int[] histogram(char[] ordinals, int valueCount) {
+        return histogram(ordinals, valueCount, isParallel(ordinals.length));
+    }
+
+    static <E extends Enum<E>> int[] histogram(E[] values, Class<E> enumClass, boolean parallel) {
+        int valueCount = HugeEnumConstants.count(enumClass);
+
+        if (!parallel) {
+            int[] result = new int[valueCount];
+            countRange(values, 0, values.length, result);
+            return result;
+        }
+
+        int[][] chunkCounts = countChunks(values, valueCount);
+        return sumCounts(chunkCounts, valueCount);
+    }
+
+    static int[] histogram(char[] ordinals, int valueCount, boolean parallel) {
+        if (!parallel) {
+            int[] result = new int[valueCount];
+            countRange(ordinals, 0, ordinals.length, result);
+            return result;
+        }
+
+        int[][] chunkCounts = countChunks(ordinals, valueCount);
+        return sumCounts(chunkCounts, valueCount);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Sort">
+
+    /**
+     * Sort values by ordinal in place.
+     */
+    public static <E extends Enum<E>> void sort(E[] values, Class<E> enumClass) {
+        int[] counts = histogram(values, enumClass);
+
+        // Equal ordinals mean identical elements, so sorted array is fully defined by histogram
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+        int position = 0;
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            int count = counts[ordinal];
+            if (count != 0) {
+                Arrays.fill(values, position, position + count, constants[ordinal]);
+                position += count;
+            }
+        }
+    }
+
+    /**
+     * Sort ordinals in place.
+     */
+    public static void sort(char[] ordinals, int valueCount) {
+        int[] counts = histogram(ordinals, valueCount);
+
+        int position = 0;
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            int count = counts[ordinal];
+            if (count != 0) {
+                Arrays.fill(ordinals, position, position + count, (char) ordinal);
+                position += count;
+            }
+        }
+    }
+
+    /**
+     * Stable sort of arbitrary items by enum key.
+     *
+     * @param items Items to sort in place
+     * @param key Function extracting sort key. Must not return {@code null}
+     * @param enumClass Key enum class
+     */
+    public static <T, E extends Enum<E>> void sortBy(T[] items, Function<? super T, E> key, Class<E> enumClass) {
+        sortBy(items, key, enumClass, isParallel(items.length));
+    }
+
+    static <T, E extends Enum<E>> void sortBy(T[] items, Function<? super T, E> key, Class<E> enumClass, boolean parallel) {
+        int valueCount = HugeEnumConstants.count(enumClass);
+
+        char[] keys = new char[items.length];
+        forEachChunk(items.length, parallel, chunk -> {
+            int from = chunkFrom(chunk, items.length);
+            int to = chunkTo(chunk, items.length);
+            for (int i = from; i < to; i++) {
+                keys[i] = (char) key.apply(items[i]).ordinal();
+            }
+        });
+
+        int[] indexes = scatterIndexes(keys, valueCount, parallel, null);
+
+        T[] source = items.clone();
+        forEachChunk(items.length, parallel, chunk -> {
+            int from = chunkFrom(chunk, items.length);
+            int to = chunkTo(chunk, items.length);
+            for (int i = from; i < to; i++) {
+                items[i] = source[indexes[i]];
+            }
+        });
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Partition and grouping">
+
+    /**
+     * Stable partition: move values matching predicate to the beginning of array.
+     * Predicate is evaluated once per enum element, not once per array item.
+     *
+     * @return Count of matching values
+     */
+    public static <E extends Enum<E>> int partition(E[] values, Predicate<? super E> predicate, Class<E> enumClass) {
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+
+        boolean[] matches = new boolean[constants.length];
+        for (E constant : constants) {
+            matches[constant.ordinal()] = predicate.test(constant);
+        }
+
+        E[] rejected = values.clone();
+        int matchCount = 0;
+        int rejectCount = 0;
+
+        for (E value : values) {
+            if (matches[value.ordinal()]) {
+                values[matchCount++] = value;
+            } else {
+                rejected[rejectCount++] = value;
+            }
+        }
+
+        System.arraycopy(rejected, 0, values, matchCount, rejectCount);
+
+        return matchCount;
+    }
+
+    /**
+     * Group array positions by ordinal.
+     *
+     * @return Groups holding positions of each element in ascending order
+     */
+    public static <E extends Enum<E>> OrdinalGroups groupByOrdinal(E[] values, Class<E> enumClass) {
+        return groupByOrdinal(values, enumClass, isParallel(values.length));
+    }
+
+    public static OrdinalGroups groupByOrdinal(char[] ordinals, int valueCount) {
+        return groupByOrdinal(ordinals, valueCount, isParallel(ordinals.length));
+    }
+
+    static <E extends Enum<E>> OrdinalGroups groupByOrdinal(E[] values, Class<E> enumClass, boolean parallel) {
+        int valueCount = HugeEnumConstants.count(enumClass);
+
+        char[] ordinals = new char[values.length];
+        forEachChunk(values.length, parallel, chunk -> {
+            int from = chunkFrom(chunk, values.length);
+            int to = chunkTo(chunk, values.length);
+            for (int i = from; i < to; i++) {
+                ordinals[i] = (char) values[i].ordinal();
+            }
+        });
+
+        return groupByOrdinal(ordinals, valueCount, parallel);
+    }
+
+    static OrdinalGroups groupByOrdinal(char[] ordinals, int valueCount, boolean parallel) {
+        int[] offsets = new int[valueCount + 1];
+        int[] indexes = scatterIndexes(ordinals, valueCount, parallel, offsets);
+
+        return new OrdinalGroups(offsets, indexes);
+    }
+
+    /**
+     * Positions grouped by ordinal: positions of element with ordinal {@code i} are stored in
+     * {@code indexes[offsets[i] .. offsets[i + 1])}.
+     */
+    public static final class OrdinalGroups {
+
+        private final int[] offsets;
+        private final int[] indexes;
+
+        OrdinalGroups(int[] offsets, int[] indexes) {
+            this.offsets = offsets;
+            this.indexes = indexes;
+        }
+
+        public int getValueCount() {
+            return offsets.length - 1;
+        }
+
+        public int size(int ordinal) {
+            return offsets[ordinal + 1] - offsets[ordinal];
+        }
+
+        public int[] getIndexes(int ordinal) {
+            return Arrays.copyOfRange(indexes, offsets[ordinal], offsets[ordinal + 1]);
+        }
+
+        /**
+         * @return Backing offsets array of length {@code valueCount + 1}. Must not be modified
+         */
+        public int[] offsets() {
+            return offsets;
+        }
+
+        /**
+         * @return Backing indexes array. Must not be modified
+         */
+        public int[] indexes() {
+            return indexes;
+        }
+
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Counting core">
+
+    /**
+     * Stable counting scatter of positions.
+     *
+     * @param offsets Optional array of {@code valueCount + 1} elements receiving group offsets
+     * @return Positions ordered by ordinal
+     */
+    private static int[] scatterIndexes(char[] ordinals, int valueCount, boolean parallel, int[] offsets) {
+        int length = ordinals.length;
+        int[] result = new int[length];
+
+        if (!parallel) {
+            int[] positions = new int[valueCount];
+            countRange(ordinals, 0, length, positions);
+
+            int total = toStartOffsets(positions, offsets);
+            assert total == length;
+
+            for (int i = 0; i < length; i++) {
+                result[positions[ordinals[i]]++] = i;
+            }
+
+            return result;
+        }
+
+        int[][] chunkPositions = countChunks(ordinals, valueCount);
+
+        // Turn per-chunk counts into per-chunk write positions: ordinal-major, chunk-minor order keeps sort stable
+        int position = 0;
+        for (int ordinal = 0; ordinal < valueCount; ordinal++) {
+            if (offsets != null) {
+                offsets[ordinal] = position;
+            }
+
+            for (int[] counts : chunkPositions) {
+                int count = counts[ordinal];
+                counts[ordinal] = position;
+                position += count;
+            }
+        }
+
+        if (offsets != null) {
+            offsets[valueCount] = position;
+        }
+
+        forEachChunk(length, true, chunk -> {
+            int[] positions = chunkPositions[chunk];
+            int from = chunkFrom(chunk, length);
+            int to = chunkTo(chunk, length);
+            for (int i = from; i < to; i++) {
+                result[positions[ordinals[i]]++] = i;
+            }
+        });
+
+        return result;
+    }
+
+    private static int toStartOffsets(int[] counts, int[] offsets) {
+        int position = 0;
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            int count = counts[ordinal];
+            counts[ordinal] = position;
+            if (offsets != null) {
+                offsets[ordinal] = position;
+            }
+            position += count;
+        }
+
+        if (offsets != null) {
+            offsets[counts.length] = position;
+        }
+
+        return position;
+    }
+
+    private static void countRange(Enum<?>[] values, int from, int to, int[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[values[i].ordinal()]++;
+        }
+    }
+
+    private static void countRange(char[] ordinals, int from, int to, int[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[ordinals[i]]++;
+        }
+    }
+
+    private static int[][] countChunks(Enum<?>[] values, int valueCount) {
+        int length = values.length;
+        int[][] chunkCounts = new int[chunkCount(length)][];
+
+        forEachChunk(length, true, chunk -> {
+            int[] counts = new int[valueCount];
+            countRange(values, chunkFrom(chunk, length), chunkTo(chunk, length), counts);
+            chunkCounts[chunk] = counts;
+        });
+
+        return chunkCounts;
+    }
+
+    private static int[][] countChunks(char[] ordinals, int valueCount) {
+        int length = ordinals.length;
+        int[][] chunkCounts = new int[chunkCount(length)][];
+
+        forEachChunk(length, true, chunk -> {
+            int[] counts = new int[valueCount];
+            countRange(ordinals, chunkFrom(chunk, length), chunkTo(chunk, length), counts);
+            chunkCounts[chunk] = counts;
+        });
+
+        return chunkCounts;
+    }
+
+    private static int[] sumCounts(int[][] chunkCounts, int valueCount) {
+        int[] result = new int[valueCount];
+        for (int[] counts : chunkCounts) {
+            for (int ordinal = 0; ordinal < valueCount; ordinal++) {
+                result[ordinal] += counts[ordinal];
+            }
+        }
+        return result;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fork-join support">
+
+    private static boolean isParallel(int length) {
+        return length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    private static int chunkCount(int length) {
+        int byParallelism = ForkJoinPool.getCommonPoolParallelism();
+        int byLength = Math.max(1, length / MIN_CHUNK_LENGTH);
+        return Math.max(1, Math.min(byParallelism, byLength));
+    }
+
+    private static int chunkFrom(int chunk, int length) {
+        return (int) ((long) length * chunk / chunkCount(length));
+    }
+
+    private static int chunkTo(int chunk, int length) {
+        return (int) ((long) length * (chunk + 1) / chunkCount(length));
+    }
+
+    private static void forEachChunk(int length, boolean parallel, IntConsumer action) {
+        int chunkCount = chunkCount(length);
+
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new ChunkAction(0, chunkCount, action));
+        } else {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                action.accept(chunk);
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,177 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stable 64-bit hash of enum elements.
+ *
+ * Unlike identity-based {@code Enum.hashCode()}, the hash depends on element name only,
+ * so it is the same in every JVM and suitable for partitioning data between nodes.
+ * Hash is XXH64 of UTF-8 encoded name with seed {@link #SEED}.
+ *
+ * Enums generated with {@code StableHash} feature embed precomputed hashes: {@code stableHash()}
+ * is a single array load. For other enums {@link #of(Enum)} computes table once per class.
+ */
+public final class HugeEnumStableHash {
+
+    public static final long SEED = 0;
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final int CHARS_PER_HASH = Long.BYTES / Character.BYTES;
+
+    private static final ClassValue<long[]> HASHES = new ClassValue<>() {
+        @Override
+        protected long[] computeValue(Class<?> type) {
+            Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+
+            long[] result = new long[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                result[i] = hash(constants[i].name());
+            }
+
+            return result;
+        }
+    };
+
+    private HugeEnumStableHash() {
+    }
+
+    /**
+     * @return Stable hash of element
+     */
+    public static long of(Enum<?> value) {
+        return HASHES.get(value.getDeclaringClass())[value.ordinal()];
+    }
+
+    /**
+     * @return Stable hash of element with given name
+     */
+    public static long hash(String elementName) {
+        byte[] bytes = elementName.getBytes(StandardCharsets.UTF_8);
+        return xxHash64(bytes, 0, bytes.length, SEED);
+    }
+
+    /**
+     * Encode hashes as {@code char} table, four {@code char}s per hash, most significant first.
+     */
+    public static char[] encode(long[] hashes) {
+        char[] result = new char[hashes.length * CHARS_PER_HASH];
+
+        for (int i = 0; i < hashes.length; i++) {
+            for (int j = 0; j < CHARS_PER_HASH; j++) {
+                result[i * CHARS_PER_HASH + j] = (char) (hashes[i] >>> (Character.SIZE * (CHARS_PER_HASH - 1 - j)));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Decode hash table embedded into generated enum.
+     *
+     * @see #encode(long[])
+     */
+    public static long[] decode(String table) {
+        if (table.length() % CHARS_PER_HASH != 0) {
+            throw new IllegalArgumentException("Invalid hash table length: " + table.length());
+        }
+
+        long[] result = new long[table.length() / CHARS_PER_HASH];
+
+        for (int i = 0; i < result.length; i++) {
+            long hash = 0;
+            for (int j = 0; j < CHARS_PER_HASH; j++) {
+                hash = (hash << Character.SIZE) | table.charAt(i * CHARS_PER_HASH + j);
+            }
+            result[i] = hash;
+        }
+
+        return result;
+    }
+
+    //<editor-fold desc="XXH64">
+
+    public static long xxHash64(byte[] bytes, int offset, int length, long seed) {
+        int end = offset + length;
+        int position = offset;
+        long hash;
+
+        if (length >= 32) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+
+            for (int limit = end - 32; position <= limit; position += 32) {
+                v1 = round(v1, getLong(bytes, position));
+                v2 = round(v2, getLong(bytes, position + 8));
+                v3 = round(v3, getLong(bytes, position + 16));
+                v4 = round(v4, getLong(bytes, position + 24));
+            }
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+
+        hash += length;
+
+        for (; position + 8 <= end; position += 8) {
+            hash ^= round(0, getLong(bytes, position));
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+        }
+
+        if (position + 4 <= end) {
+            hash ^= (getInt(bytes, position) & 0xFFFFFFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+            position += 4;
+        }
+
+        for (; position < end; position++) {
+            hash ^= (bytes[position] & 0xFFL) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+
+        return hash;
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME64_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME64_1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long getLong(byte[] bytes, int position) {
+        return (getInt(bytes, position) & 0xFFFFFFFFL) | ((long) getInt(bytes, position + 4) << 32);
+    }
+
+    private static int getInt(byte[] bytes, int position) {
+        return (bytes[position] & 0xFF)
+            | (bytes[position + 1] & 0xFF) << 8
+            | (bytes[position + 2] & 0xFF) << 16
+            | (bytes[position + 3] & 0xFF) << 24;
+    }
+
+    //</editor-fold>
+
+}
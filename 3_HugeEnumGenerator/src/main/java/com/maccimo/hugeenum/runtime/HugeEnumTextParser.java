@@ -0,0 +1,361 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Bulk conversion of delimited element names to ordinals.
+ *
+ * Input is UTF-8 text, e.g. a memory-mapped file, with names separated by delimiter bytes.
+ * Tokens are matched in place against UTF-8 encoded names (see {@link HugeEnumNameBytes}) via an
+ * open addressing hash table, so no {@code String} is created per token. Empty tokens are skipped,
+ * unknown tokens produce {@link HugeEnumConstants#NULL_ORDINAL} and their positions are reported.
+ *
+ * Parser is immutable and may be shared between threads.
+ */
+public final class HugeEnumTextParser<E extends Enum<E>> {
+
+    public static final String DEFAULT_DELIMITERS = ",\n\r";
+
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Class<E> enumClass;
+
+    private final byte[] nameBytes;
+    private final int[] nameOffsets;
+    private final int maxNameLength;
+
+    // Ordinal + 1 of element with given name hash, 0 for empty slot
+    private final char[] slots;
+    private final int slotMask;
+
+    private final boolean[] delimiters = new boolean[256];
+
+    private HugeEnumTextParser(Class<E> enumClass, String delimiters) {
+        HugeEnumNameBytes names = HugeEnumNameBytes.of(enumClass);
+
+        this.enumClass = enumClass;
+        this.nameBytes = names.bytes();
+        this.nameOffsets = names.offsets();
+
+        for (int i = 0; i < delimiters.length(); i++) {
+            char delimiter = delimiters.charAt(i);
+
+            if (delimiter >= 0x80) {
+                throw new IllegalArgumentException("Delimiter must be ASCII character: " + delimiter);
+            }
+
+            this.delimiters[delimiter] = true;
+        }
+
+        int elementCount = names.size();
+        int capacity = Integer.highestOneBit(Math.max(1, elementCount) * 2 - 1) << 1;
+        int maxNameLength = 0;
+
+        this.slots = new char[capacity];
+        this.slotMask = capacity - 1;
+
+        ByteBuffer nameBuffer = ByteBuffer.wrap(nameBytes);
+        for (int ordinal = 0; ordinal < elementCount; ordinal++) {
+            int from = nameOffsets[ordinal];
+            int to = nameOffsets[ordinal + 1];
+
+            for (int i = from; i < to; i++) {
+                if (this.delimiters[nameBytes[i] & 0xFF]) {
+                    throw new IllegalArgumentException("Element name contains delimiter: " + enumClass.getEnumConstants()[ordinal]);
+                }
+            }
+
+            int slot = hash(nameBuffer, from, to) & slotMask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            slots[slot] = (char) (ordinal + 1);
+
+            maxNameLength = Math.max(maxNameLength, to - from);
+        }
+
+        this.maxNameLength = maxNameLength;
+    }
+
+    public static <E extends Enum<E>> HugeEnumTextParser<E> of(Class<E> enumClass) {
+        return new HugeEnumTextParser<>(enumClass, DEFAULT_DELIMITERS);
+    }
+
+    /**
+     * @param delimiters ASCII characters separating names
+     */
+    public static <E extends Enum<E>> HugeEnumTextParser<E> of(Class<E> enumClass, String delimiters) {
+        return new HugeEnumTextParser<>(enumClass, delimiters);
+    }
+
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    /**
+     * Parse bytes from position to limit of buffer. Buffer position is not changed.
+     */
+    public Result parse(ByteBuffer input) {
+        Result result = new Result();
+        parse(input, input.position(), input.limit(), result);
+        return result;
+    }
+
+    /**
+     * Parse bytes from position to limit of buffer, splitting input between threads of common {@link ForkJoinPool}.
+     * Chunk boundaries are moved to delimiters, so no token is split. Buffer position is not changed.
+     */
+    public Result parseParallel(ByteBuffer input) {
+        int byParallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism()) * 4;
+        int bySize = Math.max(1, input.remaining() / MIN_CHUNK_SIZE);
+
+        return parseParallel(input, Math.min(byParallelism, bySize));
+    }
+
+    /**
+     * Parse bytes from position to limit of buffer into array.
+     *
+     * @param unknownTokens Receives absolute buffer index of each unknown token
+     * @return Count of parsed tokens
+     * @throws IndexOutOfBoundsException Destination has no room for parsed tokens
+     */
+    public int parse(ByteBuffer input, char[] destination, int offset, LongConsumer unknownTokens) {
+        return tokenize(input, input.position(), input.limit(), (index, ordinal, position) -> {
+            if (ordinal == HugeEnumConstants.NULL_ORDINAL) {
+                unknownTokens.accept(position);
+            }
+
+            destination[offset + index] = ordinal;
+        });
+    }
+
+    /**
+     * @return Ordinal of element with name equal to bytes {@code [from, to)} of buffer
+     * or {@link HugeEnumConstants#NULL_ORDINAL} if there is no such element
+     */
+    public char lookup(ByteBuffer input, int from, int to) {
+        int length = to - from;
+
+        if (length > maxNameLength) {
+            return HugeEnumConstants.NULL_ORDINAL;
+        }
+
+        for (int slot = hash(input, from, to) & slotMask; slots[slot] != 0; slot = (slot + 1) & slotMask) {
+            int ordinal = slots[slot] - 1;
+            int nameFrom = nameOffsets[ordinal];
+
+            if (nameOffsets[ordinal + 1] - nameFrom == length && equals(input, from, nameFrom, length)) {
+                return (char) ordinal;
+            }
+        }
+
+        return HugeEnumConstants.NULL_ORDINAL;
+    }
+
+    Result parseParallel(ByteBuffer input, int chunkCount) {
+        int from = input.position();
+        int limit = input.limit();
+
+        int[] boundaries = new int[chunkCount + 1];
+        boundaries[0] = from;
+        boundaries[chunkCount] = limit;
+        for (int chunk = 1; chunk < chunkCount; chunk++) {
+            int boundary = Math.max(boundaries[chunk - 1], from + (int) ((long) (limit - from) * chunk / chunkCount));
+
+            while (boundary < limit && !isDelimiter(input.get(boundary))) {
+                boundary++;
+            }
+
+            boundaries[chunk] = boundary;
+        }
+
+        Result[] results = new Result[chunkCount];
+        IntConsumer action = chunk -> {
+            results[chunk] = new Result();
+            parse(input, boundaries[chunk], boundaries[chunk + 1], results[chunk]);
+        };
+
+        if (chunkCount == 1) {
+            action.accept(0);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ChunkAction(0, chunkCount, action));
+        }
+
+        return Result.concat(results);
+    }
+
+    private void parse(ByteBuffer input, int from, int to, Result result) {
+        result.ensureCapacity(Math.min(to - from, INITIAL_CAPACITY));
+
+        tokenize(input, from, to, (index, ordinal, position) -> {
+            if (ordinal == HugeEnumConstants.NULL_ORDINAL) {
+                result.addUnknown(position);
+            }
+
+            result.add(ordinal);
+        });
+    }
+
+    /**
+     * Pass every non-empty token of bytes {@code [from, to)} to the sink.
+     *
+     * @return Count of tokens
+     */
+    private int tokenize(ByteBuffer input, int from, int to, TokenSink sink) {
+        int index = 0;
+
+        int position = from;
+        while (position < to) {
+            while (position < to && isDelimiter(input.get(position))) {
+                position++;
+            }
+
+            int tokenStart = position;
+            while (position < to && !isDelimiter(input.get(position))) {
+                position++;
+            }
+
+            if (tokenStart < position) {
+                sink.accept(index++, lookup(input, tokenStart, position), tokenStart);
+            }
+        }
+
+        return index;
+    }
+
+    private boolean isDelimiter(byte value) {
+        return delimiters[value & 0xFF];
+    }
+
+    private boolean equals(ByteBuffer input, int from, int nameFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            if (input.get(from + i) != nameBytes[nameFrom + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash(ByteBuffer bytes, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes.get(i);
+        }
+
+        return mix(hash);
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private interface TokenSink {
+
+        /**
+         * @param index Index of token among tokens of the parsed range
+         * @param ordinal Ordinal of token or {@link HugeEnumConstants#NULL_ORDINAL} if unknown
+         * @param position Buffer index of token
+         */
+        public void accept(int index, char ordinal, int position);
+
+    }
+
+    /**
+     * Parsed ordinals with positions of unknown tokens.
+     */
+    public static final class Result {
+
+        private char[] ordinals = new char[0];
+        private int size;
+
+        private long[] unknownPositions = new long[0];
+        private int unknownCount;
+
+        private Result() {
+        }
+
+        private static Result concat(Result[] parts) {
+            Result result = new Result();
+            result.ordinals = new char[Arrays.stream(parts).mapToInt(part -> part.size).sum()];
+            result.unknownPositions = new long[Arrays.stream(parts).mapToInt(part -> part.unknownCount).sum()];
+
+            for (Result part : parts) {
+                System.arraycopy(part.ordinals, 0, result.ordinals, result.size, part.size);
+                System.arraycopy(part.unknownPositions, 0, result.unknownPositions, result.unknownCount, part.unknownCount);
+                result.size += part.size;
+                result.unknownCount += part.unknownCount;
+            }
+
+            return result;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return Ordinals of parsed tokens, {@link HugeEnumConstants#NULL_ORDINAL} for unknown ones
+         */
+        public char[] getOrdinals() {
+            return Arrays.copyOf(ordinals, size);
+        }
+
+        public char getOrdinal(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+
+            return ordinals[index];
+        }
+
+        public int getUnknownTokenCount() {
+            return unknownCount;
+        }
+
+        /**
+         * @return Buffer indexes of unknown tokens in ascending order
+         */
+        public long[] getUnknownTokenPositions() {
+            return Arrays.copyOf(unknownPositions, unknownCount);
+        }
+
+        /**
+         * @return Parsed values, {@code null} for unknown tokens
+         */
+        public <E extends Enum<E>> HugeEnumArray<E> toHugeEnumArray(Class<E> enumClass) {
+            return HugeEnumArray.wrap(enumClass, getOrdinals());
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, capacity);
+            }
+        }
+
+        private void add(char ordinal) {
+            if (size == ordinals.length) {
+                ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, Math.max(INITIAL_CAPACITY, 2L * size)));
+            }
+
+            ordinals[size++] = ordinal;
+        }
+
+        private void addUnknown(long position) {
+            if (unknownCount == unknownPositions.length) {
+                unknownPositions = Arrays.copyOf(unknownPositions, Math.max(16, 2 * unknownCount));
+            }
+
+            unknownPositions[unknownCount++] = position;
+        }
+
+    }
+
+}
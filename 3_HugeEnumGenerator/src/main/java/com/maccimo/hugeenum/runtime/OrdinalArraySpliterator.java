@@ -0,0 +1,73 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of {@code char}-packed ordinals. Splits evenly by index range.
+ */
+class OrdinalArraySpliterator<E extends Enum<E>> implements Spliterator<E> {
+
+    private final E[] constants;
+    private final char[] ordinals;
+    private final int characteristics;
+
+    private int index;
+    private final int fence;
+
+    OrdinalArraySpliterator(E[] constants, char[] ordinals, int origin, int fence, int additionalCharacteristics) {
+        this.constants = constants;
+        this.ordinals = ordinals;
+        this.index = origin;
+        this.fence = fence;
+        this.characteristics = additionalCharacteristics | Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (index < fence) {
+            action.accept(HugeEnumConstants.fromOrdinal(constants, ordinals[index++]));
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        E[] constants = this.constants;
+        char[] ordinals = this.ordinals;
+        int fence = this.fence;
+
+        for (int i = index; i < fence; i++) {
+            action.accept(HugeEnumConstants.fromOrdinal(constants, ordinals[i]));
+        }
+
+        index = fence;
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+        int origin = index;
+        int middle = (origin + fence) >>> 1;
+
+        if (origin >= middle) {
+            return null;
+        }
+
+        index = middle;
+
+        return new OrdinalArraySpliterator<>(constants, ordinals, origin, middle, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+}
@@ -0,0 +1,456 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Block compression of ordinal sequences.
+ *
+ * Sequence is split into blocks of up to {@link #BLOCK_SIZE} ordinals, every block is encoded
+ * with the most compact of the following modes:
+ * <ul>
+ *   <li>{@code PACKED} – differences from block minimum bit-packed to the minimum width;</li>
+ *   <li>{@code RUNS} – run-length encoding, for long runs of equal ordinals;</li>
+ *   <li>{@code DICTIONARY} – block-local dictionary of distinct ordinals followed by bit-packed indexes,
+ *       for skewed blocks with few distinct but widely spread ordinals.</li>
+ * </ul>
+ *
+ * Block layout: mode byte, {@code u2} value count and mode-specific payload; numbers are big-endian,
+ * bits are packed starting from the least significant bit of each byte.
+ *
+ * Encoding and decoding loops do not allocate: codec owns scratch buffers, so an instance
+ * must not be shared between threads.
+ */
+public final class OrdinalBlockCodec {
+
+    public static final int BLOCK_SIZE = 1024;
+
+    static final byte MODE_PACKED = 0;
+    static final byte MODE_RUNS = 1;
+    static final byte MODE_DICTIONARY = 2;
+
+    private static final int ORDINAL_LIMIT = 1 << Character.SIZE;
+
+    private static final int BLOCK_HEADER_SIZE = Byte.BYTES + Short.BYTES;
+    private static final int PACKED_HEADER_SIZE = Short.BYTES + Byte.BYTES;
+    private static final int RUNS_HEADER_SIZE = Short.BYTES;
+    private static final int RUN_SIZE = Short.BYTES + Short.BYTES;
+    private static final int DICTIONARY_HEADER_SIZE = Short.BYTES + Byte.BYTES;
+
+    private final int[] block = new int[BLOCK_SIZE];
+    private final int[] dictionary = new int[BLOCK_SIZE];
+    private final byte[] bytes = new byte[BLOCK_SIZE * Character.BYTES];
+    // Indexed by value minus block minimum, grown on demand to the widest value range of encoded blocks
+    private int[] dictionaryIndexes = new int[0];
+    private int[] dictionaryStamps = new int[0];
+    private int stamp;
+
+    /**
+     * @return Upper bound of encoded size of {@code length} ordinals
+     */
+    public static int maxEncodedSize(int length) {
+        int blocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        return blocks * (BLOCK_HEADER_SIZE + PACKED_HEADER_SIZE) + length * Character.BYTES;
+    }
+
+    //<editor-fold desc="Encoding">
+
+    /**
+     * Encode ordinals to buffer.
+     *
+     * @return Count of bytes written
+     */
+    public int encode(char[] source, int offset, int length, ByteBuffer destination) {
+        checkRange(source.length, offset, length);
+
+        int start = destination.position();
+        for (int end = offset + length; offset < end; offset += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, end - offset);
+
+            for (int i = 0; i < count; i++) {
+                block[i] = source[offset + i];
+            }
+
+            encodeBlock(count, destination);
+        }
+
+        return destination.position() - start;
+    }
+
+    /**
+     * Encode ordinals to buffer. Every value must be in range {@code [0, 65535]}.
+     *
+     * @return Count of bytes written
+     */
+    public int encode(int[] source, int offset, int length, ByteBuffer destination) {
+        checkRange(source.length, offset, length);
+
+        int start = destination.position();
+        for (int end = offset + length; offset < end; offset += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, end - offset);
+
+            for (int i = 0; i < count; i++) {
+                int value = source[offset + i];
+
+                if ((value & -ORDINAL_LIMIT) != 0) {
+                    throw new IllegalArgumentException("Ordinal out of range at index " + (offset + i) + ": " + value);
+                }
+
+                block[i] = value;
+            }
+
+            encodeBlock(count, destination);
+        }
+
+        return destination.position() - start;
+    }
+
+    private void encodeBlock(int count, ByteBuffer destination) {
+        int[] block = this.block;
+
+        int min = block[0];
+        int max = block[0];
+        int runs = 1;
+        int distinct = 0;
+
+        for (int i = 0; i < count; i++) {
+            int value = block[i];
+
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+
+            if (i > 0 && value != block[i - 1]) {
+                runs++;
+            }
+        }
+
+        int range = max - min + 1;
+        if (range > dictionaryStamps.length) {
+            int capacity = Math.min(ORDINAL_LIMIT, Math.max(BLOCK_SIZE, Integer.highestOneBit(range - 1) << 1));
+
+            dictionaryIndexes = new int[capacity];
+            dictionaryStamps = new int[capacity];
+        }
+
+        if (++stamp == 0) {
+            Arrays.fill(dictionaryStamps, 0);
+            stamp = 1;
+        }
+
+        int[] dictionaryIndexes = this.dictionaryIndexes;
+        int[] dictionaryStamps = this.dictionaryStamps;
+        for (int i = 0; i < count; i++) {
+            int key = block[i] - min;
+
+            if (dictionaryStamps[key] != stamp) {
+                dictionaryStamps[key] = stamp;
+                dictionaryIndexes[key] = distinct;
+                dictionary[distinct++] = block[i];
+            }
+        }
+
+        int packedWidth = bitWidth(max - min);
+        int packedSize = PACKED_HEADER_SIZE + packedSize(count, packedWidth);
+        int runsSize = RUNS_HEADER_SIZE + runs * RUN_SIZE;
+        int dictionaryWidth = bitWidth(distinct - 1);
+        int dictionarySize = DICTIONARY_HEADER_SIZE + distinct * Character.BYTES + packedSize(count, dictionaryWidth);
+
+        if (runsSize < packedSize && runsSize <= dictionarySize) {
+            destination.put(MODE_RUNS);
+            destination.putChar((char) count);
+            encodeRuns(count, runs, destination);
+        } else if (dictionarySize < packedSize) {
+            destination.put(MODE_DICTIONARY);
+            destination.putChar((char) count);
+            encodeDictionary(count, min, distinct, dictionaryWidth, destination);
+        } else {
+            destination.put(MODE_PACKED);
+            destination.putChar((char) count);
+            destination.putChar((char) min);
+            destination.put((byte) packedWidth);
+            for (int i = 0; i < count; i++) {
+                block[i] -= min;
+            }
+            pack(block, count, packedWidth, destination);
+        }
+    }
+
+    private void encodeRuns(int count, int runs, ByteBuffer destination) {
+        int[] block = this.block;
+
+        destination.putChar((char) runs);
+
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || block[i] != block[runStart]) {
+                destination.putChar((char) block[runStart]);
+                destination.putChar((char) (i - runStart));
+                runStart = i;
+            }
+        }
+    }
+
+    private void encodeDictionary(int count, int min, int distinct, int width, ByteBuffer destination) {
+        int[] block = this.block;
+
+        destination.putChar((char) distinct);
+        destination.put((byte) width);
+        for (int i = 0; i < distinct; i++) {
+            destination.putChar((char) dictionary[i]);
+        }
+
+        for (int i = 0; i < count; i++) {
+            block[i] = dictionaryIndexes[block[i] - min];
+        }
+        pack(block, count, width, destination);
+    }
+
+    private void pack(int[] values, int count, int width, ByteBuffer destination) {
+        byte[] bytes = this.bytes;
+        int size = packedSize(count, width);
+
+        if (width == 0) {
+            return;
+        }
+
+        long bits = 0;
+        int bitCount = 0;
+        int position = 0;
+
+        for (int i = 0; i < count; i++) {
+            bits |= (long) values[i] << bitCount;
+            bitCount += width;
+
+            if (bitCount >= Integer.SIZE) {
+                bytes[position] = (byte) bits;
+                bytes[position + 1] = (byte) (bits >>> 8);
+                bytes[position + 2] = (byte) (bits >>> 16);
+                bytes[position + 3] = (byte) (bits >>> 24);
+                position += Integer.BYTES;
+                bits >>>= Integer.SIZE;
+                bitCount -= Integer.SIZE;
+            }
+        }
+
+        while (position < size) {
+            bytes[position++] = (byte) bits;
+            bits >>>= Byte.SIZE;
+        }
+
+        destination.put(bytes, 0, size);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Decoding">
+
+    /**
+     * Decode one block.
+     *
+     * @return Count of decoded ordinals, at most {@link #BLOCK_SIZE}
+     */
+    public int decodeBlock(ByteBuffer source, char[] destination, int offset) {
+        return decodeBlock(source, destination, offset, destination.length - offset);
+    }
+
+    private int decodeBlock(ByteBuffer source, char[] destination, int offset, int capacity) {
+        int count = decodeBlock(source, capacity);
+
+        for (int i = 0; i < count; i++) {
+            destination[offset + i] = (char) block[i];
+        }
+
+        return count;
+    }
+
+    /**
+     * Decode one block.
+     *
+     * @return Count of decoded ordinals, at most {@link #BLOCK_SIZE}
+     */
+    public int decodeBlock(ByteBuffer source, int[] destination, int offset) {
+        return decodeBlock(source, destination, offset, destination.length - offset);
+    }
+
+    private int decodeBlock(ByteBuffer source, int[] destination, int offset, int capacity) {
+        int count = decodeBlock(source, capacity);
+
+        System.arraycopy(block, 0, destination, offset, count);
+
+        return count;
+    }
+
+    /**
+     * Decode exactly {@code length} ordinals, possibly spanning several blocks.
+     *
+     * @throws IndexOutOfBoundsException Block crosses the end of requested range, the block is not consumed
+     */
+    public void decode(ByteBuffer source, char[] destination, int offset, int length) {
+        checkRange(destination.length, offset, length);
+
+        for (int end = offset + length; offset < end; ) {
+            offset += decodeBlock(source, destination, offset, end - offset);
+        }
+    }
+
+    /**
+     * Decode exactly {@code length} ordinals, possibly spanning several blocks.
+     *
+     * @throws IndexOutOfBoundsException Block crosses the end of requested range, the block is not consumed
+     */
+    public void decode(ByteBuffer source, int[] destination, int offset, int length) {
+        checkRange(destination.length, offset, length);
+
+        for (int end = offset + length; offset < end; ) {
+            offset += decodeBlock(source, destination, offset, end - offset);
+        }
+    }
+
+    private int decodeBlock(ByteBuffer source, int capacity) {
+        int[] block = this.block;
+
+        int start = source.position();
+        byte mode = source.get();
+        int count = source.getChar();
+
+        if (count == 0 || count > BLOCK_SIZE) {
+            throw new IllegalArgumentException("Corrupted block: invalid value count " + count);
+        }
+
+        if (count > capacity) {
+            source.position(start);
+            throw new IndexOutOfBoundsException("Block of " + count + " ordinals does not fit into " + capacity);
+        }
+
+        switch (mode) {
+            case MODE_PACKED: {
+                int min = source.getChar();
+                int width = checkWidth(source.get());
+
+                unpack(source, block, count, width);
+                for (int i = 0; i < count; i++) {
+                    block[i] += min;
+                }
+                break;
+            }
+            case MODE_RUNS: {
+                int runs = source.getChar();
+
+                int position = 0;
+                for (int run = 0; run < runs; run++) {
+                    int value = source.getChar();
+                    int runLength = source.getChar();
+
+                    if (runLength > count - position) {
+                        throw new IllegalArgumentException("Corrupted block: runs exceed value count");
+                    }
+
+                    Arrays.fill(block, position, position + runLength, value);
+                    position += runLength;
+                }
+
+                if (position != count) {
+                    throw new IllegalArgumentException("Corrupted block: runs do not match value count");
+                }
+                break;
+            }
+            case MODE_DICTIONARY: {
+                int distinct = source.getChar();
+                int width = checkWidth(source.get());
+
+                if (distinct == 0 || distinct > BLOCK_SIZE || bitWidth(distinct - 1) > width) {
+                    throw new IllegalArgumentException("Corrupted block: invalid dictionary size " + distinct);
+                }
+
+                for (int i = 0; i < distinct; i++) {
+                    dictionary[i] = source.getChar();
+                }
+
+                unpack(source, block, count, width);
+                for (int i = 0; i < count; i++) {
+                    int index = block[i];
+
+                    if (index >= distinct) {
+                        throw new IllegalArgumentException("Corrupted block: dictionary index " + index);
+                    }
+
+                    block[i] = dictionary[index];
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Corrupted block: unknown mode " + mode);
+        }
+
+        return count;
+    }
+
+    private void unpack(ByteBuffer source, int[] values, int count, int width) {
+        if (width == 0) {
+            Arrays.fill(values, 0, count, 0);
+            return;
+        }
+
+        byte[] bytes = this.bytes;
+        int size = packedSize(count, width);
+        source.get(bytes, 0, size);
+
+        int mask = (1 << width) - 1;
+        long bits = 0;
+        int bitCount = 0;
+        int position = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (bitCount < width) {
+                if (position + Integer.BYTES <= size) {
+                    bits |= ((bytes[position] & 0xFFL)
+                        | (bytes[position + 1] & 0xFFL) << 8
+                        | (bytes[position + 2] & 0xFFL) << 16
+                        | (bytes[position + 3] & 0xFFL) << 24) << bitCount;
+                    position += Integer.BYTES;
+                    bitCount += Integer.SIZE;
+                } else {
+                    while (bitCount < width) {
+                        bits |= (bytes[position++] & 0xFFL) << bitCount;
+                        bitCount += Byte.SIZE;
+                    }
+                }
+            }
+
+            values[i] = (int) bits & mask;
+            bits >>>= width;
+            bitCount -= width;
+        }
+    }
+
+    //</editor-fold>
+
+    private static int bitWidth(int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
+    }
+
+    private static int packedSize(int count, int width) {
+        return (count * width + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    private static int checkWidth(int width) {
+        if (width < 0 || width > Character.SIZE) {
+            throw new IllegalArgumentException("Corrupted block: invalid bit width " + width);
+        }
+
+        return width;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Range [%d, %d) out of bounds for length %d", offset, offset + length, arrayLength
+            ));
+        }
+    }
+
+}
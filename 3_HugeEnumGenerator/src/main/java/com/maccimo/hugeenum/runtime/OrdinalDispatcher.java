@@ -0,0 +1,121 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Ordinal-indexed dispatch table replacing {@code switch} over enum.
+ *
+ * {@code switch} over an enum with tens of thousands of cases compiles to a lookup in synthetic
+ * {@code $SwitchMap} array followed by {@code tableswitch} in a method far beyond the JIT huge method limit,
+ * so it is never compiled. Here dispatch is one array load followed by a handler call.
+ * Elements without explicit handler are dispatched to the default one.
+ */
+public final class OrdinalDispatcher<E extends Enum<E>, R> {
+
+    private final Class<E> enumClass;
+    private final Function<? super E, ? extends R>[] handlers;
+
+    private OrdinalDispatcher(Class<E> enumClass, Function<? super E, ? extends R>[] handlers) {
+        this.enumClass = enumClass;
+        this.handlers = handlers;
+    }
+
+    /**
+     * @param enumClass Enum class
+     * @param handlers Handlers of particular elements
+     * @param defaultHandler Handler of elements absent in {@code handlers}
+     * @return New dispatcher
+     */
+    public static <E extends Enum<E>, R> OrdinalDispatcher<E, R> of(
+        Class<E> enumClass,
+        Map<E, ? extends Function<? super E, ? extends R>> handlers,
+        Function<? super E, ? extends R> defaultHandler
+    ) {
+        Builder<E, R> builder = builder(enumClass, defaultHandler);
+        handlers.forEach(builder::on);
+        return builder.build();
+    }
+
+    /**
+     * @param enumClass Enum class
+     * @param defaultHandler Handler of elements not bound explicitly
+     * @return Builder of dispatcher
+     */
+    public static <E extends Enum<E>, R> Builder<E, R> builder(Class<E> enumClass, Function<? super E, ? extends R> defaultHandler) {
+        return new Builder<>(enumClass, defaultHandler);
+    }
+
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    /**
+     * Invoke handler bound to a value.
+     */
+    public R dispatch(E value) {
+        return handlers[value.ordinal()].apply(value);
+    }
+
+    /**
+     * @return Handler bound to a value
+     */
+    public Function<? super E, ? extends R> handlerOf(E value) {
+        return handlers[value.ordinal()];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E, R> Function<? super E, ? extends R>[] newHandlerArray(int length) {
+        return (Function<? super E, ? extends R>[]) new Function<?, ?>[length];
+    }
+
+    public static final class Builder<E extends Enum<E>, R> {
+
+        private final Class<E> enumClass;
+        private final Function<? super E, ? extends R>[] handlers;
+
+        private Builder(Class<E> enumClass, Function<? super E, ? extends R> defaultHandler) {
+            Objects.requireNonNull(defaultHandler, "Default handler");
+
+            this.enumClass = enumClass;
+            this.handlers = newHandlerArray(HugeEnumConstants.count(enumClass));
+
+            Arrays.fill(handlers, defaultHandler);
+        }
+
+        /**
+         * Bind handler to a single element. Later bindings override earlier ones.
+         */
+        public Builder<E, R> on(E value, Function<? super E, ? extends R> handler) {
+            handlers[value.ordinal()] = Objects.requireNonNull(handler);
+            return this;
+        }
+
+        /**
+         * Bind handler to all elements from {@code first} to {@code last} inclusive, by ordinal.
+         */
+        public Builder<E, R> onRange(E first, E last, Function<? super E, ? extends R> handler) {
+            if (first.ordinal() > last.ordinal()) {
+                throw new IllegalArgumentException("Invalid range: " + first + " .. " + last);
+            }
+
+            Arrays.fill(handlers, first.ordinal(), last.ordinal() + 1, Objects.requireNonNull(handler));
+            return this;
+        }
+
+        /**
+         * Bind handler returning a constant to a single element.
+         */
+        public Builder<E, R> constant(E value, R result) {
+            return on(value, ignored -> result);
+        }
+
+        public OrdinalDispatcher<E, R> build() {
+            return new OrdinalDispatcher<>(enumClass, handlers.clone());
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.maccimo.hugeenum.runtime;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Minimal perfect hash built with hash-and-displace (CHD) scheme over 64-bit key hashes.
+ *
+ * Every key hashes to a bucket, every bucket stores a seed that maps keys of the bucket to distinct slots.
+ * Buckets are placed largest first, seed of a bucket is the first one mapping all its keys to free slots.
+ * Callers hash keys their own way, typically FNV-1a over key units finished with {@link #mix(long)},
+ * and store seeds and slot contents in their own format.
+ */
+final class PerfectHash {
+
+    static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    static final long FNV_PRIME = 0x100000001B3L;
+
+    private static final int AVERAGE_BUCKET_SIZE = 4;
+    private static final int MAX_SEED = 1 << 24;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private PerfectHash() {
+    }
+
+    static int bucketCount(int keyCount) {
+        return Math.max(1, (keyCount + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE);
+    }
+
+    /**
+     * @param hashes Distinct hashes of keys
+     * @param slotKeys Receives index of key placed into every slot, length is key count
+     * @return Seed of every bucket, there are {@link #bucketCount(int)} buckets
+     * @throws IllegalStateException No seed found for some bucket
+     */
+    static int[] build(long[] hashes, int[] slotKeys) {
+        int keyCount = hashes.length;
+        int bucketCount = bucketCount(keyCount);
+
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int key = 0; key < keyCount; key++) {
+            buckets.get(bucketOf(hashes[key], bucketCount)).add(key);
+        }
+
+        List<Integer> bucketOrder = new ArrayList<>();
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketOrder.add(bucket);
+        }
+        bucketOrder.sort(Comparator.comparing((Integer bucket) -> buckets.get(bucket).size()).reversed());
+
+        int[] seeds = new int[bucketCount];
+        boolean[] occupied = new boolean[keyCount];
+        int[] bucketSlots = new int[keyCount];
+
+        for (int bucket : bucketOrder) {
+            List<Integer> members = buckets.get(bucket);
+
+            if (members.isEmpty()) {
+                break;
+            }
+
+            seeds[bucket] = findSeed(members, hashes, occupied, bucketSlots);
+
+            for (int i = 0; i < members.size(); i++) {
+                occupied[bucketSlots[i]] = true;
+                slotKeys[bucketSlots[i]] = members.get(i);
+            }
+        }
+
+        return seeds;
+    }
+
+    private static int findSeed(List<Integer> members, long[] hashes, boolean[] occupied, int[] bucketSlots) {
+        int keyCount = occupied.length;
+
+        nextSeed:
+        for (int seed = 0; seed < MAX_SEED; seed++) {
+            for (int i = 0; i < members.size(); i++) {
+                int slot = slotOf(hashes[members.get(i)], seed, keyCount);
+
+                if (occupied[slot]) {
+                    continue nextSeed;
+                }
+
+                for (int j = 0; j < i; j++) {
+                    if (bucketSlots[j] == slot) {
+                        continue nextSeed;
+                    }
+                }
+
+                bucketSlots[i] = slot;
+            }
+
+            return seed;
+        }
+
+        throw new IllegalStateException("Unable to build perfect hash: no seed found for bucket of " + members.size());
+    }
+
+    static int bucketOf(long hash, int bucketCount) {
+        return (int) Long.remainderUnsigned(hash >>> 32, bucketCount);
+    }
+
+    static int slotOf(long hash, int seed, int keyCount) {
+        return (int) Long.remainderUnsigned(mix(hash + seed * GOLDEN_GAMMA), keyCount);
+    }
+
+    static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+}
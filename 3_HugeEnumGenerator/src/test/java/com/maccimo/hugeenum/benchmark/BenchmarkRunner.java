@@ -0,0 +1,60 @@
+package com.maccimo.hugeenum.benchmark;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Minimal timing harness for manual benchmarks.
+ *
+ * Benchmarks in this package are plain {@code main} classes, not unit tests: they are compiled with
+ * test sources and run on demand, e.g. {@code java -cp target/classes:target/test-classes:<asm jar> <benchmark class>}
+ * or straight from an IDE.
+ */
+public final class BenchmarkRunner {
+
+    private static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    private static final int DEFAULT_MEASURE_ITERATIONS = 10;
+
+    // Results are accumulated here so JIT can not eliminate benchmarked code.
+    private static volatile Object blackhole;
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Run task repeatedly and print median time of one run.
+     *
+     * @return Median time of one run in nanoseconds
+     */
+    public static long measure(String name, Supplier<?> task) {
+        return measure(name, DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASURE_ITERATIONS, task);
+    }
+
+    public static long measure(String name, int warmupIterations, int measureIterations, Supplier<?> task) {
+        for (int i = 0; i < warmupIterations; i++) {
+            blackhole = task.get();
+        }
+
+        long[] times = new long[measureIterations];
+        for (int i = 0; i < measureIterations; i++) {
+            long start = System.nanoTime();
+            blackhole = task.get();
+            times[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(times);
+        long median = times[times.length / 2];
+
+        System.out.printf("%-48s %12.3f ms%n", name, median / 1e6);
+
+        return median;
+    }
+
+    /**
+     * Print throughput in GB/s for given amount of bytes processed in given time.
+     */
+    public static void printThroughput(String name, long bytes, long nanos) {
+        System.out.printf("%-48s %12.3f GB/s%n", name, bytes / (double) nanos);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.maccimo.hugeenum.benchmark;
+
+import com.maccimo.hugeenum.runtime.HugeEnumConstants;
+import com.maccimo.hugeenum.runtime.HugeEnumSort;
+import com.maccimo.hugeenum.runtime.TestEnums;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Counting sort and grouping of huge enum arrays versus {@code Arrays.sort} and {@code Collectors.groupingBy}.
+ *
+ * Usage: {@code HugeEnumSortBenchmark [ <array length> ]}
+ */
+public class HugeEnumSortBenchmark {
+
+    private static final int DEFAULT_LENGTH = 8_000_000;
+
+    @SuppressWarnings("unchecked")
+    public static void main(String... args) {
+        int length = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LENGTH;
+
+        run(TestEnums.hugeEnum(), length);
+    }
+
+    private static <E extends Enum<E>> void run(Class<E> enumClass, int length) {
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+        E[] values = Arrays.copyOf(constants, length);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < length; i++) {
+            values[i] = constants[random.nextInt(constants.length)];
+        }
+
+        System.out.printf("Enum elements: %d, array length: %d%n", constants.length, length);
+
+        BenchmarkRunner.measure("Arrays.sort(Comparator)", 2, 5, () -> {
+            E[] copy = values.clone();
+            Arrays.sort(copy, Comparator.naturalOrder());
+            return copy;
+        });
+
+        BenchmarkRunner.measure("Arrays.parallelSort(Comparator)", 2, 5, () -> {
+            E[] copy = values.clone();
+            Arrays.parallelSort(copy, Comparator.naturalOrder());
+            return copy;
+        });
+
+        BenchmarkRunner.measure("HugeEnumSort.sort", 2, 5, () -> {
+            E[] copy = values.clone();
+            HugeEnumSort.sort(copy, enumClass);
+            return copy;
+        });
+
+        BenchmarkRunner.measure("Collectors.groupingBy", 2, 5, () -> {
+            Map<E, List<E>> groups = Arrays.stream(values).collect(Collectors.groupingBy(Function.identity()));
+            return groups;
+        });
+
+        BenchmarkRunner.measure("Collectors.groupingByConcurrent (parallel)", 2, 5, () -> {
+            Map<E, List<E>> groups = Arrays.stream(values).parallel().collect(Collectors.groupingByConcurrent(Function.identity()));
+            return groups;
+        });
+
+        BenchmarkRunner.measure("HugeEnumSort.groupByOrdinal", 2, 5, () -> HugeEnumSort.groupByOrdinal(values, enumClass));
+
+        BenchmarkRunner.measure("HugeEnumSort.histogram", 2, 5, () -> HugeEnumSort.histogram(values, enumClass));
+    }
+
+}
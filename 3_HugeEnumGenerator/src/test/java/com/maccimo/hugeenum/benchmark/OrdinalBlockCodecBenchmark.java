@@ -0,0 +1,62 @@
+package com.maccimo.hugeenum.benchmark;
+
+import com.maccimo.hugeenum.runtime.OrdinalBlockCodec;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Encoding and decoding throughput of {@link OrdinalBlockCodec} on uniform, skewed and repetitive ordinals.
+ * Throughput is computed over uncompressed size, i.e. two bytes per ordinal.
+ *
+ * Usage: {@code OrdinalBlockCodecBenchmark [ <ordinal count> ]}
+ */
+public class OrdinalBlockCodecBenchmark {
+
+    private static final int DEFAULT_LENGTH = 16_000_000;
+    private static final int ELEMENT_COUNT = 10_920;
+
+    public static void main(String... args) {
+        int length = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LENGTH;
+        SplittableRandom random = new SplittableRandom(42);
+
+        char[] uniform = new char[length];
+        char[] skewed = new char[length];
+        char[] runs = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            uniform[i] = (char) random.nextInt(ELEMENT_COUNT);
+            skewed[i] = (char) (random.nextInt(16) * 677);
+            runs[i] = (char) ((i >>> 9) % ELEMENT_COUNT);
+        }
+
+        run("uniform", uniform);
+        run("skewed", skewed);
+        run("runs", runs);
+    }
+
+    private static void run(String name, char[] ordinals) {
+        OrdinalBlockCodec codec = new OrdinalBlockCodec();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(OrdinalBlockCodec.maxEncodedSize(ordinals.length));
+        char[] decoded = new char[ordinals.length];
+        long rawBytes = (long) ordinals.length * Character.BYTES;
+
+        long encodeNanos = BenchmarkRunner.measure(name + ": encode", () -> {
+            buffer.clear();
+            return codec.encode(ordinals, 0, ordinals.length, buffer);
+        });
+        buffer.flip();
+        int encodedSize = buffer.limit();
+
+        long decodeNanos = BenchmarkRunner.measure(name + ": decode", () -> {
+            ByteBuffer source = buffer.duplicate();
+            codec.decode(source, decoded, 0, decoded.length);
+            return decoded;
+        });
+
+        BenchmarkRunner.printThroughput(name + ": encode", rawBytes, encodeNanos);
+        BenchmarkRunner.printThroughput(name + ": decode", rawBytes, decodeNanos);
+        System.out.printf("%-48s %12.2f bits/ordinal%n", name + ": compressed size", encodedSize * 8.0 / ordinals.length);
+    }
+
+}
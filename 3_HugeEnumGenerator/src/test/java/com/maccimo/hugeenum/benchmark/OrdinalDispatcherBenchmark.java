@@ -0,0 +1,173 @@
+package com.maccimo.hugeenum.benchmark;
+
+import com.maccimo.hugeenum.generator.BytesClassLoader;
+import com.maccimo.hugeenum.runtime.HugeEnumConstants;
+import com.maccimo.hugeenum.runtime.OrdinalDispatcher;
+import com.maccimo.hugeenum.runtime.TestEnums;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * {@link OrdinalDispatcher} versus {@code switch} over huge enum, as in {@code 6_Tests/TestAll}.
+ *
+ * {@code TestAll} itself can not be compiled: 65 410 {@code tableswitch} entries exceed the 64K method size limit.
+ * So switch is generated here with ASM in the very shape javac emits it: {@code $SwitchMap[value.ordinal()]}
+ * followed by {@code tableswitch}, with as many cases as fit into one method.
+ * Such method is far beyond the JIT huge method limit (8000 bytes) and stays interpreted.
+ * It is called through {@code static final} method handle with {@code invokeExact}, which JIT treats as a direct call.
+ *
+ * Usage: {@code OrdinalDispatcherBenchmark [ <call count> ]}
+ */
+public class OrdinalDispatcherBenchmark {
+
+    private static final int DEFAULT_CALL_COUNT = 10_000_000;
+
+    private static final int HANDLER_COUNT = 4;
+
+    private static final String SWITCH_CLASS_NAME = "GeneratedSwitch";
+    private static final String SWITCH_MAP_FIELD_NAME = "$SwitchMap";
+
+    private static final MethodHandle SWITCH_METHOD;
+
+    static {
+        try {
+            SWITCH_METHOD = generateSwitch(TestEnums.HUGE_ENUM_ELEMENT_COUNT);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String... args) throws Throwable {
+        int callCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CALL_COUNT;
+
+        run(TestEnums.hugeEnum(), callCount);
+    }
+
+    private static <E extends Enum<E>> void run(Class<E> enumClass, int callCount) throws Throwable {
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+
+        E[] values = Arrays.copyOf(constants, callCount);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < callCount; i++) {
+            values[i] = constants[random.nextInt(constants.length)];
+        }
+
+        Function<E, Integer>[] handlers = newHandlerArray(HANDLER_COUNT);
+        for (int i = 0; i < HANDLER_COUNT; i++) {
+            int result = i;
+            handlers[i] = value -> result;
+        }
+
+        OrdinalDispatcher.Builder<E, Integer> builder = OrdinalDispatcher.builder(enumClass, value -> -1);
+        for (E constant : constants) {
+            builder.on(constant, handlers[(constant.ordinal() + 1) % HANDLER_COUNT]);
+        }
+        OrdinalDispatcher<E, Integer> dispatcher = builder.build();
+
+        for (E constant : constants) {
+            if ((int) SWITCH_METHOD.invokeExact((Enum<?>) constant) != dispatcher.dispatch(constant)) {
+                throw new AssertionError("Dispatch mismatch for " + constant);
+            }
+        }
+
+        System.out.printf("Enum elements: %d, calls: %d%n", constants.length, callCount);
+
+        BenchmarkRunner.measure("switch ($SwitchMap + tableswitch)", 2, 5, () -> {
+            long sum = 0;
+            try {
+                for (E value : values) {
+                    sum += (int) SWITCH_METHOD.invokeExact((Enum<?>) value);
+                }
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+            return sum;
+        });
+
+        BenchmarkRunner.measure("OrdinalDispatcher", 2, 5, () -> {
+            long sum = 0;
+            for (E value : values) {
+                sum += dispatcher.dispatch(value);
+            }
+            return sum;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Function<E, Integer>[] newHandlerArray(int length) {
+        return (Function<E, Integer>[]) new Function<?, ?>[length];
+    }
+
+    /**
+     * Generate {@code static int dispatch(Enum value)} switching over all elements.
+     * Case {@code N} (1-based, as in javac switch maps) returns {@code N % HANDLER_COUNT}.
+     */
+    private static MethodHandle generateSwitch(int caseCount) throws ReflectiveOperationException {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        // Class file version 50 does not require stack map frames
+        classWriter.visit(V1_6, ACC_PUBLIC | ACC_SUPER, SWITCH_CLASS_NAME, null, "java/lang/Object", null);
+
+        classWriter
+            .visitField(ACC_PUBLIC | ACC_STATIC, SWITCH_MAP_FIELD_NAME, "[I", null, null)
+            .visitEnd();
+
+        MethodVisitor methodVisitor = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, "dispatch", "(Ljava/lang/Enum;)I", null, null);
+        methodVisitor.visitCode();
+        methodVisitor.visitFieldInsn(GETSTATIC, SWITCH_CLASS_NAME, SWITCH_MAP_FIELD_NAME, "[I");
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Enum", "ordinal", "()I", false);
+        methodVisitor.visitInsn(IALOAD);
+
+        Label[] bodies = new Label[HANDLER_COUNT];
+        for (int i = 0; i < HANDLER_COUNT; i++) {
+            bodies[i] = new Label();
+        }
+
+        Label[] cases = new Label[caseCount];
+        for (int i = 0; i < caseCount; i++) {
+            cases[i] = bodies[(i + 1) % HANDLER_COUNT];
+        }
+
+        Label defaultCase = new Label();
+        methodVisitor.visitTableSwitchInsn(1, caseCount, defaultCase, cases);
+
+        for (int i = 0; i < HANDLER_COUNT; i++) {
+            methodVisitor.visitLabel(bodies[i]);
+            methodVisitor.visitLdcInsn(i);
+            methodVisitor.visitInsn(IRETURN);
+        }
+
+        methodVisitor.visitLabel(defaultCase);
+        methodVisitor.visitInsn(ICONST_M1);
+        methodVisitor.visitInsn(IRETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        classWriter.visitEnd();
+
+        Class<?> switchClass = new BytesClassLoader().defineClass(SWITCH_CLASS_NAME, classWriter.toByteArray());
+
+        int[] switchMap = new int[caseCount];
+        for (int i = 0; i < caseCount; i++) {
+            switchMap[i] = i + 1;
+        }
+        switchClass.getField(SWITCH_MAP_FIELD_NAME).set(null, switchMap);
+
+        return MethodHandles
+            .publicLookup()
+            .findStatic(switchClass, "dispatch", MethodType.methodType(int.class, Enum.class));
+    }
+
+}
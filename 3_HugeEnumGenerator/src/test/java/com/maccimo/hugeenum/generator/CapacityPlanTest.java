@@ -0,0 +1,128 @@
+package com.maccimo.hugeenum.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CapacityPlanTest {
+
+    private static final String MEMBER_NAME_FORMAT = "VALUE_%05d";
+
+    private static final String ENUM_NAME = "PlannedHugeEnum";
+
+    private static final List<IEnumGeneratorFactory> GENERATOR_FACTORIES = List.of(
+        new ExtractMethodHugeEnumGeneratorFactory(),
+        new ConDyHugeEnumGeneratorFactory(),
+        new UnsafeHugeEnumGeneratorFactory(),
+        new UnsafeHugeEnumGeneratorFactory(true)
+    );
+
+    @Test
+    public void testPlanMatchesGeneratedClass() {
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            for (int elementCount : new int[] {0, 1, 511, 512, 513, 5_000, factory.getDefaultElementCount()}) {
+                List<String> elementNames = generateElementNames(elementCount);
+
+                doTestPlan(factory, elementNames, null);
+
+                NamePattern namePattern = NamePattern.detect(elementNames);
+                if (namePattern != null) {
+                    doTestPlan(factory, elementNames, namePattern);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPlanMatchesGeneratedClassWithIrregularNames() {
+        List<String> elementNames = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            // Names clashing with member names and constants of generated class, non-ASCII and long names
+            switch (i) {
+                case 700:
+                    elementNames.add("values");
+                    break;
+                case 800:
+                    elementNames.add("BootstrapMethods");
+                    break;
+                case 900:
+                    elementNames.add("append");
+                    break;
+                case 1_000:
+                    elementNames.add(ENUM_NAME);
+                    break;
+                default:
+                    elementNames.add("Ж" + i + "_" + "X".repeat(i % 50));
+            }
+        }
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            doTestPlan(factory, elementNames, null);
+        }
+    }
+
+    @Test
+    public void testPlanMatchesGeneratedClassWithPackedNames() {
+        // Names of the whole list do not fit single constant while names of probe class do
+        List<String> elementNames = IntStream
+            .range(0, 2_000)
+            .mapToObj(number -> "ELEMENT_WITH_LONG_NAME_" + "X".repeat(40) + number)
+            .collect(Collectors.toList());
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            doTestPlan(factory, elementNames, null);
+        }
+    }
+
+    @Test
+    public void testFirstOverflowIndex() {
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            int maximumElementCount = factory.getDefaultElementCount();
+
+            CapacityPlan plan = factory.create(ENUM_NAME, generateElementNames(maximumElementCount)).plan();
+            assertTrue(plan.fits(), () -> factory.getId() + ": maximum element count must fit");
+            assertEquals(-1, plan.getFirstOverflowIndex());
+            assertNull(plan.getOverflowLimit());
+
+            plan = factory.create(ENUM_NAME, generateElementNames(maximumElementCount + 100)).plan();
+            assertFalse(plan.fits(), () -> factory.getId() + ": more than maximum element count must not fit");
+            assertEquals(maximumElementCount, plan.getFirstOverflowIndex(), () -> factory.getId() + ": first overflow index mismatch");
+            assertNotNull(plan.getOverflowLimit());
+            assertEquals(maximumElementCount + 100, plan.getElementCount());
+        }
+    }
+
+    private static void doTestPlan(IEnumGeneratorFactory factory, List<String> elementNames, NamePattern namePattern) {
+        IEnumGenerator generator = factory.create(ENUM_NAME, elementNames, List.of(), namePattern);
+
+        CapacityPlan plan = generator.plan();
+        ClassFileLayout layout = ClassFileLayout.read(generator.generate());
+
+        String message = String.format(
+            "%s, %d elements%s",
+            factory.getId(),
+            elementNames.size(),
+            (namePattern == null) ? "" : ", name pattern"
+        );
+
+        assertEquals(elementNames.size(), plan.getElementCount(), message);
+        assertEquals(layout.getConstantPoolCount(), plan.getConstantPoolCount(), message + ": constant pool count mismatch");
+        assertEquals(layout.getCodeSizes(), plan.getCodeSizes(), message + ": code size mismatch");
+        assertEquals(layout.getClassSize(), plan.getClassSize(), message + ": class size mismatch");
+        assertTrue(plan.fits(), message);
+        assertEquals(CapacityPlan.MAX_CONSTANT_POOL_COUNT - layout.getConstantPoolCount(), plan.getConstantPoolHeadroom(), message);
+    }
+
+    private static List<String> generateElementNames(int count) {
+        return IntStream
+            .range(1, count + 1)
+            .mapToObj(number -> String.format(MEMBER_NAME_FORMAT, number))
+            .collect(Collectors.toList());
+    }
+
+}
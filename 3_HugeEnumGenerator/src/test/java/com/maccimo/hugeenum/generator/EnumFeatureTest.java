@@ -0,0 +1,601 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata;
+import com.maccimo.hugeenum.runtime.HugeEnumStableHash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnumFeatureTest {
+
+    private static final String MEMBER_NAME_FORMAT = "VALUE_%05d";
+
+    private static final String ENUM_NAME = "FeatureHugeEnum";
+
+    private static final int ELEMENT_COUNT = 5_000;
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<IEnumGeneratorFactory> GENERATOR_FACTORIES = List.of(
+        new ExtractMethodHugeEnumGeneratorFactory(),
+        new ConDyHugeEnumGeneratorFactory(),
+        new UnsafeHugeEnumGeneratorFactory(),
+        new UnsafeHugeEnumGeneratorFactory(true)
+    );
+
+    @Test
+    public void testStreamFeature() throws Exception {
+        List<String> elementNames = generateElementNames(ELEMENT_COUNT);
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, elementNames, new StreamEnumFeature());
+
+            Spliterator<?> spliterator = (Spliterator<?>) enumClass.getMethod("spliterator").invoke(null);
+
+            assertTrue(
+                spliterator.hasCharacteristics(
+                    Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL
+                ),
+                factory.getId()
+            );
+            assertEquals(ELEMENT_COUNT, spliterator.getExactSizeIfKnown());
+
+            Spliterator<?> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            assertEquals(ELEMENT_COUNT / 2, prefix.getExactSizeIfKnown());
+
+            Stream<?> stream = (Stream<?>) enumClass.getMethod("stream").invoke(null);
+
+            assertEquals(
+                Arrays.asList(enumClass.getEnumConstants()),
+                stream.parallel().collect(Collectors.toList()),
+                factory.getId()
+            );
+        }
+    }
+
+    @Test
+    public void testNameRankFeature() throws Exception {
+        List<String> elementNames = List.of("delta", "Alpha", "alpha", "b", "alphabet", "c_1", "ALPHA");
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, elementNames, new NameRankEnumFeature());
+
+            Method nameRank = enumClass.getMethod("nameRank");
+            Method byNameRank = enumClass.getMethod("byNameRank", int.class);
+
+            List<String> sortedNames = elementNames.stream().sorted().collect(Collectors.toList());
+
+            for (Object constant : enumClass.getEnumConstants()) {
+                String name = ((Enum<?>) constant).name();
+                int rank = (int) nameRank.invoke(constant);
+
+                assertEquals(sortedNames.indexOf(name), rank, factory.getId());
+                assertSame(constant, byNameRank.invoke(null, rank), factory.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testUtf8NameFeature() throws Exception {
+        List<String> elementNames = Stream
+            .concat(
+                Stream.of("plain", "\u00C4rger", "\u65E5\u672C", "\uD835\uDC9C_supplementary"),
+                IntStream.range(0, ELEMENT_COUNT).mapToObj(number -> String.format("\u0417\u041D\u0410\u0427\u0415\u041D\u0418\u0415_%05d", number))
+            )
+            .collect(Collectors.toList());
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, elementNames, new Utf8NameEnumFeature());
+
+            Method writeToBuffer = enumClass.getMethod("writeNameTo", ByteBuffer.class);
+            Method writeToStream = enumClass.getMethod("writeNameTo", OutputStream.class);
+
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+            for (Object constant : enumClass.getEnumConstants()) {
+                byte[] expected = ((Enum<?>) constant).name().getBytes(StandardCharsets.UTF_8);
+
+                buffer.clear();
+                writeToBuffer.invoke(constant, buffer);
+                assertArrayEquals(expected, Arrays.copyOf(buffer.array(), buffer.position()), factory.getId());
+
+                stream.reset();
+                writeToStream.invoke(constant, stream);
+                assertArrayEquals(expected, stream.toByteArray(), factory.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testStableHashFeature() throws Exception {
+        List<String> elementNames = Stream
+            .concat(Stream.of("\u00DFeta", "a_name_longer_than_thirty_two_bytes_for_xxhash"), generateElementNames(ELEMENT_COUNT).stream())
+            .collect(Collectors.toList());
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, elementNames, new StableHashEnumFeature());
+
+            Method stableHash = enumClass.getMethod("stableHash");
+
+            for (Object constant : enumClass.getEnumConstants()) {
+                Enum<?> value = (Enum<?>) constant;
+
+                assertEquals(HugeEnumStableHash.hash(value.name()), (long) stableHash.invoke(constant), factory.getId());
+                assertEquals(HugeEnumStableHash.of(value), (long) stableHash.invoke(constant), factory.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testColumnsFeature() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("@columns code:INT, population:LONG, weight:DOUBLE, description:STRING");
+        lines.add("VALUE_00002, -2, 10000000000, 0.25, \"Second, \"\"quoted\"\"\"");
+        lines.add("VALUE_00001, 1");
+        for (String elementName : generateElementNames(ELEMENT_COUNT).subList(2, ELEMENT_COUNT)) {
+            lines.add(elementName + ", 7, 8, 9.5, " + elementName.toLowerCase());
+        }
+
+        MetadataFile columns = MetadataFile.parse(lines, "test");
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, columns.getElementNames(), new ColumnsEnumFeature(columns));
+
+            Method code = enumClass.getMethod("code");
+            Method population = enumClass.getMethod("population");
+            Method weight = enumClass.getMethod("weight");
+            Method description = enumClass.getMethod("description");
+
+            Object[] constants = enumClass.getEnumConstants();
+
+            assertEquals("VALUE_00002", ((Enum<?>) constants[0]).name());
+            assertEquals(-2, code.invoke(constants[0]), factory.getId());
+            assertEquals(10_000_000_000L, population.invoke(constants[0]));
+            assertEquals(0.25, weight.invoke(constants[0]));
+            assertEquals("Second, \"quoted\"", description.invoke(constants[0]));
+
+            assertEquals(1, code.invoke(constants[1]));
+            assertEquals(0L, population.invoke(constants[1]));
+            assertEquals(0.0, weight.invoke(constants[1]));
+            assertNull(description.invoke(constants[1]));
+
+            for (int i = 2; i < constants.length; i++) {
+                assertEquals(7, code.invoke(constants[i]));
+                assertEquals(9.5, weight.invoke(constants[i]));
+                assertEquals(((Enum<?>) constants[i]).name().toLowerCase(), description.invoke(constants[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testCodeColumn() throws Exception {
+        List<String> elementNames = generateElementNames(ELEMENT_COUNT);
+
+        for (int step : new int[] { 1, 1_000_003 }) {
+            List<String> lines = new ArrayList<>();
+            lines.add("@columns code:CODE");
+            for (int i = 0; i < elementNames.size(); i++) {
+                lines.add(elementNames.get(i) + ", " + (i * step - 10));
+            }
+
+            MetadataFile columns = MetadataFile.parse(lines, "test");
+
+            for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+                Class<?> enumClass = generate(factory, elementNames, new ColumnsEnumFeature(columns));
+
+                Method code = enumClass.getMethod("code");
+                Method fromCode = enumClass.getMethod("fromCode", int.class);
+
+                assertEquals(enumClass, fromCode.getReturnType());
+
+                for (Object constant : enumClass.getEnumConstants()) {
+                    assertSame(constant, fromCode.invoke(null, code.invoke(constant)), factory.getId());
+                }
+
+                InvocationTargetException e = assertThrows(InvocationTargetException.class, () -> fromCode.invoke(null, -11));
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+    }
+
+    @Test
+    public void testCategoriesFeature() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("FREE");
+        lines.add("[even]");
+        for (int i = 0; i < ELEMENT_COUNT; i += 2) {
+            lines.add(String.format(MEMBER_NAME_FORMAT, i));
+        }
+        lines.add("[odd]");
+        for (int i = 1; i < ELEMENT_COUNT; i += 2) {
+            lines.add(String.format(MEMBER_NAME_FORMAT, i));
+        }
+
+        ItemListFile itemList = ItemListFile.parse(lines, "test");
+
+        // Ordinal order as if kept by lock file: categories interleave and are stored as bitsets
+        List<String> interleavedNames = new ArrayList<>();
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            interleavedNames.add(String.format(MEMBER_NAME_FORMAT, i));
+        }
+        interleavedNames.add(1, "FREE");
+
+        for (List<String> elementNames : List.of(itemList.getElementNames(), interleavedNames)) {
+            for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+                Class<?> enumClass = generate(factory, elementNames, new CategoriesEnumFeature(itemList));
+
+                int even = enumClass.getField("CATEGORY_EVEN").getInt(null);
+                int odd = enumClass.getField("CATEGORY_ODD").getInt(null);
+                assertEquals(0, even);
+                assertEquals(1, odd);
+
+                Method isIn = enumClass.getMethod("isIn", int.class);
+                Method category = enumClass.getMethod("category");
+
+                for (Object constant : enumClass.getEnumConstants()) {
+                    String name = ((Enum<?>) constant).name();
+                    int expected = name.equals("FREE") ? -1 : Integer.parseInt(name.substring(6)) % 2;
+
+                    assertEquals(expected, category.invoke(constant), factory.getId());
+                    assertEquals(expected == even, isIn.invoke(constant, even));
+                    assertEquals(expected == odd, isIn.invoke(constant, odd));
+                }
+
+                Set<?> evenElements = (Set<?>) enumClass.getMethod("categoryElements", int.class).invoke(null, even);
+                assertEquals(ELEMENT_COUNT / 2, evenElements.size());
+                assertTrue(evenElements.contains(enumClass.getEnumConstants()[elementNames.indexOf("VALUE_00000")]));
+            }
+        }
+    }
+
+    @Test
+    public void testHierarchyFeature() throws Exception {
+        // Binary heap: parent of element i is element (i - 1) / 2
+        List<String> lines = new ArrayList<>();
+        lines.add("@columns up:PARENT, index:INT");
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            String parent = (i == 0) ? "" : String.format(MEMBER_NAME_FORMAT, (i - 1) / 2);
+            lines.add(String.format(MEMBER_NAME_FORMAT, i) + ", " + parent + ", " + i);
+        }
+
+        ItemListFile itemList = ItemListFile.parse(lines, "test");
+        MetadataFile columns = itemList.getColumns();
+
+        // Ordinal order as if kept by lock file: subtrees are not contiguous
+        List<String> heapNames = new ArrayList<>();
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            heapNames.add(String.format(MEMBER_NAME_FORMAT, i));
+        }
+
+        for (List<String> elementNames : List.of(itemList.getElementNames(), heapNames)) {
+            for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+                Class<?> enumClass = generate(factory, elementNames, new ColumnsEnumFeature(columns), new HierarchyEnumFeature(columns));
+
+                assertThrows(NoSuchMethodException.class, () -> enumClass.getMethod("up"));
+
+                Method index = enumClass.getMethod("index");
+                Method parent = enumClass.getMethod("parent");
+                Method depth = enumClass.getMethod("depth");
+                Method isDescendantOf = enumClass.getMethod("isDescendantOf", enumClass);
+                Method descendants = enumClass.getMethod("descendants");
+
+                assertEquals(enumClass, parent.getReturnType());
+
+                Object[] constants = enumClass.getEnumConstants();
+                Object[] byIndex = new Object[constants.length];
+                for (Object constant : constants) {
+                    byIndex[(Integer) index.invoke(constant)] = constant;
+                }
+
+                assertNull(parent.invoke(byIndex[0]));
+                assertEquals(ELEMENT_COUNT - 1, ((List<?>) descendants.invoke(byIndex[0])).size());
+
+                for (int i = 1; i < ELEMENT_COUNT; i++) {
+                    assertSame(byIndex[(i - 1) / 2], parent.invoke(byIndex[i]), factory.getId());
+                    assertEquals(31 - Integer.numberOfLeadingZeros(i + 1), depth.invoke(byIndex[i]));
+                    assertEquals(true, isDescendantOf.invoke(byIndex[i], byIndex[0]));
+                    assertEquals(false, isDescendantOf.invoke(byIndex[0], byIndex[i]));
+                    assertEquals(false, isDescendantOf.invoke(byIndex[i], byIndex[i]));
+                }
+
+                assertEquals(false, isDescendantOf.invoke(byIndex[3], byIndex[2]));
+                assertEquals(true, isDescendantOf.invoke(byIndex[7], byIndex[3]));
+
+                List<?> subtree = (List<?>) descendants.invoke(byIndex[1]);
+                assertEquals(3, index.invoke(subtree.get(0)));
+                assertEquals(7, index.invoke(subtree.get(1)));
+                assertEquals(15, index.invoke(subtree.get(2)));
+                for (Object descendant : subtree) {
+                    assertEquals(true, isDescendantOf.invoke(descendant, byIndex[1]));
+                }
+
+                if (elementNames == itemList.getElementNames()) {
+                    int first = ((Enum<?>) byIndex[1]).ordinal() + 1;
+                    for (int i = 0; i < subtree.size(); i++) {
+                        assertEquals(first + i, ((Enum<?>) subtree.get(i)).ordinal());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLookupFeature() throws Exception {
+        List<String> elementNames = generateElementNames(ELEMENT_COUNT);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("@columns aliases:ALIASES");
+        for (int i = 0; i < elementNames.size(); i++) {
+            lines.add(elementNames.get(i) + ", legacy" + i + " OLD_" + i);
+        }
+
+        MetadataFile columns = MetadataFile.parse(lines, "test");
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, elementNames, new ColumnsEnumFeature(columns), new LookupEnumFeature(columns));
+
+            Method lookup = enumClass.getMethod("lookup", CharSequence.class);
+            Method lookupIgnoreCase = enumClass.getMethod("lookupIgnoreCase", CharSequence.class);
+            Method lookupWithAliases = enumClass.getMethod("lookupWithAliases", CharSequence.class);
+
+            assertEquals(enumClass, lookup.getReturnType());
+            assertThrows(NoSuchMethodException.class, () -> enumClass.getMethod("aliases"));
+
+            Object[] constants = enumClass.getEnumConstants();
+            for (int i = 0; i < constants.length; i++) {
+                String name = ((Enum<?>) constants[i]).name();
+
+                assertSame(constants[i], lookup.invoke(null, name), factory.getId());
+                assertSame(constants[i], lookupIgnoreCase.invoke(null, name.toLowerCase()));
+                assertSame(constants[i], lookupWithAliases.invoke(null, "legacy" + i));
+                assertSame(constants[i], lookupWithAliases.invoke(null, new StringBuilder("OLD_").append(i)));
+                assertNull(lookup.invoke(null, "legacy" + i));
+            }
+
+            assertNull(lookup.invoke(null, "ABSENT"));
+            assertNull(lookupIgnoreCase.invoke(null, "legacy0"));
+        }
+
+        Class<?> enumClass = generate(GENERATOR_FACTORIES.get(0), elementNames, new LookupEnumFeature());
+        assertNull(enumClass.getMethod("lookupWithAliases", CharSequence.class).invoke(null, "legacy0"));
+        assertSame(enumClass.getEnumConstants()[0], enumClass.getMethod("lookupWithAliases", CharSequence.class).invoke(null, elementNames.get(0)));
+    }
+
+    public interface Shape {
+        double area(double scale);
+        String label();
+        void describe(StringBuilder sink, long id, int count);
+        // Implemented by java.lang.Enum
+        String name();
+    }
+
+    public static class Round {
+        public static double area(Shape self, double scale) {
+            return Math.PI * scale * scale;
+        }
+
+        public static String label(Shape self) {
+            return "round " + self.name();
+        }
+
+        public static void describe(Shape self, StringBuilder sink, long id, int count) {
+            sink.append("round:").append(id).append(':').append(count);
+        }
+    }
+
+    public static class Square {
+        public static double area(Shape self, double scale) {
+            return scale * scale;
+        }
+
+        public static String label(Shape self) {
+            return "square " + self.name();
+        }
+
+        public static void describe(Shape self, StringBuilder sink, long id, int count) {
+            sink.append("square:").append(id).append(':').append(count);
+        }
+    }
+
+    @Test
+    public void testInterfaceFeature() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("@columns impl:HANDLER");
+        lines.add("FREE");
+        lines.add("SPECIAL, " + Round.class.getName());
+        lines.add("[squares]");
+        lines.add("@handler " + Square.class.getName());
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            lines.add(String.format(MEMBER_NAME_FORMAT, i));
+        }
+
+        ItemListFile itemList = ItemListFile.parse(lines, "test");
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, itemList.getElementNames(), new InterfaceEnumFeature(Shape.class, itemList));
+
+            assertTrue(Shape.class.isAssignableFrom(enumClass), factory.getId());
+            assertEquals(0, enumClass.getDeclaredClasses().length);
+
+            Object[] constants = enumClass.getEnumConstants();
+            for (int i = 2; i < constants.length; i++) {
+                Shape shape = (Shape) constants[i];
+
+                assertSame(enumClass, shape.getClass());
+                assertEquals(4.0, shape.area(2.0));
+                assertEquals("square " + shape.name(), shape.label());
+            }
+
+            Shape special = (Shape) constants[1];
+            assertEquals(Math.PI, special.area(1.0));
+
+            StringBuilder sink = new StringBuilder();
+            special.describe(sink, 1L << 40, 7);
+            assertEquals("round:" + (1L << 40) + ":7", sink.toString());
+
+            Shape free = (Shape) constants[0];
+            assertEquals("FREE", free.name());
+            assertThrows(UnsupportedOperationException.class, free::label);
+            assertThrows(UnsupportedOperationException.class, () -> free.area(1.0));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new InterfaceEnumFeature(String.class, itemList));
+    }
+
+    @Test
+    public void testMetadataFeature() throws Exception {
+        List<String> elementNames = generateElementNames(ELEMENT_COUNT);
+
+        MetadataFile metadataFile = MetadataFile.parse(
+            List.of(
+                "@columns code:INT, population:LONG, weight:DOUBLE, description:STRING",
+                "VALUE_00001, 1, 10000000000, 0.25, First",
+                "VALUE_00003, 3, , , \"Third, last\""
+            ),
+            "test"
+        );
+
+        Path resourcePath = tempDir.resolve(ENUM_NAME + HugeEnumMetadata.FILE_SUFFIX);
+        Files.write(resourcePath, metadataFile.toByteArray(elementNames));
+
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            byte[] classBytes = factory
+                .create(ENUM_NAME, elementNames, List.of(new MetadataEnumFeature(metadataFile.getColumnNames(), metadataFile.getColumnTypes())))
+                .generate();
+
+            Class<?> enumClass = defineClassWithResource(classBytes, resourcePath);
+
+            Object[] constants = enumClass.getEnumConstants();
+
+            assertEquals("code:INT,population:LONG,weight:DOUBLE,description:STRING", enumClass.getMethod("metadataColumns").invoke(null));
+
+            assertEquals(1, enumClass.getMethod("code").invoke(constants[0]), factory.getId());
+            assertEquals(10_000_000_000L, enumClass.getMethod("population").invoke(constants[0]));
+            assertEquals(0.25, enumClass.getMethod("weight").invoke(constants[0]));
+            assertEquals("First", enumClass.getMethod("description").invoke(constants[0]));
+
+            assertEquals(0, enumClass.getMethod("code").invoke(constants[1]));
+            assertNull(enumClass.getMethod("description").invoke(constants[1]));
+
+            assertEquals(3, enumClass.getMethod("code").invoke(constants[2]));
+            assertEquals("Third, last", enumClass.getMethod("description").invoke(constants[2]));
+
+            HugeEnumMetadata metadata = (HugeEnumMetadata) enumClass.getMethod("metadata").invoke(null);
+            assertEquals(ELEMENT_COUNT, metadata.getElementCount());
+        }
+
+        // Resource with reordered columns must be rejected, not read by position
+        MetadataEnumFeature reordered = new MetadataEnumFeature(
+            List.of("population", "code", "weight", "description"),
+            List.of(HugeEnumMetadata.ColumnType.LONG, HugeEnumMetadata.ColumnType.INT, HugeEnumMetadata.ColumnType.DOUBLE, HugeEnumMetadata.ColumnType.STRING)
+        );
+        Class<?> enumClass = defineClassWithResource(
+            GENERATOR_FACTORIES.get(0).create(ENUM_NAME, elementNames, List.of(reordered)).generate(),
+            resourcePath
+        );
+        Object constant = enumClass.getEnumConstants()[0];
+
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class, () -> enumClass.getMethod("code").invoke(constant));
+        assertTrue(exception.getCause() instanceof UncheckedIOException);
+        assertTrue(exception.getCause().getCause() instanceof InvalidClassException);
+    }
+
+    private static Class<?> defineClassWithResource(byte[] classBytes, Path resourcePath) {
+        return new BytesClassLoader() {
+            @Override
+            protected URL findResource(String name) {
+                try {
+                    return name.equals(resourcePath.getFileName().toString()) ? resourcePath.toUri().toURL() : null;
+                } catch (MalformedURLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }.defineClass(ENUM_NAME, classBytes);
+    }
+
+    @Test
+    public void testMethodClashes() throws Exception {
+        EnumClassInfo enumClassInfo = new EnumClassInfo(ENUM_NAME, generateElementNames(10));
+
+        List<IEnumFeature> features = new ArrayList<>(EnumFeatureRegistry.INSTANCE.getFeatures());
+        features.add(new MetadataEnumFeature(List.of("code", "weight"), List.of(HugeEnumMetadata.ColumnType.INT, HugeEnumMetadata.ColumnType.DOUBLE)));
+        Main.checkMethodClashes(features, enumClassInfo);
+
+        for (String columnName : List.of("stableHash", "fingerprint", "nameRank", "stream", "metadata", "metadataColumns", "spliterator")) {
+            List<IEnumFeature> clashing = new ArrayList<>(EnumFeatureRegistry.INSTANCE.getFeatures());
+            clashing.add(new MetadataEnumFeature(List.of(columnName), List.of(HugeEnumMetadata.ColumnType.LONG)));
+
+            assertThrows(IllegalArgumentException.class, () -> Main.checkMethodClashes(clashing, enumClassInfo), columnName);
+        }
+
+        for (String columnName : List.of("name", "ordinal", "hashCode", "getDeclaringClass")) {
+            List<IEnumFeature> clashing = List.of(new MetadataEnumFeature(List.of(columnName), List.of(HugeEnumMetadata.ColumnType.INT)));
+
+            assertThrows(IllegalArgumentException.class, () -> Main.checkMethodClashes(clashing, enumClassInfo), columnName);
+        }
+
+        for (String columnName : List.of("weight", "parent", "depth")) {
+            MetadataFile columns = MetadataFile.parse(List.of("@columns up:PARENT, " + columnName + ":INT", "ALPHA, , 1", "BETA, ALPHA, 2"), "test");
+            List<IEnumFeature> hierarchy = List.of(new ColumnsEnumFeature(columns), new HierarchyEnumFeature(columns));
+            EnumClassInfo hierarchyClassInfo = new EnumClassInfo(ENUM_NAME, columns.getElementNames());
+
+            if (columnName.equals("weight")) {
+                Main.checkMethodClashes(hierarchy, hierarchyClassInfo);
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> Main.checkMethodClashes(hierarchy, hierarchyClassInfo), columnName);
+            }
+        }
+    }
+
+    @Test
+    public void testNoFeatures() {
+        for (IEnumGeneratorFactory factory : GENERATOR_FACTORIES) {
+            Class<?> enumClass = generate(factory, generateElementNames(10));
+
+            assertThrows(NoSuchMethodException.class, () -> enumClass.getMethod("stream"), factory.getId());
+        }
+    }
+
+    static Class<?> generate(IEnumGeneratorFactory factory, List<String> elementNames, IEnumFeature... features) {
+        byte[] classBytes = factory.create(ENUM_NAME, elementNames, List.of(features)).generate();
+
+        Class<?> enumClass = new BytesClassLoader().defineClass(ENUM_NAME, classBytes);
+
+        assertEquals(elementNames.size(), enumClass.getEnumConstants().length, factory.getId());
+
+        return enumClass;
+    }
+
+    static List<String> generateElementNames(int count) {
+        return IntStream
+            .range(1, count + 1)
+            .mapToObj(number -> String.format(MEMBER_NAME_FORMAT, number))
+            .collect(Collectors.toList());
+    }
+
+}
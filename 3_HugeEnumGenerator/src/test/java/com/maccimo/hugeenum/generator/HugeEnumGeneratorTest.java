@@ -5,6 +5,7 @@ import org.objectweb.asm.ClassTooLargeException;
 import org.objectweb.asm.MethodTooLargeException;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
@@ -25,17 +26,24 @@ public class HugeEnumGeneratorTest {
 
     private static final IEnumGeneratorFactory GENERATOR_FACTORY_UNSAFE = new UnsafeHugeEnumGeneratorFactory();
 
+    private static final IEnumGeneratorFactory GENERATOR_FACTORY_UNSAFE_FRONT_CODED = new UnsafeHugeEnumGeneratorFactory(true);
+
     public static final String EXTRACT_METHOD_ENUM_NAME = "ExtractMethodHugeEnum";
 
     public static final String CONDY_ENUM_NAME = "ConDyHugeEnum";
 
     public static final String UNSAFE_ENUM_NAME = "UnsafeHugeEnum";
 
+    public static final String UNSAFE_FRONT_CODED_ENUM_NAME = "UnsafeFrontCodedHugeEnum";
+
     // Maximum for UnsafeEnumGenerator depend on element names length.
     // Number here is pre-calculated for 11-character element name assuming each character occupy
     // exactly 1 byte in UTF-8 encoding. This is true only for (0 < character code < 128)
     private static final int UNSAFE_ENUM_MAX_ELEMENTS_COUNT = 65_410;
 
+    // Front-coded names of the same length take fewer constant pool entries
+    private static final int UNSAFE_FRONT_CODED_ENUM_MAX_ELEMENTS_COUNT = 65_415;
+
     @Test
     public void testExtractMethodGenerator() throws Throwable {
         doTestEnum(
@@ -99,11 +107,100 @@ public class HugeEnumGeneratorTest {
         );
     }
 
+    @Test
+    public void testUnsafeFrontCodedGenerator() throws Throwable {
+        doTestEnum(
+            GENERATOR_FACTORY_UNSAFE_FRONT_CODED,
+            UNSAFE_FRONT_CODED_ENUM_NAME,
+            UNSAFE_FRONT_CODED_ENUM_MAX_ELEMENTS_COUNT
+        );
+    }
+
+    @Test
+    public void testUnsafeFrontCodedGeneratorOverflow() {
+        assertThrows(
+            ClassTooLargeException.class,
+            () -> doTestEnum(
+                GENERATOR_FACTORY_UNSAFE_FRONT_CODED,
+                UNSAFE_FRONT_CODED_ENUM_NAME,
+                UNSAFE_FRONT_CODED_ENUM_MAX_ELEMENTS_COUNT + 1
+            )
+        );
+    }
+
+    @Test
+    public void testNamePatternDetect() {
+        NamePattern pattern = NamePattern.detect(generateElementNames(100));
+
+        assertNotNull(pattern);
+        assertEquals("VALUE_", pattern.getPrefix());
+        assertEquals(5, pattern.getWidth());
+        assertEquals(1, pattern.getFirst());
+
+        pattern = NamePattern.detect(List.of("A1_07", "A1_08", "A1_09", "A1_10"));
+
+        assertNotNull(pattern);
+        assertEquals("A1_", pattern.getPrefix());
+        assertEquals(2, pattern.getWidth());
+        assertEquals(7, pattern.getFirst());
+
+        pattern = NamePattern.detect(List.of("X0000000000012", "X0000000000013"));
+
+        assertNotNull(pattern);
+        assertEquals("X0000", pattern.getPrefix());
+        assertEquals(9, pattern.getWidth());
+
+        assertNull(NamePattern.detect(List.of()));
+        assertNull(NamePattern.detect(List.of("ALPHA", "BETA")));
+        assertNull(NamePattern.detect(List.of("A_1", "A_3")));
+        assertNull(NamePattern.detect(List.of("A_1", "B_2")));
+        assertNull(NamePattern.detect(List.of("A_8", "A_9", "A_10")));
+        assertNull(NamePattern.detect(List.of("A_08", "A_09", "A_1")));
+    }
+
+    @Test
+    public void testNamePattern() throws Throwable {
+        NamePattern pattern = new NamePattern("VALUE_", 5, 1);
+
+        doTestEnum(GENERATOR_FACTORY_EXTRACT_METHOD, EXTRACT_METHOD_ENUM_NAME, GENERATOR_FACTORY_EXTRACT_METHOD.getMaximumElementCount(), pattern);
+        doTestEnum(GENERATOR_FACTORY_CONDY, CONDY_ENUM_NAME, GENERATOR_FACTORY_CONDY.getMaximumElementCount(), pattern);
+        doTestEnum(GENERATOR_FACTORY_UNSAFE, UNSAFE_ENUM_NAME, UNSAFE_ENUM_MAX_ELEMENTS_COUNT, pattern);
+        doTestEnum(GENERATOR_FACTORY_UNSAFE_FRONT_CODED, UNSAFE_FRONT_CODED_ENUM_NAME, 1_000, pattern);
+    }
+
+    @Test
+    public void testNamePatternMismatch() {
+        List<String> elementNames = generateElementNames(10);
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> GENERATOR_FACTORY_UNSAFE.create(UNSAFE_ENUM_NAME, elementNames, List.of(), new NamePattern("VALUE_", 5, 2))
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> GENERATOR_FACTORY_EXTRACT_METHOD.create(EXTRACT_METHOD_ENUM_NAME, elementNames, List.of(), new NamePattern("VALUE_", 4, 1))
+        );
+    }
+
+    @Test
+    public void testSplitBatchLine() {
+        assertEquals(List.of("-c", "10", "a.B"), Main.splitBatchLine("  -c\t10   a.B "));
+        assertEquals(List.of("-e", "my items.txt", "a.B"), Main.splitBatchLine("-e \"my items.txt\" a.B"));
+        assertEquals(List.of("-d", "out/my dir", "say \"hi\"", ""), Main.splitBatchLine("-d out/\"my dir\" \"say \"\"hi\"\"\" \"\""));
+        assertThrows(IllegalArgumentException.class, () -> Main.splitBatchLine("-e \"my items.txt a.B"));
+    }
+
     private void doTestEnum(IEnumGeneratorFactory factory, String enumName, int elementCount) throws Throwable {
+        doTestEnum(factory, enumName, elementCount, null);
+    }
+
+    private void doTestEnum(IEnumGeneratorFactory factory, String enumName, int elementCount, NamePattern namePattern) throws Throwable {
 
         List<String> elementNames = generateElementNames(elementCount);
 
-        IEnumGenerator enumGenerator = factory.create(enumName, elementNames);
+        IEnumGenerator enumGenerator = (namePattern == null)
+            ? factory.create(enumName, elementNames)
+            : factory.create(enumName, elementNames, List.of(), namePattern);
 
         byte[] classBytes = enumGenerator.generate();
 
@@ -118,6 +215,8 @@ public class HugeEnumGeneratorTest {
         doTestFields(enumClass, elementNames);
 
         doTestValues(enumClass, elementNames);
+
+        doTestValueOf(enumClass, elementNames);
     }
 
     private static List<String> generateElementNames(int count) {
@@ -147,6 +246,28 @@ public class HugeEnumGeneratorTest {
         }
     }
 
+    private void doTestValueOf(Class<?> enumClass, List<String> elementNames) throws Exception {
+
+        Method valueOfMethod = enumClass.getDeclaredMethod("valueOf", String.class);
+
+        Enum<?>[] values = (Enum<?>[]) enumClass.getDeclaredMethod("values").invoke(null);
+
+        for (int i = 0; i < elementNames.size(); i += Math.max(1, elementNames.size() / 100)) {
+            assertSame(values[i], valueOfMethod.invoke(null, elementNames.get(i)));
+        }
+
+        assertSame(values[values.length - 1], valueOfMethod.invoke(null, elementNames.get(values.length - 1)));
+
+        InvocationTargetException e = assertThrows(
+            InvocationTargetException.class,
+            () -> valueOfMethod.invoke(null, String.format(MEMBER_NAME_FORMAT, elementNames.size() + 1))
+        );
+        assertTrue(e.getCause() instanceof IllegalArgumentException, "valueOf() of unknown name must throw IllegalArgumentException");
+
+        e = assertThrows(InvocationTargetException.class, () -> valueOfMethod.invoke(null, (Object) null));
+        assertTrue(e.getCause() instanceof NullPointerException, "valueOf(null) must throw NullPointerException");
+    }
+
     private void doTestValues(Class<?> enumClass, List<String> elementNames) throws Exception {
 
         Method valuesMethod = enumClass.getDeclaredMethod("values");
@@ -0,0 +1,88 @@
+package com.maccimo.hugeenum.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemListFileTest {
+
+    @Test
+    public void testPlainList() throws Exception {
+        ItemListFile itemList = ItemListFile.parse(List.of(" ALPHA ", "", "# Comment", "BETA"), "test");
+
+        assertEquals(List.of("ALPHA", "BETA"), itemList.getElementNames());
+        assertNull(itemList.getColumns());
+        assertTrue(itemList.getCategoryNames().isEmpty());
+        assertEquals(-1, itemList.getCategory("ALPHA"));
+    }
+
+    @Test
+    public void testCategories() throws Exception {
+        ItemListFile itemList = ItemListFile.parse(
+            List.of("NONE", "[fruit]", "APPLE", "[ vegetable ]", "CARROT", "[fruit]", "PEAR", "[empty]"),
+            "test"
+        );
+
+        assertEquals(List.of("NONE", "APPLE", "PEAR", "CARROT"), itemList.getElementNames());
+        assertEquals(List.of("fruit", "vegetable", "empty"), itemList.getCategoryNames());
+        assertEquals(-1, itemList.getCategory("NONE"));
+        assertEquals(0, itemList.getCategory("PEAR"));
+        assertEquals(1, itemList.getCategory("CARROT"));
+    }
+
+    @Test
+    public void testCategoriesWithColumns() throws Exception {
+        ItemListFile itemList = ItemListFile.parse(
+            List.of("[fruit]", "@columns code:CODE", "APPLE, 1", "[vegetable]", "CARROT, 2", "[fruit]", "\"PEAR\", 3"),
+            "test"
+        );
+
+        assertEquals(List.of("APPLE", "PEAR", "CARROT"), itemList.getElementNames());
+        assertEquals(3, itemList.getColumns().getValue("PEAR", 0));
+        assertEquals(0, itemList.getCategory("PEAR"));
+    }
+
+    @Test
+    public void testHierarchy() throws Exception {
+        ItemListFile itemList = ItemListFile.parse(
+            List.of("@columns up:PARENT", "FRUIT", "APPLE, FRUIT", "VEGETABLE", "ANTONOVKA, APPLE", "CARROT, VEGETABLE", "PEAR, FRUIT"),
+            "test"
+        );
+
+        assertEquals(List.of("FRUIT", "APPLE", "ANTONOVKA", "PEAR", "VEGETABLE", "CARROT"), itemList.getElementNames());
+    }
+
+    @Test
+    public void testHandlers() throws Exception {
+        ItemListFile itemList = ItemListFile.parse(
+            List.of("@handler com.acme.Default", "@columns h:HANDLER", "NONE", "SPECIAL, com.acme.Special", "[fruit]", "@handler com.acme.Fruit", "APPLE", "[vegetable]", "CARROT"),
+            "test"
+        );
+
+        assertTrue(itemList.hasHandlers());
+        assertEquals(List.of("NONE", "SPECIAL", "APPLE", "CARROT"), itemList.getElementNames());
+        assertEquals("com.acme.Default", itemList.getHandler("NONE"));
+        assertEquals("com.acme.Special", itemList.getHandler("SPECIAL"));
+        assertEquals("com.acme.Fruit", itemList.getHandler("APPLE"));
+        assertEquals("com.acme.Default", itemList.getHandler("CARROT"));
+
+        assertFalse(ItemListFile.parse(List.of("ALPHA"), "test").hasHandlers());
+        assertNull(ItemListFile.parse(List.of("ALPHA"), "test").getHandler("ALPHA"));
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("[bad name]", "ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("[a]", "ALPHA", "[b]", "ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("ALPHA", "BETA", "ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("ALPHA", "[a]", "ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("@columns up:PARENT", "ALPHA, BETA", "BETA, ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("@columns up:PARENT", "ALPHA, ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("@handler com..Bad", "ALPHA"), "test"));
+        assertThrows(IOException.class, () -> ItemListFile.parse(List.of("[a]", "@handler A", "@handler B", "ALPHA"), "test"));
+    }
+
+}
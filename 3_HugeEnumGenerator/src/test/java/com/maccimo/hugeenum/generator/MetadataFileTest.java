@@ -0,0 +1,133 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata;
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetadataFileTest {
+
+    @Test
+    public void testParse() throws Exception {
+        MetadataFile file = MetadataFile.parse(
+            List.of(
+                "# Comment",
+                "@columns code:int, description:STRING, weight:Double",
+                "",
+                "BETA, 2, \"Second, \"\"quoted\"\"\", 1.5",
+                "ALPHA, , First",
+                "OMEGA, 3"
+            ),
+            "test"
+        );
+
+        assertEquals(List.of("code", "description", "weight"), file.getColumnNames());
+        assertEquals(List.of(ColumnType.INT, ColumnType.STRING, ColumnType.DOUBLE), file.getColumnTypes());
+        assertEquals(List.of("OMEGA"), file.getUnknownNames(List.of("ALPHA", "BETA", "GAMMA")));
+        assertEquals(List.of("BETA", "ALPHA", "OMEGA"), file.getElementNames());
+        assertEquals(2, file.getValue("BETA", 0));
+        assertNull(file.getValue("ALPHA", 0));
+        assertNull(file.getValue("GAMMA", 1));
+
+        HugeEnumMetadata metadata = HugeEnumMetadata.wrap(file.toByteArray(List.of("ALPHA", "BETA", "GAMMA")));
+
+        assertEquals(0, metadata.getInt(0, 0));
+        assertEquals("First", metadata.getString(1, 0));
+        assertEquals(0.0, metadata.getDouble(2, 0));
+
+        assertEquals(2, metadata.getInt(0, 1));
+        assertEquals("Second, \"quoted\"", metadata.getString(1, 1));
+        assertEquals(1.5, metadata.getDouble(2, 1));
+
+        assertNull(metadata.getString(1, 2));
+    }
+
+    @Test
+    public void testCodeColumn() throws Exception {
+        MetadataFile file = MetadataFile.parse(List.of("@columns text:STRING, id:code", "ALPHA, a, 7"), "test");
+
+        assertEquals(1, file.getCodeColumn());
+        assertEquals(List.of(ColumnType.STRING, ColumnType.INT), file.getColumnTypes());
+        assertEquals(7, file.getValue("ALPHA", 1));
+
+        assertEquals(-1, MetadataFile.parse(List.of("@columns id:INT"), "test").getCodeColumn());
+    }
+
+    @Test
+    public void testParentColumn() throws Exception {
+        MetadataFile file = MetadataFile.parse(List.of("@columns up:parent, id:INT", "ROOT, , 1", "LEAF, ROOT, 2"), "test");
+
+        assertEquals(0, file.getParentColumn());
+        assertEquals(List.of(ColumnType.STRING, ColumnType.INT), file.getColumnTypes());
+        assertNull(file.getParent("ROOT"));
+        assertEquals("ROOT", file.getParent("LEAF"));
+        assertNull(file.getParent("ABSENT"));
+
+        assertEquals(-1, MetadataFile.parse(List.of("@columns id:INT"), "test").getParentColumn());
+    }
+
+    @Test
+    public void testAliasesColumn() throws Exception {
+        MetadataFile file = MetadataFile.parse(List.of("@columns aliases:aliases, id:INT", "ALPHA, \" A  first \", 1", "BETA, , 2"), "test");
+
+        assertEquals(0, file.getAliasesColumn());
+        assertTrue(file.isSpecialColumn(0));
+        assertFalse(file.isSpecialColumn(1));
+        assertEquals(List.of("A", "first"), file.getAliases("ALPHA"));
+        assertEquals(List.of(), file.getAliases("BETA"));
+        assertEquals(List.of(), file.getAliases("ABSENT"));
+
+        assertEquals(List.of(), MetadataFile.parse(List.of("@columns id:INT", "ALPHA, 1"), "test").getAliases("ALPHA"));
+    }
+
+    @Test
+    public void testHandlerColumn() throws Exception {
+        MetadataFile file = MetadataFile.parse(List.of("@columns impl:HANDLER", "ALPHA, com.acme.Alpha$Impl", "BETA"), "test");
+
+        assertEquals(0, file.getHandlerColumn());
+        assertTrue(file.isSpecialColumn(0));
+        assertEquals("com.acme.Alpha$Impl", file.getHandler("ALPHA"));
+        assertNull(file.getHandler("BETA"));
+    }
+
+    @Test
+    public void testHasColumns() {
+        assertTrue(MetadataFile.hasColumns(List.of("", "# Comment", " @columns code:INT", "ALPHA, 1")));
+        assertFalse(MetadataFile.hasColumns(List.of("ALPHA", "@columns code:INT")));
+        assertFalse(MetadataFile.hasColumns(List.of()));
+    }
+
+    @Test
+    public void testMalformed() {
+        assertMalformed("ALPHA, 1");
+        assertMalformed("@columns code");
+        assertMalformed("@columns code:SHORT");
+        assertMalformed("@columns 1code:INT");
+        assertMalformed("@columns class:INT");
+        assertMalformed("@columns code:INT, code:LONG");
+        assertMalformed("@columns code:INT", "ALPHA, x");
+        assertMalformed("@columns code:INT", "ALPHA, 1, 2");
+        assertMalformed("@columns code:INT", "ALPHA, 1", "ALPHA, 2");
+        assertMalformed("@columns text:STRING", "ALPHA, \"unterminated");
+        assertMalformed("@columns text:STRING", ", value");
+        assertMalformed("@columns code:CODE, id:CODE");
+        assertMalformed("@columns code:CODE", "ALPHA, 1", "BETA, 1");
+        assertMalformed("@columns code:CODE, text:STRING", "ALPHA, , text");
+        assertMalformed("@columns up:PARENT, down:PARENT");
+        assertMalformed("@columns up:PARENT", "ALPHA, BETA");
+        assertMalformed("@columns a:ALIASES, b:ALIASES");
+        assertMalformed("@columns a:ALIASES", "ALPHA, X", "BETA, X");
+        assertMalformed("@columns a:ALIASES", "ALPHA, BETA", "BETA");
+        assertMalformed("@columns a:HANDLER, b:HANDLER");
+        assertMalformed("@columns a:HANDLER", "ALPHA, com.acme.");
+    }
+
+    private static void assertMalformed(String... lines) {
+        assertThrows(IOException.class, () -> MetadataFile.parse(List.of(lines), "test"), String.join("\n", lines));
+    }
+
+}
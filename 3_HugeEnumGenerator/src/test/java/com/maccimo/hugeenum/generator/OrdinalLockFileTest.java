@@ -0,0 +1,60 @@
+package com.maccimo.hugeenum.generator;
+
+import com.maccimo.hugeenum.runtime.HugeEnumConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrdinalLockFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testMissingLockFile() throws IOException {
+        OrdinalLockFile lock = OrdinalLockFile.read(directory.resolve("absent.lock"));
+        assertTrue(lock.isEmpty());
+
+        OrdinalLockFile.Merge merge = lock.merge(List.of("B", "A", "C"), false);
+        assertEquals(List.of("B", "A", "C"), merge.getElementNames());
+        assertEquals(List.of("B", "A", "C"), merge.getAddedNames());
+        assertEquals(0, merge.getRemap().length);
+    }
+
+    @Test
+    public void testRetainAndAppend() throws IOException {
+        Path path = directory.resolve("enum.lock");
+        OrdinalLockFile.write(path, List.of("ALPHA", "BETA", "GAMMA"));
+
+        OrdinalLockFile lock = OrdinalLockFile.read(path);
+        assertEquals(List.of("ALPHA", "BETA", "GAMMA"), lock.getElementNames());
+
+        OrdinalLockFile.Merge merge = lock.merge(List.of("DELTA", "GAMMA", "ALPHA", "EPSILON"), false);
+
+        assertEquals(List.of("ALPHA", "BETA", "GAMMA", "DELTA", "EPSILON"), merge.getElementNames());
+        assertEquals(List.of("DELTA", "EPSILON"), merge.getAddedNames());
+        assertEquals(List.of("BETA"), merge.getMissingNames());
+        assertArrayEquals(new char[] { 0, 1, 2 }, merge.getRemap());
+    }
+
+    @Test
+    public void testPrune() throws IOException {
+        Path path = directory.resolve("enum.lock");
+        OrdinalLockFile.write(path, List.of("ALPHA", "BETA", "GAMMA", "DELTA"));
+
+        OrdinalLockFile.Merge merge = OrdinalLockFile.read(path).merge(List.of("DELTA", "OMEGA", "ALPHA"), true);
+
+        assertEquals(List.of("ALPHA", "DELTA", "OMEGA"), merge.getElementNames());
+        assertEquals(List.of("BETA", "GAMMA"), merge.getMissingNames());
+        assertArrayEquals(
+            new char[] { 0, HugeEnumConstants.NULL_ORDINAL, HugeEnumConstants.NULL_ORDINAL, 1 },
+            merge.getRemap()
+        );
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumArrayTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testArrayRoundTrip() {
+        doTestArrayRoundTrip(TestEnums.hugeEnum());
+    }
+
+    @Test
+    public void testArrayNullAndFill() {
+        HugeEnumArray<TestEnums.Small> array = new HugeEnumArray<>(TestEnums.Small.class, 10);
+
+        assertNull(array.get(0));
+        assertEquals(HugeEnumConstants.NULL_ORDINAL, array.getOrdinal(9));
+
+        array.fill(TestEnums.Small.GAMMA);
+        array.fill(2, 4, null);
+        array.set(9, TestEnums.Small.ALPHA);
+
+        assertEquals(TestEnums.Small.GAMMA, array.get(0));
+        assertNull(array.get(2));
+        assertNull(array.get(3));
+        assertEquals(TestEnums.Small.ALPHA, array.get(9));
+
+        HugeEnumArray<TestEnums.Small> copy = new HugeEnumArray<>(TestEnums.Small.class, 10);
+        array.copyTo(0, copy, 0, 10);
+        assertEquals(array, copy);
+    }
+
+    @Test
+    public void testArraySpliterator() {
+        HugeEnumArray<TestEnums.Small> array = HugeEnumArray.of(TestEnums.Small.class, TestEnums.Small.values());
+
+        Spliterator<TestEnums.Small> spliterator = array.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(5, spliterator.estimateSize());
+
+        Spliterator<TestEnums.Small> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(3, spliterator.estimateSize());
+
+        assertEquals(
+            Arrays.asList(TestEnums.Small.values()),
+            array.parallelStream().collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testList() {
+        HugeEnumList<TestEnums.Small> list = new HugeEnumList<>(TestEnums.Small.class, 0);
+        List<TestEnums.Small> expected = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            TestEnums.Small value = (i % 7 == 0) ? null : TestEnums.Small.values()[i % 5];
+            list.add(value);
+            expected.add(value);
+        }
+
+        list.add(3, TestEnums.Small.EPSILON);
+        expected.add(3, TestEnums.Small.EPSILON);
+        list.remove(10);
+        expected.remove(10);
+        list.subList(100, 200).clear();
+        expected.subList(100, 200).clear();
+
+        assertEquals(expected, list);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(expected.indexOf(null), list.indexOf(null));
+        assertEquals(expected.lastIndexOf(TestEnums.Small.BETA), list.lastIndexOf(TestEnums.Small.BETA));
+        assertEquals(-1, list.indexOf("BETA"));
+        assertArrayEquals(expected.toArray(), list.toArray());
+
+        HugeEnumList<TestEnums.Small> copy = new HugeEnumList<>(TestEnums.Small.class, list);
+        copy.addAll(list.toHugeEnumArray(), 0, 10);
+        assertEquals(list.size() + 10, copy.size());
+        assertEquals(list.subList(0, 10), copy.subList(list.size(), copy.size()));
+
+        assertEquals(expected, list.parallelStream().collect(Collectors.toList()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Test
+    public void testListContract() {
+        HugeEnumList<TestEnums.Small> list = new HugeEnumList<>(TestEnums.Small.class);
+        list.add(TestEnums.Small.ALPHA);
+
+        Object[] array = list.toArray();
+        assertEquals(Object[].class, array.getClass());
+        array[0] = "x";
+
+        assertThrows(IllegalArgumentException.class, () -> list.addCopies(TestEnums.Small.BETA, -1));
+        assertThrows(OutOfMemoryError.class, () -> list.addCopies(TestEnums.Small.BETA, Integer.MAX_VALUE));
+        assertEquals(1, list.size());
+
+        List raw = list;
+        assertThrows(ClassCastException.class, () -> raw.add(Thread.State.NEW));
+        assertThrows(ClassCastException.class, () -> raw.addAll(List.of(Thread.State.NEW)));
+        assertEquals(List.of(TestEnums.Small.ALPHA), list);
+    }
+
+    private <E extends Enum<E>> void doTestArrayRoundTrip(Class<E> enumClass) {
+        E[] values = enumClass.getEnumConstants();
+
+        HugeEnumArray<E> array = HugeEnumArray.of(enumClass, values);
+
+        assertEquals(values.length, array.length());
+        assertArrayEquals(values, array.toArray());
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, array.getOrdinal(i));
+        }
+
+        assertEquals(
+            Arrays.asList(values),
+            array.parallelStream().collect(Collectors.toList())
+        );
+
+        assertSame(HugeEnumConstants.getShared(enumClass), HugeEnumConstants.getShared(enumClass));
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumCacheTest {
+
+    @Test
+    public void testLoadOnce() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        HugeEnumCache<TestEnums.Small, String> cache = new HugeEnumCache<>(
+            TestEnums.Small.class,
+            key -> {
+                loadCount.incrementAndGet();
+                return key.name().toLowerCase();
+            }
+        );
+
+        assertNull(cache.getIfPresent(TestEnums.Small.BETA));
+        assertEquals("beta", cache.get(TestEnums.Small.BETA));
+        assertEquals("beta", cache.get(TestEnums.Small.BETA));
+        assertEquals("beta", cache.getIfPresent(TestEnums.Small.BETA));
+
+        assertEquals(1, loadCount.get());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        cache.invalidate(TestEnums.Small.BETA);
+        assertEquals(0, cache.size());
+        assertEquals("beta", cache.get(TestEnums.Small.BETA));
+        assertEquals(2, loadCount.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testConcurrentLoadOnce() throws Exception {
+        doTestConcurrentLoadOnce(TestEnums.hugeEnum(), 8);
+    }
+
+    @Test
+    public void testClockEviction() {
+        HugeEnumCache<TestEnums.Small, String> cache = new HugeEnumCache<>(
+            TestEnums.Small.class,
+            Enum::name,
+            HugeEnumCache.Strength.STRONG,
+            2
+        );
+
+        cache.get(TestEnums.Small.ALPHA);
+        cache.get(TestEnums.Small.BETA);
+        cache.get(TestEnums.Small.GAMMA);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        for (TestEnums.Small value : TestEnums.Small.values()) {
+            cache.get(value);
+        }
+
+        assertEquals(2, cache.size());
+        assertEquals(TestEnums.Small.values().length + 3 - 2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testRecursiveLoad() {
+        AtomicReference<HugeEnumCache<TestEnums.Small, String>> holder = new AtomicReference<>();
+        holder.set(new HugeEnumCache<>(TestEnums.Small.class, key -> holder.get().get(key)));
+
+        assertThrows(IllegalStateException.class, () -> holder.get().get(TestEnums.Small.ALPHA));
+
+        // Failed load must leave the slot empty
+        assertNull(holder.get().getIfPresent(TestEnums.Small.ALPHA));
+    }
+
+    @Test
+    public void testInvalidateWhileLoading() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        HugeEnumCache<TestEnums.Small, String> cache = new HugeEnumCache<>(
+            TestEnums.Small.class,
+            key -> {
+                if (loadCount.incrementAndGet() == 1) {
+                    loadStarted.countDown();
+                    try {
+                        invalidated.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return "stale";
+                }
+                return "fresh";
+            }
+        );
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> loader = executor.submit(() -> cache.get(TestEnums.Small.ALPHA));
+
+            loadStarted.await();
+            cache.invalidate(TestEnums.Small.ALPHA);
+            invalidated.countDown();
+
+            // Loading caller still gets its value, but it is not cached
+            assertEquals("stale", loader.get(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertNull(cache.getIfPresent(TestEnums.Small.ALPHA));
+        assertEquals(0, cache.size());
+        assertEquals("fresh", cache.get(TestEnums.Small.ALPHA));
+        assertEquals(2, loadCount.get());
+    }
+
+    private <E extends Enum<E>> void doTestConcurrentLoadOnce(Class<E> enumClass, int threadCount) throws Exception {
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+
+        AtomicIntegerArray loadCounts = new AtomicIntegerArray(constants.length);
+        HugeEnumCache<E, Integer> cache = new HugeEnumCache<>(
+            enumClass,
+            key -> {
+                loadCounts.incrementAndGet(key.ordinal());
+                return key.ordinal();
+            }
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (E constant : constants) {
+                        assertEquals(constant.ordinal(), (int) cache.get(constant));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < constants.length; i++) {
+            assertEquals(1, loadCounts.get(i), "Value loaded more than once");
+        }
+
+        assertEquals(constants.length, cache.getMissCount());
+        assertEquals((long) constants.length * (threadCount - 1), cache.getHitCount());
+    }
+
+}
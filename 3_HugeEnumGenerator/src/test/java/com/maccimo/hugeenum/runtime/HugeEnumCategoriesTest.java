@@ -0,0 +1,90 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.maccimo.hugeenum.runtime.TestEnums.Small.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumCategoriesTest {
+
+    private static final List<String> NAMES = List.of("first", "second", "empty");
+
+    @Test
+    public void testRanges() {
+        HugeEnumCategories categories = decode(-1, 0, 0, 1, 1);
+
+        assertEquals(3, categories.size());
+        assertEquals("second", categories.getName(1));
+        assertEquals(2, categories.indexOf("empty"));
+        assertEquals(-1, categories.indexOf("absent"));
+
+        assertTrue(categories.isContiguous(0));
+        assertTrue(categories.isContiguous(2));
+
+        assertFalse(categories.contains(0, 0));
+        assertTrue(categories.contains(0, 1));
+        assertTrue(categories.contains(0, 2));
+        assertFalse(categories.contains(0, 3));
+        assertFalse(categories.contains(2, 0));
+
+        assertEquals(-1, categories.categoryOf(0));
+        assertEquals(1, categories.categoryOf(4));
+
+        assertEquals(Set.of(BETA, GAMMA), categories.getSet(0));
+        assertEquals(List.of(DELTA, EPSILON), List.copyOf(categories.getSet(1)));
+        assertTrue(categories.getSet(2).isEmpty());
+    }
+
+    @Test
+    public void testBitsets() {
+        HugeEnumCategories categories = decode(0, 1, 0, -1, 0);
+
+        assertFalse(categories.isContiguous(0));
+        assertTrue(categories.isContiguous(1));
+
+        assertTrue(categories.contains(0, 0));
+        assertFalse(categories.contains(0, 1));
+        assertTrue(categories.contains(0, 4));
+
+        Set<Object> first = categories.getSet(0);
+        assertEquals(3, first.size());
+        assertEquals(List.of(ALPHA, GAMMA, EPSILON), List.copyOf(first));
+        assertTrue(first.contains(GAMMA));
+        assertFalse(first.contains(BETA));
+        assertFalse(first.contains("GAMMA"));
+
+        assertThrows(UnsupportedOperationException.class, () -> first.add(BETA));
+        assertThrows(UnsupportedOperationException.class, () -> first.remove(ALPHA));
+    }
+
+    @Test
+    public void testLargeBitset() {
+        int[] categoryOf = new int[1000];
+        for (int i = 0; i < categoryOf.length; i++) {
+            categoryOf[i] = (i % 7 == 0) ? 0 : -1;
+        }
+
+        HugeEnumCategories categories = HugeEnumCategories.decode(
+            HugeEnumCategories.encodeNames(List.of("sevens")),
+            HugeEnumCategories.encode(List.of("sevens"), categoryOf),
+            new Object[categoryOf.length]
+        );
+
+        assertEquals(143, categories.getSet(0).size());
+        for (int i = 0; i < categoryOf.length; i++) {
+            assertEquals(i % 7 == 0, categories.contains(0, i));
+        }
+    }
+
+    private static HugeEnumCategories decode(int... categoryOf) {
+        return HugeEnumCategories.decode(
+            HugeEnumCategories.encodeNames(NAMES),
+            HugeEnumCategories.encode(NAMES, categoryOf),
+            TestEnums.Small.values()
+        );
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumCodeTableTest {
+
+    private static final TestEnums.Small[] VALUES = TestEnums.Small.values();
+
+    @Test
+    public void testDense() {
+        HugeEnumCodeTable table = HugeEnumCodeTable.decode(
+            HugeEnumCodeTable.encode(new int[] { 100, 102, 101, 110 }, new int[] { 0, 1, 2, 4 }),
+            VALUES
+        );
+
+        assertEquals(TestEnums.Small.ALPHA, table.get(100));
+        assertEquals(TestEnums.Small.GAMMA, table.get(101));
+        assertEquals(TestEnums.Small.BETA, table.get(102));
+        assertEquals(TestEnums.Small.EPSILON, table.find(110));
+
+        assertEquals(-1, table.ordinalOf(103));
+        assertEquals(-1, table.ordinalOf(99));
+        assertEquals(-1, table.ordinalOf(Integer.MIN_VALUE));
+        assertNull(table.find(111));
+        assertThrows(IllegalArgumentException.class, () -> table.get(103));
+    }
+
+    @Test
+    public void testHashed() {
+        int[] codes = { Integer.MIN_VALUE, -1, 0, 1_000_000, Integer.MAX_VALUE };
+        int[] ordinals = { 4, 3, 2, 1, 0 };
+
+        HugeEnumCodeTable table = HugeEnumCodeTable.decode(HugeEnumCodeTable.encode(codes, ordinals), VALUES);
+
+        for (int i = 0; i < codes.length; i++) {
+            assertEquals(ordinals[i], table.ordinalOf(codes[i]));
+        }
+
+        assertEquals(-1, table.ordinalOf(1));
+        assertThrows(IllegalArgumentException.class, () -> table.get(1));
+    }
+
+    @Test
+    public void testRandomSparse() {
+        Random random = new Random(42);
+        int count = 10_000;
+
+        int[] codes = random.ints().distinct().limit(count).toArray();
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            ordinals[i] = i;
+        }
+
+        HugeEnumCodeTable table = HugeEnumCodeTable.decode(HugeEnumCodeTable.encode(codes, ordinals), new Object[count]);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, table.ordinalOf(codes[i]));
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumCodeTable.encode(new int[] { 1, 1 }, new int[] { 0, 1 }));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumCodeTable.encode(new int[] { 1 }, new int[0]));
+
+        HugeEnumCodeTable empty = HugeEnumCodeTable.decode(HugeEnumCodeTable.encode(new int[0], new int[0]), VALUES);
+        assertEquals(-1, empty.ordinalOf(0));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.maccimo.hugeenum.runtime;
+
+import com.maccimo.hugeenum.generator.FingerprintEnumFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumCodecTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEmbeddedFingerprint() {
+        List<String> elementNames = List.of("ONE", "TWO", "THREE");
+        Class<? extends Enum<?>> withFingerprint = TestEnums.generate("FingerprintEnum", elementNames, new FingerprintEnumFeature());
+        Class<? extends Enum<?>> withoutFingerprint = TestEnums.generate("PlainEnum", elementNames);
+
+        long expected = HugeEnumFingerprint.compute(elementNames);
+        assertEquals(expected, HugeEnumFingerprint.of(withFingerprint));
+        assertEquals(expected, HugeEnumFingerprint.of(withoutFingerprint));
+
+        assertNotEquals(expected, HugeEnumFingerprint.compute("TWO", "ONE", "THREE"));
+        assertNotEquals(HugeEnumFingerprint.compute("AB", "C"), HugeEnumFingerprint.compute("A", "BC"));
+    }
+
+    @Test
+    public void testSmallEnumStream() throws IOException {
+        HugeEnumCodec<TestEnums.Small> codec = HugeEnumCodec.of(TestEnums.Small.class);
+        assertEquals(1, codec.getValueSize());
+
+        TestEnums.Small[] values = { TestEnums.Small.GAMMA, null, TestEnums.Small.ALPHA, TestEnums.Small.EPSILON };
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        codec.writeHeader(out);
+        codec.write(out, TestEnums.Small.DELTA);
+        codec.writeAll(out, values, 0, values.length);
+        out.flush();
+
+        assertEquals(HugeEnumCodec.HEADER_SIZE + 1 + values.length, bytes.size());
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        codec.readHeader(in);
+        assertSame(TestEnums.Small.DELTA, codec.read(in));
+
+        TestEnums.Small[] actual = new TestEnums.Small[values.length];
+        codec.readAll(in, actual, 0, actual.length);
+        assertArrayEquals(values, actual);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testHugeEnumBuffer() throws IOException {
+        doTestHugeEnumBuffer(TestEnums.hugeEnum());
+    }
+
+    private <E extends Enum<E>> void doTestHugeEnumBuffer(Class<E> enumClass) throws IOException {
+        HugeEnumCodec<E> codec = HugeEnumCodec.of(enumClass);
+        assertEquals(2, codec.getValueSize());
+
+        E[] values = enumClass.getEnumConstants();
+        values[7] = null;
+
+        ByteBuffer buffer = ByteBuffer.allocate(HugeEnumCodec.HEADER_SIZE + 2 * values.length);
+        codec.writeHeader(buffer);
+        codec.writeAll(buffer, values, 0, values.length);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        E[] actual = Arrays.copyOf(values, values.length);
+        Arrays.fill(actual, null);
+        codec.readHeader(buffer);
+        codec.readAll(buffer, actual, 0, actual.length);
+        assertArrayEquals(values, actual);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testIncompatiblePeer() throws IOException {
+        HugeEnumCodec<?> writer = HugeEnumCodec.of(TestEnums.generate("PeerEnum", List.of("ALPHA", "BETA", "GAMMA", "DELTA", "EPSILON")));
+        HugeEnumCodec<TestEnums.Small> reader = HugeEnumCodec.of(TestEnums.Small.class);
+        HugeEnumCodec<?> reordered = HugeEnumCodec.of(TestEnums.generate("ReorderedEnum", List.of("BETA", "ALPHA", "GAMMA", "DELTA", "EPSILON")));
+
+        ByteBuffer buffer = ByteBuffer.allocate(HugeEnumCodec.HEADER_SIZE);
+        writer.writeHeader(buffer);
+        reader.readHeader(buffer.flip());
+
+        buffer.clear();
+        reordered.writeHeader(buffer);
+        assertThrows(InvalidClassException.class, () -> reader.readHeader(buffer.flip()));
+    }
+
+}
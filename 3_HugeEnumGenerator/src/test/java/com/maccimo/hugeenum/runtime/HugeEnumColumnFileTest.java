@@ -0,0 +1,148 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumColumnFileTest {
+
+    private static final int SEGMENT_SHIFT = 4;
+    private static final int ROW_COUNT = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWriteAndReadWithoutEnumClass() throws IOException {
+        Path path = directory.resolve("small.hecf");
+        TestEnums.Small[] constants = TestEnums.Small.values();
+
+        try (HugeEnumColumnFile file = HugeEnumColumnFile.create(path, TestEnums.Small.class, ROW_COUNT, SEGMENT_SHIFT)) {
+            for (int row = 0; row < ROW_COUNT; row++) {
+                file.set(row, (row % 7 == 6) ? null : constants[row % constants.length], TestEnums.Small.class);
+            }
+            file.force();
+        }
+
+        try (HugeEnumColumnFile file = HugeEnumColumnFile.open(path, false, SEGMENT_SHIFT)) {
+            assertEquals(TestEnums.Small.class.getName(), file.getEnumClassName());
+            assertEquals(HugeEnumFingerprint.of(TestEnums.Small.class), file.getFingerprint());
+            assertEquals(constants.length, file.getElementCount());
+            assertEquals(ROW_COUNT, file.getRowCount());
+            assertEquals(7, file.getSegmentCount());
+
+            for (int row = 0; row < ROW_COUNT; row++) {
+                String expected = (row % 7 == 6) ? null : constants[row % constants.length].name();
+                assertEquals(expected, file.getName(row));
+                assertEquals(expected == null ? null : TestEnums.Small.valueOf(expected), file.get(row, TestEnums.Small.class));
+            }
+
+            char[] ordinals = new char[40];
+            file.getOrdinals(10, ordinals, 0, ordinals.length);
+            for (int i = 0; i < ordinals.length; i++) {
+                assertEquals(file.getOrdinal(10 + i), ordinals[i]);
+            }
+
+            CharBuffer segment = file.getSegment(6);
+            assertEquals(ROW_COUNT - 6 * 16, segment.remaining());
+            assertTrue(segment.isReadOnly());
+            assertThrows(IllegalStateException.class, () -> file.setOrdinal(0, (char) 0));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testHugeEnumArray() throws IOException {
+        doTestHugeEnumArray(TestEnums.hugeEnum());
+    }
+
+    private <E extends Enum<E>> void doTestHugeEnumArray(Class<E> enumClass) throws IOException {
+        Path path = directory.resolve("huge.hecf");
+        E[] constants = enumClass.getEnumConstants();
+
+        HugeEnumArray<E> values = HugeEnumArray.of(enumClass, constants);
+        values.set(1, null);
+        HugeEnumColumnFile.write(path, values);
+
+        try (HugeEnumColumnFile file = HugeEnumColumnFile.open(path)) {
+            assertEquals(constants.length, file.getRowCount());
+            assertNull(file.getName(1));
+
+            for (int row = 0; row < constants.length; row++) {
+                assertSame(values.get(row), file.get(row, enumClass));
+                assertEquals(constants[row].name(), file.getElementName(row));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testIncompatibleEnumClass() throws IOException {
+        doTestIncompatibleEnumClass(TestEnums.generate("ReorderedSmall", List.of("BETA", "ALPHA", "GAMMA", "DELTA", "EPSILON")));
+    }
+
+    private <E extends Enum<E>> void doTestIncompatibleEnumClass(Class<E> reordered) throws IOException {
+        Path path = directory.resolve("mismatch.hecf");
+        HugeEnumColumnFile.create(path, TestEnums.Small.class, 1).close();
+
+        try (HugeEnumColumnFile file = HugeEnumColumnFile.openWritable(path)) {
+            assertSame(TestEnums.Small.ALPHA, file.get(0, TestEnums.Small.class));
+            assertThrows(InvalidClassException.class, () -> file.get(0, reordered));
+            assertThrows(IllegalArgumentException.class, () -> file.setOrdinal(0, (char) 5));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMigrate() throws IOException {
+        doTestMigrate(TestEnums.generate("MigratedSmall", List.of("GAMMA", "ALPHA", "ZETA", "BETA")));
+    }
+
+    private <E extends Enum<E>> void doTestMigrate(Class<E> enumClass) throws IOException {
+        Path source = directory.resolve("previous.hecf");
+        Path target = directory.resolve("current.hecf");
+        TestEnums.Small[] constants = TestEnums.Small.values();
+        char nul = HugeEnumConstants.NULL_ORDINAL;
+
+        try (HugeEnumColumnFile file = HugeEnumColumnFile.create(source, TestEnums.Small.class, ROW_COUNT)) {
+            for (int row = 0; row < ROW_COUNT; row++) {
+                file.set(row, (row % 7 == 6) ? null : constants[row % constants.length], TestEnums.Small.class);
+            }
+        }
+
+        // ALPHA, BETA, GAMMA, DELTA, EPSILON
+        HugeEnumRemap remap = HugeEnumRemap.read(HugeEnumRemap.toByteArray(
+            HugeEnumFingerprint.of(TestEnums.Small.class), HugeEnumFingerprint.of(enumClass), 4, new char[] { 1, 3, 0, nul, nul }
+        ));
+
+        HugeEnumColumnFile.migrate(source, target, remap, enumClass);
+
+        try (HugeEnumColumnFile file = HugeEnumColumnFile.open(target)) {
+            assertEquals(enumClass.getName(), file.getEnumClassName());
+            assertEquals(HugeEnumFingerprint.of(enumClass), file.getFingerprint());
+            assertEquals(4, file.getElementCount());
+            assertEquals("ZETA", file.getElementName(2));
+            assertEquals(ROW_COUNT, file.getRowCount());
+
+            for (int row = 0; row < ROW_COUNT; row++) {
+                TestEnums.Small previous = (row % 7 == 6) ? null : constants[row % constants.length];
+                String expected = (previous == null || previous.ordinal() >= TestEnums.Small.DELTA.ordinal()) ? null : previous.name();
+
+                assertEquals(expected, file.getName(row));
+                assertEquals((expected == null) ? null : Enum.valueOf(enumClass, expected), file.get(row, enumClass));
+            }
+        }
+
+        // Remap table of other enum versions
+        assertThrows(InvalidClassException.class, () -> HugeEnumColumnFile.migrate(target, source, remap, enumClass));
+        assertThrows(InvalidClassException.class, () -> HugeEnumColumnFile.migrate(source, target, remap, TestEnums.Small.class));
+    }
+
+}
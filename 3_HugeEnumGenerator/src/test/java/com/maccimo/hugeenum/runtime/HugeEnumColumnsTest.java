@@ -0,0 +1,37 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumColumnsTest {
+
+    @Test
+    public void testNumbers() {
+        int[] ints = { 0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 0x12345678 };
+        long[] longs = { 0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 0x0123456789ABCDEFL };
+        double[] doubles = { 0.0, -0.0, 1.5, Double.NaN, Double.NEGATIVE_INFINITY, Double.MIN_VALUE };
+
+        assertArrayEquals(ints, HugeEnumColumns.decodeInts(HugeEnumColumns.encodeInts(ints)));
+        assertArrayEquals(longs, HugeEnumColumns.decodeLongs(HugeEnumColumns.encodeLongs(longs)));
+        assertArrayEquals(doubles, HugeEnumColumns.decodeDoubles(HugeEnumColumns.encodeDoubles(doubles)));
+
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumColumns.decodeInts("abc"));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumColumns.decodeLongs("abcde"));
+    }
+
+    @Test
+    public void testStrings() {
+        String[] strings = { "first", null, "", "\u0000\uD800 unpaired", null };
+
+        assertArrayEquals(
+            strings,
+            HugeEnumColumns.decodeStrings(HugeEnumColumns.encodeStringLengths(strings), HugeEnumColumns.encodeStringChars(strings))
+        );
+
+        String lengths = HugeEnumColumns.encodeStringLengths(new String[] { "ab" });
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumColumns.decodeStrings(lengths, "a"));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumColumns.decodeStrings(lengths, "abc"));
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.maccimo.hugeenum.runtime.TestEnums.Small.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumDispatchTest {
+
+    public interface Greeting {
+        String greet(String name);
+        int weight();
+    }
+
+    public static class Polite {
+        public static String greet(Greeting self, String name) {
+            return "Good day, " + name;
+        }
+
+        public static int weight(Greeting self) {
+            return 1;
+        }
+    }
+
+    static class Casual {
+        static String greet(Greeting self, String name) {
+            return "Hi, " + name;
+        }
+
+        static int weight(Greeting self) {
+            return 2;
+        }
+    }
+
+    static class Formal {
+        static int weight(Greeting self) {
+            return 3;
+        }
+    }
+
+    static class Terse {
+        static int weight(Greeting self) {
+            return 4;
+        }
+    }
+
+    private static final AtomicBoolean LAZY_INITIALIZED = new AtomicBoolean();
+
+    static class Lazy {
+        static {
+            LAZY_INITIALIZED.set(true);
+        }
+
+        static int weight(Greeting self) {
+            return 5;
+        }
+    }
+
+    enum Level implements Greeting {
+        LOW, MID, HIGH, TOP, MAX, NONE;
+
+        @Override
+        public String greet(String name) {
+            return "";
+        }
+
+        @Override
+        public int weight() {
+            return 0;
+        }
+    }
+
+    private static final Greeting GREETING = new Greeting() {
+        @Override
+        public String greet(String name) {
+            return "";
+        }
+
+        @Override
+        public int weight() {
+            return 0;
+        }
+    };
+
+    @Test
+    public void testHandles() throws Throwable {
+        HugeEnumDispatch dispatch = HugeEnumDispatch.decode(
+            MethodHandles.lookup(),
+            Greeting.class,
+            HugeEnumDispatch.encodeNames(List.of(Polite.class.getName(), Casual.class.getName())),
+            HugeEnumDispatch.encode(new int[] {0, 1, 0, -1, 1}),
+            TestEnums.Small.values()
+        );
+
+        assertSame(Polite.class, dispatch.getHandlerClass(ALPHA.ordinal()));
+        assertSame(Casual.class, dispatch.getHandlerClass(BETA.ordinal()));
+        assertNull(dispatch.getHandlerClass(DELTA.ordinal()));
+
+        MethodHandle[] greet = dispatch.getHandles("greet", "(Ljava/lang/String;)Ljava/lang/String;");
+        assertEquals(5, greet.length);
+        assertSame(greet[0], greet[2]);
+        assertEquals("Good day, Bob", (String) greet[0].invokeExact(GREETING, "Bob"));
+        assertEquals("Hi, Bob", (String) greet[4].invokeExact(GREETING, "Bob"));
+        assertThrows(UnsupportedOperationException.class, () -> { String s = (String) greet[3].invokeExact(GREETING, "Bob"); });
+
+        MethodHandle[] weight = dispatch.getHandles("weight", "()I");
+        assertEquals(2, (int) weight[1].invokeExact(GREETING));
+        assertThrows(UnsupportedOperationException.class, () -> { int i = (int) weight[3].invokeExact(GREETING); });
+    }
+
+    @Test
+    public void testTarget() throws Throwable {
+        List<String> handlerNames = List.of(Polite.class.getName(), Casual.class.getName(), Formal.class.getName(), Terse.class.getName());
+
+        // Three distinct targets are selected by guards, five by table
+        for (int[] handlerOf : List.of(new int[] {0, 1, 0, -1, 1, -1}, new int[] {0, 1, 2, 3, -1, 0})) {
+            HugeEnumDispatch dispatch = HugeEnumDispatch.decode(
+                MethodHandles.lookup(), Greeting.class, HugeEnumDispatch.encodeNames(handlerNames), HugeEnumDispatch.encode(handlerOf), Level.values()
+            );
+
+            MethodHandle weight = dispatch.getTarget("weight", MethodType.methodType(int.class));
+            assertEquals(MethodType.methodType(int.class, Greeting.class), weight.type());
+
+            for (Level level : Level.values()) {
+                int handler = handlerOf[level.ordinal()];
+
+                if (handler < 0) {
+                    assertThrows(UnsupportedOperationException.class, () -> { int i = (int) weight.invokeExact((Greeting) level); });
+                } else {
+                    assertEquals(handler + 1, (int) weight.invokeExact((Greeting) level), level.name());
+                }
+            }
+        }
+
+        HugeEnumDispatch single = HugeEnumDispatch.decode(
+            MethodHandles.lookup(), Greeting.class, Casual.class.getName(), HugeEnumDispatch.encode(new int[] {0, 0, 0, 0, 0, 0}), Level.values()
+        );
+        MethodHandle greet = single.getTarget("greet", MethodType.methodType(String.class, String.class));
+        assertEquals("Hi, Bob", (String) greet.invokeExact((Greeting) Level.MAX, "Bob"));
+    }
+
+    @Test
+    public void testHandlerInitializedOnCall() throws Throwable {
+        HugeEnumDispatch dispatch = HugeEnumDispatch.decode(
+            MethodHandles.lookup(), Greeting.class, Lazy.class.getName(), HugeEnumDispatch.encode(new int[] {0, 0, 0, 0, 0, 0}), Level.values()
+        );
+        MethodHandle weight = dispatch.getTarget("weight", MethodType.methodType(int.class));
+        assertFalse(LAZY_INITIALIZED.get());
+
+        assertEquals(5, (int) weight.invokeExact((Greeting) Level.LOW));
+        assertTrue(LAZY_INITIALIZED.get());
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(IllegalStateException.class, () -> HugeEnumDispatch.decode(
+            MethodHandles.lookup(), Greeting.class, "com.example.Absent", HugeEnumDispatch.encode(new int[] {0, 0, 0, 0, 0}), TestEnums.Small.values()
+        ));
+
+        HugeEnumDispatch dispatch = HugeEnumDispatch.decode(
+            MethodHandles.lookup(), Greeting.class, String.class.getName(), HugeEnumDispatch.encode(new int[] {0, 0, 0, 0, 0}), TestEnums.Small.values()
+        );
+        assertThrows(IllegalStateException.class, () -> dispatch.getHandles("weight", "()I"));
+
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumDispatch.decode(
+            MethodHandles.lookup(), Greeting.class, "", HugeEnumDispatch.encode(new int[] {-1}), TestEnums.Small.values()
+        ));
+    }
+
+}
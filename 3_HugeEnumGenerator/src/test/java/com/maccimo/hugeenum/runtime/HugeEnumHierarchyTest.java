@@ -0,0 +1,74 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.maccimo.hugeenum.runtime.TestEnums.Small.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumHierarchyTest {
+
+    @Test
+    public void testPreorderLayout() {
+        // ALPHA -> (BETA -> GAMMA), DELTA; EPSILON
+        HugeEnumHierarchy hierarchy = decode(-1, 0, 1, 0, -1);
+
+        assertTrue(hierarchy.isPreorderLayout());
+
+        assertEquals(-1, hierarchy.parentOf(0));
+        assertEquals(1, hierarchy.parentOf(2));
+        assertNull(hierarchy.getParent(4));
+        assertEquals(BETA, hierarchy.getParent(2));
+
+        assertEquals(0, hierarchy.depthOf(0));
+        assertEquals(2, hierarchy.depthOf(2));
+        assertEquals(1, hierarchy.depthOf(3));
+
+        assertEquals(0, hierarchy.getEntry(0));
+        assertEquals(4, hierarchy.getExit(0));
+        assertEquals(5, hierarchy.getExit(4));
+
+        assertTrue(hierarchy.isDescendant(2, 0));
+        assertTrue(hierarchy.isDescendant(2, 1));
+        assertTrue(hierarchy.isDescendant(3, 0));
+        assertFalse(hierarchy.isDescendant(0, 0));
+        assertFalse(hierarchy.isDescendant(3, 1));
+        assertFalse(hierarchy.isDescendant(4, 0));
+        assertFalse(hierarchy.isDescendant(0, 2));
+
+        assertEquals(List.of(BETA, GAMMA, DELTA), hierarchy.descendants(0));
+        assertEquals(List.of(GAMMA), hierarchy.descendants(1));
+        assertTrue(hierarchy.descendants(4).isEmpty());
+    }
+
+    @Test
+    public void testShuffledLayout() {
+        // EPSILON -> (ALPHA, GAMMA -> BETA); DELTA
+        HugeEnumHierarchy hierarchy = decode(4, 2, 4, -1, -1);
+
+        assertFalse(hierarchy.isPreorderLayout());
+
+        assertEquals(List.of(ALPHA, GAMMA, BETA), hierarchy.descendants(4));
+        assertEquals(List.of(BETA), hierarchy.descendants(2));
+        assertTrue(hierarchy.isDescendant(1, 4));
+        assertFalse(hierarchy.isDescendant(1, 0));
+        assertFalse(hierarchy.isDescendant(3, 4));
+        assertEquals(2, hierarchy.depthOf(1));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> hierarchy.descendants(2).get(1));
+        assertThrows(UnsupportedOperationException.class, () -> hierarchy.descendants(4).add(DELTA));
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumHierarchy.encode(new int[] {1, 0}));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumHierarchy.encode(new int[] {-1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumHierarchy.decode(HugeEnumHierarchy.encode(new int[] {-1}), TestEnums.Small.values()));
+    }
+
+    private static HugeEnumHierarchy decode(int... parentOf) {
+        return HugeEnumHierarchy.decode(HugeEnumHierarchy.encode(parentOf), TestEnums.Small.values());
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.maccimo.hugeenum.runtime;
+
+import com.maccimo.hugeenum.generator.ExtractMethodHugeEnumGeneratorFactory;
+import com.maccimo.hugeenum.generator.IEnumGeneratorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumJarIndexTest {
+
+    private static final IEnumGeneratorFactory GENERATOR_FACTORY = new ExtractMethodHugeEnumGeneratorFactory();
+
+    private static final List<String> COLORS = List.of("RED", "GREEN", "BLUE", "SHARED");
+    private static final List<String> SHAPES = List.of("CIRCLE", "SQUARE", "SHARED");
+    private static final List<String> UNLOADED = List.of("GHOST");
+
+    @Test
+    public void testLazyResolution() throws IOException {
+        CountingClassLoader classLoader = new CountingClassLoader();
+        classLoader.define("test.jar.Colors", COLORS);
+        classLoader.define("test.jar.Shapes", SHAPES);
+
+        byte[] content = HugeEnumJarIndex.builder()
+            .add("test.jar.Colors", "ExtractMethod", List.of("OUTDATED"))
+            .add("test.jar.Shapes", "ExtractMethod", SHAPES)
+            .add("test.jar.Missing", "Unsafe", UNLOADED)
+            .add("test.jar.Colors", "ExtractMethod", COLORS)
+            .toByteArray();
+
+        HugeEnumJarIndex index = HugeEnumJarIndex.read(content, classLoader);
+
+        assertEquals(
+            List.of("test.jar.Shapes", "test.jar.Missing", "test.jar.Colors"),
+            index.getEntries().stream().map(HugeEnumJarIndex.Entry::getClassName).collect(Collectors.toList())
+        );
+
+        HugeEnumJarIndex.Entry colors = index.getEntry("test.jar.Colors");
+        assertEquals("ExtractMethod", colors.getAlgorithm());
+        assertEquals(COLORS.size(), colors.getElementCount());
+        assertEquals(HugeEnumFingerprint.compute(COLORS), colors.getFingerprint());
+
+        assertEquals(List.of(colors), index.findCandidates("GREEN"));
+        assertEquals(List.of(), index.findCandidates("OUTDATED"));
+        assertEquals(2, index.findCandidates("SHARED").size());
+        assertEquals(0, classLoader.initialized);
+
+        List<Enum<?>> green = index.resolve("GREEN");
+        assertEquals(1, green.size());
+        assertEquals("GREEN", green.get(0).name());
+        assertEquals("test.jar.Colors", green.get(0).getDeclaringClass().getName());
+        assertEquals(1, classLoader.initialized);
+
+        assertEquals(2, index.resolve("SHARED").size());
+        assertEquals(List.of(), index.resolve("PURPLE"));
+
+        assertThrows(IllegalStateException.class, () -> index.resolve("GHOST"));
+    }
+
+    @Test
+    public void testMerge() throws IOException {
+        HugeEnumJarIndex first = HugeEnumJarIndex.read(
+            HugeEnumJarIndex.builder().add("a.Colors", "Unsafe", COLORS).add("a.Shapes", "ConDy", SHAPES).toByteArray(),
+            null
+        );
+
+        HugeEnumJarIndex merged = HugeEnumJarIndex.read(
+            HugeEnumJarIndex.builder().addAll(first).add("a.Shapes", "ConDy", UNLOADED).toByteArray(),
+            null
+        );
+
+        assertEquals(2, merged.getEntries().size());
+        assertEquals("Unsafe", merged.getEntry("a.Colors").getAlgorithm());
+        assertEquals(List.of("a.Colors"), classNames(merged.findCandidates("SHARED")));
+        assertEquals(List.of("a.Shapes"), classNames(merged.findCandidates("GHOST")));
+        assertEquals(List.of(), merged.findCandidates("CIRCLE"));
+
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumJarIndex.read(new byte[] { 1, 2, 3, 4 }, null));
+    }
+
+    private static List<String> classNames(List<HugeEnumJarIndex.Entry> entries) {
+        return entries.stream().map(HugeEnumJarIndex.Entry::getClassName).collect(Collectors.toList());
+    }
+
+    // Defines enum classes on demand and counts them
+    private static class CountingClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classBytes = new HashMap<>();
+        private int initialized;
+
+        void define(String className, List<String> elementNames) {
+            classBytes.put(className, GENERATOR_FACTORY.create(className.replace('.', '/'), elementNames).generate());
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classBytes.get(name);
+
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+
+            initialized++;
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+    }
+
+}
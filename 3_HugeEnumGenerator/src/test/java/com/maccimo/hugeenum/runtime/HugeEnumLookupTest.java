@@ -0,0 +1,101 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.maccimo.hugeenum.runtime.TestEnums.Small.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumLookupTest {
+
+    @Test
+    public void testLookup() {
+        HugeEnumLookup lookup = decode(List.of(List.of("A", "first"), List.of(), List.of("Gamma_Old"), List.of(), List.of()));
+
+        for (TestEnums.Small value : TestEnums.Small.values()) {
+            assertSame(value, lookup.get(value.name()));
+            assertSame(value, lookup.getWithAliases(value.name()));
+            assertSame(value, lookup.getIgnoreCase(value.name()));
+            assertSame(value, lookup.getIgnoreCase(value.name().toLowerCase()));
+        }
+
+        assertNull(lookup.get("A"));
+        assertSame(ALPHA, lookup.getWithAliases("A"));
+        assertSame(ALPHA, lookup.getWithAliases("first"));
+        assertSame(GAMMA, lookup.getWithAliases("Gamma_Old"));
+        assertNull(lookup.getWithAliases("gamma_old"));
+
+        assertNull(lookup.get("alpha"));
+        assertSame(ALPHA, lookup.getIgnoreCase("aLpHa"));
+        assertSame(BETA, lookup.getIgnoreCase(new StringBuilder("Beta")));
+        assertNull(lookup.getIgnoreCase("first"));
+
+        assertNull(lookup.get(""));
+        assertNull(lookup.get("ALPH"));
+        assertNull(lookup.get("ALPHAA"));
+
+        assertEquals(2, lookup.ordinalOf("GAMMA"));
+        assertEquals(-1, lookup.ordinalOfWithAliases("absent"));
+    }
+
+    @Test
+    public void testCaseCollisions() {
+        HugeEnumLookup lookup = HugeEnumLookup.decode(
+            HugeEnumLookup.encode(List.of("Value", "VALUE", "value"), List.of(List.of(), List.of(), List.of())),
+            new Object[] {"0", "1", "2"}
+        );
+
+        assertEquals(0, lookup.ordinalOfIgnoreCase("Value"));
+        assertEquals(1, lookup.ordinalOfIgnoreCase("VALUE"));
+        assertEquals(2, lookup.ordinalOfIgnoreCase("value"));
+        assertEquals(0, lookup.ordinalOfIgnoreCase("vALUE"));
+    }
+
+    @Test
+    public void testLarge() {
+        List<String> names = new ArrayList<>();
+        List<List<String>> aliases = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            names.add("VALUE_" + i);
+            aliases.add(List.of("old" + i));
+        }
+
+        Object[] values = names.toArray();
+        HugeEnumLookup lookup = HugeEnumLookup.decode(HugeEnumLookup.encode(names, aliases), values);
+
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, lookup.ordinalOf(names.get(i)));
+            assertEquals(i, lookup.ordinalOfIgnoreCase("value_" + i));
+            assertEquals(i, lookup.ordinalOfWithAliases("old" + i));
+            assertEquals(-1, lookup.ordinalOf("old" + i));
+        }
+
+        assertEquals(-1, lookup.ordinalOfWithAliases("VALUE_20000"));
+    }
+
+    @Test
+    public void testEmpty() {
+        HugeEnumLookup lookup = HugeEnumLookup.decode(HugeEnumLookup.encode(List.of(), List.of()), new Object[0]);
+
+        assertNull(lookup.get("ALPHA"));
+        assertNull(lookup.getIgnoreCase(""));
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumLookup.encode(List.of("A", "B"), List.of(List.of("B"), List.of())));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumLookup.encode(List.of("A", "B"), List.of(List.of("X"), List.of("X"))));
+    }
+
+    private static HugeEnumLookup decode(List<List<String>> aliases) {
+        List<String> names = new ArrayList<>();
+        for (TestEnums.Small value : TestEnums.Small.values()) {
+            names.add(value.name());
+        }
+
+        return HugeEnumLookup.decode(HugeEnumLookup.encode(names, aliases), TestEnums.Small.values());
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.maccimo.hugeenum.runtime;
+
+import com.maccimo.hugeenum.runtime.HugeEnumMetadata.ColumnType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumMetadataTest {
+
+    private static final List<String> ELEMENT_NAMES = List.of("ALPHA", "BETA", "GAMMA");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWrapAndOpen() throws Exception {
+        byte[] content = build();
+
+        Path path = tempDir.resolve("Test" + HugeEnumMetadata.FILE_SUFFIX);
+        Files.write(path, content);
+
+        for (HugeEnumMetadata metadata : List.of(HugeEnumMetadata.wrap(content), HugeEnumMetadata.open(path))) {
+            assertEquals(HugeEnumFingerprint.compute(ELEMENT_NAMES), metadata.getFingerprint());
+            assertEquals(3, metadata.getElementCount());
+            assertEquals(4, metadata.getColumnCount());
+            assertEquals("weight", metadata.getColumnName(2));
+            assertEquals(ColumnType.DOUBLE, metadata.getColumnType(2));
+            assertEquals(3, metadata.getColumnIndex("description"));
+            assertEquals(-1, metadata.getColumnIndex("absent"));
+
+            assertEquals(-7, metadata.getInt(0, 1));
+            assertEquals(0, metadata.getInt(0, 2));
+            assertEquals(Long.MAX_VALUE, metadata.getLong(1, 2));
+            assertEquals(0.5, metadata.getDouble(2, 0));
+
+            assertEquals("ßeta, first", metadata.getString(3, 0));
+            assertEquals("", metadata.getString(3, 1));
+            assertNull(metadata.getString(3, 2));
+            assertEquals(12, metadata.getStringLength(3, 0));
+            assertEquals(-1, metadata.getStringLength(3, 2));
+
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            assertEquals(12, metadata.writeStringTo(3, 0, buffer));
+            assertEquals(-1, metadata.writeStringTo(3, 2, buffer));
+            assertEquals("ßeta, first", new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+
+            assertThrows(IllegalArgumentException.class, () -> metadata.getLong(0, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> metadata.getInt(0, 3));
+        }
+    }
+
+    @Test
+    public void testCorrupted() {
+        byte[] content = build();
+
+        byte[] badMagic = content.clone();
+        badMagic[0] = 0;
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumMetadata.wrap(badMagic));
+
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumMetadata.wrap(Arrays.copyOf(content, 30)));
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumMetadata.wrap(Arrays.copyOf(content, content.length - 20)));
+    }
+
+    @Test
+    public void testForClassWithoutResource() {
+        assertThrows(UncheckedIOException.class, () -> HugeEnumMetadata.of(TestEnums.Small.class));
+    }
+
+    private static byte[] build() {
+        HugeEnumMetadata.Builder builder = HugeEnumMetadata.builder(ELEMENT_NAMES);
+
+        int code = builder.addColumn("code", ColumnType.INT);
+        int population = builder.addColumn("population", ColumnType.LONG);
+        int weight = builder.addColumn("weight", ColumnType.DOUBLE);
+        int description = builder.addColumn("description", ColumnType.STRING);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addColumn("code", ColumnType.LONG));
+        assertThrows(IllegalArgumentException.class, () -> builder.setInt(weight, 0, 1));
+
+        return builder
+            .setInt(code, 1, -7)
+            .setLong(population, 2, Long.MAX_VALUE)
+            .setDouble(weight, 0, 0.5)
+            .setString(description, 0, "ßeta, first")
+            .setString(description, 1, "")
+            .toByteArray();
+    }
+
+}
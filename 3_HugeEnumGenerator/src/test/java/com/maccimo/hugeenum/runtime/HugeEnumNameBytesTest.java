@@ -0,0 +1,69 @@
+package com.maccimo.hugeenum.runtime;
+
+import com.maccimo.hugeenum.generator.Utf8NameEnumFeature;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumNameBytesTest {
+
+    private static final List<String> ELEMENT_NAMES = List.of("alpha", "ßeta", "γamma");
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testEmbeddedNameBytes() {
+        Class<? extends Enum<?>> enumClass = TestEnums.generate("Utf8NameEnum", ELEMENT_NAMES, new Utf8NameEnumFeature());
+
+        doTestNameBytes(enumClass);
+    }
+
+    @Test
+    public void testComputedNameBytes() {
+        doTestNameBytes(TestEnums.Small.class);
+    }
+
+    @Test
+    public void testDecode() {
+        HugeEnumNameBytes nameBytes = HugeEnumNameBytes.decode("abÃ\u009F", "\u0001\u0000\u0001\u0002");
+
+        assertEquals(4, nameBytes.size());
+        assertEquals(0, nameBytes.length(1));
+        assertEquals("ß", StandardCharsets.UTF_8.decode(nameBytes.asByteBuffer(3)).toString());
+
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNameBytes.decode("abc", "\u0001"));
+    }
+
+    private static void doTestNameBytes(Class<? extends Enum<?>> enumClass) {
+        HugeEnumNameBytes nameBytes = HugeEnumNameBytes.of(enumClass);
+        assertSame(nameBytes, HugeEnumNameBytes.of(enumClass));
+
+        Enum<?>[] constants = enumClass.getEnumConstants();
+        assertEquals(constants.length, nameBytes.size());
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        byte[] array = new byte[16];
+
+        for (Enum<?> constant : constants) {
+            byte[] expected = constant.name().getBytes(StandardCharsets.UTF_8);
+
+            assertEquals(expected.length, nameBytes.length(constant));
+            assertEquals(expected.length, nameBytes.copyTo(constant.ordinal(), array, 0));
+            assertEquals(constant.name(), new String(array, 0, expected.length, StandardCharsets.UTF_8));
+
+            nameBytes.writeTo(constant, buffer);
+            buffer.put((byte) ',');
+        }
+
+        buffer.flip();
+        assertEquals(
+            String.join(",", Arrays.stream(constants).map(Enum::name).toArray(String[]::new)) + ",",
+            StandardCharsets.UTF_8.decode(buffer).toString()
+        );
+    }
+
+}
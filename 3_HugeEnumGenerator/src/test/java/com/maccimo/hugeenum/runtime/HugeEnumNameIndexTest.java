@@ -0,0 +1,64 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumNameIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testLookup() throws IOException {
+        List<String> elementNames = new ArrayList<>(TestEnums.generateElementNames(HugeEnumConstants.MAX_ELEMENT_COUNT - 3));
+        elementNames.add("ßeta");
+        elementNames.add("日本");
+        elementNames.add("x");
+
+        Path path = directory.resolve("Huge" + HugeEnumNameIndex.FILE_SUFFIX);
+        HugeEnumNameIndex.write(path, elementNames);
+
+        try (HugeEnumNameIndex index = HugeEnumNameIndex.open(path)) {
+            assertEquals(elementNames.size(), index.getElementCount());
+            assertEquals(HugeEnumFingerprint.compute(elementNames), index.getFingerprint());
+
+            byte[] slice = new byte[64];
+            for (int ordinal = 0; ordinal < elementNames.size(); ordinal++) {
+                byte[] name = elementNames.get(ordinal).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(name, 0, slice, 3, name.length);
+
+                assertEquals(ordinal, index.lookup(slice, 3, name.length));
+                assertEquals(elementNames.get(ordinal), index.getName(ordinal));
+            }
+
+            assertEquals(-1, index.lookup("y"));
+            assertEquals(-1, index.lookup(""));
+            assertEquals(-1, index.lookup(elementNames.get(0) + "_"));
+            assertEquals(-1, index.lookup(elementNames.get(0).substring(1)));
+        }
+    }
+
+    @Test
+    public void testSmallIndexes() throws IOException {
+        HugeEnumNameIndex empty = HugeEnumNameIndex.wrap(HugeEnumNameIndex.build(List.of()));
+        assertEquals(0, empty.getElementCount());
+        assertEquals(-1, empty.lookup("ALPHA"));
+
+        HugeEnumNameIndex single = HugeEnumNameIndex.wrap(HugeEnumNameIndex.build(List.of("ALPHA")));
+        assertEquals(0, single.lookup("ALPHA"));
+        assertEquals(-1, single.lookup("BETA"));
+
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNameIndex.build(List.of("A", "B", "A")));
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumNameIndex.wrap(new byte[HugeEnumNameIndex.HEADER_SIZE]));
+    }
+
+}
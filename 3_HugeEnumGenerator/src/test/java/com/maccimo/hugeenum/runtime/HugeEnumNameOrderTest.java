@@ -0,0 +1,57 @@
+package com.maccimo.hugeenum.runtime;
+
+import com.maccimo.hugeenum.generator.NameRankEnumFeature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumNameOrderTest {
+
+    private static final List<String> ELEMENT_NAMES = List.of(
+        "zeta", "alpha", "alphabet", "beta", "alp", "gamma", "alpine", "Alpha", "b"
+    );
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGeneratedRanks() {
+        doTestNameOrder(TestEnums.generate("RankedEnum", ELEMENT_NAMES, new NameRankEnumFeature()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testComputedRanks() {
+        doTestNameOrder(TestEnums.generate("UnrankedEnum", ELEMENT_NAMES));
+    }
+
+    private <E extends Enum<E>> void doTestNameOrder(Class<E> enumClass) {
+        HugeEnumNameOrder<E> nameOrder = HugeEnumNameOrder.of(enumClass);
+
+        E[] sorted = enumClass.getEnumConstants();
+        Arrays.sort(sorted, nameOrder);
+        assertEquals(
+            ELEMENT_NAMES.stream().sorted().collect(Collectors.toList()),
+            Arrays.stream(sorted).map(Enum::name).collect(Collectors.toList())
+        );
+
+        for (int rank = 0; rank < sorted.length; rank++) {
+            assertSame(sorted[rank], nameOrder.byRank(rank));
+            assertEquals(rank, nameOrder.rankOf(sorted[rank]));
+        }
+
+        assertEquals(List.of("alp", "alpha", "alphabet", "alpine"), names(nameOrder.withPrefix("alp")));
+        assertEquals(List.of("alpha", "alphabet"), names(nameOrder.withPrefix("alpha")));
+        assertEquals(List.of("b", "beta"), names(nameOrder.withPrefix("b")));
+        assertEquals(List.of(), names(nameOrder.withPrefix("alq")));
+        assertEquals(List.of(), names(nameOrder.withPrefix("zz")));
+        assertEquals(ELEMENT_NAMES.size(), nameOrder.withPrefix("").size());
+    }
+
+    private static List<String> names(List<? extends Enum<?>> values) {
+        return values.stream().map(Enum::name).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import static com.maccimo.hugeenum.runtime.TestEnums.Small.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumNamePatternTest {
+
+    @Test
+    public void testNames() {
+        assertArrayEquals(
+            new String[] {"VALUE_00098", "VALUE_00099", "VALUE_00100", "VALUE_00101"},
+            HugeEnumNamePattern.names("VALUE_", 5, 98, 4)
+        );
+
+        assertArrayEquals(new String[] {"0", "1", "2"}, HugeEnumNamePattern.names("", 1, 0, 3));
+        assertArrayEquals(new String[0], HugeEnumNamePattern.names("A", 3, 0, 0));
+
+        assertArrayEquals(new String[] {"X999999998", "X999999999"}, HugeEnumNamePattern.names("X", 9, 999_999_998, 2));
+    }
+
+    @Test
+    public void testNamesOverflow() {
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNamePattern.names("A", 2, 98, 3));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNamePattern.names("A", 0, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNamePattern.names("A", 10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNamePattern.names("A", 3, -1, 1));
+    }
+
+    @Test
+    public void testOrdinalOf() {
+        assertEquals(0, HugeEnumNamePattern.ordinalOf("VALUE_00001", "VALUE_", 5, 1, 100));
+        assertEquals(99, HugeEnumNamePattern.ordinalOf("VALUE_00100", "VALUE_", 5, 1, 100));
+        assertEquals(41, HugeEnumNamePattern.ordinalOf(new StringBuilder("VALUE_00042"), "VALUE_", 5, 1, 100));
+
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("VALUE_00000", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("VALUE_00101", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("VALUE_0001", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("VALUE_000001", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("VALUE_0000A", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("VALUE_-0001", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("value_00001", "VALUE_", 5, 1, 100));
+        assertEquals(-1, HugeEnumNamePattern.ordinalOf("", "VALUE_", 5, 1, 100));
+    }
+
+    @Test
+    public void testValueOf() {
+        Object[] values = TestEnums.Small.values();
+
+        assertSame(ALPHA, HugeEnumNamePattern.valueOf(TestEnums.Small.class, values, "V10", "V", 2, 10));
+        assertSame(BETA, HugeEnumNamePattern.valueOf(TestEnums.Small.class, values, "V11", "V", 2, 10));
+
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNamePattern.valueOf(TestEnums.Small.class, values, "V09", "V", 2, 10));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumNamePattern.valueOf(TestEnums.Small.class, values, "OMEGA", "V", 2, 10));
+        IllegalArgumentException e = assertThrows(
+            IllegalArgumentException.class,
+            () -> HugeEnumNamePattern.valueOf(TestEnums.Small.class, values, "V15", "V", 2, 10)
+        );
+        assertEquals("No enum constant " + TestEnums.Small.class.getCanonicalName() + ".V15", e.getMessage());
+
+        assertThrows(NullPointerException.class, () -> HugeEnumNamePattern.valueOf(TestEnums.Small.class, values, null, "V", 2, 10));
+    }
+
+}
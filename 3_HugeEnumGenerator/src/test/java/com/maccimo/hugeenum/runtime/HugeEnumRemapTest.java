@@ -0,0 +1,47 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.CharBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumRemapTest {
+
+    private static final char NULL = HugeEnumConstants.NULL_ORDINAL;
+
+    @Test
+    public void testApply() throws IOException {
+        HugeEnumRemap remap = HugeEnumRemap.read(HugeEnumRemap.toByteArray(1L, 2L, 3, new char[] { 2, NULL, 0, 1 }));
+
+        assertEquals(1L, remap.getSourceFingerprint());
+        assertEquals(2L, remap.getTargetFingerprint());
+        assertEquals(4, remap.getSourceElementCount());
+        assertEquals(3, remap.getTargetElementCount());
+        assertFalse(remap.isIdentity());
+
+        char[] ordinals = { 0, 1, 2, 3, NULL, 3 };
+        remap.apply(ordinals, 1, 5);
+        assertArrayEquals(new char[] { 0, NULL, 0, 1, NULL, 1 }, ordinals);
+
+        CharBuffer buffer = CharBuffer.wrap(new char[] { 3, 2, 1, 0 });
+        buffer.position(1);
+        remap.apply(buffer);
+        assertArrayEquals(new char[] { 3, 0, NULL, 2 }, buffer.array());
+        assertEquals(1, buffer.position());
+
+        assertEquals(2, remap.map((char) 0));
+        assertEquals(NULL, remap.map(NULL));
+    }
+
+    @Test
+    public void testInvalidTable() throws IOException {
+        assertTrue(HugeEnumRemap.read(HugeEnumRemap.toByteArray(1L, 1L, 3, new char[] { 0, 1 })).isIdentity());
+
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumRemap.read(HugeEnumRemap.toByteArray(1L, 2L, 2, new char[] { 2 })));
+        assertThrows(StreamCorruptedException.class, () -> HugeEnumRemap.read(new byte[8]));
+    }
+
+}
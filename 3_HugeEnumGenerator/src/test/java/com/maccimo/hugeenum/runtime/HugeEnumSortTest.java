@@ -0,0 +1,110 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumSortTest {
+
+    private static final int ARRAY_LENGTH = 300_000;
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSequential() {
+        doTestSortAndGroup(TestEnums.hugeEnum(), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testParallel() {
+        doTestSortAndGroup(TestEnums.hugeEnum(), true);
+    }
+
+    @Test
+    public void testSortByIsStable() {
+        String[] items = IntStream.range(0, ARRAY_LENGTH).mapToObj(Integer::toString).toArray(String[]::new);
+        TestEnums.Small[] constants = TestEnums.Small.values();
+        Function<String, TestEnums.Small> key = item -> constants[Integer.parseInt(item) * 7 % constants.length];
+
+        String[] expected = items.clone();
+        Arrays.sort(expected, (a, b) -> key.apply(a).compareTo(key.apply(b)));
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            String[] actual = items.clone();
+            HugeEnumSort.sortBy(actual, key, TestEnums.Small.class, parallel);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testPartition() {
+        TestEnums.Small[] values = {
+            TestEnums.Small.ALPHA, TestEnums.Small.GAMMA, TestEnums.Small.BETA, TestEnums.Small.DELTA, TestEnums.Small.GAMMA
+        };
+
+        int matchCount = HugeEnumSort.partition(values, value -> value.ordinal() % 2 == 0, TestEnums.Small.class);
+
+        assertEquals(3, matchCount);
+        assertArrayEquals(
+            new TestEnums.Small[] {
+                TestEnums.Small.ALPHA, TestEnums.Small.GAMMA, TestEnums.Small.GAMMA, TestEnums.Small.BETA, TestEnums.Small.DELTA
+            },
+            values
+        );
+    }
+
+    private <E extends Enum<E>> void doTestSortAndGroup(Class<E> enumClass, boolean parallel) {
+        E[] constants = HugeEnumConstants.getShared(enumClass);
+        E[] values = Arrays.copyOf(constants, ARRAY_LENGTH);
+
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = constants[random.nextInt(constants.length)];
+        }
+
+        int[] histogram = HugeEnumSort.histogram(values, enumClass, parallel);
+        Map<E, Long> expectedCounts = Arrays.stream(values).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        for (E constant : constants) {
+            assertEquals(expectedCounts.getOrDefault(constant, 0L).intValue(), histogram[constant.ordinal()]);
+        }
+
+        HugeEnumSort.OrdinalGroups groups = HugeEnumSort.groupByOrdinal(values, enumClass, parallel);
+        Map<E, List<Integer>> expectedGroups = IntStream
+            .range(0, values.length)
+            .boxed()
+            .collect(Collectors.groupingBy(i -> values[i]));
+        for (E constant : constants) {
+            int[] expectedIndexes = expectedGroups
+                .getOrDefault(constant, List.of())
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+            assertArrayEquals(expectedIndexes, groups.getIndexes(constant.ordinal()));
+        }
+
+        E[] expected = values.clone();
+        Arrays.sort(expected);
+
+        E[] actual = values.clone();
+        HugeEnumSort.sort(actual, enumClass);
+        assertArrayEquals(expected, actual);
+
+        char[] ordinals = new char[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ordinals[i] = (char) values[i].ordinal();
+        }
+        HugeEnumSort.sort(ordinals, constants.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(expected[i].ordinal(), ordinals[i]);
+        }
+    }
+
+}
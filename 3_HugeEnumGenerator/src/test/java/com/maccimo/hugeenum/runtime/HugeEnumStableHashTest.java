@@ -0,0 +1,52 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumStableHashTest {
+
+    @Test
+    public void testReferenceValues() {
+        assertEquals(0xEF46DB3751D8E999L, xxHash64("", 0));
+        assertEquals(0xD24EC4F1A98C6E5BL, xxHash64("a", 0));
+        assertEquals(0x44BC2CF5AD770999L, xxHash64("abc", 0));
+        assertEquals(0xFBCEA83C8A378BF1L, xxHash64("Nobody inspects the spammish repetition", 0));
+    }
+
+    @Test
+    public void testGoldenVectors() {
+        // Stored hashes must never change: seed and encoding are part of the format
+        assertEquals(0xEF46DB3751D8E999L, HugeEnumStableHash.hash(""));
+        assertEquals(0x44BC2CF5AD770999L, HugeEnumStableHash.hash("abc"));
+        assertEquals(0xFBCEA83C8A378BF1L, HugeEnumStableHash.hash("Nobody inspects the spammish repetition"));
+
+        // Non-ASCII names pin UTF-8 encoding: two-byte, supplementary plane and long Cyrillic name
+        assertEquals(0xEFA482A82B0C8128L, HugeEnumStableHash.hash("\u00DFeta"));
+        assertEquals(0x684C5E7F89F981BBL, HugeEnumStableHash.hash("\uD835\uDD18nicode"));
+        assertEquals(0x4B424884D6AC765EL, HugeEnumStableHash.hash("\u041F\u0420\u0418\u041C\u0415\u0420_\u0434\u043B\u0438\u043D\u043D\u043E\u0435_\u0438\u043C\u044F"));
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        long[] hashes = { 0L, -1L, 0x0123456789ABCDEFL, Long.MIN_VALUE };
+
+        assertArrayEquals(hashes, HugeEnumStableHash.decode(new String(HugeEnumStableHash.encode(hashes))));
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumStableHash.decode("abc"));
+    }
+
+    @Test
+    public void testComputedHash() {
+        for (TestEnums.Small value : TestEnums.Small.values()) {
+            assertEquals(xxHash64(value.name(), HugeEnumStableHash.SEED), HugeEnumStableHash.of(value));
+        }
+    }
+
+    private static long xxHash64(String value, long seed) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return HugeEnumStableHash.xxHash64(bytes, 0, bytes.length, seed);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugeEnumTextParserTest {
+
+    @Test
+    public void testParse() {
+        HugeEnumTextParser<TestEnums.Small> parser = HugeEnumTextParser.of(TestEnums.Small.class);
+        ByteBuffer input = utf8("xx,ALPHA,GAMMA\r\n\r\nBETA,,ALPH,EPSILON,ALPHAA\nDELTA");
+        input.position(3);
+
+        HugeEnumTextParser.Result result = parser.parse(input);
+
+        assertArrayEquals(
+            new char[] { 0, 2, 1, HugeEnumConstants.NULL_ORDINAL, 4, HugeEnumConstants.NULL_ORDINAL, 3 },
+            result.getOrdinals()
+        );
+        assertArrayEquals(new long[] { 24, 37 }, result.getUnknownTokenPositions());
+        assertEquals(3, input.position());
+
+        HugeEnumArray<TestEnums.Small> values = result.toHugeEnumArray(TestEnums.Small.class);
+        assertSame(TestEnums.Small.GAMMA, values.get(1));
+        assertNull(values.get(3));
+
+        char[] destination = new char[8];
+        List<Long> unknown = new ArrayList<>();
+        assertEquals(7, parser.parse(input, destination, 1, unknown::add));
+        assertEquals(List.of(24L, 37L), unknown);
+        assertEquals(TestEnums.Small.ALPHA.ordinal(), destination[1]);
+    }
+
+    @Test
+    public void testCustomDelimiters() {
+        HugeEnumTextParser<TestEnums.Small> parser = HugeEnumTextParser.of(TestEnums.Small.class, " \t");
+
+        assertArrayEquals(new char[] { 1, HugeEnumConstants.NULL_ORDINAL, 3 }, parser.parse(utf8("BETA\tGAMMA,DELTA DELTA")).getOrdinals());
+        assertThrows(IllegalArgumentException.class, () -> HugeEnumTextParser.of(TestEnums.Small.class, "A"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testParallelHugeEnum() {
+        doTestParallel(TestEnums.hugeEnum());
+    }
+
+    private <E extends Enum<E>> void doTestParallel(Class<E> enumClass) {
+        E[] constants = enumClass.getEnumConstants();
+        HugeEnumTextParser<E> parser = HugeEnumTextParser.of(enumClass);
+
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder text = new StringBuilder();
+        int count = 200_000;
+        char[] expected = new char[count];
+
+        for (int i = 0; i < count; i++) {
+            if (i % 1000 == 999) {
+                text.append("UNKNOWN");
+                expected[i] = HugeEnumConstants.NULL_ORDINAL;
+            } else {
+                int ordinal = random.nextInt(constants.length);
+                text.append(constants[ordinal].name());
+                expected[i] = (char) ordinal;
+            }
+
+            text.append(random.nextBoolean() ? "\n" : ",");
+        }
+
+        ByteBuffer input = ByteBuffer.allocateDirect(text.length());
+        input.put(StandardCharsets.UTF_8.encode(text.toString())).flip();
+
+        HugeEnumTextParser.Result sequential = parser.parse(input);
+        assertArrayEquals(expected, sequential.getOrdinals());
+        assertEquals(count / 1000, sequential.getUnknownTokenCount());
+
+        for (int chunkCount : new int[] { 1, 3, 16, 1000 }) {
+            HugeEnumTextParser.Result parallel = parser.parseParallel(input, chunkCount);
+
+            assertArrayEquals(expected, parallel.getOrdinals());
+            assertArrayEquals(sequential.getUnknownTokenPositions(), parallel.getUnknownTokenPositions());
+        }
+
+        assertArrayEquals(expected, parser.parseParallel(input).getOrdinals());
+    }
+
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrdinalBlockCodecTest {
+
+    private static final int LENGTH = 10 * OrdinalBlockCodec.BLOCK_SIZE + 17;
+
+    @Test
+    public void testPackedBlocks() {
+        SplittableRandom random = new SplittableRandom(1);
+        char[] ordinals = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ordinals[i] = (char) (40_000 + random.nextInt(100));
+        }
+
+        ByteBuffer buffer = doTestRoundTrip(ordinals);
+        assertEquals(OrdinalBlockCodec.MODE_PACKED, buffer.get(0));
+        assertTrue(buffer.limit() < LENGTH);
+    }
+
+    @Test
+    public void testRunBlocks() {
+        char[] ordinals = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ordinals[i] = (char) (i / 300 * 1000);
+        }
+
+        ByteBuffer buffer = doTestRoundTrip(ordinals);
+        assertEquals(OrdinalBlockCodec.MODE_RUNS, buffer.get(0));
+        assertTrue(buffer.limit() < LENGTH / 20);
+    }
+
+    @Test
+    public void testDictionaryBlocks() {
+        char[] values = { 0, 30_000, 65_534, HugeEnumConstants.NULL_ORDINAL };
+        SplittableRandom random = new SplittableRandom(2);
+        char[] ordinals = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ordinals[i] = values[random.nextInt(values.length)];
+        }
+
+        ByteBuffer buffer = doTestRoundTrip(ordinals);
+        assertEquals(OrdinalBlockCodec.MODE_DICTIONARY, buffer.get(0));
+        assertTrue(buffer.limit() < LENGTH / 3);
+    }
+
+    @Test
+    public void testDictionaryBlocksOfGrowingRange() {
+        // Narrow blocks first, so scratch tables of the codec grow between blocks
+        SplittableRandom random = new SplittableRandom(4);
+        char[] ordinals = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            int range = (i < LENGTH / 2) ? 300 : 60_000;
+            ordinals[i] = (char) (1_000 + random.nextInt(4) * (range / 3));
+        }
+
+        ByteBuffer buffer = doTestRoundTrip(ordinals);
+        assertEquals(OrdinalBlockCodec.MODE_DICTIONARY, buffer.get(0));
+    }
+
+    @Test
+    public void testRandomOrdinals() {
+        SplittableRandom random = new SplittableRandom(3);
+        char[] ordinals = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ordinals[i] = (char) random.nextInt(1 << Character.SIZE);
+        }
+
+        ByteBuffer buffer = doTestRoundTrip(ordinals);
+        assertTrue(buffer.limit() <= OrdinalBlockCodec.maxEncodedSize(LENGTH));
+    }
+
+    @Test
+    public void testIntOrdinals() {
+        OrdinalBlockCodec codec = new OrdinalBlockCodec();
+        int[] ordinals = new int[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ordinals[i] = i % 5 == 0 ? 65_535 : i % 3;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(OrdinalBlockCodec.maxEncodedSize(LENGTH));
+        codec.encode(ordinals, 0, LENGTH, buffer);
+        buffer.flip();
+
+        int[] actual = new int[LENGTH + 1];
+        codec.decode(buffer, actual, 1, LENGTH);
+        assertArrayEquals(ordinals, Arrays.copyOfRange(actual, 1, LENGTH + 1));
+        assertFalse(buffer.hasRemaining());
+
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new int[] { 65_536 }, 0, 1, ByteBuffer.allocate(16)));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new int[] { -1 }, 0, 1, ByteBuffer.allocate(16)));
+    }
+
+    @Test
+    public void testDecodePrefix() {
+        OrdinalBlockCodec codec = new OrdinalBlockCodec();
+        char[] ordinals = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            ordinals[i] = (char) (i % 7);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(OrdinalBlockCodec.maxEncodedSize(LENGTH));
+        codec.encode(ordinals, 0, LENGTH, buffer);
+        buffer.flip();
+
+        // Whole blocks
+        char[] actual = new char[LENGTH];
+        codec.decode(buffer, actual, 0, 2 * OrdinalBlockCodec.BLOCK_SIZE);
+        assertArrayEquals(Arrays.copyOf(ordinals, 2 * OrdinalBlockCodec.BLOCK_SIZE), Arrays.copyOf(actual, 2 * OrdinalBlockCodec.BLOCK_SIZE));
+
+        // The next block crosses the end of requested range: nothing past the range is written or consumed
+        int position = buffer.position();
+        Arrays.fill(actual, '\uFFFF');
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.decode(buffer, actual, 0, 10));
+        assertEquals(position, buffer.position());
+        for (int i = 10; i < LENGTH; i++) {
+            assertEquals('\uFFFF', actual[i], "Ordinal written past requested range");
+        }
+
+        codec.decode(buffer, actual, 0, OrdinalBlockCodec.BLOCK_SIZE);
+        assertArrayEquals(
+            Arrays.copyOfRange(ordinals, 2 * OrdinalBlockCodec.BLOCK_SIZE, 3 * OrdinalBlockCodec.BLOCK_SIZE),
+            Arrays.copyOf(actual, OrdinalBlockCodec.BLOCK_SIZE)
+        );
+    }
+
+    @Test
+    public void testCorruptedBlock() {
+        OrdinalBlockCodec codec = new OrdinalBlockCodec();
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 7, 0, 1, 0, 0 });
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeBlock(buffer, new char[1], 0));
+    }
+
+    private static ByteBuffer doTestRoundTrip(char[] ordinals) {
+        OrdinalBlockCodec codec = new OrdinalBlockCodec();
+
+        ByteBuffer buffer = ByteBuffer.allocate(OrdinalBlockCodec.maxEncodedSize(ordinals.length));
+        int size = codec.encode(ordinals, 0, ordinals.length, buffer);
+        assertEquals(buffer.position(), size);
+        buffer.flip();
+
+        char[] actual = new char[ordinals.length];
+        codec.decode(buffer.duplicate(), actual, 0, actual.length);
+        assertArrayEquals(ordinals, actual);
+
+        return buffer;
+    }
+
+}
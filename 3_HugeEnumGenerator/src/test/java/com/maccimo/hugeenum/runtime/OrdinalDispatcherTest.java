@@ -0,0 +1,45 @@
+package com.maccimo.hugeenum.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrdinalDispatcherTest {
+
+    @Test
+    public void testDispatch() {
+        OrdinalDispatcher<TestEnums.Small, String> dispatcher = OrdinalDispatcher
+            .builder(TestEnums.Small.class, value -> "default " + value)
+            .onRange(TestEnums.Small.BETA, TestEnums.Small.DELTA, value -> "range " + value)
+            .on(TestEnums.Small.GAMMA, value -> "single " + value)
+            .constant(TestEnums.Small.EPSILON, "constant")
+            .build();
+
+        assertEquals("default ALPHA", dispatcher.dispatch(TestEnums.Small.ALPHA));
+        assertEquals("range BETA", dispatcher.dispatch(TestEnums.Small.BETA));
+        assertEquals("single GAMMA", dispatcher.dispatch(TestEnums.Small.GAMMA));
+        assertEquals("range DELTA", dispatcher.dispatch(TestEnums.Small.DELTA));
+        assertEquals("constant", dispatcher.dispatch(TestEnums.Small.EPSILON));
+    }
+
+    @Test
+    public void testFromMap() {
+        OrdinalDispatcher<TestEnums.Small, Integer> dispatcher = OrdinalDispatcher.of(
+            TestEnums.Small.class,
+            Map.of(TestEnums.Small.ALPHA, value -> 1, TestEnums.Small.EPSILON, value -> 5),
+            value -> 0
+        );
+
+        assertEquals(1, dispatcher.dispatch(TestEnums.Small.ALPHA));
+        assertEquals(0, dispatcher.dispatch(TestEnums.Small.GAMMA));
+        assertEquals(5, dispatcher.dispatch(TestEnums.Small.EPSILON));
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> OrdinalDispatcher.builder(TestEnums.Small.class, value -> 0).onRange(TestEnums.Small.GAMMA, TestEnums.Small.ALPHA, value -> 1)
+        );
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.maccimo.hugeenum.runtime;
+
+import com.maccimo.hugeenum.generator.BytesClassLoader;
+import com.maccimo.hugeenum.generator.ExtractMethodHugeEnumGeneratorFactory;
+import com.maccimo.hugeenum.generator.IEnumFeature;
+import com.maccimo.hugeenum.generator.IEnumGeneratorFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestEnums {
+
+    private static final String MEMBER_NAME_FORMAT = "VALUE_%05d";
+
+    private static final IEnumGeneratorFactory GENERATOR_FACTORY = new ExtractMethodHugeEnumGeneratorFactory();
+
+    public static final int HUGE_ENUM_ELEMENT_COUNT = GENERATOR_FACTORY.getDefaultElementCount();
+
+    private static Class<?> hugeEnum;
+
+    public enum Small {
+        ALPHA, BETA, GAMMA, DELTA, EPSILON
+    }
+
+    // Raw type is returned intentionally: generated enum type can not be named in test code.
+    @SuppressWarnings("rawtypes")
+    public static synchronized Class hugeEnum() {
+        if (hugeEnum == null) {
+            hugeEnum = generate("TestHugeEnum", generateElementNames(HUGE_ENUM_ELEMENT_COUNT));
+        }
+
+        return hugeEnum;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static Class generate(String enumName, List<String> elementNames, IEnumFeature... features) {
+        byte[] classBytes = GENERATOR_FACTORY.create(enumName, elementNames, List.of(features)).generate();
+
+        return new BytesClassLoader().defineClass(enumName, classBytes);
+    }
+
+    public static List<String> generateElementNames(int count) {
+        return IntStream
+            .range(1, count + 1)
+            .mapToObj(number -> String.format(MEMBER_NAME_FORMAT, number))
+            .collect(Collectors.toList());
+    }
+
+}